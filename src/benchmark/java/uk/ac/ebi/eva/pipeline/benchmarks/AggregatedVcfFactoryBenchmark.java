@@ -0,0 +1,108 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.ac.ebi.eva.commons.models.data.Variant;
+import uk.ac.ebi.eva.pipeline.io.mappers.VariantAggregatedVcfFactory;
+import uk.ac.ebi.eva.pipeline.io.mappers.VariantVcfEVSFactory;
+import uk.ac.ebi.eva.pipeline.io.mappers.VariantVcfExacFactory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static uk.ac.ebi.eva.pipeline.benchmarks.BenchmarkInputs.FILE_ID;
+import static uk.ac.ebi.eva.pipeline.benchmarks.BenchmarkInputs.STUDY_ID;
+
+/**
+ * Parsing of aggregated VCF lines with the generic, EVS and ExAC factories. These lines have no sample columns, so
+ * the number of samples only changes the value of the counts.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AggregatedVcfFactoryBenchmark {
+
+    private static final int LINES = 64;
+
+    private static final int SAMPLES = 1000;
+
+    @Param({"1", "2", "4"})
+    private int alleles;
+
+    private VariantAggregatedVcfFactory aggregatedFactory;
+
+    private VariantVcfEVSFactory evsFactory;
+
+    private VariantVcfExacFactory exacFactory;
+
+    private String[] aggregatedLines;
+
+    private String[] evsLines;
+
+    private String[] exacLines;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        aggregatedFactory = new VariantAggregatedVcfFactory();
+        evsFactory = new VariantVcfEVSFactory();
+        exacFactory = new VariantVcfExacFactory();
+
+        BenchmarkInputs inputs = new BenchmarkInputs(SAMPLES, alleles);
+        aggregatedLines = new String[LINES];
+        evsLines = new String[LINES];
+        exacLines = new String[LINES];
+        for (int i = 0; i < LINES; i++) {
+            aggregatedLines[i] = inputs.aggregatedVcfLine(i);
+            evsLines[i] = inputs.evsVcfLine(i);
+            exacLines[i] = inputs.exacVcfLine(i);
+        }
+    }
+
+    @Benchmark
+    public List<Variant> aggregated() {
+        next = (next + 1) % LINES;
+        return aggregatedFactory.create(FILE_ID, STUDY_ID, aggregatedLines[next]);
+    }
+
+    @Benchmark
+    public List<Variant> evs() {
+        next = (next + 1) % LINES;
+        return evsFactory.create(FILE_ID, STUDY_ID, evsLines[next]);
+    }
+
+    @Benchmark
+    public List<Variant> exac() {
+        next = (next + 1) % LINES;
+        return exacFactory.create(FILE_ID, STUDY_ID, exacLines[next]);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.ac.ebi.eva.commons.models.mongo.entity.Annotation;
+import uk.ac.ebi.eva.pipeline.io.mappers.AnnotationLineMapper;
+import uk.ac.ebi.eva.test.data.VepOutputContent;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of VEP output lines, with and without transcripts, frequencies and protein substitution scores.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnnotationLineMapperBenchmark {
+
+    private AnnotationLineMapper lineMapper;
+
+    private String[] lines;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        lineMapper = new AnnotationLineMapper("78", "78");
+        lines = (VepOutputContent.vepOutputContentWithExtraFields + VepOutputContent.vepOutputContent).split("\n");
+    }
+
+    @Benchmark
+    public Annotation mapLine() {
+        next = (next + 1) % lines.length;
+        return lineMapper.mapLine(lines[next], next);
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Synthetic records for the benchmarks. The generator is seeded, so every run of a benchmark, and every release it is
+ * run against, parses exactly the same input.
+ * <p>
+ * Genotypes follow the shape of real cohorts: most samples are homozygous for the reference, a few carry one of the
+ * alternates and a few are missing.
+ */
+class BenchmarkInputs {
+
+    static final String FILE_ID = "benchmark-file";
+
+    static final String STUDY_ID = "benchmark-study";
+
+    static final String CHROMOSOME = "20";
+
+    private static final long SEED = 42;
+
+    private static final String BASES = "ACGT";
+
+    private static final double REFERENCE_RATE = 0.8;
+
+    private static final double MISSING_RATE = 0.01;
+
+    private final Random random;
+
+    private final int samples;
+
+    private final int alleles;
+
+    /**
+     * @param samples number of genotype columns in each record
+     * @param alleles number of alternate alleles in each record
+     */
+    BenchmarkInputs(int samples, int alleles) {
+        this.random = new Random(SEED);
+        this.samples = samples;
+        this.alleles = alleles;
+    }
+
+    String reference() {
+        return String.valueOf(BASES.charAt(0));
+    }
+
+    /**
+     * SNVs for the first three alternates, and insertions of growing length after that.
+     */
+    String[] alternates() {
+        String[] alternates = new String[alleles];
+        for (int i = 0; i < alleles; i++) {
+            alternates[i] = i < 3 ? String.valueOf(BASES.charAt(i + 1)) : reference() + repeat('C', i - 2);
+        }
+        return alternates;
+    }
+
+    int position(int index) {
+        return 60000 + index * 100;
+    }
+
+    String genotype() {
+        double draw = random.nextDouble();
+        if (draw < MISSING_RATE) {
+            return "./.";
+        } else if (draw < REFERENCE_RATE) {
+            return "0/0";
+        }
+        int first = random.nextInt(alleles + 1);
+        int second = 1 + random.nextInt(alleles);
+        return Math.min(first, second) + "/" + Math.max(first, second);
+    }
+
+    List<Map<String, String>> samplesData() {
+        List<Map<String, String>> samplesData = new ArrayList<>(samples);
+        for (int i = 0; i < samples; i++) {
+            Map<String, String> sampleData = new HashMap<>();
+            sampleData.put("GT", genotype());
+            sampleData.put("DP", String.valueOf(random.nextInt(60)));
+            samplesData.add(sampleData);
+        }
+        return samplesData;
+    }
+
+    String genotypedVcfLine(int index) {
+        StringBuilder line = vcfLineStart(index);
+        line.append("\tAC=").append(alleleCounts()).append(";AN=").append(2 * samples).append(";DP=")
+            .append(random.nextInt(10000)).append("\tGT:DP");
+        for (int i = 0; i < samples; i++) {
+            line.append('\t').append(genotype()).append(':').append(random.nextInt(60));
+        }
+        return line.toString();
+    }
+
+    String aggregatedVcfLine(int index) {
+        StringBuilder line = vcfLineStart(index);
+        line.append("\tAN=").append(2 * samples).append(";AC=").append(alleleCounts()).append(";AF=")
+            .append(joined(alleles, () -> frequency(random.nextDouble() / alleles)));
+        return line.toString();
+    }
+
+    /**
+     * Exome Variant Server counts list the alternates first and the reference last.
+     */
+    String evsVcfLine(int index) {
+        StringBuilder line = vcfLineStart(index);
+        line.append("\tDBSNP=.;EA_AC=").append(alleleCounts()).append(',').append(samples)
+            .append(";AA_AC=").append(alleleCounts()).append(',').append(samples)
+            .append(";TAC=").append(alleleCounts()).append(',').append(2 * samples)
+            .append(";MAF=").append(joined(3, () -> frequency(random.nextDouble() * 10)))
+            .append(";DP=").append(random.nextInt(100)).append(";FG=intergenic");
+        return line.toString();
+    }
+
+    /**
+     * ExAC lists one heterozygous count for every pair of different alleles and one homozygous count for every
+     * alternate.
+     */
+    String exacVcfLine(int index) {
+        int heterozygousGenotypes = alleles * (alleles + 1) / 2;
+        StringBuilder line = vcfLineStart(index);
+        line.append("\tAC=").append(alleleCounts()).append(";AN=").append(2 * samples)
+            .append(";AC_Adj=").append(alleleCounts()).append(";AN_Adj=").append(2 * samples)
+            .append(";AC_Het=").append(joined(heterozygousGenotypes, () -> String.valueOf(random.nextInt(4))))
+            .append(";AC_Hom=").append(joined(alleles, () -> String.valueOf(random.nextInt(2))));
+        for (String population : new String[]{"AFR", "NFE", "SAS"}) {
+            line.append(";AC_").append(population).append('=').append(alleleCounts())
+                .append(";AN_").append(population).append('=').append(samples)
+                .append(";Het_").append(population).append('=')
+                .append(joined(heterozygousGenotypes, () -> String.valueOf(random.nextInt(2))))
+                .append(";Hom_").append(population).append('=')
+                .append(joined(alleles, () -> String.valueOf(random.nextInt(2))));
+        }
+        return line.toString();
+    }
+
+    private StringBuilder vcfLineStart(int index) {
+        return new StringBuilder(CHROMOSOME).append('\t').append(position(index)).append("\t.\t").append(reference())
+                                            .append('\t').append(String.join(",", alternates()))
+                                            .append("\t100\tPASS");
+    }
+
+    private String alleleCounts() {
+        return joined(alleles, () -> String.valueOf(random.nextInt(5)));
+    }
+
+    private static String repeat(char base, int times) {
+        char[] bases = new char[times];
+        Arrays.fill(bases, base);
+        return new String(bases);
+    }
+
+    private static String frequency(double value) {
+        return String.format(Locale.ROOT, "%.4f", value);
+    }
+
+    private static String joined(int count, Supplier<String> value) {
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                joined.append(',');
+            }
+            joined.append(value.get());
+        }
+        return joined.toString();
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line options of the benchmark tools, in the same --name=value form as the pipeline ones.
+ */
+class BenchmarkOptions {
+
+    private BenchmarkOptions() {
+    }
+
+    /**
+     * @return the value of every --name=value argument, by name
+     */
+    static Map<String, String> parse(String[] args) {
+        return parse(args, "");
+    }
+
+    /**
+     * @return the value of the --prefix.name=value arguments, by name without the prefix
+     */
+    static Map<String, String> parse(String[] args, String prefix) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--" + prefix) && arg.contains("=")) {
+                int separator = arg.indexOf('=');
+                options.put(arg.substring(2 + prefix.length(), separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+
+    /**
+     * @return the arguments that don't start with --prefix
+     */
+    static List<String> others(String[] args, String prefix) {
+        List<String> others = new ArrayList<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--" + prefix)) {
+                others.add(arg);
+            }
+        }
+        return others;
+    }
+}
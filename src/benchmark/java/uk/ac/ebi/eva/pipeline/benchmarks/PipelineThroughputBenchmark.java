@@ -0,0 +1,258 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import uk.ac.ebi.eva.pipeline.Application;
+import uk.ac.ebi.eva.pipeline.configuration.BeanNames;
+import uk.ac.ebi.eva.pipeline.listeners.StepMetricsListener;
+import uk.ac.ebi.eva.pipeline.parameters.JobParametersNames;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Load test of a whole pipeline run: generates a synthetic VCF, loads it with {@link BeanNames#GENOTYPED_VCF_JOB},
+ * annotates it with {@link BeanNames#ANNOTATE_VARIANTS_JOB} and a mock VEP, and reports the throughput of every step
+ * from the metrics that the jobs write.
+ * <p>
+ * The results are written to throughput.json in the benchmark directory. If the results of a previous run are given
+ * as a baseline, the run fails when the throughput of any step falls below the baseline by more than the threshold.
+ * <p>
+ * Options of the benchmark are given as --benchmark.name=value; any other argument is passed to the pipeline, which
+ * needs at least the MongoDB connection and the OpenCGA path, e.g.:
+ * <pre>
+ * java -cp ... uk.ac.ebi.eva.pipeline.benchmarks.PipelineThroughputBenchmark --benchmark.variants=1000000 \
+ *     --benchmark.samples=100 --benchmark.baseline=/path/to/throughput.json --benchmark.threshold=0.1 \
+ *     --spring.config.location=file:examples/application.properties
+ * </pre>
+ * Each run loads into a new database unless one is given.
+ */
+public class PipelineThroughputBenchmark {
+
+    static final String PREFIX = "benchmark.";
+
+    static final String RESULTS_FILE = "throughput.json";
+
+    static final String ITEMS_PER_SECOND = "itemsPerSecond";
+
+    static final String ELAPSED_SECONDS = "elapsedSeconds";
+
+    private static final String MOCK_VEP = "/mockvep_synthetic.pl";
+
+    private static final String STUDY_ID = "benchmark-study";
+
+    private static final String FILE_ID = "benchmark-file";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final Path dir;
+
+    private final int variants;
+
+    private final int samples;
+
+    private final List<String> pipelineArgs;
+
+    PipelineThroughputBenchmark(Path dir, int variants, int samples, List<String> pipelineArgs) {
+        this.dir = dir;
+        this.variants = variants;
+        this.samples = samples;
+        this.pipelineArgs = pipelineArgs;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = BenchmarkOptions.parse(args, PREFIX);
+        Path dir = Paths.get(options.getOrDefault("dir", "target/throughput")).toAbsolutePath();
+        int variants = Integer.parseInt(options.getOrDefault("variants", "100000"));
+        int samples = Integer.parseInt(options.getOrDefault("samples", "100"));
+        double threshold = Double.parseDouble(options.getOrDefault("threshold", "0.1"));
+
+        Path vcf = dir.resolve("synthetic.vcf.gz");
+        new SyntheticVcfGenerator(variants, samples)
+                .setMultiallelicRate(Double.parseDouble(options.getOrDefault("multiallelic-rate", "0.05")))
+                .setInfoFields(Integer.parseInt(options.getOrDefault("info-fields", "5")))
+                .setBgzip(Boolean.parseBoolean(options.getOrDefault("bgzip", "true")))
+                .write(vcf);
+
+        PipelineThroughputBenchmark benchmark = new PipelineThroughputBenchmark(
+                dir, variants, samples, BenchmarkOptions.others(args, PREFIX));
+        Map<String, Object> results = benchmark.run(vcf);
+        Path resultsFile = dir.resolve(RESULTS_FILE);
+        objectMapper.writeValue(resultsFile.toFile(), results);
+        System.out.println(objectMapper.writeValueAsString(results));
+        System.out.println("Results written to " + resultsFile);
+
+        String baseline = options.get("baseline");
+        if (baseline != null) {
+            List<String> regressions = findRegressions(readJobs(objectMapper.readValue(new File(baseline), Map.class)),
+                                                       readJobs(results), threshold);
+            if (!regressions.isEmpty()) {
+                regressions.forEach(System.err::println);
+                System.exit(1);
+            }
+            System.out.println("No step is more than " + threshold * 100 + "% slower than in " + baseline);
+        }
+    }
+
+    Map<String, Object> run(Path vcf) throws Exception {
+        Path fasta = createFile(dir.resolve("sequence.fa"));
+        Path vepCache = Files.createDirectories(dir.resolve("vep-cache"));
+        String database = "eva_benchmark_" + System.currentTimeMillis();
+        String mockVep = new File(PipelineThroughputBenchmark.class.getResource(MOCK_VEP).getFile())
+                .getAbsolutePath();
+
+        Map<String, String> common = new LinkedHashMap<>();
+        common.put(JobParametersNames.DB_NAME, database);
+        common.put(JobParametersNames.INPUT_VCF_ID, FILE_ID);
+        common.put(JobParametersNames.INPUT_STUDY_ID, STUDY_ID);
+        common.put(JobParametersNames.INPUT_FASTA, fasta.toString());
+        common.put(JobParametersNames.OUTPUT_DIR_ANNOTATION,
+                   Files.createDirectories(dir.resolve("annotation")).toString());
+        common.put(JobParametersNames.APP_VEP_PATH, mockVep);
+        common.put(JobParametersNames.APP_VEP_VERSION, "78");
+        common.put(JobParametersNames.APP_VEP_CACHE_PATH, vepCache.toString());
+        common.put(JobParametersNames.APP_VEP_CACHE_VERSION, "78");
+        common.put(JobParametersNames.APP_VEP_CACHE_SPECIES, "homo_sapiens");
+        common.put(JobParametersNames.APP_VEP_NUMFORKS, "4");
+
+        Map<String, String> load = new LinkedHashMap<>(common);
+        load.put(JobParametersNames.INPUT_VCF, vcf.toString());
+        load.put(JobParametersNames.INPUT_VCF_AGGREGATION, "NONE");
+        load.put(JobParametersNames.INPUT_STUDY_NAME, "Synthetic benchmark study");
+        load.put(JobParametersNames.INPUT_STUDY_TYPE, "COLLECTION");
+        load.put(JobParametersNames.OUTPUT_DIR, Files.createDirectories(dir.resolve("output")).toString());
+        load.put(JobParametersNames.OUTPUT_DIR_STATISTICS,
+                 Files.createDirectories(dir.resolve("statistics")).toString());
+        load.put(JobParametersNames.ANNOTATION_SKIP, "true");
+        load.put(JobParametersNames.STATISTICS_SKIP, "false");
+
+        Map<String, Object> jobs = new LinkedHashMap<>();
+        jobs.put(BeanNames.GENOTYPED_VCF_JOB, runJob(BeanNames.GENOTYPED_VCF_JOB, load));
+        jobs.put(BeanNames.ANNOTATE_VARIANTS_JOB, runJob(BeanNames.ANNOTATE_VARIANTS_JOB, common));
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("variants", variants);
+        results.put("samples", samples);
+        results.put("jobs", jobs);
+        return results;
+    }
+
+    private Map<String, Object> runJob(String jobName, Map<String, String> parameters) throws IOException {
+        Path metricsDir = dir.resolve("metrics").resolve(jobName);
+        Map<String, String> jobParameters = new LinkedHashMap<>(parameters);
+        jobParameters.put("spring.batch.job.names", jobName);
+        jobParameters.put(JobParametersNames.CONFIG_METRICS_DIR, metricsDir.toString());
+
+        List<String> args = new ArrayList<>(pipelineArgs);
+        jobParameters.forEach((name, value) -> {
+            if (pipelineArgs.stream().noneMatch(arg -> arg.startsWith("--" + name + "="))) {
+                args.add("--" + name + "=" + value);
+            }
+        });
+
+        ConfigurableApplicationContext context = SpringApplication.run(Application.class,
+                                                                       args.toArray(new String[args.size()]));
+        int exitCode = SpringApplication.exit(context);
+        if (exitCode != 0) {
+            throw new IllegalStateException("Job " + jobName + " finished with exit code " + exitCode);
+        }
+        return getStepThroughputs(readMetrics(metricsDir));
+    }
+
+    private static Path createFile(Path path) throws IOException {
+        if (Files.notExists(path)) {
+            Files.createDirectories(path.getParent());
+            Files.createFile(path);
+        }
+        return path;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> readMetrics(Path metricsDir) throws IOException {
+        try (Stream<Path> files = Files.list(metricsDir)) {
+            List<Path> metricsFiles = files.filter(file -> file.toString().endsWith("-metrics.json"))
+                                           .collect(Collectors.toList());
+            if (metricsFiles.size() != 1) {
+                throw new IllegalStateException("Expected the metrics of one job in " + metricsDir + ", found "
+                                                        + metricsFiles.size());
+            }
+            return objectMapper.readValue(metricsFiles.get(0).toFile(), Map.class);
+        }
+    }
+
+    /**
+     * Throughput of the steps that processed items. Tasklet steps have no item counters, so only their elapsed time
+     * is reported.
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> getStepThroughputs(Map<String, Object> jobMetrics) {
+        Map<String, Object> throughputs = new LinkedHashMap<>();
+        Map<String, Map<String, Object>> steps = (Map<String, Map<String, Object>>) jobMetrics.get("steps");
+        steps.forEach((step, stepMetrics) -> {
+            Map<String, Object> throughput = new LinkedHashMap<>();
+            double elapsedSeconds = ((Number) stepMetrics.get(ELAPSED_SECONDS)).doubleValue();
+            throughput.put(ELAPSED_SECONDS, elapsedSeconds);
+            Map<String, Number> counters = (Map<String, Number>) stepMetrics.get("counters");
+            Number itemsWritten = counters.get(StepMetricsListener.ITEMS_WRITTEN);
+            if (itemsWritten != null && elapsedSeconds > 0) {
+                throughput.put(ITEMS_PER_SECOND, itemsWritten.doubleValue() / elapsedSeconds);
+            }
+            throughputs.put(step, throughput);
+        });
+        return throughputs;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Map<String, Map<String, Number>>> readJobs(Map<String, Object> results) {
+        return (Map<String, Map<String, Map<String, Number>>>) results.get("jobs");
+    }
+
+    /**
+     * @return a description of every step whose throughput is lower than the baseline one by more than the
+     * threshold, as a fraction of the baseline
+     */
+    static List<String> findRegressions(Map<String, Map<String, Map<String, Number>>> baseline,
+                                        Map<String, Map<String, Map<String, Number>>> current, double threshold) {
+        List<String> regressions = new ArrayList<>();
+        baseline.forEach((job, baselineSteps) -> baselineSteps.forEach((step, baselineStep) -> {
+            Number baselineThroughput = baselineStep.get(ITEMS_PER_SECOND);
+            Map<String, Number> currentStep = current.getOrDefault(job, new LinkedHashMap<>()).get(step);
+            if (baselineThroughput == null || currentStep == null || currentStep.get(ITEMS_PER_SECOND) == null) {
+                return;
+            }
+            double currentThroughput = currentStep.get(ITEMS_PER_SECOND).doubleValue();
+            if (currentThroughput < baselineThroughput.doubleValue() * (1 - threshold)) {
+                regressions.add(String.format("%s %s: %.1f items/s, baseline %.1f items/s", job, step,
+                                              currentThroughput, baselineThroughput.doubleValue()));
+            }
+        }));
+        return regressions;
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.benchmarks;
+
+import uk.ac.ebi.eva.pipeline.io.BgzipOutputStream;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes sorted VCF files of any size, to load-test the pipeline with inputs that look like real ones. The content
+ * only depends on the options and the seed, so two runs with the same options write the same file.
+ * <p>
+ * Genotyped files get one column per sample; aggregated files get allele counts and frequencies in the INFO column
+ * instead. Outputs whose name ends in ".gz" are compressed, with plain gzip or, if requested, with the blocked gzip
+ * that bgzip writes.
+ * <p>
+ * It can also be run from the command line, e.g.:
+ * <pre>
+ * java -cp ... uk.ac.ebi.eva.pipeline.benchmarks.SyntheticVcfGenerator --output=/tmp/synthetic.vcf.gz \
+ *     --variants=1000000 --samples=2504 --multiallelic-rate=0.05 --info-fields=10 --bgzip=true
+ * </pre>
+ */
+public class SyntheticVcfGenerator {
+
+    public static final String CHROMOSOME = "20";
+
+    private static final String BASES = "ACGT";
+
+    private static final int MAX_POSITION_STEP = 200;
+
+    private static final double REFERENCE_RATE = 0.8;
+
+    private static final double MISSING_RATE = 0.01;
+
+    private final int variants;
+
+    private final int samples;
+
+    private double multiallelicRate = 0.05;
+
+    private int infoFields = 5;
+
+    private boolean aggregated = false;
+
+    private boolean bgzip = false;
+
+    private long seed = 42;
+
+    public SyntheticVcfGenerator(int variants, int samples) {
+        this.variants = variants;
+        this.samples = samples;
+    }
+
+    /**
+     * @param multiallelicRate fraction of the records that have two or three alternate alleles
+     */
+    public SyntheticVcfGenerator setMultiallelicRate(double multiallelicRate) {
+        this.multiallelicRate = multiallelicRate;
+        return this;
+    }
+
+    /**
+     * @param infoFields number of INFO fields in each record, on top of those the pipeline reads
+     */
+    public SyntheticVcfGenerator setInfoFields(int infoFields) {
+        this.infoFields = infoFields;
+        return this;
+    }
+
+    public SyntheticVcfGenerator setAggregated(boolean aggregated) {
+        this.aggregated = aggregated;
+        return this;
+    }
+
+    public SyntheticVcfGenerator setBgzip(boolean bgzip) {
+        this.bgzip = bgzip;
+        return this;
+    }
+
+    public SyntheticVcfGenerator setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public void write(Path output) throws IOException {
+        Path parent = output.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(open(output), StandardCharsets.UTF_8),
+                                                1 << 16)) {
+            write(writer);
+        }
+    }
+
+    private OutputStream open(Path output) throws IOException {
+        OutputStream stream = Files.newOutputStream(output);
+        if (!output.getFileName().toString().endsWith(".gz")) {
+            return stream;
+        }
+        return bgzip ? new BgzipOutputStream(stream) : new GZIPOutputStream(stream, 1 << 16);
+    }
+
+    void write(Writer writer) throws IOException {
+        Random random = new Random(seed);
+        writeHeader(writer);
+        int position = 0;
+        for (int i = 0; i < variants; i++) {
+            position += 1 + random.nextInt(MAX_POSITION_STEP);
+            writeRecord(writer, random, position);
+        }
+    }
+
+    private void writeHeader(Writer writer) throws IOException {
+        writer.write("##fileformat=VCFv4.1\n");
+        writer.write("##contig=<ID=" + CHROMOSOME + ",length=64444167>\n");
+        writer.write("##INFO=<ID=AC,Number=A,Type=Integer,Description=\"Allele count\">\n");
+        writer.write("##INFO=<ID=AN,Number=1,Type=Integer,Description=\"Total number of alleles\">\n");
+        if (aggregated) {
+            writer.write("##INFO=<ID=AF,Number=A,Type=Float,Description=\"Allele frequency\">\n");
+        }
+        for (int i = 0; i < infoFields; i++) {
+            writer.write("##INFO=<ID=X" + i + ",Number=1,Type=Integer,Description=\"Synthetic field\">\n");
+        }
+        if (!aggregated) {
+            writer.write("##FORMAT=<ID=GT,Number=1,Type=String,Description=\"Genotype\">\n");
+        }
+        writer.write("#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO");
+        if (!aggregated) {
+            writer.write("\tFORMAT");
+            for (int i = 0; i < samples; i++) {
+                writer.write("\tS" + i);
+            }
+        }
+        writer.write('\n');
+    }
+
+    private void writeRecord(Writer writer, Random random, int position) throws IOException {
+        char reference = BASES.charAt(random.nextInt(BASES.length()));
+        int alternates = random.nextDouble() < multiallelicRate ? 2 + random.nextInt(2) : 1;
+
+        // genotypes are drawn first, so that the counts in INFO match them
+        int[] alleleCounts = new int[alternates + 1];
+        String[] genotypes = new String[samples];
+        for (int i = 0; i < samples; i++) {
+            genotypes[i] = genotype(random, alternates, alleleCounts);
+        }
+        int alleleNumber = 0;
+        for (int count : alleleCounts) {
+            alleleNumber += count;
+        }
+
+        StringBuilder line = new StringBuilder(64 + samples * 4);
+        line.append(CHROMOSOME).append('\t').append(position).append("\t.\t").append(reference).append('\t');
+        for (int i = 0, added = 0; added < alternates; i++) {
+            char alternate = BASES.charAt(i);
+            if (alternate != reference) {
+                line.append(added > 0 ? "," : "").append(alternate);
+                added++;
+            }
+        }
+        line.append('\t').append(random.nextInt(1000)).append("\tPASS\tAC=");
+        appendCounts(line, alleleCounts);
+        line.append(";AN=").append(alleleNumber);
+        if (aggregated) {
+            line.append(";AF=");
+            for (int i = 1; i < alleleCounts.length; i++) {
+                double frequency = alleleNumber > 0 ? (double) alleleCounts[i] / alleleNumber : 0;
+                line.append(i > 1 ? "," : "").append(String.format(Locale.ROOT, "%.4f", frequency));
+            }
+        }
+        for (int i = 0; i < infoFields; i++) {
+            line.append(";X").append(i).append('=').append(random.nextInt(100000));
+        }
+        if (!aggregated) {
+            line.append("\tGT");
+            for (String genotype : genotypes) {
+                line.append('\t').append(genotype);
+            }
+        }
+        writer.write(line.append('\n').toString());
+    }
+
+    private static void appendCounts(StringBuilder line, int[] alleleCounts) {
+        for (int i = 1; i < alleleCounts.length; i++) {
+            line.append(i > 1 ? "," : "").append(alleleCounts[i]);
+        }
+    }
+
+    private static String genotype(Random random, int alternates, int[] alleleCounts) {
+        double draw = random.nextDouble();
+        if (draw < MISSING_RATE) {
+            return "./.";
+        } else if (draw < REFERENCE_RATE) {
+            alleleCounts[0] += 2;
+            return "0/0";
+        }
+        int first = random.nextInt(alternates + 1);
+        int second = 1 + random.nextInt(alternates);
+        alleleCounts[first]++;
+        alleleCounts[second]++;
+        return Math.min(first, second) + "/" + Math.max(first, second);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = BenchmarkOptions.parse(args);
+        SyntheticVcfGenerator generator = new SyntheticVcfGenerator(
+                Integer.parseInt(options.getOrDefault("variants", "100000")),
+                Integer.parseInt(options.getOrDefault("samples", "100")))
+                .setMultiallelicRate(Double.parseDouble(options.getOrDefault("multiallelic-rate", "0.05")))
+                .setInfoFields(Integer.parseInt(options.getOrDefault("info-fields", "5")))
+                .setAggregated(Boolean.parseBoolean(options.getOrDefault("aggregated", "false")))
+                .setBgzip(Boolean.parseBoolean(options.getOrDefault("bgzip", "false")))
+                .setSeed(Long.parseLong(options.getOrDefault("seed", "42")));
+        generator.write(Paths.get(options.getOrDefault("output", "synthetic.vcf.gz")));
+    }
+}
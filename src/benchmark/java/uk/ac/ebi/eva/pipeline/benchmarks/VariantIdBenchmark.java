@@ -0,0 +1,67 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.ac.ebi.eva.commons.models.mongo.entity.VariantDocument;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building of the document ids. Alleles of 50 bases or more are replaced by their SHA-1, so the allele length is the
+ * parameter that matters here.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VariantIdBenchmark {
+
+    @Param({"1", "10", "49", "50", "1000"})
+    private int alleleLength;
+
+    private String reference;
+
+    private String alternate;
+
+    @Setup
+    public void setUp() {
+        char[] bases = new char[alleleLength];
+        Arrays.fill(bases, 'A');
+        reference = new String(bases);
+        bases[bases.length - 1] = 'C';
+        alternate = new String(bases);
+    }
+
+    @Benchmark
+    public String buildVariantId() {
+        return VariantDocument.buildVariantId(BenchmarkInputs.CHROMOSOME, 60000, reference, alternate);
+    }
+}
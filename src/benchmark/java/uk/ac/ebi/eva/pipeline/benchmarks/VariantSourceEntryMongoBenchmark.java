@@ -0,0 +1,75 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.VariantSourceEntryMongo;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static uk.ac.ebi.eva.pipeline.benchmarks.BenchmarkInputs.FILE_ID;
+import static uk.ac.ebi.eva.pipeline.benchmarks.BenchmarkInputs.STUDY_ID;
+
+/**
+ * Grouping of the samples by genotype when a file subdocument is built; most of the constructor time goes there.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VariantSourceEntryMongoBenchmark {
+
+    @Param({"1", "100", "1000", "10000"})
+    private int samples;
+
+    @Param({"1", "2", "4"})
+    private int alleles;
+
+    private List<Map<String, String>> samplesData;
+
+    private String[] secondaryAlternates;
+
+    @Setup
+    public void setUp() {
+        BenchmarkInputs inputs = new BenchmarkInputs(samples, alleles);
+        samplesData = inputs.samplesData();
+        String[] alternates = inputs.alternates();
+        secondaryAlternates = new String[alternates.length - 1];
+        System.arraycopy(alternates, 1, secondaryAlternates, 0, secondaryAlternates.length);
+    }
+
+    @Benchmark
+    public VariantSourceEntryMongo buildSampleData() {
+        return new VariantSourceEntryMongo(FILE_ID, STUDY_ID, secondaryAlternates, Collections.emptyMap(), "GT:DP",
+                                           samplesData);
+    }
+}
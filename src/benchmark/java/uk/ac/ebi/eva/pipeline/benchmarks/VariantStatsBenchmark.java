@@ -0,0 +1,72 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.ac.ebi.eva.commons.models.data.Variant;
+import uk.ac.ebi.eva.commons.models.data.VariantStats;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calculation of the statistics of a variant from the genotypes of its samples, without a pedigree.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VariantStatsBenchmark {
+
+    @Param({"1", "100", "1000", "10000"})
+    private int samples;
+
+    @Param({"1", "2", "4"})
+    private int alleles;
+
+    private Variant variant;
+
+    private List<Map<String, String>> samplesData;
+
+    @Setup
+    public void setUp() {
+        BenchmarkInputs inputs = new BenchmarkInputs(samples, alleles);
+        int position = inputs.position(0);
+        variant = new Variant(BenchmarkInputs.CHROMOSOME, position, position, inputs.reference(),
+                              inputs.alternates()[0]);
+        samplesData = inputs.samplesData();
+    }
+
+    @Benchmark
+    public VariantStats calculate() {
+        return new VariantStats(variant).calculate(samplesData, Collections.emptyMap(), null);
+    }
+}
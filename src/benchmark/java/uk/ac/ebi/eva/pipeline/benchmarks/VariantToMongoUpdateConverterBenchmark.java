@@ -0,0 +1,100 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mongodb.DBObject;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import uk.ac.ebi.eva.commons.models.data.Variant;
+import uk.ac.ebi.eva.commons.models.data.VariantStats;
+import uk.ac.ebi.eva.pipeline.configuration.MongoConfiguration;
+import uk.ac.ebi.eva.pipeline.io.mappers.VariantVcfFactory;
+import uk.ac.ebi.eva.pipeline.io.writers.VariantToMongoUpdateConverter;
+import uk.ac.ebi.eva.test.utils.NoDbRefResolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static uk.ac.ebi.eva.pipeline.benchmarks.BenchmarkInputs.FILE_ID;
+import static uk.ac.ebi.eva.pipeline.benchmarks.BenchmarkInputs.STUDY_ID;
+
+/**
+ * Conversion of parsed variants into the upserts that the variant writer sends to MongoDB, with the same converter
+ * customizations as the pipeline but without a database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VariantToMongoUpdateConverterBenchmark {
+
+    private static final int LINES = 64;
+
+    @Param({"1", "100", "1000"})
+    private int samples;
+
+    @Param({"1", "2", "4"})
+    private int alleles;
+
+    @Param({"true", "false"})
+    private boolean includeStats;
+
+    private VariantToMongoUpdateConverter converter;
+
+    private List<Variant> variants;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        converter = new VariantToMongoUpdateConverter(
+                MongoConfiguration.getMappingMongoConverter(new NoDbRefResolver(), new MongoMappingContext()),
+                includeStats, true);
+
+        BenchmarkInputs inputs = new BenchmarkInputs(samples, alleles);
+        VariantVcfFactory factory = new VariantVcfFactory();
+        variants = new ArrayList<>();
+        for (int i = 0; i < LINES; i++) {
+            for (Variant variant : factory.create(FILE_ID, STUDY_ID, inputs.genotypedVcfLine(i))) {
+                variant.getSourceEntry(FILE_ID, STUDY_ID).setCohortStats("ALL", new VariantStats(variant).calculate(
+                        variant.getSourceEntry(FILE_ID, STUDY_ID).getSamplesData(),
+                        variant.getSourceEntry(FILE_ID, STUDY_ID).getAttributes(), null));
+                variants.add(variant);
+            }
+        }
+    }
+
+    @Benchmark
+    public DBObject convert() {
+        next = (next + 1) % variants.size();
+        return converter.convert(variants.get(next));
+    }
+}
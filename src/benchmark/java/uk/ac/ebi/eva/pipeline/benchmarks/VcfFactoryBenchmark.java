@@ -0,0 +1,79 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.ac.ebi.eva.commons.models.data.Variant;
+import uk.ac.ebi.eva.pipeline.io.mappers.VariantVcfFactory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static uk.ac.ebi.eva.pipeline.benchmarks.BenchmarkInputs.FILE_ID;
+import static uk.ac.ebi.eva.pipeline.benchmarks.BenchmarkInputs.STUDY_ID;
+
+/**
+ * Parsing of genotyped VCF lines into {@link Variant}s, one per alternate allele, including the sample columns.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VcfFactoryBenchmark {
+
+    private static final int LINES = 64;
+
+    @Param({"1", "100", "1000"})
+    private int samples;
+
+    @Param({"1", "2", "4"})
+    private int alleles;
+
+    private VariantVcfFactory factory;
+
+    private String[] lines;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        factory = new VariantVcfFactory();
+        BenchmarkInputs inputs = new BenchmarkInputs(samples, alleles);
+        lines = new String[LINES];
+        for (int i = 0; i < LINES; i++) {
+            lines[i] = inputs.genotypedVcfLine(i);
+        }
+    }
+
+    @Benchmark
+    public List<Variant> create() {
+        next = (next + 1) % LINES;
+        return factory.create(FILE_ID, STUDY_ID, lines[next]);
+    }
+}
@@ -0,0 +1,63 @@
+use warnings;
+use strict;
+use IO::File;
+
+# Annotates every variant it receives, in the VEP input format the pipeline writes, with an intergenic
+# consequence, and one in three variants also with a transcript. Unlike mockvep.pl its output matches any input,
+# so it can be used with synthetic VCFs of any size.
+
+use Getopt::Long;
+my $file = "STDOUT";
+my $batchSize = 1000;
+Getopt::Long::Configure("pass_through");
+my $result = GetOptions (
+        "o=s" => \$file, # -o string
+        "buffer_size=i" => \$batchSize # -b integer
+        );
+
+my $fileHandle;
+if  ($file eq "STDOUT") {
+    $fileHandle = IO::Handle->new();
+    $fileHandle->fdopen(fileno(STDOUT),"w");
+} else {
+    $fileHandle = new IO::File;
+    $fileHandle->open(">> $file");
+}
+
+print $fileHandle "## ENSEMBL VARIANT EFFECT PREDICTOR v78\n";
+print $fileHandle "## Output produced by mockvep_synthetic.pl\n";
+print $fileHandle "#Uploaded_variation\tLocation\tAllele\tGene\tFeature\tFeature_type\tConsequence\tcDNA_position\tCDS_position\tProtein_position\tAmino_acids\tCodons\tExisting_variation\tExtra\n";
+
+my @buffer = ();
+my $count = 0;
+my $line;
+while ($line = <STDIN>) {
+    chomp ($line);
+    my ($chr, $start, $end, $refAlt) = split(/\t/, $line);
+    my ($ref, $alt) = split(/\//, $refAlt);
+    my ($first, $last) = $start <= $end ? ($start, $end) : ($end, $start);
+    my $location = $first == $last ? "$chr:$first" : "$chr:$first-$last";
+    my $id = "${chr}_${start}_${refAlt}";
+
+    push (@buffer, "$id\t$location\t$alt\t-\t-\t-\tintergenic_variant\t-\t-\t-\t-\t-\t-\n");
+    if ($count % 3 == 0) {
+        push (@buffer, "$id\t$location\t$alt\tENSG00000178591\tENST00000608838\tTranscript\tupstream_gene_variant"
+                . "\t-\t-\t-\t-\t-\t-\tDISTANCE=4540;STRAND=1;SYMBOL=DEFB125;SYMBOL_SOURCE=HGNC;HGNC_ID=18105;"
+                . "BIOTYPE=processed_transcript;GMAF=$alt:0.0005;polyphen=possibly_damaging(0.859);"
+                . "sift=tolerated(0.07)\n");
+    }
+    $count++;
+
+    if ($count % $batchSize == 0) {
+        foreach my $bufferLine (@buffer) {
+            print $fileHandle $bufferLine;
+        }
+        @buffer = ();
+        $fileHandle->flush();
+    }
+}
+
+foreach my $bufferLine (@buffer) {
+    print $fileHandle $bufferLine;
+}
+$fileHandle->close();
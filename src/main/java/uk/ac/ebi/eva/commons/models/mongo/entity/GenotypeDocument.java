@@ -0,0 +1,117 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.commons.models.mongo.entity;
+
+import com.mongodb.BasicDBObject;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import uk.ac.ebi.eva.commons.models.data.Variant;
+import uk.ac.ebi.eva.commons.models.data.VariantSourceEntry;
+import uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.SamplesEncoding;
+import uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.VariantAt;
+import uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.VariantSourceEntryMongo;
+
+import static uk.ac.ebi.eva.commons.models.mongo.entity.VariantDocument.AT_FIELD;
+import static uk.ac.ebi.eva.commons.models.mongo.entity.VariantDocument.CHROMOSOME_FIELD;
+import static uk.ac.ebi.eva.commons.models.mongo.entity.VariantDocument.START_FIELD;
+import static uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.VariantSourceEntryMongo.FILEID_FIELD;
+import static uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.VariantSourceEntryMongo.FORMAT_FIELD;
+import static uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.VariantSourceEntryMongo.SAMPLES_FIELD;
+import static uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.VariantSourceEntryMongo.STUDYID_FIELD;
+
+/**
+ * Mongo database representation of the genotypes of a variant in a file, when they are stored in their own
+ * collection instead of in the files of the {@link VariantDocument}. There is one document per variant and file, so
+ * loading a file only inserts documents, and they can be found by variant id or by the same chunk ids as the variants.
+ */
+@Document
+public class GenotypeDocument {
+
+    public final static String VARIANT_ID_FIELD = "vid";
+
+    @Id
+    private String id;
+
+    @Field(VARIANT_ID_FIELD)
+    private String variantId;
+
+    @Field(CHROMOSOME_FIELD)
+    private String chromosome;
+
+    @Field(START_FIELD)
+    private int start;
+
+    @Field(AT_FIELD)
+    private VariantAt at;
+
+    @Field(STUDYID_FIELD)
+    private String studyId;
+
+    @Field(FILEID_FIELD)
+    private String fileId;
+
+    @Field(FORMAT_FIELD)
+    private String format;
+
+    @Field(SAMPLES_FIELD)
+    private BasicDBObject samp;
+
+    GenotypeDocument() {
+        //Empty constructor for spring
+    }
+
+    public GenotypeDocument(Variant variant, VariantSourceEntry variantSourceEntry, SamplesEncoding samplesEncoding) {
+        this.variantId = VariantDocument.buildVariantId(variant.getChromosome(), variant.getStart(),
+                                                        variant.getReference(), variant.getAlternate());
+        this.studyId = variantSourceEntry.getStudyId();
+        this.fileId = variantSourceEntry.getFileId();
+        this.id = buildGenotypeId(variantId, studyId, fileId);
+        this.chromosome = variant.getChromosome();
+        this.start = variant.getStart();
+        this.at = VariantDocument.generateAtField(chromosome, start);
+        this.format = variantSourceEntry.getFormat();
+        this.samp = VariantSourceEntryMongo.buildSampleData(variantSourceEntry.getSamplesData(), samplesEncoding);
+    }
+
+    public static String buildGenotypeId(String variantId, String studyId, String fileId) {
+        return variantId + "_" + studyId + "_" + fileId;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getVariantId() {
+        return variantId;
+    }
+
+    public String getStudyId() {
+        return studyId;
+    }
+
+    public String getFileId() {
+        return fileId;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public BasicDBObject getSamp() {
+        return samp;
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments;
+
+import uk.ac.ebi.eva.utils.SampleIndexCodec;
+
+/**
+ * How {@link VariantSourceEntryMongo} stores the indices of the samples with each genotype: as arrays of integers or
+ * as the binary values described in {@link SampleIndexCodec}
+ */
+public enum SamplesEncoding {
+    ARRAY, BINARY
+}
@@ -19,6 +19,7 @@ import com.mongodb.BasicDBObject;
 import org.opencb.biodata.models.feature.Genotype;
 import org.springframework.data.mongodb.core.mapping.Field;
 import uk.ac.ebi.eva.utils.CompressionHelper;
+import uk.ac.ebi.eva.utils.SampleIndexCodec;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -70,13 +71,21 @@ public class VariantSourceEntryMongo {
     }
 
     public VariantSourceEntryMongo(String fileId, String studyId, String[] alternates, Map<String, String> attributes) {
+        this(fileId, studyId, alternates, attributes, true);
+    }
+
+    /**
+     * @param compressSourceLine whether the "src" attribute, if present, is stored gzipped or as it is
+     */
+    public VariantSourceEntryMongo(String fileId, String studyId, String[] alternates, Map<String, String> attributes,
+                                   boolean compressSourceLine) {
         this.fileId = fileId;
         this.studyId = studyId;
         if (alternates != null && alternates.length > 0) {
             this.alternates = new String[alternates.length];
             System.arraycopy(alternates, 0, this.alternates, 0, alternates.length);
         }
-        attrs = buildAttributes(attributes);
+        attrs = buildAttributes(attributes, compressSourceLine);
 
         this.format = null;
         this.samp = null;
@@ -84,12 +93,22 @@ public class VariantSourceEntryMongo {
 
     public VariantSourceEntryMongo(String fileId, String studyId, String[] alternates, Map<String, String>
             attributes, String format, List<Map<String, String>> samplesData) {
-        this(fileId, studyId, alternates, attributes);
+        this(fileId, studyId, alternates, attributes, format, samplesData, true, SamplesEncoding.ARRAY);
+    }
+
+    public VariantSourceEntryMongo(String fileId, String studyId, String[] alternates, Map<String, String>
+            attributes, String format, List<Map<String, String>> samplesData, boolean compressSourceLine,
+                                   SamplesEncoding samplesEncoding) {
+        this(fileId, studyId, alternates, attributes, compressSourceLine);
         this.format = format;
-        this.samp = buildSampleData(samplesData);
+        this.samp = buildSampleData(samplesData, samplesEncoding);
     }
 
-    private BasicDBObject buildSampleData(List<Map<String, String>> samplesData) {
+    /**
+     * Builds the "samp" subdocument, also stored by {@link uk.ac.ebi.eva.commons.models.mongo.entity.GenotypeDocument}
+     */
+    public static BasicDBObject buildSampleData(List<Map<String, String>> samplesData,
+                                                SamplesEncoding samplesEncoding) {
         Map<Genotype, List<Integer>> genotypeCodes = classifySamplesByGenotype(samplesData);
 
         // Get the most common genotype
@@ -101,20 +120,26 @@ public class VariantSourceEntryMongo {
         // "def" : 0|0,
         // "0|1" : [ 41, 311, 342, 358, 881, 898, 903 ],
         // "1|0" : [ 262, 290, 300, 331, 343, 369, 374, 391, 879, 918, 930 ]
+        // With the binary encoding, each list is replaced by its SampleIndexCodec value.
         BasicDBObject mongoSamples = new BasicDBObject();
         for (Map.Entry<Genotype, List<Integer>> entry : genotypeCodes.entrySet()) {
             String genotypeStr = entry.getKey().toString().replace(".", "-1");
             if (longestList != null && entry.getKey().equals(longestList.getKey())) {
                 mongoSamples.append("def", genotypeStr);
             } else {
-                mongoSamples.append(genotypeStr, entry.getValue());
+                if (samplesEncoding == SamplesEncoding.BINARY) {
+                    mongoSamples.append(genotypeStr, SampleIndexCodec.encode(entry.getValue()));
+                } else {
+                    mongoSamples.append(genotypeStr, entry.getValue());
+                }
             }
         }
 
         return mongoSamples;
     }
 
-    private Map.Entry<Genotype, List<Integer>> getLongestGenotypeList(Map<Genotype, List<Integer>> genotypeCodes) {
+    private static Map.Entry<Genotype, List<Integer>> getLongestGenotypeList(
+            Map<Genotype, List<Integer>> genotypeCodes) {
         Map.Entry<Genotype, List<Integer>> longestList = null;
         for (Map.Entry<Genotype, List<Integer>> entry : genotypeCodes.entrySet()) {
             List<Integer> genotypeList = entry.getValue();
@@ -125,7 +150,7 @@ public class VariantSourceEntryMongo {
         return longestList;
     }
 
-    private Map<Genotype, List<Integer>> classifySamplesByGenotype(List<Map<String, String>> samplesData) {
+    private static Map<Genotype, List<Integer>> classifySamplesByGenotype(List<Map<String, String>> samplesData) {
         Map<Genotype, List<Integer>> genotypeCodes = new HashMap<>();
 
         for (int i = 0; i < samplesData.size(); i++) {
@@ -143,7 +168,7 @@ public class VariantSourceEntryMongo {
         return genotypeCodes;
     }
 
-    private BasicDBObject buildAttributes(Map<String, String> attributes) {
+    private BasicDBObject buildAttributes(Map<String, String> attributes, boolean compressSourceLine) {
         BasicDBObject attrs = null;
         for (Map.Entry<String, String> entry : attributes.entrySet()) {
             Object value = entry.getValue();
@@ -154,10 +179,13 @@ public class VariantSourceEntryMongo {
                 for (int i = 1; i < fields.length && i < 8; i++) {
                     sb.append("\t").append(fields[i]);
                 }
-                try {
-                    value = CompressionHelper.gzip(sb.toString());
-                } catch (IOException ex) {
-                    Logger.getLogger(VariantSourceEntryMongo.class.getName()).log(Level.SEVERE, null, ex);
+                value = sb.toString();
+                if (compressSourceLine) {
+                    try {
+                        value = CompressionHelper.gzip(sb.toString());
+                    } catch (IOException ex) {
+                        Logger.getLogger(VariantSourceEntryMongo.class.getName()).log(Level.SEVERE, null, ex);
+                    }
                 }
             }
 
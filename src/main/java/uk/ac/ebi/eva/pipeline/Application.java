@@ -37,6 +37,13 @@ public class Application {
     public static final String VARIANT_WRITER_MONGO_PROFILE = "variant-writer-mongo";
     public static final String VARIANT_ANNOTATION_MONGO_PROFILE = "variant-annotation-mongo";
 
+    /**
+     * Profiles that dump the variants, files and annotations to BSON files instead of writing them to MongoDB, to be
+     * imported by the import-bson-dump-job. They are included by the "bson" profile.
+     */
+    public static final String VARIANT_WRITER_BSON_PROFILE = "variant-writer-bson";
+    public static final String VARIANT_ANNOTATION_BSON_PROFILE = "variant-annotation-bson";
+
     /**
      * Profile for features that shall run in production only, such as a persistent job repository.
      */
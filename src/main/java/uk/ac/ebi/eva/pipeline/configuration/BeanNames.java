@@ -25,6 +25,8 @@ public class BeanNames {
     public static final String VARIANTS_READER = "variants-reader";
     public static final String VARIANT_ANNOTATION_READER = "variant-annotation-reader";
     public static final String VARIANT_READER = "variant-reader";
+    public static final String VARIANT_IDS_TO_DROP_READER = "variant-ids-to-drop-reader";
+    public static final String VARIANT_IDS_TO_PULL_READER = "variant-ids-to-pull-reader";
 
     public static final String VEP_ANNOTATION_PROCESSOR = "vep-annotation-processor";
     public static final String ANNOTATION_PARSER_PROCESSOR = "annotation-parser-processor";
@@ -35,6 +37,19 @@ public class BeanNames {
     public static final String ANNOTATION_IN_VARIANT_WRITER = "annotation-in-variant-writer";
     public static final String COMPOSITE_ANNOTATION_VARIANT_WRITER = "composite-annotation-variant-writer";
     public static final String VARIANT_WRITER = "variant-writer";
+    public static final String VARIANT_SOURCE_ENTITY_WRITER = "variant-source-entity-writer";
+    public static final String DROP_VARIANTS_BY_STUDY_WRITER = "drop-variants-by-study-writer";
+    public static final String PULL_FILES_AND_STATISTICS_BY_STUDY_WRITER = "pull-files-and-statistics-by-study-writer";
+
+    public static final String PIPELINE_TASK_EXECUTOR = "pipeline-task-executor";
+    public static final String PARTITION_TASK_EXECUTOR = "partition-task-executor";
+    public static final String WRITE_THROTTLE = "write-throttle";
+    public static final String PIPELINE_METRICS = "pipeline-metrics";
+    public static final String METRICS_HTTP_SERVER = "metrics-http-server";
+
+    public static final String VARIANT_IDS_TO_DROP_PARTITIONER = "variant-ids-to-drop-partitioner";
+    public static final String VARIANT_IDS_TO_PULL_PARTITIONER = "variant-ids-to-pull-partitioner";
+    public static final String VCF_MANIFEST_PARTITIONER = "vcf-manifest-partitioner";
 
     public static final String ANNOTATION_SKIP_STEP_DECIDER = "annotation-skip-step-decider";
     public static final String STATISTICS_SKIP_STEP_DECIDER = "statistics-skip-step-decider";
@@ -44,19 +59,34 @@ public class BeanNames {
     public static final String PARALLEL_STATISTICS_AND_ANNOTATION = "parallel-statistics-and-annotation-flow";
     public static final String CALCULATE_STATISTICS_FLOW = "calculate-statistics-flow";
     public static final String CALCULATE_STATISTICS_OPTIONAL_FLOW = "calculate-statistics-optional-flow";
+    public static final String CALCULATE_STATISTICS_BY_MANIFEST_OPTIONAL_FLOW =
+            "calculate-statistics-by-manifest-optional-flow";
+    public static final String PARALLEL_STATISTICS_BY_MANIFEST_AND_ANNOTATION =
+            "parallel-statistics-by-manifest-and-annotation-flow";
 
     public static final String LOAD_VEP_ANNOTATION_STEP = "load-vep-annotation-step";
+    public static final String LOAD_VEP_ANNOTATION_PARTITION_STEP = "load-vep-annotation-partition-step";
     public static final String CALCULATE_STATISTICS_STEP = "calculate-statistics-step";
     public static final String CREATE_DATABASE_INDEXES_STEP = "create-database-indexes-step";
     public static final String LOAD_FEATURE_COORDINATES_STEP = "load-feature-coordinates-step";
     public static final String GENERATE_VEP_ANNOTATION_STEP = "generate-vep-annotation";
     public static final String LOAD_STATISTICS_STEP = "load-statistics-step";
+    public static final String SORT_VCF_STEP = "sort-vcf-step";
     public static final String LOAD_VARIANTS_STEP = "load-variants-step";
     public static final String LOAD_FILE_STEP = "load-file-step";
     public static final String DROP_VARIANTS_BY_STUDY_STEP = "drop-variants-by-study-step";
+    public static final String DROP_VARIANTS_BY_STUDY_PARTITION_STEP = "drop-variants-by-study-partition-step";
     public static final String PULL_FILES_AND_STATISTICS_BY_STUDY_STEP = "pull-files-and-statistics-by-study-step";
+    public static final String PULL_FILES_AND_STATISTICS_BY_STUDY_PARTITION_STEP =
+            "pull-files-and-statistics-by-study-partition-step";
     public static final String DROP_FILES_BY_STUDY_STEP = "drop-files-by-study-step";
     public static final String LOAD_ANNOTATION_METADATA_STEP = "annotation-metadata-step";
+    public static final String SORT_VCFS_BY_MANIFEST_STEP = "sort-vcfs-by-manifest-step";
+    public static final String LOAD_VARIANTS_BY_MANIFEST_STEP = "load-variants-by-manifest-step";
+    public static final String LOAD_FILES_BY_MANIFEST_STEP = "load-files-by-manifest-step";
+    public static final String CALCULATE_STATISTICS_BY_MANIFEST_STEP = "calculate-statistics-by-manifest-step";
+    public static final String IMPORT_BSON_DUMP_STEP = "import-bson-dump-step";
+    public static final String LOAD_STATISTICS_BY_MANIFEST_STEP = "load-statistics-by-manifest-step";
 
     public static final String AGGREGATED_VCF_JOB = "aggregated-vcf-job";
     public static final String ANNOTATE_VARIANTS_JOB = "annotate-variants-job";
@@ -64,4 +94,7 @@ public class BeanNames {
     public static final String GENOTYPED_VCF_JOB = "genotyped-vcf-job";
     public static final String CALCULATE_STATISTICS_JOB = "calculate-statistics-job";
     public static final String DROP_STUDY_JOB = "drop-study-job";
+    public static final String LOAD_VEP_ANNOTATION_JOB = "load-vep-annotation-job";
+    public static final String MULTI_FILE_VCF_JOB = "multi-file-vcf-job";
+    public static final String IMPORT_BSON_DUMP_JOB = "import-bson-dump-job";
 }
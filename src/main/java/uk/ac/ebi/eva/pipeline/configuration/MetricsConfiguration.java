@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.configuration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import uk.ac.ebi.eva.pipeline.jobs.PipelineTaskExecutor;
+import uk.ac.ebi.eva.pipeline.metrics.MetricsHttpServer;
+import uk.ac.ebi.eva.pipeline.metrics.PipelineMetrics;
+import uk.ac.ebi.eva.pipeline.parameters.MetricsParameters;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.METRICS_HTTP_SERVER;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.PIPELINE_METRICS;
+import static uk.ac.ebi.eva.pipeline.jobs.PipelineTaskExecutor.FLOWS_POOL;
+import static uk.ac.ebi.eva.pipeline.jobs.PipelineTaskExecutor.PARTITIONS_POOL;
+import static uk.ac.ebi.eva.pipeline.jobs.PipelineTaskExecutor.WRITERS_POOL;
+
+/**
+ * Spring configuration to inject the registry of the performance metrics, with gauges of the shared thread pools and
+ * of the connection pools of the MongoDB clients, which the driver publishes as MBeans.
+ */
+@Configuration
+@Import({PipelineTaskExecutorConfiguration.class})
+public class MetricsConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsConfiguration.class);
+
+    private static final String MONGO_CONNECTION_POOLS = "org.mongodb.driver:type=ConnectionPool,*";
+
+    @Bean(PIPELINE_METRICS)
+    public PipelineMetrics pipelineMetrics(PipelineTaskExecutor taskExecutor) {
+        PipelineMetrics metrics = new PipelineMetrics();
+        for (String pool : Arrays.asList(FLOWS_POOL, PARTITIONS_POOL, WRITERS_POOL)) {
+            metrics.registerGauge("executor." + pool + ".queue", () -> taskExecutor.getQueueDepths().get(pool));
+            metrics.registerGauge("executor." + pool + ".active", () -> taskExecutor.getActiveThreads().get(pool));
+        }
+        metrics.registerGauge("executor.available-capacity", taskExecutor::getAvailableCapacity);
+        metrics.registerGauge("executor.waiting-for-admission", taskExecutor::getWaitingForAdmission);
+        metrics.registerGauge("mongo.pool.size", () -> sumMongoPoolAttribute("Size"));
+        metrics.registerGauge("mongo.pool.checked-out", () -> sumMongoPoolAttribute("CheckedOutCount"));
+        metrics.registerGauge("mongo.pool.wait-queue", () -> sumMongoPoolAttribute("WaitQueueSize"));
+        return metrics;
+    }
+
+    @Bean(name = METRICS_HTTP_SERVER, initMethod = "start", destroyMethod = "stop")
+    public MetricsHttpServer metricsHttpServer(PipelineMetrics pipelineMetrics, MetricsParameters metricsParameters) {
+        return new MetricsHttpServer(pipelineMetrics, metricsParameters.getHttpPort());
+    }
+
+    private static long sumMongoPoolAttribute(String attribute) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        long sum = 0;
+        try {
+            for (ObjectName pool : server.queryNames(new ObjectName(MONGO_CONNECTION_POOLS), null)) {
+                sum += ((Number) server.getAttribute(pool, attribute)).longValue();
+            }
+        } catch (JMException e) {
+            logger.debug("Attribute {} of the MongoDB connection pools could not be read", attribute, e);
+        }
+        return sum;
+    }
+
+}
@@ -15,8 +15,11 @@
  */
 package uk.ac.ebi.eva.pipeline.configuration;
 
+import com.mongodb.CommandResult;
 import com.mongodb.MongoClient;
 import com.mongodb.MongoCredential;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -30,19 +33,38 @@ import org.springframework.data.mongodb.core.convert.DefaultMongoTypeMapper;
 import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
 import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
 
+import uk.ac.ebi.eva.pipeline.io.WriteThrottle;
 import uk.ac.ebi.eva.pipeline.parameters.DatabaseParameters;
 import uk.ac.ebi.eva.pipeline.parameters.MongoConnection;
+import uk.ac.ebi.eva.pipeline.parameters.WriteThrottleParameters;
 import uk.ac.ebi.eva.utils.MongoDBHelper;
 
 import java.net.UnknownHostException;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.WRITE_THROTTLE;
 
 /**
  * Utility class dealing with MongoDB connections using pipeline options
+ * <p>
+ * A single client, and thus a single connection pool, is created for each set of connection options, and it is
+ * shared by all the steps and jobs that run in the same process. So is the {@link WriteThrottle} that limits the
+ * rate of the writes.
  */
 @Configuration
 public class MongoConfiguration {
 
+    private static final Logger logger = LoggerFactory.getLogger(MongoConfiguration.class);
+
+    private static final String ADMIN_DATABASE = "admin";
+
+    private static final Map<List<String>, MongoClient> mongoClients = new ConcurrentHashMap<>();
+
     @Bean
     public MongoMappingContext mongoMappingContext() {
         return new MongoMappingContext();
@@ -56,6 +78,25 @@ public class MongoConfiguration {
                 mongoMappingContext);
     }
 
+    @Bean(WRITE_THROTTLE)
+    public WriteThrottle writeThrottle(WriteThrottleParameters writeThrottleParameters,
+                                       MongoConnection mongoConnection) {
+        return new WriteThrottle(writeThrottleParameters.getMaxRate(), writeThrottleParameters.getTargetLatency(),
+                                 TimeUnit.SECONDS.toMillis(writeThrottleParameters.getMaxReplicationLag()),
+                                 () -> getReplicationLagMillis(mongoConnection));
+    }
+
+    private static long getReplicationLagMillis(MongoConnection mongoConnection) {
+        try {
+            CommandResult status = getMongoClient(mongoConnection).getDB(ADMIN_DATABASE)
+                                                                  .command(MongoDBHelper.REPLICA_SET_STATUS_COMMAND);
+            return status.ok() ? MongoDBHelper.getReplicationLagMillis(status) : 0;
+        } catch (Exception e) {
+            logger.warn("Replication lag could not be read: {}", e.getMessage());
+            return 0;
+        }
+    }
+
     public static MongoOperations getMongoOperations(String databaseName, MongoConnection mongoConnection,
                                                      MongoMappingContext mongoMappingContext)
             throws UnknownHostException {
@@ -70,6 +111,24 @@ public class MongoConfiguration {
     }
 
     private static MongoClient getMongoClient(MongoConnection mongoConnection) throws UnknownHostException {
+        List<String> connectionOptions = Arrays.asList(mongoConnection.getHosts(),
+                                                       mongoConnection.getAuthenticationDatabase(),
+                                                       mongoConnection.getUser(), mongoConnection.getPassword(),
+                                                       mongoConnection.getReadPreferenceName());
+        MongoClient mongoClient = mongoClients.get(connectionOptions);
+        if (mongoClient == null) {
+            synchronized (mongoClients) {
+                mongoClient = mongoClients.get(connectionOptions);
+                if (mongoClient == null) {
+                    mongoClient = createMongoClient(mongoConnection);
+                    mongoClients.put(connectionOptions, mongoClient);
+                }
+            }
+        }
+        return mongoClient;
+    }
+
+    private static MongoClient createMongoClient(MongoConnection mongoConnection) throws UnknownHostException {
         String authenticationDatabase = null;
         String user = null;
         String password = null;
@@ -102,7 +161,15 @@ public class MongoConfiguration {
 
     private static MappingMongoConverter getMappingMongoConverter(MongoDbFactory mongoFactory,
                                                                   MongoMappingContext mongoMappingContext) {
-        DbRefResolver dbRefResolver = new DefaultDbRefResolver(mongoFactory);
+        return getMappingMongoConverter(new DefaultDbRefResolver(mongoFactory), mongoMappingContext);
+    }
+
+    /**
+     * Converter with the same customizations as the one used by {@link #getMongoOperations}. The resolver is only
+     * used to follow DBRefs, so conversions that don't need a database can be given one that is not connected.
+     */
+    public static MappingMongoConverter getMappingMongoConverter(DbRefResolver dbRefResolver,
+                                                                 MongoMappingContext mongoMappingContext) {
         MappingMongoConverter mongoConverter = new MappingMongoConverter(dbRefResolver, mongoMappingContext);
         mongoConverter.setTypeMapper(new DefaultMongoTypeMapper(null));
 
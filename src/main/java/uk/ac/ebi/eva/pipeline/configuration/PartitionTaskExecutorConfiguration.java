@@ -0,0 +1,46 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.configuration;
+
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskExecutor;
+
+import uk.ac.ebi.eva.pipeline.jobs.PipelineTaskExecutor;
+import uk.ac.ebi.eva.pipeline.parameters.ParallelismParameters;
+
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.PARTITION_TASK_EXECUTOR;
+
+/**
+ * Spring configuration to inject the TaskExecutor used by partitioned steps. The partitions run in the shared
+ * partitions pool, and the number of partitions of a step processed concurrently is limited by the configured
+ * JobParameters parallelism.
+ */
+@Configuration
+@Import(PipelineTaskExecutorConfiguration.class)
+public class PartitionTaskExecutorConfiguration {
+
+    @Bean(PARTITION_TASK_EXECUTOR)
+    @StepScope
+    public TaskExecutor partitionTaskExecutor(PipelineTaskExecutor pipelineTaskExecutor,
+                                              ParallelismParameters parallelismParameters) {
+        return pipelineTaskExecutor.getExecutor(PipelineTaskExecutor.PARTITIONS_POOL,
+                                                parallelismParameters.getParallelism());
+    }
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.configuration;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import uk.ac.ebi.eva.pipeline.jobs.PipelineTaskExecutor;
+import uk.ac.ebi.eva.pipeline.parameters.PipelineTaskExecutorParameters;
+
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.PIPELINE_TASK_EXECUTOR;
+import static uk.ac.ebi.eva.pipeline.jobs.PipelineTaskExecutor.FLOWS_POOL;
+import static uk.ac.ebi.eva.pipeline.jobs.PipelineTaskExecutor.PARTITIONS_POOL;
+import static uk.ac.ebi.eva.pipeline.jobs.PipelineTaskExecutor.WRITERS_POOL;
+
+/**
+ * Spring configuration to inject the thread pools shared by splits, partitioned steps and parallel writers. The flows
+ * of a split only wait for their steps, so they take no capacity.
+ */
+@Configuration
+public class PipelineTaskExecutorConfiguration {
+
+    @Bean(PIPELINE_TASK_EXECUTOR)
+    public PipelineTaskExecutor pipelineTaskExecutor(PipelineTaskExecutorParameters parameters) {
+        PipelineTaskExecutor taskExecutor = new PipelineTaskExecutor(parameters.getCapacity());
+        taskExecutor.addPool(FLOWS_POOL, parameters.getFlowsThreads(), 0);
+        taskExecutor.addPool(PARTITIONS_POOL, parameters.getPartitionsThreads(), parameters.getPartitionsWeight());
+        taskExecutor.addPool(WRITERS_POOL, parameters.getWritersThreads(), parameters.getWritersWeight());
+        return taskExecutor;
+    }
+
+}
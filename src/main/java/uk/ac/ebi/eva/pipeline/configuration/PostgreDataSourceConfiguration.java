@@ -15,32 +15,48 @@
  */
 package uk.ac.ebi.eva.pipeline.configuration;
 
+import org.apache.tomcat.jdbc.pool.DataSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.env.Environment;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
 
 import uk.ac.ebi.eva.pipeline.Application;
 
-import javax.sql.DataSource;
-
 /**
  * Configuration will be loaded from the file "application-production.properties".
+ * <p>
+ * Connections to the job repository are pooled, so that the updates of every chunk and partition do not need to open
+ * a new connection.
  */
 @Configuration
 @Profile(Application.PRODUCTION_PROFILE)
 public class PostgreDataSourceConfiguration {
 
+    private static final String VALIDATION_QUERY = "SELECT 1";
+
+    private static final long VALIDATION_INTERVAL_MILLIS = 30000;
+
     @Bean
     @Primary
     public DataSource postgreDataSource(Environment env) {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
+        DataSource dataSource = new DataSource();
         dataSource.setDriverClassName(env.getProperty("job.repository.driverClassName"));
         dataSource.setUrl(env.getProperty("job.repository.url"));
         dataSource.setUsername(env.getProperty("job.repository.username"));
         dataSource.setPassword(env.getProperty("job.repository.password"));
+
+        int maxActive = env.getProperty("job.repository.pool.max-active", Integer.class, 20);
+        dataSource.setMaxActive(maxActive);
+        dataSource.setMaxIdle(maxActive);
+        dataSource.setMinIdle(env.getProperty("job.repository.pool.min-idle", Integer.class, 1));
+        dataSource.setInitialSize(dataSource.getMinIdle());
+        dataSource.setMaxWait(env.getProperty("job.repository.pool.max-wait", Integer.class, 30000));
+
+        dataSource.setTestOnBorrow(true);
+        dataSource.setValidationQuery(VALIDATION_QUERY);
+        dataSource.setValidationInterval(VALIDATION_INTERVAL_MILLIS);
         return dataSource;
     }
 
@@ -17,25 +17,35 @@ package uk.ac.ebi.eva.pipeline.configuration.io.readers;
 
 import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import uk.ac.ebi.eva.commons.models.mongo.entity.Annotation;
 import uk.ac.ebi.eva.pipeline.io.readers.AnnotationFlatFileReader;
 import uk.ac.ebi.eva.pipeline.parameters.AnnotationParameters;
+import uk.ac.ebi.eva.pipeline.parameters.ExecutionContextParametersNames;
 
 import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.VARIANT_ANNOTATION_READER;
 
 /**
  * Configuration to inject a AnnotationFlatFileReader as a Variant Annotation Reader in the pipeline.
+ * <p>
+ * When the step is a partition created by {@link uk.ac.ebi.eva.pipeline.jobs.steps.partitioners.FilePartitioner}
+ * the file of the partition is read, otherwise the VEP output resolved from the job parameters.
  */
 @Configuration
 public class AnnotationReaderConfiguration {
 
+    private static final String PARTITION_FILE = "#{stepExecutionContext['"
+            + ExecutionContextParametersNames.PARTITION_FILE + "']}";
+
     @Bean(VARIANT_ANNOTATION_READER)
     @StepScope
-    public ItemStreamReader<Annotation> annotationReader(AnnotationParameters annotationParameters) {
-        return new AnnotationFlatFileReader(annotationParameters.getVepOutput(), annotationParameters.getVepVersion(),
+    public ItemStreamReader<Annotation> annotationReader(AnnotationParameters annotationParameters,
+                                                         @Value(PARTITION_FILE) String partitionFile) {
+        String vepOutput = partitionFile != null ? partitionFile : annotationParameters.getVepOutput();
+        return new AnnotationFlatFileReader(vepOutput, annotationParameters.getVepVersion(),
                 annotationParameters.getVepCacheVersion());
     }
 
@@ -55,6 +55,7 @@ public class VariantsMongoReaderConfiguration {
                 annotationParameters.getVepCacheVersion(),
                 inputParameters.getStudyId(),
                 inputParameters.getVcfId(),
+                inputParameters.getRegion(),
                 excludeAnnotated,
                 chunkSizeParameters.getChunkSize());
         return variantsMongoReader;
@@ -23,10 +23,13 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import uk.ac.ebi.eva.commons.models.data.Variant;
+import uk.ac.ebi.eva.pipeline.io.VcfSorter;
+import uk.ac.ebi.eva.pipeline.io.mappers.AttributeRetentionPolicy;
 import uk.ac.ebi.eva.pipeline.io.readers.AggregatedVcfReader;
 import uk.ac.ebi.eva.pipeline.io.readers.UnwindingItemStreamReader;
 import uk.ac.ebi.eva.pipeline.io.readers.VcfReader;
 import uk.ac.ebi.eva.pipeline.parameters.InputParameters;
+import uk.ac.ebi.eva.pipeline.parameters.OutputParameters;
 
 import java.io.File;
 import java.io.IOException;
@@ -48,23 +51,30 @@ public class VcfReaderConfiguration {
     /**
      * The aggregation type is passed so that spring won't cache the instance of VcfReader if it is already built
      * with other aggregation type.
+     * <p>
+     * If requested, the copy of an unsorted VCF sorted by the step of
+     * {@link uk.ac.ebi.eva.pipeline.configuration.jobs.steps.SortVcfStepConfiguration} is read instead.
      *
      * @return a VcfReader for the given aggregation type.
      * @throws IOException if the file doesn't exist, because it has to be read to see if it's compressed.
      */
     @Bean
     @StepScope
-    public VcfReader vcfReader(InputParameters parameters) throws IOException {
+    public VcfReader vcfReader(InputParameters parameters, OutputParameters outputParameters) throws IOException {
         String fileId = parameters.getVcfId();
         String studyId = parameters.getStudyId();
         File vcfFile = new File(parameters.getVcf());
+        if (parameters.getVcfSort()) {
+            vcfFile = new VcfSorter(new File(outputParameters.getVcfSortDir())).findSortedCopy(vcfFile);
+        }
         VariantSource.Aggregation vcfAggregation = parameters.getVcfAggregation();
+        AttributeRetentionPolicy attributeRetentionPolicy = parameters.getAttributeRetentionPolicy();
 
         if (VariantSource.Aggregation.NONE.equals(vcfAggregation)) {
-            return new VcfReader(fileId, studyId, vcfFile);
+            return new VcfReader(fileId, studyId, attributeRetentionPolicy, vcfFile);
         } else {
             return new AggregatedVcfReader(fileId, studyId, vcfAggregation, parameters.getAggregatedMappingFile(),
-                    vcfFile);
+                    attributeRetentionPolicy, vcfFile);
         }
     }
 
@@ -16,8 +16,8 @@
 package uk.ac.ebi.eva.pipeline.configuration.io.writers;
 
 import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.item.ItemStreamWriter;
 import org.springframework.batch.item.ItemWriter;
-import org.springframework.batch.item.support.CompositeItemWriter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
@@ -27,6 +27,9 @@ import org.springframework.context.annotation.Profile;
 
 import uk.ac.ebi.eva.commons.models.mongo.entity.Annotation;
 import uk.ac.ebi.eva.pipeline.Application;
+import uk.ac.ebi.eva.pipeline.configuration.PipelineTaskExecutorConfiguration;
+import uk.ac.ebi.eva.pipeline.io.writers.ParallelCompositeItemWriter;
+import uk.ac.ebi.eva.pipeline.jobs.PipelineTaskExecutor;
 
 import java.util.Arrays;
 import java.util.List;
@@ -35,8 +38,16 @@ import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.COMPOSITE_ANNOTATIO
 import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.ANNOTATION_IN_VARIANT_WRITER;
 import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.ANNOTATION_WRITER;
 
+/**
+ * Writes the annotations both in the annotations collection and in the variants collection. Both writes are
+ * independent and run concurrently.
+ * <p>
+ * With the "bson" profile the annotations collection is dumped into BSON files, while the annotations in the variants
+ * collection are still written to MongoDB, as they update the variants that are already loaded.
+ */
 @Configuration
-@Import({AnnotationWriterConfiguration.class, AnnotationInVariantWriterConfiguration.class})
+@Import({AnnotationWriterConfiguration.class, AnnotationInVariantWriterConfiguration.class,
+        PipelineTaskExecutorConfiguration.class})
 public class AnnotationCompositeWriterConfiguration {
 
     @Autowired
@@ -49,10 +60,10 @@ public class AnnotationCompositeWriterConfiguration {
 
     @Bean(COMPOSITE_ANNOTATION_VARIANT_WRITER)
     @StepScope
-    @Profile(Application.VARIANT_ANNOTATION_MONGO_PROFILE)
-    public CompositeItemWriter<List<Annotation>> compositeAnnotationItemWriter(){
-        CompositeItemWriter<List<Annotation>> writer = new CompositeItemWriter<>();
-        writer.setDelegates(Arrays.asList(annotationItemWriter, variantAnnotationItemWriter));
-        return writer;
+    @Profile({Application.VARIANT_ANNOTATION_MONGO_PROFILE, Application.VARIANT_ANNOTATION_BSON_PROFILE})
+    public ItemStreamWriter<List<Annotation>> compositeAnnotationItemWriter(
+            PipelineTaskExecutor pipelineTaskExecutor) {
+        return new ParallelCompositeItemWriter<>(Arrays.asList(annotationItemWriter, variantAnnotationItemWriter),
+                                                 pipelineTaskExecutor.getExecutor(PipelineTaskExecutor.WRITERS_POOL));
     }
 }
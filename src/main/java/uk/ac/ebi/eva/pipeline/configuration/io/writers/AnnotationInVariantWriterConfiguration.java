@@ -24,7 +24,9 @@ import org.springframework.data.mongodb.core.MongoOperations;
 
 import uk.ac.ebi.eva.commons.models.mongo.entity.Annotation;
 import uk.ac.ebi.eva.pipeline.Application;
+import uk.ac.ebi.eva.pipeline.io.WriteThrottle;
 import uk.ac.ebi.eva.pipeline.io.writers.AnnotationInVariantMongoWriter;
+import uk.ac.ebi.eva.pipeline.io.writers.WriteThrottledItemWriter;
 import uk.ac.ebi.eva.pipeline.parameters.AnnotationParameters;
 import uk.ac.ebi.eva.pipeline.parameters.DatabaseParameters;
 
@@ -37,13 +39,15 @@ public class AnnotationInVariantWriterConfiguration {
 
     @Bean(ANNOTATION_IN_VARIANT_WRITER)
     @StepScope
-    @Profile(Application.VARIANT_ANNOTATION_MONGO_PROFILE)
+    @Profile({Application.VARIANT_ANNOTATION_MONGO_PROFILE, Application.VARIANT_ANNOTATION_BSON_PROFILE})
     public ItemWriter<List<Annotation>> variantAnnotationItemWriter(MongoOperations mongoOperations,
                                                                     DatabaseParameters databaseParameters,
-                                                                    AnnotationParameters annotationParameters) {
-        return new AnnotationInVariantMongoWriter(mongoOperations, databaseParameters.getCollectionVariantsName(),
-                                                  annotationParameters.getVepVersion(),
-                                                  annotationParameters.getVepCacheVersion());
+                                                                    AnnotationParameters annotationParameters,
+                                                                    WriteThrottle writeThrottle) {
+        ItemWriter<List<Annotation>> writer = new AnnotationInVariantMongoWriter(
+                mongoOperations, databaseParameters.getCollectionVariantsName(), annotationParameters.getVepVersion(),
+                annotationParameters.getVepCacheVersion());
+        return WriteThrottledItemWriter.throttle(writer, writeThrottle);
     }
 
 }
@@ -15,16 +15,24 @@
  */
 package uk.ac.ebi.eva.pipeline.configuration.io.writers;
 
+import org.springframework.batch.core.StepExecution;
 import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.item.ItemStreamWriter;
 import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.mongodb.core.MongoOperations;
 import uk.ac.ebi.eva.commons.models.mongo.entity.Annotation;
 import uk.ac.ebi.eva.pipeline.Application;
+import uk.ac.ebi.eva.pipeline.io.WriteThrottle;
+import uk.ac.ebi.eva.pipeline.io.writers.AnnotationBsonDumpWriter;
 import uk.ac.ebi.eva.pipeline.io.writers.AnnotationMongoWriter;
+import uk.ac.ebi.eva.pipeline.io.writers.BsonDumpItemWriter;
+import uk.ac.ebi.eva.pipeline.io.writers.WriteThrottledItemWriter;
 import uk.ac.ebi.eva.pipeline.parameters.DatabaseParameters;
+import uk.ac.ebi.eva.pipeline.parameters.OutputParameters;
 
 import java.util.List;
 
@@ -37,7 +45,23 @@ public class AnnotationWriterConfiguration {
     @StepScope
     @Profile(Application.VARIANT_ANNOTATION_MONGO_PROFILE)
     public ItemWriter<List<Annotation>> annotationItemWriter(MongoOperations mongoOperations,
-                                                             DatabaseParameters databaseParameters) {
-        return new AnnotationMongoWriter(mongoOperations, databaseParameters.getCollectionAnnotationsName());
+                                                             DatabaseParameters databaseParameters,
+                                                             WriteThrottle writeThrottle) {
+        ItemWriter<List<Annotation>> writer = new AnnotationMongoWriter(
+                mongoOperations, databaseParameters.getCollectionAnnotationsName());
+        return WriteThrottledItemWriter.throttle(writer, writeThrottle);
+    }
+
+    @Bean(ANNOTATION_WRITER)
+    @StepScope
+    @Profile(Application.VARIANT_ANNOTATION_BSON_PROFILE)
+    public ItemStreamWriter<List<Annotation>> annotationBsonDumpWriter(
+            MongoOperations mongoOperations, DatabaseParameters databaseParameters, OutputParameters outputParameters,
+            @Value("#{stepExecution}") StepExecution stepExecution) {
+        return new AnnotationBsonDumpWriter(VariantWriterConfiguration.getBsonDumpDirectory(outputParameters),
+                                            BsonDumpItemWriter.getPartitionName(stepExecution),
+                                            databaseParameters.getDatabaseName(), outputParameters.isBsonCompress(),
+                                            databaseParameters.getCollectionAnnotationsName(),
+                                            mongoOperations.getConverter());
     }
 }
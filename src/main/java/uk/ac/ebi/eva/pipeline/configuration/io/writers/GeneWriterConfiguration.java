@@ -22,7 +22,9 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.core.MongoOperations;
 
+import uk.ac.ebi.eva.pipeline.io.WriteThrottle;
 import uk.ac.ebi.eva.pipeline.io.writers.GeneWriter;
+import uk.ac.ebi.eva.pipeline.io.writers.WriteThrottledItemWriter;
 import uk.ac.ebi.eva.pipeline.model.FeatureCoordinates;
 import uk.ac.ebi.eva.pipeline.parameters.DatabaseParameters;
 
@@ -34,8 +36,10 @@ public class GeneWriterConfiguration {
     @Bean(GENE_WRITER)
     @StepScope
     public ItemWriter<FeatureCoordinates> geneWriter(MongoOperations mongoOperations,
-                                                     DatabaseParameters databaseParameters) {
-        return new GeneWriter(mongoOperations, databaseParameters.getCollectionFeaturesName());
+                                                     DatabaseParameters databaseParameters,
+                                                     WriteThrottle writeThrottle) {
+        return WriteThrottledItemWriter.throttle(
+                new GeneWriter(mongoOperations, databaseParameters.getCollectionFeaturesName()), writeThrottle);
     }
 
 }
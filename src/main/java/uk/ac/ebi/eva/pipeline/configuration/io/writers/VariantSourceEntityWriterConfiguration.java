@@ -0,0 +1,61 @@
+/*
+ * Copyright 2015-2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.configuration.io.writers;
+
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoOperations;
+
+import uk.ac.ebi.eva.commons.models.data.VariantSourceEntity;
+import uk.ac.ebi.eva.pipeline.Application;
+import uk.ac.ebi.eva.pipeline.io.writers.BsonDumpItemWriter;
+import uk.ac.ebi.eva.pipeline.io.writers.VariantSourceEntityBsonDumpWriter;
+import uk.ac.ebi.eva.pipeline.io.writers.VariantSourceEntityMongoWriter;
+import uk.ac.ebi.eva.pipeline.parameters.DatabaseParameters;
+import uk.ac.ebi.eva.pipeline.parameters.OutputParameters;
+
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.VARIANT_SOURCE_ENTITY_WRITER;
+
+@Configuration
+public class VariantSourceEntityWriterConfiguration {
+
+    @Bean(VARIANT_SOURCE_ENTITY_WRITER)
+    @StepScope
+    @Profile(Application.VARIANT_WRITER_MONGO_PROFILE)
+    public ItemWriter<VariantSourceEntity> variantSourceEntityMongoWriter(MongoOperations mongoOperations,
+                                                                          DatabaseParameters databaseParameters) {
+        return new VariantSourceEntityMongoWriter(mongoOperations, databaseParameters.getCollectionFilesName());
+    }
+
+    @Bean(VARIANT_SOURCE_ENTITY_WRITER)
+    @StepScope
+    @Profile(Application.VARIANT_WRITER_BSON_PROFILE)
+    public ItemWriter<VariantSourceEntity> variantSourceEntityBsonDumpWriter(
+            MongoOperations mongoOperations, DatabaseParameters databaseParameters, OutputParameters outputParameters,
+            @Value("#{stepExecution}") StepExecution stepExecution) {
+        return new VariantSourceEntityBsonDumpWriter(VariantWriterConfiguration.getBsonDumpDirectory(outputParameters),
+                                                     BsonDumpItemWriter.getPartitionName(stepExecution),
+                                                     databaseParameters.getDatabaseName(),
+                                                     outputParameters.isBsonCompress(),
+                                                     databaseParameters.getCollectionFilesName(),
+                                                     mongoOperations.getConverter());
+    }
+}
@@ -17,17 +17,28 @@
 package uk.ac.ebi.eva.pipeline.configuration.io.writers;
 
 import org.opencb.biodata.models.variant.VariantSource;
+import org.springframework.batch.core.StepExecution;
 import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.item.ItemStreamWriter;
 import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.mongodb.core.MongoOperations;
 import uk.ac.ebi.eva.commons.models.data.Variant;
 import uk.ac.ebi.eva.pipeline.Application;
+import uk.ac.ebi.eva.pipeline.io.WriteThrottle;
+import uk.ac.ebi.eva.pipeline.io.writers.BsonDumpItemWriter;
+import uk.ac.ebi.eva.pipeline.io.writers.VariantBsonDumpWriter;
 import uk.ac.ebi.eva.pipeline.io.writers.VariantMongoWriter;
+import uk.ac.ebi.eva.pipeline.metrics.PipelineMetrics;
 import uk.ac.ebi.eva.pipeline.parameters.DatabaseParameters;
 import uk.ac.ebi.eva.pipeline.parameters.InputParameters;
+import uk.ac.ebi.eva.pipeline.parameters.JobParametersNames;
+import uk.ac.ebi.eva.pipeline.parameters.OutputParameters;
+
+import java.io.File;
 
 import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.VARIANT_WRITER;
 
@@ -38,18 +49,54 @@ public class VariantWriterConfiguration {
     @StepScope
     @Profile(Application.VARIANT_WRITER_MONGO_PROFILE)
     public ItemWriter<Variant> variantMongoWriter(InputParameters inputParameters, MongoOperations mongoOperations,
-                                                  DatabaseParameters databaseParameters) {
-        boolean includeSamples, includeStats;
-        if (VariantSource.Aggregation.NONE.equals(inputParameters.getVcfAggregation())) {
-            includeSamples = true;
-            includeStats = false;
-        } else {
-            includeSamples = false;
-            includeStats = true;
-        }
+                                                  DatabaseParameters databaseParameters,
+                                                  WriteThrottle writeThrottle, PipelineMetrics pipelineMetrics) {
+        boolean includeSamples = isIncludeSamples(inputParameters);
+        boolean includeStats = !includeSamples;
+        boolean compressSourceLine = inputParameters.getAttributeRetentionPolicy().isSourceLineCompressed();
 
         return new VariantMongoWriter(databaseParameters.getCollectionVariantsName(), mongoOperations, includeStats,
-                includeSamples);
+                                      includeSamples, compressSourceLine,
+                                      databaseParameters.getVariantsSamplesEncoding(),
+                                      databaseParameters.getCollectionGenotypesName(), pipelineMetrics,
+                                      writeThrottle.isEnabled() ? writeThrottle : null);
+    }
+
+    /**
+     * Dumps the variants into BSON files that are imported afterwards by the import-bson-dump-job. The writer is not
+     * throttled because it does not write to MongoDB.
+     */
+    @Bean(VARIANT_WRITER)
+    @StepScope
+    @Profile(Application.VARIANT_WRITER_BSON_PROFILE)
+    public ItemStreamWriter<Variant> variantBsonDumpWriter(InputParameters inputParameters,
+                                                           OutputParameters outputParameters,
+                                                           DatabaseParameters databaseParameters,
+                                                           MongoOperations mongoOperations,
+                                                           @Value("#{stepExecution}") StepExecution stepExecution) {
+        boolean includeSamples = isIncludeSamples(inputParameters);
+        boolean compressSourceLine = inputParameters.getAttributeRetentionPolicy().isSourceLineCompressed();
+
+        return new VariantBsonDumpWriter(getBsonDumpDirectory(outputParameters),
+                                         BsonDumpItemWriter.getPartitionName(stepExecution),
+                                         databaseParameters.getDatabaseName(), outputParameters.isBsonCompress(),
+                                         databaseParameters.getCollectionVariantsName(),
+                                         mongoOperations.getConverter(), !includeSamples, includeSamples,
+                                         compressSourceLine, databaseParameters.getVariantsSamplesEncoding(),
+                                         databaseParameters.getCollectionGenotypesName());
+    }
+
+    private static boolean isIncludeSamples(InputParameters inputParameters) {
+        return VariantSource.Aggregation.NONE.equals(inputParameters.getVcfAggregation());
+    }
+
+    static File getBsonDumpDirectory(OutputParameters outputParameters) {
+        String outputDirBson = outputParameters.getOutputDirBson();
+        if (outputDirBson == null || outputDirBson.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "The job parameter " + JobParametersNames.OUTPUT_DIR_BSON + " is required to dump BSON files");
+        }
+        return new File(outputDirBson);
     }
 
 }
@@ -32,28 +32,35 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Scope;
 
+import uk.ac.ebi.eva.pipeline.configuration.MetricsConfiguration;
 import uk.ac.ebi.eva.pipeline.configuration.jobs.flows.AnnotationFlowOptionalConfiguration;
 import uk.ac.ebi.eva.pipeline.configuration.jobs.steps.LoadFileStepConfiguration;
 import uk.ac.ebi.eva.pipeline.configuration.jobs.steps.LoadVariantsStepConfiguration;
+import uk.ac.ebi.eva.pipeline.configuration.jobs.steps.SortVcfStepConfiguration;
+import uk.ac.ebi.eva.pipeline.listeners.JobMetricsListener;
+import uk.ac.ebi.eva.pipeline.metrics.PipelineMetrics;
+import uk.ac.ebi.eva.pipeline.parameters.MetricsParameters;
 import uk.ac.ebi.eva.pipeline.parameters.NewJobIncrementer;
 import uk.ac.ebi.eva.pipeline.parameters.validation.job.AggregatedVcfJobParametersValidator;
 
 import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.AGGREGATED_VCF_JOB;
 import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.LOAD_FILE_STEP;
 import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.LOAD_VARIANTS_STEP;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.SORT_VCF_STEP;
 import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.VEP_ANNOTATION_OPTIONAL_FLOW;
 
 /**
  * Complete pipeline workflow for aggregated VCF. Aggregated statistics are provided in the VCF instead of the
  * genotypes.
  * <p>
- * load --> (optionalAnnotationFlow: variantsAnnotGenerateInput --> (annotationCreate --> annotationLoad))
+ * sort --> load --> (optionalAnnotationFlow: variantsAnnotGenerateInput --> (annotationCreate --> annotationLoad))
  * <p>
- * Steps in () are optional
+ * Steps in () are optional. The sort step only sorts the VCF if 'input.vcf.sort' is true.
  */
 @Configuration
 @EnableBatchProcessing
-@Import({LoadVariantsStepConfiguration.class, LoadFileStepConfiguration.class, AnnotationFlowOptionalConfiguration.class})
+@Import({SortVcfStepConfiguration.class, LoadVariantsStepConfiguration.class, LoadFileStepConfiguration.class,
+        AnnotationFlowOptionalConfiguration.class, MetricsConfiguration.class})
 public class AggregatedVcfJobConfiguration {
 
     private static final Logger logger = LoggerFactory.getLogger(AggregatedVcfJobConfiguration.class);
@@ -62,6 +69,10 @@ public class AggregatedVcfJobConfiguration {
     @Qualifier(VEP_ANNOTATION_OPTIONAL_FLOW)
     private Flow annotationFlowOptional;
 
+    @Autowired
+    @Qualifier(SORT_VCF_STEP)
+    private Step sortVcfStep;
+
     @Autowired
     @Qualifier(LOAD_VARIANTS_STEP)
     private Step variantLoaderStep;
@@ -72,15 +83,18 @@ public class AggregatedVcfJobConfiguration {
 
     @Bean(AGGREGATED_VCF_JOB)
     @Scope("prototype")
-    public Job aggregatedVcfJob(JobBuilderFactory jobBuilderFactory) {
+    public Job aggregatedVcfJob(JobBuilderFactory jobBuilderFactory, PipelineMetrics pipelineMetrics,
+                                MetricsParameters metricsParameters) {
         logger.debug("Building '" + AGGREGATED_VCF_JOB + "'");
 
         JobBuilder jobBuilder = jobBuilderFactory
                 .get(AGGREGATED_VCF_JOB)
                 .incrementer(new NewJobIncrementer())
-                .validator(new AggregatedVcfJobParametersValidator());
+                .validator(new AggregatedVcfJobParametersValidator())
+                .listener(new JobMetricsListener(pipelineMetrics, metricsParameters.getDir()));
         FlowJobBuilder builder = jobBuilder
-                .flow(variantLoaderStep)
+                .flow(sortVcfStep)
+                .next(variantLoaderStep)
                 .next(loadFileStep)
                 .next(annotationFlowOptional)
                 .end();
@@ -30,7 +30,11 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Scope;
 
+import uk.ac.ebi.eva.pipeline.configuration.MetricsConfiguration;
 import uk.ac.ebi.eva.pipeline.configuration.jobs.flows.AnnotationFlowConfiguration;
+import uk.ac.ebi.eva.pipeline.listeners.JobMetricsListener;
+import uk.ac.ebi.eva.pipeline.metrics.PipelineMetrics;
+import uk.ac.ebi.eva.pipeline.parameters.MetricsParameters;
 import uk.ac.ebi.eva.pipeline.parameters.NewJobIncrementer;
 import uk.ac.ebi.eva.pipeline.parameters.validation.job.AnnotationJobParametersValidator;
 
@@ -51,7 +55,7 @@ import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.VEP_ANNOTATION_FLOW
 
 @Configuration
 @EnableBatchProcessing
-@Import({AnnotationFlowConfiguration.class})
+@Import({AnnotationFlowConfiguration.class, MetricsConfiguration.class})
 public class AnnotationJobConfiguration {
 
     private static final Logger logger = LoggerFactory.getLogger(AnnotationJobConfiguration.class);
@@ -62,13 +66,15 @@ public class AnnotationJobConfiguration {
 
     @Bean(ANNOTATE_VARIANTS_JOB)
     @Scope("prototype")
-    public Job annotateVariantsJob(JobBuilderFactory jobBuilderFactory) {
+    public Job annotateVariantsJob(JobBuilderFactory jobBuilderFactory, PipelineMetrics pipelineMetrics,
+                                   MetricsParameters metricsParameters) {
         logger.debug("Building '" + ANNOTATE_VARIANTS_JOB + "'");
 
         JobBuilder jobBuilder = jobBuilderFactory
                 .get(ANNOTATE_VARIANTS_JOB)
                 .incrementer(new NewJobIncrementer())
-                .validator(new AnnotationJobParametersValidator());
+                .validator(new AnnotationJobParametersValidator())
+                .listener(new JobMetricsListener(pipelineMetrics, metricsParameters.getDir()));
         return jobBuilder.start(annotation).build().build();
     }
 
@@ -29,8 +29,12 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Scope;
 
+import uk.ac.ebi.eva.pipeline.configuration.MetricsConfiguration;
 import uk.ac.ebi.eva.pipeline.configuration.jobs.steps.CreateDatabaseIndexesStepConfiguration;
 import uk.ac.ebi.eva.pipeline.configuration.jobs.steps.LoadFeatureCoordinatesStepConfiguration;
+import uk.ac.ebi.eva.pipeline.listeners.JobMetricsListener;
+import uk.ac.ebi.eva.pipeline.metrics.PipelineMetrics;
+import uk.ac.ebi.eva.pipeline.parameters.MetricsParameters;
 import uk.ac.ebi.eva.pipeline.parameters.NewJobIncrementer;
 import uk.ac.ebi.eva.pipeline.parameters.validation.job.DatabaseInitializationJobParametersValidator;
 
@@ -48,7 +52,8 @@ import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.LOAD_FEATURE_COORDI
  */
 @Configuration
 @EnableBatchProcessing
-@Import({LoadFeatureCoordinatesStepConfiguration.class, CreateDatabaseIndexesStepConfiguration.class})
+@Import({LoadFeatureCoordinatesStepConfiguration.class, CreateDatabaseIndexesStepConfiguration.class,
+        MetricsConfiguration.class})
 public class DatabaseInitializationJobConfiguration {
 
     private static final Logger logger = LoggerFactory.getLogger(DatabaseInitializationJobConfiguration.class);
@@ -63,13 +68,15 @@ public class DatabaseInitializationJobConfiguration {
 
     @Bean(INIT_DATABASE_JOB)
     @Scope("prototype")
-    public Job initDatabaseJob(JobBuilderFactory jobBuilderFactory) {
+    public Job initDatabaseJob(JobBuilderFactory jobBuilderFactory, PipelineMetrics pipelineMetrics,
+                               MetricsParameters metricsParameters) {
         logger.debug("Building '" + INIT_DATABASE_JOB + "'");
 
         JobBuilder jobBuilder = jobBuilderFactory
                 .get(INIT_DATABASE_JOB)
                 .incrementer(new NewJobIncrementer())
-                .validator(new DatabaseInitializationJobParametersValidator());
+                .validator(new DatabaseInitializationJobParametersValidator())
+                .listener(new JobMetricsListener(pipelineMetrics, metricsParameters.getDir()));
 
         return jobBuilder
                 .start(createDatabaseIndexesStep)
@@ -31,9 +31,13 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Scope;
 
+import uk.ac.ebi.eva.pipeline.configuration.MetricsConfiguration;
 import uk.ac.ebi.eva.pipeline.configuration.jobs.steps.DropFilesByStudyStepConfiguration;
 import uk.ac.ebi.eva.pipeline.configuration.jobs.steps.DropVariantsByStudyStepConfiguration;
 import uk.ac.ebi.eva.pipeline.configuration.jobs.steps.PullFilesAndStatisticsByStudyStepConfiguration;
+import uk.ac.ebi.eva.pipeline.listeners.JobMetricsListener;
+import uk.ac.ebi.eva.pipeline.metrics.PipelineMetrics;
+import uk.ac.ebi.eva.pipeline.parameters.MetricsParameters;
 import uk.ac.ebi.eva.pipeline.parameters.NewJobIncrementer;
 import uk.ac.ebi.eva.pipeline.parameters.validation.job.DropStudyJobParametersValidator;
 
@@ -49,7 +53,8 @@ import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.PULL_FILES_AND_STAT
  */
 @Configuration
 @EnableBatchProcessing
-@Import({DropVariantsByStudyStepConfiguration.class, PullFilesAndStatisticsByStudyStepConfiguration.class, DropFilesByStudyStepConfiguration.class})
+@Import({DropVariantsByStudyStepConfiguration.class, PullFilesAndStatisticsByStudyStepConfiguration.class, DropFilesByStudyStepConfiguration.class,
+        MetricsConfiguration.class})
 public class DropStudyJobConfiguration {
 
     private static final Logger logger = LoggerFactory.getLogger(DropStudyJobConfiguration.class);
@@ -68,13 +73,15 @@ public class DropStudyJobConfiguration {
 
     @Bean(DROP_STUDY_JOB)
     @Scope("prototype")
-    public Job dropStudyJob(JobBuilderFactory jobBuilderFactory) {
+    public Job dropStudyJob(JobBuilderFactory jobBuilderFactory, PipelineMetrics pipelineMetrics,
+                            MetricsParameters metricsParameters) {
         logger.debug("Building '" + DROP_STUDY_JOB + "'");
 
         JobBuilder jobBuilder = jobBuilderFactory
                 .get(DROP_STUDY_JOB)
                 .incrementer(new NewJobIncrementer())
-                .validator(new DropStudyJobParametersValidator());
+                .validator(new DropStudyJobParametersValidator())
+                .listener(new JobMetricsListener(pipelineMetrics, metricsParameters.getDir()));
 
         SimpleJobBuilder builder = jobBuilder
                 .start(dropVariantsByStudyStep)
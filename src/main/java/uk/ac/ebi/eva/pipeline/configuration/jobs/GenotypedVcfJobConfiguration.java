@@ -32,9 +32,14 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Scope;
 
+import uk.ac.ebi.eva.pipeline.configuration.MetricsConfiguration;
 import uk.ac.ebi.eva.pipeline.configuration.jobs.flows.ParallelStatisticsAndAnnotationFlowConfiguration;
 import uk.ac.ebi.eva.pipeline.configuration.jobs.steps.LoadFileStepConfiguration;
 import uk.ac.ebi.eva.pipeline.configuration.jobs.steps.LoadVariantsStepConfiguration;
+import uk.ac.ebi.eva.pipeline.configuration.jobs.steps.SortVcfStepConfiguration;
+import uk.ac.ebi.eva.pipeline.listeners.JobMetricsListener;
+import uk.ac.ebi.eva.pipeline.metrics.PipelineMetrics;
+import uk.ac.ebi.eva.pipeline.parameters.MetricsParameters;
 import uk.ac.ebi.eva.pipeline.parameters.NewJobIncrementer;
 import uk.ac.ebi.eva.pipeline.parameters.validation.job.GenotypedVcfJobParametersValidator;
 
@@ -42,19 +47,21 @@ import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.GENOTYPED_VCF_JOB;
 import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.LOAD_FILE_STEP;
 import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.LOAD_VARIANTS_STEP;
 import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.PARALLEL_STATISTICS_AND_ANNOTATION;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.SORT_VCF_STEP;
 
 /**
  * Complete pipeline workflow:
  * <p>
  * |--> (optionalStatisticsFlow: statsCreate --> statsLoad)
- * transform ---> load -+
+ * sort ---> load -+
  * |--> (optionalAnnotationFlow: variantsAnnotGenerateInput --> (annotationCreate --> annotationLoad))
  * <p>
- * Steps in () are optional
+ * Steps in () are optional. The sort step only sorts the VCF if 'input.vcf.sort' is true.
  */
 @Configuration
 @EnableBatchProcessing
-@Import({LoadVariantsStepConfiguration.class, LoadFileStepConfiguration.class, ParallelStatisticsAndAnnotationFlowConfiguration.class})
+@Import({SortVcfStepConfiguration.class, LoadVariantsStepConfiguration.class, LoadFileStepConfiguration.class,
+        ParallelStatisticsAndAnnotationFlowConfiguration.class, MetricsConfiguration.class})
 public class GenotypedVcfJobConfiguration {
 
     private static final Logger logger = LoggerFactory.getLogger(GenotypedVcfJobConfiguration.class);
@@ -63,6 +70,10 @@ public class GenotypedVcfJobConfiguration {
     @Qualifier(PARALLEL_STATISTICS_AND_ANNOTATION)
     private Flow parallelStatisticsAndAnnotation;
 
+    @Autowired
+    @Qualifier(SORT_VCF_STEP)
+    private Step sortVcfStep;
+
     @Autowired
     @Qualifier(LOAD_VARIANTS_STEP)
     private Step variantLoaderStep;
@@ -73,15 +84,18 @@ public class GenotypedVcfJobConfiguration {
 
     @Bean(GENOTYPED_VCF_JOB)
     @Scope("prototype")
-    public Job genotypedVcfJob(JobBuilderFactory jobBuilderFactory) {
+    public Job genotypedVcfJob(JobBuilderFactory jobBuilderFactory, PipelineMetrics pipelineMetrics,
+                               MetricsParameters metricsParameters) {
         logger.debug("Building '" + GENOTYPED_VCF_JOB + "'");
 
         JobBuilder jobBuilder = jobBuilderFactory
                 .get(GENOTYPED_VCF_JOB)
                 .incrementer(new NewJobIncrementer())
-                .validator(new GenotypedVcfJobParametersValidator());
+                .validator(new GenotypedVcfJobParametersValidator())
+                .listener(new JobMetricsListener(pipelineMetrics, metricsParameters.getDir()));
         FlowJobBuilder builder = jobBuilder
-                .flow(variantLoaderStep)
+                .flow(sortVcfStep)
+                .next(variantLoaderStep)
                 .next(loadFileStep)
                 .next(parallelStatisticsAndAnnotation)
                 .end();
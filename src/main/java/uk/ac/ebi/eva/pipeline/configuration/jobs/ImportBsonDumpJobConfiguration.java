@@ -0,0 +1,75 @@
+/*
+ * Copyright 2015-2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.configuration.jobs;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Scope;
+
+import uk.ac.ebi.eva.pipeline.configuration.MetricsConfiguration;
+import uk.ac.ebi.eva.pipeline.configuration.jobs.steps.ImportBsonDumpStepConfiguration;
+import uk.ac.ebi.eva.pipeline.listeners.JobMetricsListener;
+import uk.ac.ebi.eva.pipeline.metrics.PipelineMetrics;
+import uk.ac.ebi.eva.pipeline.parameters.MetricsParameters;
+import uk.ac.ebi.eva.pipeline.parameters.NewJobIncrementer;
+import uk.ac.ebi.eva.pipeline.parameters.validation.job.ImportBsonDumpJobParametersValidator;
+
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.IMPORT_BSON_DUMP_JOB;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.IMPORT_BSON_DUMP_STEP;
+
+/**
+ * Job to import into MongoDB the BSON dump written by the loading and annotation jobs with the "bson" profile, and to
+ * create the indexes of the imported collections.
+ */
+@Configuration
+@EnableBatchProcessing
+@Import({ImportBsonDumpStepConfiguration.class, MetricsConfiguration.class})
+public class ImportBsonDumpJobConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportBsonDumpJobConfiguration.class);
+
+    @Autowired
+    @Qualifier(IMPORT_BSON_DUMP_STEP)
+    private Step importBsonDumpStep;
+
+    @Bean(IMPORT_BSON_DUMP_JOB)
+    @Scope("prototype")
+    public Job importBsonDumpJob(JobBuilderFactory jobBuilderFactory, PipelineMetrics pipelineMetrics,
+                                 MetricsParameters metricsParameters) {
+        logger.debug("Building '" + IMPORT_BSON_DUMP_JOB + "'");
+
+        JobBuilder jobBuilder = jobBuilderFactory
+                .get(IMPORT_BSON_DUMP_JOB)
+                .incrementer(new NewJobIncrementer())
+                .validator(new ImportBsonDumpJobParametersValidator())
+                .listener(new JobMetricsListener(pipelineMetrics, metricsParameters.getDir()));
+
+        return jobBuilder
+                .start(importBsonDumpStep)
+                .build();
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.pipeline.configuration.jobs;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Scope;
+
+import uk.ac.ebi.eva.pipeline.configuration.MetricsConfiguration;
+import uk.ac.ebi.eva.pipeline.configuration.jobs.steps.AnnotationMetadataStepConfiguration;
+import uk.ac.ebi.eva.pipeline.configuration.jobs.steps.LoadVepAnnotationStepConfiguration;
+import uk.ac.ebi.eva.pipeline.listeners.JobMetricsListener;
+import uk.ac.ebi.eva.pipeline.metrics.PipelineMetrics;
+import uk.ac.ebi.eva.pipeline.parameters.MetricsParameters;
+import uk.ac.ebi.eva.pipeline.parameters.NewJobIncrementer;
+import uk.ac.ebi.eva.pipeline.parameters.validation.job.LoadVepAnnotationJobParametersValidator;
+
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.LOAD_ANNOTATION_METADATA_STEP;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.LOAD_VEP_ANNOTATION_JOB;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.LOAD_VEP_ANNOTATION_STEP;
+
+/**
+ * Batch class to wire together:
+ * 1) loadVepAnnotationStep - Load pre-computed VEP output files into mongo, one partition per file
+ * 2) annotationMetadataStep - Record the VEP and cache versions used to generate the annotations
+ * <p>
+ * This allows running VEP outside the pipeline (e.g. in a compute farm) and loading its results afterwards.
+ */
+@Configuration
+@EnableBatchProcessing
+@Import({LoadVepAnnotationStepConfiguration.class, AnnotationMetadataStepConfiguration.class,
+        MetricsConfiguration.class})
+public class LoadVepAnnotationJobConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadVepAnnotationJobConfiguration.class);
+
+    @Autowired
+    @Qualifier(LOAD_VEP_ANNOTATION_STEP)
+    private Step loadVepAnnotationStep;
+
+    @Autowired
+    @Qualifier(LOAD_ANNOTATION_METADATA_STEP)
+    private Step annotationMetadataStep;
+
+    @Bean(LOAD_VEP_ANNOTATION_JOB)
+    @Scope("prototype")
+    public Job loadVepAnnotationJob(JobBuilderFactory jobBuilderFactory, PipelineMetrics pipelineMetrics,
+                                    MetricsParameters metricsParameters) {
+        logger.debug("Building '" + LOAD_VEP_ANNOTATION_JOB + "'");
+
+        JobBuilder jobBuilder = jobBuilderFactory
+                .get(LOAD_VEP_ANNOTATION_JOB)
+                .incrementer(new NewJobIncrementer())
+                .validator(new LoadVepAnnotationJobParametersValidator())
+                .listener(new JobMetricsListener(pipelineMetrics, metricsParameters.getDir()));
+        return jobBuilder.start(loadVepAnnotationStep).next(annotationMetadataStep).build();
+    }
+
+}
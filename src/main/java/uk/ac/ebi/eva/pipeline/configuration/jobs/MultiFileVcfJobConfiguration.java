@@ -0,0 +1,104 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.configuration.jobs;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.job.builder.FlowJobBuilder;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.job.flow.Flow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Scope;
+
+import uk.ac.ebi.eva.pipeline.configuration.MetricsConfiguration;
+import uk.ac.ebi.eva.pipeline.configuration.jobs.flows.ParallelStatisticsByManifestAndAnnotationFlowConfiguration;
+import uk.ac.ebi.eva.pipeline.configuration.jobs.steps.VcfManifestStepsConfiguration;
+import uk.ac.ebi.eva.pipeline.listeners.JobMetricsListener;
+import uk.ac.ebi.eva.pipeline.metrics.PipelineMetrics;
+import uk.ac.ebi.eva.pipeline.parameters.MetricsParameters;
+import uk.ac.ebi.eva.pipeline.parameters.NewJobIncrementer;
+import uk.ac.ebi.eva.pipeline.parameters.validation.job.MultiFileVcfJobParametersValidator;
+
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.LOAD_FILES_BY_MANIFEST_STEP;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.LOAD_VARIANTS_BY_MANIFEST_STEP;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.MULTI_FILE_VCF_JOB;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.PARALLEL_STATISTICS_BY_MANIFEST_AND_ANNOTATION;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.SORT_VCFS_BY_MANIFEST_STEP;
+
+/**
+ * Pipeline workflow to load all the VCFs of a study listed in a manifest. The files are loaded concurrently, and the
+ * study is annotated only once after all of them have been loaded:
+ * <p>
+ * |--> (optionalStatisticsFlow: statsCreate per file --> statsLoad per file)
+ * sort per file ---> load per file ---> load file metadata per file -+
+ * |--> (optionalAnnotationFlow: variantsAnnotGenerateInput --> (annotationCreate --> annotationLoad))
+ * <p>
+ * Steps in () are optional
+ */
+@Configuration
+@EnableBatchProcessing
+@Import({VcfManifestStepsConfiguration.class, ParallelStatisticsByManifestAndAnnotationFlowConfiguration.class,
+        MetricsConfiguration.class})
+public class MultiFileVcfJobConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(MultiFileVcfJobConfiguration.class);
+
+    @Autowired
+    @Qualifier(PARALLEL_STATISTICS_BY_MANIFEST_AND_ANNOTATION)
+    private Flow parallelStatisticsAndAnnotation;
+
+    @Autowired
+    @Qualifier(SORT_VCFS_BY_MANIFEST_STEP)
+    private Step sortVcfsByManifestStep;
+
+    @Autowired
+    @Qualifier(LOAD_VARIANTS_BY_MANIFEST_STEP)
+    private Step loadVariantsByManifestStep;
+
+    @Autowired
+    @Qualifier(LOAD_FILES_BY_MANIFEST_STEP)
+    private Step loadFilesByManifestStep;
+
+    @Bean(MULTI_FILE_VCF_JOB)
+    @Scope("prototype")
+    public Job multiFileVcfJob(JobBuilderFactory jobBuilderFactory, PipelineMetrics pipelineMetrics,
+                               MetricsParameters metricsParameters) {
+        logger.debug("Building '" + MULTI_FILE_VCF_JOB + "'");
+
+        JobBuilder jobBuilder = jobBuilderFactory
+                .get(MULTI_FILE_VCF_JOB)
+                .incrementer(new NewJobIncrementer())
+                .validator(new MultiFileVcfJobParametersValidator())
+                .listener(new JobMetricsListener(pipelineMetrics, metricsParameters.getDir()));
+        FlowJobBuilder builder = jobBuilder
+                .flow(sortVcfsByManifestStep)
+                .next(loadVariantsByManifestStep)
+                .next(loadFilesByManifestStep)
+                .next(parallelStatisticsAndAnnotation)
+                .end();
+
+        return builder.build();
+    }
+
+}
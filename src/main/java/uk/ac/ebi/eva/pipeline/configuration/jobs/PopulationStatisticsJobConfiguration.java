@@ -29,7 +29,11 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Scope;
 
+import uk.ac.ebi.eva.pipeline.configuration.MetricsConfiguration;
 import uk.ac.ebi.eva.pipeline.configuration.jobs.flows.PopulationStatisticsFlowConfiguration;
+import uk.ac.ebi.eva.pipeline.listeners.JobMetricsListener;
+import uk.ac.ebi.eva.pipeline.metrics.PipelineMetrics;
+import uk.ac.ebi.eva.pipeline.parameters.MetricsParameters;
 import uk.ac.ebi.eva.pipeline.parameters.NewJobIncrementer;
 
 import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.CALCULATE_STATISTICS_FLOW;
@@ -42,7 +46,7 @@ import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.CALCULATE_STATISTIC
  */
 @Configuration
 @EnableBatchProcessing
-@Import({PopulationStatisticsFlowConfiguration.class})
+@Import({PopulationStatisticsFlowConfiguration.class, MetricsConfiguration.class})
 public class PopulationStatisticsJobConfiguration {
 
     private static final Logger logger = LoggerFactory.getLogger(PopulationStatisticsJobConfiguration.class);
@@ -53,12 +57,14 @@ public class PopulationStatisticsJobConfiguration {
 
     @Bean(CALCULATE_STATISTICS_JOB)
     @Scope("prototype")
-    public Job calculateStatisticsJob(JobBuilderFactory jobBuilderFactory) {
+    public Job calculateStatisticsJob(JobBuilderFactory jobBuilderFactory, PipelineMetrics pipelineMetrics,
+                                      MetricsParameters metricsParameters) {
         logger.debug("Building '" + CALCULATE_STATISTICS_JOB + "'");
 
         JobBuilder jobBuilder = jobBuilderFactory
                 .get(CALCULATE_STATISTICS_JOB)
-                .incrementer(new NewJobIncrementer());
+                .incrementer(new NewJobIncrementer())
+                .listener(new JobMetricsListener(pipelineMetrics, metricsParameters.getDir()));
 
         return jobBuilder
                 .start(optionalStatisticsFlow)
@@ -23,7 +23,9 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
-import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import uk.ac.ebi.eva.pipeline.configuration.PipelineTaskExecutorConfiguration;
+import uk.ac.ebi.eva.pipeline.jobs.PipelineTaskExecutor;
 
 import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.CALCULATE_STATISTICS_OPTIONAL_FLOW;
 import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.PARALLEL_STATISTICS_AND_ANNOTATION;
@@ -34,7 +36,8 @@ import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.VEP_ANNOTATION_OPTI
  */
 @Configuration
 @EnableBatchProcessing
-@Import({AnnotationFlowOptionalConfiguration.class, PopulationStatisticsOptionalFlowConfiguration.class})
+@Import({AnnotationFlowOptionalConfiguration.class, PopulationStatisticsOptionalFlowConfiguration.class,
+        PipelineTaskExecutorConfiguration.class})
 public class ParallelStatisticsAndAnnotationFlowConfiguration {
 
     @Autowired
@@ -46,9 +49,9 @@ public class ParallelStatisticsAndAnnotationFlowConfiguration {
     private Flow optionalStatisticsFlow;
 
     @Bean(PARALLEL_STATISTICS_AND_ANNOTATION)
-    public Flow parallelStatisticsAndAnnotation() {
+    public Flow parallelStatisticsAndAnnotation(PipelineTaskExecutor pipelineTaskExecutor) {
         return new FlowBuilder<Flow>(PARALLEL_STATISTICS_AND_ANNOTATION)
-                .split(new SimpleAsyncTaskExecutor())
+                .split(pipelineTaskExecutor.getExecutor(PipelineTaskExecutor.FLOWS_POOL))
                 .add(optionalStatisticsFlow, annotationFlowOptional)
                 .build();
     }
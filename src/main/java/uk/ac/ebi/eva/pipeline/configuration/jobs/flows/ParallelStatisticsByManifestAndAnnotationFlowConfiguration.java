@@ -0,0 +1,76 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.configuration.jobs.flows;
+
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
+import org.springframework.batch.core.job.builder.FlowBuilder;
+import org.springframework.batch.core.job.flow.Flow;
+import org.springframework.batch.core.job.flow.JobExecutionDecider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import uk.ac.ebi.eva.pipeline.configuration.JobExecutionDeciderConfiguration;
+import uk.ac.ebi.eva.pipeline.configuration.PipelineTaskExecutorConfiguration;
+import uk.ac.ebi.eva.pipeline.configuration.jobs.steps.VcfManifestStepsConfiguration;
+import uk.ac.ebi.eva.pipeline.jobs.PipelineTaskExecutor;
+import uk.ac.ebi.eva.pipeline.jobs.deciders.SkipStepDecider;
+
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.CALCULATE_STATISTICS_BY_MANIFEST_OPTIONAL_FLOW;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.CALCULATE_STATISTICS_BY_MANIFEST_STEP;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.LOAD_STATISTICS_BY_MANIFEST_STEP;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.PARALLEL_STATISTICS_BY_MANIFEST_AND_ANNOTATION;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.STATISTICS_SKIP_STEP_DECIDER;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.VEP_ANNOTATION_OPTIONAL_FLOW;
+
+/**
+ * Configuration class that defines a flow that executes in parallel the annotation of a whole study and the
+ * statistics of every file in a manifest. The statistics can be skipped depending on property 'statistics.skip'.
+ */
+@Configuration
+@EnableBatchProcessing
+@Import({VcfManifestStepsConfiguration.class, AnnotationFlowOptionalConfiguration.class,
+        JobExecutionDeciderConfiguration.class, PipelineTaskExecutorConfiguration.class})
+public class ParallelStatisticsByManifestAndAnnotationFlowConfiguration {
+
+    @Bean(CALCULATE_STATISTICS_BY_MANIFEST_OPTIONAL_FLOW)
+    public Flow calculateStatisticsByManifestOptionalFlow(
+            @Qualifier(CALCULATE_STATISTICS_BY_MANIFEST_STEP) Step calculateStatisticsStep,
+            @Qualifier(LOAD_STATISTICS_BY_MANIFEST_STEP) Step loadStatisticsStep,
+            @Qualifier(STATISTICS_SKIP_STEP_DECIDER) JobExecutionDecider decider) {
+        return new FlowBuilder<Flow>(CALCULATE_STATISTICS_BY_MANIFEST_OPTIONAL_FLOW)
+                .start(decider).on(SkipStepDecider.DO_STEP)
+                .to(calculateStatisticsStep).next(loadStatisticsStep)
+                .from(decider).on(SkipStepDecider.SKIP_STEP)
+                .end(BatchStatus.COMPLETED.toString())
+                .build();
+    }
+
+    @Bean(PARALLEL_STATISTICS_BY_MANIFEST_AND_ANNOTATION)
+    public Flow parallelStatisticsByManifestAndAnnotation(
+            @Qualifier(CALCULATE_STATISTICS_BY_MANIFEST_OPTIONAL_FLOW) Flow optionalStatisticsFlow,
+            @Qualifier(VEP_ANNOTATION_OPTIONAL_FLOW) Flow annotationFlowOptional,
+            PipelineTaskExecutor pipelineTaskExecutor) {
+        return new FlowBuilder<Flow>(PARALLEL_STATISTICS_BY_MANIFEST_AND_ANNOTATION)
+                .split(pipelineTaskExecutor.getExecutor(PipelineTaskExecutor.FLOWS_POOL))
+                .add(optionalStatisticsFlow, annotationFlowOptional)
+                .build();
+    }
+
+}
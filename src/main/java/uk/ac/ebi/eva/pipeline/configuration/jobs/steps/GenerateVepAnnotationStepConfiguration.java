@@ -18,8 +18,10 @@ package uk.ac.ebi.eva.pipeline.configuration.jobs.steps;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.batch.item.ItemStreamReader;
 import org.springframework.batch.item.ItemWriter;
@@ -32,12 +34,17 @@ import org.springframework.context.annotation.Import;
 
 import uk.ac.ebi.eva.commons.models.mongo.entity.Annotation;
 import uk.ac.ebi.eva.pipeline.configuration.ChunkSizeCompletionPolicyConfiguration;
+import uk.ac.ebi.eva.pipeline.configuration.MetricsConfiguration;
 import uk.ac.ebi.eva.pipeline.configuration.io.readers.VariantsMongoReaderConfiguration;
 import uk.ac.ebi.eva.pipeline.configuration.io.writers.AnnotationCompositeWriterConfiguration;
 import uk.ac.ebi.eva.pipeline.configuration.io.writers.AnnotationWriterConfiguration;
 import uk.ac.ebi.eva.pipeline.configuration.jobs.steps.processors.AnnotationCompositeProcessorConfiguration;
 import uk.ac.ebi.eva.pipeline.io.readers.AnnotationFlatFileReader;
+import uk.ac.ebi.eva.pipeline.jobs.CheckpointingJobRepository;
+import uk.ac.ebi.eva.pipeline.listeners.StepMetricsListener;
 import uk.ac.ebi.eva.pipeline.listeners.StepProgressListener;
+import uk.ac.ebi.eva.pipeline.listeners.VepOutputSpoolListener;
+import uk.ac.ebi.eva.pipeline.metrics.PipelineMetrics;
 import uk.ac.ebi.eva.pipeline.model.EnsemblVariant;
 import uk.ac.ebi.eva.pipeline.parameters.JobOptions;
 
@@ -60,7 +67,8 @@ import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.VARIANTS_READER;
 @Configuration
 @EnableBatchProcessing
 @Import({VariantsMongoReaderConfiguration.class, AnnotationCompositeProcessorConfiguration.class,
-        AnnotationCompositeWriterConfiguration.class, ChunkSizeCompletionPolicyConfiguration.class})
+        AnnotationCompositeWriterConfiguration.class, ChunkSizeCompletionPolicyConfiguration.class,
+        MetricsConfiguration.class})
 public class GenerateVepAnnotationStepConfiguration {
 
     private static final Logger logger = LoggerFactory.getLogger(GenerateVepAnnotationStepConfiguration.class);
@@ -78,16 +86,20 @@ public class GenerateVepAnnotationStepConfiguration {
     private ItemWriter<List<Annotation>> annotationWriter;
 
     @Bean(GENERATE_VEP_ANNOTATION_STEP)
-    public Step generateVepAnnotationStep(StepBuilderFactory stepBuilderFactory, JobOptions jobOptions) {
+    public Step generateVepAnnotationStep(StepBuilderFactory stepBuilderFactory, JobOptions jobOptions,
+                                          JobRepository jobRepository, PipelineMetrics pipelineMetrics) {
         logger.debug("Building '" + GENERATE_VEP_ANNOTATION_STEP + "'");
 
         return stepBuilderFactory.get(GENERATE_VEP_ANNOTATION_STEP)
+                .repository(new CheckpointingJobRepository(jobRepository))
                 .<List<EnsemblVariant>, List<Annotation>>chunk(1)
                 .reader(nonAnnotatedVariantsReader)
                 .processor(annotationCompositeProcessor)
                 .writer(annotationWriter)
                 .allowStartIfComplete(jobOptions.isAllowStartIfComplete())
                 .listener(new StepProgressListener())
+                .listener(new VepOutputSpoolListener())
+                .listener((StepExecutionListener) new StepMetricsListener(pipelineMetrics))
                 .build();
     }
 }
@@ -19,8 +19,10 @@ package uk.ac.ebi.eva.pipeline.configuration.jobs.steps;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.item.ItemStreamReader;
 import org.springframework.batch.item.ItemWriter;
 import org.springframework.batch.item.file.FlatFileParseException;
@@ -32,13 +34,17 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 
 import uk.ac.ebi.eva.pipeline.configuration.ChunkSizeCompletionPolicyConfiguration;
+import uk.ac.ebi.eva.pipeline.configuration.MetricsConfiguration;
 import uk.ac.ebi.eva.pipeline.configuration.io.readers.GeneReaderConfiguration;
 import uk.ac.ebi.eva.pipeline.configuration.io.writers.GeneWriterConfiguration;
 import uk.ac.ebi.eva.pipeline.io.mappers.GeneLineMapper;
 import uk.ac.ebi.eva.pipeline.io.readers.GeneReader;
 import uk.ac.ebi.eva.pipeline.io.writers.GeneWriter;
+import uk.ac.ebi.eva.pipeline.jobs.CheckpointingJobRepository;
 import uk.ac.ebi.eva.pipeline.jobs.steps.processors.GeneFilterProcessor;
 import uk.ac.ebi.eva.pipeline.listeners.SkippedItemListener;
+import uk.ac.ebi.eva.pipeline.listeners.StepMetricsListener;
+import uk.ac.ebi.eva.pipeline.metrics.PipelineMetrics;
 import uk.ac.ebi.eva.pipeline.model.FeatureCoordinates;
 import uk.ac.ebi.eva.pipeline.parameters.JobOptions;
 
@@ -61,7 +67,8 @@ import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.GENE_WRITER;
 
 @Configuration
 @EnableBatchProcessing
-@Import({GeneReaderConfiguration.class, GeneWriterConfiguration.class, ChunkSizeCompletionPolicyConfiguration.class})
+@Import({GeneReaderConfiguration.class, GeneWriterConfiguration.class, ChunkSizeCompletionPolicyConfiguration.class,
+        MetricsConfiguration.class})
 public class LoadFeatureCoordinatesStepConfiguration {
 
     private static final Logger logger = LoggerFactory.getLogger(LoadFeatureCoordinatesStepConfiguration.class);
@@ -76,10 +83,12 @@ public class LoadFeatureCoordinatesStepConfiguration {
 
     @Bean(LOAD_FEATURE_COORDINATES_STEP)
     public Step LoadFeatureCoordinatesStep(StepBuilderFactory stepBuilderFactory, JobOptions jobOptions,
-                              SimpleCompletionPolicy chunkSizeCompletionPolicy) {
+                              SimpleCompletionPolicy chunkSizeCompletionPolicy,
+                              JobRepository jobRepository, PipelineMetrics pipelineMetrics) {
         logger.debug("Building '" + LOAD_FEATURE_COORDINATES_STEP + "'");
 
         return stepBuilderFactory.get(LOAD_FEATURE_COORDINATES_STEP)
+                .repository(new CheckpointingJobRepository(jobRepository))
                 .<FeatureCoordinates, FeatureCoordinates>chunk(chunkSizeCompletionPolicy)
                 .reader(reader)
                 .processor(new GeneFilterProcessor())
@@ -87,6 +96,7 @@ public class LoadFeatureCoordinatesStepConfiguration {
                 .faultTolerant().skipLimit(50).skip(FlatFileParseException.class)
                 .allowStartIfComplete(jobOptions.isAllowStartIfComplete())
                 .listener(new SkippedItemListener())
+                .listener((StepExecutionListener) new StepMetricsListener(pipelineMetrics))
                 .build();
     }
 
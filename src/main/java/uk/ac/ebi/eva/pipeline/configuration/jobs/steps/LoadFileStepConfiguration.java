@@ -23,7 +23,9 @@ import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.step.tasklet.TaskletStep;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 
+import uk.ac.ebi.eva.pipeline.configuration.io.writers.VariantSourceEntityWriterConfiguration;
 import uk.ac.ebi.eva.pipeline.jobs.steps.tasklets.LoadFileTasklet;
 import uk.ac.ebi.eva.pipeline.parameters.JobOptions;
 import uk.ac.ebi.eva.utils.TaskletUtils;
@@ -35,6 +37,7 @@ import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.LOAD_FILE_STEP;
  */
 @Configuration
 @EnableBatchProcessing
+@Import({VariantSourceEntityWriterConfiguration.class})
 public class LoadFileStepConfiguration {
 
     private static final Logger logger = LoggerFactory.getLogger(LoadFileStepConfiguration.class);
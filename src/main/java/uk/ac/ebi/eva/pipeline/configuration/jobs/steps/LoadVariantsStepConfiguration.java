@@ -18,8 +18,10 @@ package uk.ac.ebi.eva.pipeline.configuration.jobs.steps;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.item.ItemStreamReader;
 import org.springframework.batch.item.ItemWriter;
 import org.springframework.batch.repeat.policy.SimpleCompletionPolicy;
@@ -31,12 +33,16 @@ import org.springframework.context.annotation.Import;
 
 import uk.ac.ebi.eva.commons.models.data.Variant;
 import uk.ac.ebi.eva.pipeline.configuration.ChunkSizeCompletionPolicyConfiguration;
+import uk.ac.ebi.eva.pipeline.configuration.MetricsConfiguration;
 import uk.ac.ebi.eva.pipeline.configuration.io.readers.VcfReaderConfiguration;
 import uk.ac.ebi.eva.pipeline.configuration.io.writers.VariantWriterConfiguration;
+import uk.ac.ebi.eva.pipeline.jobs.CheckpointingJobRepository;
 import uk.ac.ebi.eva.pipeline.jobs.steps.processors.VariantNoAlternateFilterProcessor;
 import uk.ac.ebi.eva.pipeline.listeners.SkippedItemListener;
+import uk.ac.ebi.eva.pipeline.listeners.StepMetricsListener;
 import uk.ac.ebi.eva.pipeline.listeners.StepProgressListener;
 import uk.ac.ebi.eva.pipeline.listeners.VariantLoaderStepStatisticsListener;
+import uk.ac.ebi.eva.pipeline.metrics.PipelineMetrics;
 import uk.ac.ebi.eva.pipeline.parameters.JobOptions;
 
 import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.LOAD_VARIANTS_STEP;
@@ -51,7 +57,8 @@ import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.VARIANT_WRITER;
  */
 @Configuration
 @EnableBatchProcessing
-@Import({VcfReaderConfiguration.class, VariantWriterConfiguration.class, ChunkSizeCompletionPolicyConfiguration.class})
+@Import({VcfReaderConfiguration.class, VariantWriterConfiguration.class, ChunkSizeCompletionPolicyConfiguration.class,
+        MetricsConfiguration.class})
 public class LoadVariantsStepConfiguration {
 
     private static final Logger logger = LoggerFactory.getLogger(LoadVariantsStepConfiguration.class);
@@ -66,10 +73,12 @@ public class LoadVariantsStepConfiguration {
 
     @Bean(LOAD_VARIANTS_STEP)
     public Step loadVariantsStep(StepBuilderFactory stepBuilderFactory, JobOptions jobOptions,
-                                 SimpleCompletionPolicy chunkSizeCompletionPolicy) {
+                                 SimpleCompletionPolicy chunkSizeCompletionPolicy,
+                                 JobRepository jobRepository, PipelineMetrics pipelineMetrics) {
         logger.debug("Building '" + LOAD_VARIANTS_STEP + "'");
 
         return stepBuilderFactory.get(LOAD_VARIANTS_STEP)
+                .repository(new CheckpointingJobRepository(jobRepository))
                 .<Variant, Variant>chunk(chunkSizeCompletionPolicy)
                 .reader(reader)
                 .processor(new VariantNoAlternateFilterProcessor())
@@ -78,6 +87,7 @@ public class LoadVariantsStepConfiguration {
                 .listener(new SkippedItemListener())
                 .listener(new StepProgressListener())
                 .listener(new VariantLoaderStepStatisticsListener())
+                .listener((StepExecutionListener) new StepMetricsListener(pipelineMetrics))
                 .build();
     }
 
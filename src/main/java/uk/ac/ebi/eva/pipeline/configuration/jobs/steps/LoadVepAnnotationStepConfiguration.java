@@ -0,0 +1,136 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.configuration.jobs.steps;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.repeat.policy.SimpleCompletionPolicy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskExecutor;
+
+import uk.ac.ebi.eva.commons.models.mongo.entity.Annotation;
+import uk.ac.ebi.eva.pipeline.configuration.ChunkSizeCompletionPolicyConfiguration;
+import uk.ac.ebi.eva.pipeline.configuration.MetricsConfiguration;
+import uk.ac.ebi.eva.pipeline.configuration.PartitionTaskExecutorConfiguration;
+import uk.ac.ebi.eva.pipeline.configuration.io.readers.AnnotationReaderConfiguration;
+import uk.ac.ebi.eva.pipeline.configuration.io.writers.AnnotationCompositeWriterConfiguration;
+import uk.ac.ebi.eva.pipeline.io.writers.WindingItemWriter;
+import uk.ac.ebi.eva.pipeline.jobs.CheckpointingJobRepository;
+import uk.ac.ebi.eva.pipeline.jobs.steps.partitioners.FilePartitioner;
+import uk.ac.ebi.eva.pipeline.jobs.steps.partitioners.JobRepositoryPartitionHandler;
+import uk.ac.ebi.eva.pipeline.listeners.AnnotationLoaderStepStatisticsListener;
+import uk.ac.ebi.eva.pipeline.listeners.SkippedItemListener;
+import uk.ac.ebi.eva.pipeline.listeners.StepMetricsListener;
+import uk.ac.ebi.eva.pipeline.listeners.StepProgressListener;
+import uk.ac.ebi.eva.pipeline.metrics.PipelineMetrics;
+import uk.ac.ebi.eva.pipeline.parameters.AnnotationParameters;
+import uk.ac.ebi.eva.pipeline.parameters.JobOptions;
+
+import java.util.List;
+
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.COMPOSITE_ANNOTATION_VARIANT_WRITER;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.LOAD_VEP_ANNOTATION_PARTITION_STEP;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.LOAD_VEP_ANNOTATION_STEP;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.PARTITION_TASK_EXECUTOR;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.VARIANT_ANNOTATION_READER;
+
+/**
+ * This step loads pre-computed VEP annotations into mongo.
+ * <p>
+ * Input: one or more gzipped files written by VEP, readable with
+ * {@link uk.ac.ebi.eva.pipeline.io.readers.AnnotationFlatFileReader}
+ * <p>
+ * Output: annotations in the annotations collection, and their summary in the variants collection
+ * <p>
+ * Every file is a partition that is decompressed, parsed and written in its own thread, and the annotations of each
+ * chunk are grouped by variant and written with a bulk operation. A failed execution will be restarted from the last
+ * committed chunk of the partitions that did not finish.
+ */
+@Configuration
+@EnableBatchProcessing
+@Import({AnnotationReaderConfiguration.class, AnnotationCompositeWriterConfiguration.class,
+        ChunkSizeCompletionPolicyConfiguration.class, PartitionTaskExecutorConfiguration.class,
+        MetricsConfiguration.class})
+public class LoadVepAnnotationStepConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadVepAnnotationStepConfiguration.class);
+
+    @Autowired
+    @Qualifier(VARIANT_ANNOTATION_READER)
+    private ItemStreamReader<Annotation> annotationReader;
+
+    @Autowired
+    @Qualifier(COMPOSITE_ANNOTATION_VARIANT_WRITER)
+    private ItemWriter<List<Annotation>> annotationWriter;
+
+    @Autowired
+    @Qualifier(PARTITION_TASK_EXECUTOR)
+    private TaskExecutor partitionTaskExecutor;
+
+    @Bean
+    @StepScope
+    public Partitioner vepOutputFilePartitioner(AnnotationParameters annotationParameters) {
+        return new FilePartitioner(annotationParameters.getInputAnnotationFiles());
+    }
+
+    @Bean(LOAD_VEP_ANNOTATION_PARTITION_STEP)
+    public Step loadVepAnnotationPartitionStep(StepBuilderFactory stepBuilderFactory, JobOptions jobOptions,
+                                               SimpleCompletionPolicy chunkSizeCompletionPolicy,
+                                               JobRepository jobRepository, PipelineMetrics pipelineMetrics) {
+        logger.debug("Building '" + LOAD_VEP_ANNOTATION_PARTITION_STEP + "'");
+
+        return stepBuilderFactory.get(LOAD_VEP_ANNOTATION_PARTITION_STEP)
+                .repository(new CheckpointingJobRepository(jobRepository))
+                .<Annotation, Annotation>chunk(chunkSizeCompletionPolicy)
+                .reader(annotationReader)
+                .writer(new WindingItemWriter<>(annotationWriter))
+                .allowStartIfComplete(jobOptions.isAllowStartIfComplete())
+                .listener(new SkippedItemListener())
+                .listener(new StepProgressListener())
+                .listener(new AnnotationLoaderStepStatisticsListener())
+                .listener((StepExecutionListener) new StepMetricsListener(pipelineMetrics))
+                .build();
+    }
+
+    @Bean(LOAD_VEP_ANNOTATION_STEP)
+    public Step loadVepAnnotationStep(StepBuilderFactory stepBuilderFactory, JobOptions jobOptions,
+                                      Partitioner vepOutputFilePartitioner,
+                                      @Qualifier(LOAD_VEP_ANNOTATION_PARTITION_STEP) Step partitionStep,
+                                      JobExplorer jobExplorer, JobRepository jobRepository) throws Exception {
+        logger.debug("Building '" + LOAD_VEP_ANNOTATION_STEP + "'");
+
+        return stepBuilderFactory.get(LOAD_VEP_ANNOTATION_STEP)
+                .partitioner(LOAD_VEP_ANNOTATION_PARTITION_STEP, vepOutputFilePartitioner)
+                .partitionHandler(new JobRepositoryPartitionHandler(partitionStep, partitionTaskExecutor,
+                                                                    jobExplorer, jobRepository))
+                .allowStartIfComplete(jobOptions.isAllowStartIfComplete())
+                .build();
+    }
+}
@@ -16,41 +16,172 @@
 
 package uk.ac.ebi.eva.pipeline.configuration.jobs.steps;
 
+import com.mongodb.DBObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
 import org.springframework.batch.core.configuration.annotation.StepScope;
-import org.springframework.batch.core.step.tasklet.TaskletStep;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.repeat.policy.SimpleCompletionPolicy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
 
-import uk.ac.ebi.eva.pipeline.jobs.steps.tasklets.PullFilesAndStatisticsByStudyTasklet;
+import uk.ac.ebi.eva.pipeline.configuration.ChunkSizeCompletionPolicyConfiguration;
+import uk.ac.ebi.eva.pipeline.configuration.MetricsConfiguration;
+import uk.ac.ebi.eva.pipeline.configuration.PartitionTaskExecutorConfiguration;
+import uk.ac.ebi.eva.pipeline.io.WriteThrottle;
+import uk.ac.ebi.eva.pipeline.io.readers.MongoDbCursorItemReader;
+import uk.ac.ebi.eva.pipeline.io.writers.PullFilesAndStatisticsByStudyWriter;
+import uk.ac.ebi.eva.pipeline.io.writers.ThrottledItemWriter;
+import uk.ac.ebi.eva.pipeline.io.writers.WriteThrottledItemWriter;
+import uk.ac.ebi.eva.pipeline.jobs.CheckpointingJobRepository;
+import uk.ac.ebi.eva.pipeline.jobs.steps.processors.DocumentIdProcessor;
+import uk.ac.ebi.eva.pipeline.jobs.steps.partitioners.JobRepositoryPartitionHandler;
+import uk.ac.ebi.eva.pipeline.jobs.steps.partitioners.MongoIdRangePartitioner;
+import uk.ac.ebi.eva.pipeline.listeners.StepMetricsListener;
+import uk.ac.ebi.eva.pipeline.listeners.StepProgressListener;
+import uk.ac.ebi.eva.pipeline.metrics.PipelineMetrics;
+import uk.ac.ebi.eva.pipeline.model.Region;
+import uk.ac.ebi.eva.pipeline.parameters.ChunkSizeParameters;
+import uk.ac.ebi.eva.pipeline.parameters.DatabaseParameters;
+import uk.ac.ebi.eva.pipeline.parameters.ExecutionContextParametersNames;
+import uk.ac.ebi.eva.pipeline.parameters.InputParameters;
 import uk.ac.ebi.eva.pipeline.parameters.JobOptions;
-import uk.ac.ebi.eva.utils.TaskletUtils;
+import uk.ac.ebi.eva.pipeline.parameters.ParallelismParameters;
+import uk.ac.ebi.eva.pipeline.parameters.WriteRateLimitParameters;
 
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.PULL_FILES_AND_STATISTICS_BY_STUDY_PARTITION_STEP;
 import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.PULL_FILES_AND_STATISTICS_BY_STUDY_STEP;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.PULL_FILES_AND_STATISTICS_BY_STUDY_WRITER;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.PARTITION_TASK_EXECUTOR;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.VARIANT_IDS_TO_PULL_PARTITIONER;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.VARIANT_IDS_TO_PULL_READER;
 
 /**
  * Step that pulls the file and statistics in a variant based on their study id.
+ * <p>
+ * The ids of the variants in the study are split in ranges that are processed concurrently, like in
+ * {@link DropVariantsByStudyStepConfiguration}, and every chunk is updated with a single bounded update.
+ * <p>
+ * If a region is provided, only the variants that start in that region are updated.
  */
 @Configuration
 @EnableBatchProcessing
+@Import({ChunkSizeCompletionPolicyConfiguration.class, PartitionTaskExecutorConfiguration.class,
+        MetricsConfiguration.class})
 public class PullFilesAndStatisticsByStudyStepConfiguration {
 
-    private static final Logger logger = LoggerFactory.getLogger(PullFilesAndStatisticsByStudyStepConfiguration.class);
+    private static final Logger logger = LoggerFactory.getLogger(
+            PullFilesAndStatisticsByStudyStepConfiguration.class);
 
-    @Bean
+    private static final String PARTITION_PARAMETER = "#{stepExecutionContext['";
+
+    private static final String END = "']}";
+
+    @Autowired
+    @Qualifier(PARTITION_TASK_EXECUTOR)
+    private TaskExecutor partitionTaskExecutor;
+
+    @Bean(VARIANT_IDS_TO_PULL_PARTITIONER)
+    @StepScope
+    public Partitioner variantIdsToPullPartitioner(MongoOperations mongoOperations,
+                                                   DatabaseParameters databaseParameters,
+                                                   InputParameters inputParameters,
+                                                   ParallelismParameters parallelismParameters) {
+        return new MongoIdRangePartitioner(
+                mongoOperations, databaseParameters.getCollectionVariantsName(),
+                variantsToPull(inputParameters),
+                parallelismParameters.getParallelism(), MongoIdRangePartitioner.DEFAULT_SAMPLES_PER_PARTITION);
+    }
+
+    @Bean(VARIANT_IDS_TO_PULL_READER)
     @StepScope
-    public PullFilesAndStatisticsByStudyTasklet pullFilesAndStatisticsByStudyTasklet() {
-        return new PullFilesAndStatisticsByStudyTasklet();
+    public ItemStreamReader<DBObject> variantIdsToPullReader(
+            MongoOperations mongoOperations, DatabaseParameters databaseParameters, InputParameters inputParameters,
+            ChunkSizeParameters chunkSizeParameters,
+            @Value(PARTITION_PARAMETER + ExecutionContextParametersNames.PARTITION_MIN_ID + END) String minId,
+            @Value(PARTITION_PARAMETER + ExecutionContextParametersNames.PARTITION_MAX_ID + END) String maxId)
+            throws Exception {
+        MongoDbCursorItemReader reader = new MongoDbCursorItemReader();
+        reader.setTemplate(mongoOperations);
+        reader.setCollection(databaseParameters.getCollectionVariantsName());
+        reader.setQuery(variantsToPull(inputParameters).getCriteriaObject());
+        reader.setFields("_id");
+        reader.setIdRange(minId, maxId);
+        reader.setBatchSize(chunkSizeParameters.getChunkSize());
+        reader.setNoCursorTimeout(true);
+        reader.afterPropertiesSet();
+        return reader;
+    }
+
+    private static Criteria variantsToPull(InputParameters inputParameters) {
+        return Region.restrict(PullFilesAndStatisticsByStudyWriter.variantsInStudy(inputParameters.getStudyId()),
+                               inputParameters.getRegion());
+    }
+
+    @Bean(PULL_FILES_AND_STATISTICS_BY_STUDY_WRITER)
+    @StepScope
+    public ItemWriter<String> pullFilesAndStatisticsByStudyWriter(
+            MongoOperations mongoOperations, DatabaseParameters databaseParameters, InputParameters inputParameters,
+            ParallelismParameters parallelismParameters, WriteRateLimitParameters writeRateLimitParameters,
+            WriteThrottle writeThrottle) {
+        ItemWriter<String> writer = new PullFilesAndStatisticsByStudyWriter(
+                mongoOperations, databaseParameters.getCollectionVariantsName(), inputParameters.getStudyId(),
+                databaseParameters.getCollectionGenotypesName());
+        return ThrottledItemWriter.throttle(WriteThrottledItemWriter.throttle(writer, writeThrottle),
+                                            writeRateLimitParameters.getWriteRateLimit(),
+                                            parallelismParameters.getParallelism());
+    }
+
+    @Bean(PULL_FILES_AND_STATISTICS_BY_STUDY_PARTITION_STEP)
+    public Step pullFilesAndStatisticsByStudyPartitionStep(
+            StepBuilderFactory stepBuilderFactory, JobOptions jobOptions,
+            SimpleCompletionPolicy chunkSizeCompletionPolicy,
+            @Qualifier(VARIANT_IDS_TO_PULL_READER) ItemStreamReader<DBObject> reader,
+            @Qualifier(PULL_FILES_AND_STATISTICS_BY_STUDY_WRITER) ItemWriter<String> writer,
+            JobRepository jobRepository, PipelineMetrics pipelineMetrics) {
+        logger.debug("Building '" + PULL_FILES_AND_STATISTICS_BY_STUDY_PARTITION_STEP + "'");
+
+        return stepBuilderFactory.get(PULL_FILES_AND_STATISTICS_BY_STUDY_PARTITION_STEP)
+                .repository(new CheckpointingJobRepository(jobRepository))
+                .<DBObject, String>chunk(chunkSizeCompletionPolicy)
+                .reader(reader)
+                .processor(new DocumentIdProcessor())
+                .writer(writer)
+                .allowStartIfComplete(jobOptions.isAllowStartIfComplete())
+                .listener(new StepProgressListener())
+                .listener((StepExecutionListener) new StepMetricsListener(pipelineMetrics))
+                .build();
     }
 
     @Bean(PULL_FILES_AND_STATISTICS_BY_STUDY_STEP)
-    public TaskletStep pullFilesAndStatisticsByStudyStep(StepBuilderFactory stepBuilderFactory,
-                                                             JobOptions jobOptions) {
-        return TaskletUtils.generateStep(stepBuilderFactory, PULL_FILES_AND_STATISTICS_BY_STUDY_STEP,
-                pullFilesAndStatisticsByStudyTasklet(), jobOptions.isAllowStartIfComplete());
+    public Step pullFilesAndStatisticsByStudyStep(
+            StepBuilderFactory stepBuilderFactory, JobOptions jobOptions,
+            @Qualifier(VARIANT_IDS_TO_PULL_PARTITIONER) Partitioner partitioner,
+            @Qualifier(PULL_FILES_AND_STATISTICS_BY_STUDY_PARTITION_STEP) Step partitionStep,
+            JobExplorer jobExplorer, JobRepository jobRepository) throws Exception {
+        logger.debug("Building '" + PULL_FILES_AND_STATISTICS_BY_STUDY_STEP + "'");
+
+        return stepBuilderFactory.get(PULL_FILES_AND_STATISTICS_BY_STUDY_STEP)
+                .partitioner(PULL_FILES_AND_STATISTICS_BY_STUDY_PARTITION_STEP, partitioner)
+                .partitionHandler(new JobRepositoryPartitionHandler(partitionStep, partitionTaskExecutor,
+                                                                    jobExplorer, jobRepository))
+                .allowStartIfComplete(jobOptions.isAllowStartIfComplete())
+                .build();
     }
 
 }
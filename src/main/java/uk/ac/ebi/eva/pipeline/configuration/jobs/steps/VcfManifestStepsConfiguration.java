@@ -0,0 +1,147 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.configuration.jobs.steps;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskExecutor;
+
+import uk.ac.ebi.eva.pipeline.configuration.PartitionTaskExecutorConfiguration;
+import uk.ac.ebi.eva.pipeline.jobs.steps.partitioners.JobRepositoryPartitionHandler;
+import uk.ac.ebi.eva.pipeline.jobs.steps.partitioners.VcfManifestPartitioner;
+import uk.ac.ebi.eva.pipeline.model.VcfManifest;
+import uk.ac.ebi.eva.pipeline.parameters.InputParameters;
+import uk.ac.ebi.eva.pipeline.parameters.JobOptions;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.CALCULATE_STATISTICS_BY_MANIFEST_STEP;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.CALCULATE_STATISTICS_STEP;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.LOAD_FILES_BY_MANIFEST_STEP;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.LOAD_FILE_STEP;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.LOAD_STATISTICS_BY_MANIFEST_STEP;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.LOAD_STATISTICS_STEP;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.LOAD_VARIANTS_BY_MANIFEST_STEP;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.LOAD_VARIANTS_STEP;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.PARTITION_TASK_EXECUTOR;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.SORT_VCFS_BY_MANIFEST_STEP;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.SORT_VCF_STEP;
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.VCF_MANIFEST_PARTITIONER;
+
+/**
+ * Steps that run the single file steps once per VCF in a manifest.
+ * <p>
+ * Input: a manifest of VCFs, see {@link VcfManifest}
+ * <p>
+ * Every file is a partition, and up to the configured parallelism of them are processed concurrently. All the
+ * partitions run in the same JVM by default and share its Mongo client, but they can also be executed by remote
+ * workers like any other partitioned step.
+ */
+@Configuration
+@EnableBatchProcessing
+@Import({SortVcfStepConfiguration.class, LoadVariantsStepConfiguration.class, LoadFileStepConfiguration.class,
+        CalculateStatisticsStepConfiguration.class, LoadStatisticsStepConfiguration.class,
+        PartitionTaskExecutorConfiguration.class})
+public class VcfManifestStepsConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(VcfManifestStepsConfiguration.class);
+
+    @Autowired
+    @Qualifier(PARTITION_TASK_EXECUTOR)
+    private TaskExecutor partitionTaskExecutor;
+
+    @Bean(VCF_MANIFEST_PARTITIONER)
+    @StepScope
+    public Partitioner vcfManifestPartitioner(InputParameters inputParameters) throws IOException {
+        return new VcfManifestPartitioner(VcfManifest.read(Paths.get(inputParameters.getVcfManifest())));
+    }
+
+    @Bean(SORT_VCFS_BY_MANIFEST_STEP)
+    public Step sortVcfsByManifestStep(StepBuilderFactory stepBuilderFactory, JobOptions jobOptions,
+                                       @Qualifier(VCF_MANIFEST_PARTITIONER) Partitioner partitioner,
+                                       @Qualifier(SORT_VCF_STEP) Step sortVcfStep,
+                                       JobExplorer jobExplorer, JobRepository jobRepository) throws Exception {
+        return partitionedStep(stepBuilderFactory, jobOptions, SORT_VCFS_BY_MANIFEST_STEP, partitioner, sortVcfStep,
+                               jobExplorer, jobRepository);
+    }
+
+    @Bean(LOAD_VARIANTS_BY_MANIFEST_STEP)
+    public Step loadVariantsByManifestStep(StepBuilderFactory stepBuilderFactory, JobOptions jobOptions,
+                                           @Qualifier(VCF_MANIFEST_PARTITIONER) Partitioner partitioner,
+                                           @Qualifier(LOAD_VARIANTS_STEP) Step loadVariantsStep,
+                                           JobExplorer jobExplorer, JobRepository jobRepository) throws Exception {
+        return partitionedStep(stepBuilderFactory, jobOptions, LOAD_VARIANTS_BY_MANIFEST_STEP, partitioner,
+                               loadVariantsStep, jobExplorer, jobRepository);
+    }
+
+    @Bean(LOAD_FILES_BY_MANIFEST_STEP)
+    public Step loadFilesByManifestStep(StepBuilderFactory stepBuilderFactory, JobOptions jobOptions,
+                                        @Qualifier(VCF_MANIFEST_PARTITIONER) Partitioner partitioner,
+                                        @Qualifier(LOAD_FILE_STEP) Step loadFileStep,
+                                        JobExplorer jobExplorer, JobRepository jobRepository) throws Exception {
+        return partitionedStep(stepBuilderFactory, jobOptions, LOAD_FILES_BY_MANIFEST_STEP, partitioner,
+                               loadFileStep, jobExplorer, jobRepository);
+    }
+
+    @Bean(CALCULATE_STATISTICS_BY_MANIFEST_STEP)
+    public Step calculateStatisticsByManifestStep(StepBuilderFactory stepBuilderFactory, JobOptions jobOptions,
+                                                  @Qualifier(VCF_MANIFEST_PARTITIONER) Partitioner partitioner,
+                                                  @Qualifier(CALCULATE_STATISTICS_STEP) Step calculateStatisticsStep,
+                                                  JobExplorer jobExplorer, JobRepository jobRepository)
+            throws Exception {
+        return partitionedStep(stepBuilderFactory, jobOptions, CALCULATE_STATISTICS_BY_MANIFEST_STEP, partitioner,
+                               calculateStatisticsStep, jobExplorer, jobRepository);
+    }
+
+    @Bean(LOAD_STATISTICS_BY_MANIFEST_STEP)
+    public Step loadStatisticsByManifestStep(StepBuilderFactory stepBuilderFactory, JobOptions jobOptions,
+                                             @Qualifier(VCF_MANIFEST_PARTITIONER) Partitioner partitioner,
+                                             @Qualifier(LOAD_STATISTICS_STEP) Step loadStatisticsStep,
+                                             JobExplorer jobExplorer, JobRepository jobRepository) throws Exception {
+        return partitionedStep(stepBuilderFactory, jobOptions, LOAD_STATISTICS_BY_MANIFEST_STEP, partitioner,
+                               loadStatisticsStep, jobExplorer, jobRepository);
+    }
+
+    /**
+     * The partitions are named after the step that processes them, so that remote workers can find it.
+     */
+    private Step partitionedStep(StepBuilderFactory stepBuilderFactory, JobOptions jobOptions, String stepName,
+                                 Partitioner partitioner, Step partitionStep, JobExplorer jobExplorer,
+                                 JobRepository jobRepository) throws Exception {
+        logger.debug("Building '" + stepName + "'");
+
+        return stepBuilderFactory.get(stepName)
+                .partitioner(partitionStep.getName(), partitioner)
+                .partitionHandler(new JobRepositoryPartitionHandler(partitionStep, partitionTaskExecutor,
+                                                                    jobExplorer, jobRepository))
+                .allowStartIfComplete(jobOptions.isAllowStartIfComplete())
+                .build();
+    }
+
+}
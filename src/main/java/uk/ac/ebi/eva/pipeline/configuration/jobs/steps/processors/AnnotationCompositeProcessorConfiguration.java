@@ -50,7 +50,7 @@ public class AnnotationCompositeProcessorConfiguration {
 
     @Bean(ANNOTATION_COMPOSITE_PROCESSOR)
     @StepScope
-    @Profile(Application.VARIANT_ANNOTATION_MONGO_PROFILE)
+    @Profile({Application.VARIANT_ANNOTATION_MONGO_PROFILE, Application.VARIANT_ANNOTATION_BSON_PROFILE})
     public CompositeItemProcessor<List<EnsemblVariant>, List<Annotation>> compositeAnnotationItemWriter(){
         CompositeItemProcessor<List<EnsemblVariant>, List<Annotation>> processor = new CompositeItemProcessor<>();
         processor.setDelegates(Arrays.asList(vepAnnotationProcessor, annotationParserProcessor));
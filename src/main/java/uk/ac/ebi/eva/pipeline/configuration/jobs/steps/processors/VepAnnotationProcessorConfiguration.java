@@ -15,15 +15,29 @@
  */
 package uk.ac.ebi.eva.pipeline.configuration.jobs.steps.processors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
 
+import uk.ac.ebi.eva.pipeline.configuration.MetricsConfiguration;
+import uk.ac.ebi.eva.pipeline.configuration.PipelineTaskExecutorConfiguration;
+import uk.ac.ebi.eva.pipeline.io.VepOutputSpool;
+import uk.ac.ebi.eva.pipeline.jobs.PipelineTaskExecutor;
+import uk.ac.ebi.eva.pipeline.jobs.steps.processors.IntergenicVariantProcessor;
 import uk.ac.ebi.eva.pipeline.jobs.steps.processors.VepAnnotationProcessor;
+import uk.ac.ebi.eva.pipeline.metrics.PipelineMetrics;
 import uk.ac.ebi.eva.pipeline.model.EnsemblVariant;
+import uk.ac.ebi.eva.pipeline.model.FeatureCoordinates;
+import uk.ac.ebi.eva.pipeline.model.FeatureIntervalIndex;
 import uk.ac.ebi.eva.pipeline.parameters.AnnotationParameters;
 import uk.ac.ebi.eva.pipeline.parameters.ChunkSizeParameters;
+import uk.ac.ebi.eva.pipeline.parameters.DatabaseParameters;
 
 import java.util.List;
 
@@ -34,17 +48,51 @@ import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.VEP_ANNOTATION_PROC
  * <p>
  * Input: List of EnsemblVariant
  * Output: List of Strings, each string is an output line from VEP
+ * <p>
+ * If {@link uk.ac.ebi.eva.pipeline.parameters.JobParametersNames#ANNOTATION_INTERGENIC_DISTANCE} is set, the variants
+ * far from every feature in the features collection are annotated as intergenic without running VEP.
  */
 @Configuration
+@Import({PipelineTaskExecutorConfiguration.class, MetricsConfiguration.class})
 public class VepAnnotationProcessorConfiguration {
 
+    private static final Logger logger = LoggerFactory.getLogger(VepAnnotationProcessorConfiguration.class);
+
     @Bean(VEP_ANNOTATION_PROCESSOR)
     @StepScope
     public ItemProcessor<List<EnsemblVariant>, List<String>> vepAnnotationProcessor(
             AnnotationParameters annotationParameters,
-            ChunkSizeParameters chunkSizeParameters) {
-        return new VepAnnotationProcessor(annotationParameters, chunkSizeParameters.getChunkSize(),
-                                          annotationParameters.getTimeout());
+            ChunkSizeParameters chunkSizeParameters,
+            MongoOperations mongoOperations,
+            DatabaseParameters databaseParameters,
+            PipelineTaskExecutor pipelineTaskExecutor,
+            PipelineMetrics pipelineMetrics) {
+        VepOutputSpool vepOutputSpool = null;
+        if (annotationParameters.getVepSpoolRetention() != VepOutputSpool.Retention.NONE) {
+            vepOutputSpool = new VepOutputSpool(annotationParameters.getVepSpool(),
+                                                annotationParameters.getVepVersion(),
+                                                annotationParameters.getVepCacheVersion());
+        }
+        VepAnnotationProcessor vepAnnotationProcessor = new VepAnnotationProcessor(
+                annotationParameters, chunkSizeParameters.getChunkSize(), annotationParameters.getTimeout(),
+                vepOutputSpool, pipelineTaskExecutor, pipelineMetrics);
+
+        if (annotationParameters.getIntergenicDistance() > 0) {
+            FeatureIntervalIndex featureIntervalIndex = loadFeatureIntervalIndex(
+                    mongoOperations, databaseParameters.getCollectionFeaturesName());
+            return new IntergenicVariantProcessor(vepAnnotationProcessor, featureIntervalIndex,
+                                                  annotationParameters.getIntergenicDistance());
+        }
+        return vepAnnotationProcessor;
+    }
+
+    private FeatureIntervalIndex loadFeatureIntervalIndex(MongoOperations mongoOperations, String collectionName) {
+        Query query = new Query();
+        query.fields().include("chromosome").include("start").include("end");
+        List<FeatureCoordinates> features = mongoOperations.find(query, FeatureCoordinates.class, collectionName);
+        logger.info("Loaded {} features from collection '{}' to find intergenic variants", features.size(),
+                    collectionName);
+        return new FeatureIntervalIndex(features);
     }
 
 }
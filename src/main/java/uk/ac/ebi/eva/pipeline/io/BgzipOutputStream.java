@@ -0,0 +1,138 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes the blocked gzip format (BGZF) that bgzip and tabix use: a series of gzip members of up to 64 KB each,
+ * followed by an empty end-of-file member. Plain gzip readers see it as a multi-member gzip file, and
+ * {@link uk.ac.ebi.eva.pipeline.io.readers.PositionedLineReader} can seek into it.
+ */
+public class BgzipOutputStream extends FilterOutputStream {
+
+    private static final int MAX_BLOCK_INPUT = 0xff00;
+
+    private static final int MAX_BLOCK_SIZE = 0x10000;
+
+    private static final int HEADER_SIZE = 18;
+
+    private static final int FOOTER_SIZE = 8;
+
+    private static final byte[] EMPTY_BLOCK = {
+            0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff, 6, 0, 0x42, 0x43, 2, 0, 0x1b, 0, 3, 0, 0, 0, 0, 0, 0,
+            0, 0, 0};
+
+    private final byte[] input = new byte[MAX_BLOCK_INPUT];
+
+    private final byte[] compressed = new byte[MAX_BLOCK_SIZE];
+
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+
+    private final Deflater storer = new Deflater(Deflater.NO_COMPRESSION, true);
+
+    private final CRC32 crc = new CRC32();
+
+    private int buffered;
+
+    public BgzipOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        input[buffered++] = (byte) b;
+        if (buffered == MAX_BLOCK_INPUT) {
+            writeBlock();
+        }
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            int copied = Math.min(length, MAX_BLOCK_INPUT - buffered);
+            System.arraycopy(bytes, offset, input, buffered, copied);
+            buffered += copied;
+            offset += copied;
+            length -= copied;
+            if (buffered == MAX_BLOCK_INPUT) {
+                writeBlock();
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (buffered > 0) {
+            writeBlock();
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            out.write(EMPTY_BLOCK);
+            out.flush();
+        } finally {
+            deflater.end();
+            storer.end();
+            out.close();
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        int compressedSize = deflate(deflater);
+        if (compressedSize < 0) {
+            // data that doesn't compress is stored as it is, which always fits
+            compressedSize = deflate(storer);
+        }
+        crc.reset();
+        crc.update(input, 0, buffered);
+
+        int blockSize = HEADER_SIZE + compressedSize + FOOTER_SIZE;
+        out.write(new byte[]{0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff, 6, 0, 0x42, 0x43, 2, 0});
+        writeShort(blockSize - 1);
+        out.write(compressed, 0, compressedSize);
+        writeInt((int) crc.getValue());
+        writeInt(buffered);
+        buffered = 0;
+    }
+
+    private int deflate(Deflater compressor) {
+        int available = MAX_BLOCK_SIZE - HEADER_SIZE - FOOTER_SIZE;
+        compressor.reset();
+        compressor.setInput(input, 0, buffered);
+        compressor.finish();
+        int size = compressor.deflate(compressed, 0, available);
+        return compressor.finished() ? size : -1;
+    }
+
+    private void writeShort(int value) throws IOException {
+        out.write(value & 0xff);
+        out.write((value >>> 8) & 0xff);
+    }
+
+    private void writeInt(int value) throws IOException {
+        writeShort(value & 0xffff);
+        writeShort(value >>> 16);
+    }
+}
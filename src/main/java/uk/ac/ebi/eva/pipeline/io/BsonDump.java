@@ -0,0 +1,307 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io;
+
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.DefaultDBDecoder;
+import com.mongodb.DefaultDBEncoder;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes documents to BSON files laid out as a mongodump: one file per collection in
+ * {@code <partition>/<database>/<collection>.bson}, or {@code .bson.gz} if compressed, so every partition can be
+ * restored with mongorestore (adding {@code --gzip} if compressed).
+ * <p>
+ * Documents are buffered until {@link #flush}, which makes them durable and returns the size of every file. A writer
+ * restarted after a failure can {@link #truncate} the files to those sizes to discard what was written after them.
+ * Compressed files are a sequence of gzip members, one per flush, which gunzip and mongorestore read as a single
+ * stream.
+ */
+public class BsonDump implements Closeable {
+
+    public static final String BSON_EXTENSION = ".bson";
+
+    public static final String GZIP_EXTENSION = ".gz";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final File databaseDirectory;
+
+    private final boolean compress;
+
+    private final Map<String, CollectionFile> files;
+
+    private final DefaultDBEncoder encoder;
+
+    public BsonDump(File partitionDirectory, String database, boolean compress) {
+        this.databaseDirectory = new File(partitionDirectory, database);
+        this.compress = compress;
+        this.files = new HashMap<>();
+        this.encoder = new DefaultDBEncoder();
+    }
+
+    public void write(String collection, DBObject document) throws IOException {
+        CollectionFile file = files.get(collection);
+        if (file == null) {
+            if (!databaseDirectory.isDirectory() && !databaseDirectory.mkdirs()) {
+                throw new IOException("Could not create the BSON dump directory " + databaseDirectory);
+            }
+            file = new CollectionFile(getFile(collection));
+            files.put(collection, file);
+        }
+        file.write(encoder.encode(document));
+    }
+
+    /**
+     * Writes to disk all the documents written so far
+     *
+     * @return the size in bytes of the file of every collection written
+     */
+    public Map<String, Long> flush() throws IOException {
+        Map<String, Long> sizes = new HashMap<>();
+        for (Map.Entry<String, CollectionFile> file : files.entrySet()) {
+            sizes.put(file.getKey(), file.getValue().flush());
+        }
+        return sizes;
+    }
+
+    /**
+     * Truncates every file already in the dump to the given size, or empties it if its collection has none. It must
+     * be called before writing any document.
+     *
+     * @param sizes bytes to keep of the file of each collection, as returned by {@link #flush}
+     */
+    public void truncate(Map<String, Long> sizes) throws IOException {
+        if (!files.isEmpty()) {
+            throw new IllegalStateException("The BSON dump can't be truncated after writing to it");
+        }
+        File[] existingFiles = databaseDirectory.listFiles((directory, name) -> name.endsWith(getExtension()));
+        if (existingFiles == null) {
+            return;
+        }
+        for (File existingFile : existingFiles) {
+            Long size = sizes.get(getCollectionName(existingFile));
+            long sizeToKeep = size == null ? 0 : size;
+            try (RandomAccessFile file = new RandomAccessFile(existingFile, "rw")) {
+                if (file.length() < sizeToKeep) {
+                    throw new IOException("BSON dump file " + existingFile + " is shorter than the " + sizeToKeep
+                                                  + " bytes already written");
+                }
+                file.setLength(sizeToKeep);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException error = null;
+        for (CollectionFile file : files.values()) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                error = error == null ? e : error;
+            }
+        }
+        files.clear();
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    public File getFile(String collection) {
+        return new File(databaseDirectory, collection + getExtension());
+    }
+
+    private String getExtension() {
+        return compress ? BSON_EXTENSION + GZIP_EXTENSION : BSON_EXTENSION;
+    }
+
+    /**
+     * @return the BSON files of a database in all the partitions of a dump directory, sorted by partition and
+     * collection
+     */
+    public static List<File> listFiles(File dumpDirectory, String database) {
+        List<File> dumpFiles = new ArrayList<>();
+        File[] partitions = dumpDirectory.listFiles(File::isDirectory);
+        if (partitions == null) {
+            return dumpFiles;
+        }
+        Arrays.sort(partitions);
+        for (File partition : partitions) {
+            File[] partitionFiles = new File(partition, database).listFiles(
+                    (directory, name) -> name.endsWith(BSON_EXTENSION)
+                            || name.endsWith(BSON_EXTENSION + GZIP_EXTENSION));
+            if (partitionFiles != null) {
+                Arrays.sort(partitionFiles);
+                dumpFiles.addAll(Arrays.asList(partitionFiles));
+            }
+        }
+        return dumpFiles;
+    }
+
+    public static String getCollectionName(File file) {
+        String name = file.getName();
+        if (name.endsWith(GZIP_EXTENSION)) {
+            name = name.substring(0, name.length() - GZIP_EXTENSION.length());
+        }
+        return name.substring(0, name.length() - BSON_EXTENSION.length());
+    }
+
+    /**
+     * Opens a file of a dump, compressed or not, to read its documents one by one
+     */
+    public static Reader openReader(File file) throws IOException {
+        InputStream inputStream = new FileInputStream(file);
+        if (file.getName().endsWith(GZIP_EXTENSION) && file.length() > 0) {
+            // a file truncated to 0 bytes after a restart doesn't have any gzip member
+            inputStream = new GZIPInputStream(inputStream, BUFFER_SIZE);
+        }
+        return new Reader(new BufferedInputStream(inputStream, BUFFER_SIZE));
+    }
+
+    public static class Reader implements Closeable {
+
+        private final InputStream inputStream;
+
+        private final DefaultDBDecoder decoder;
+
+        private Reader(InputStream inputStream) {
+            this.inputStream = inputStream;
+            this.decoder = new DefaultDBDecoder();
+        }
+
+        /**
+         * @return the next document, or null if there are no more
+         * @throws EOFException if the file ends in the middle of a document
+         */
+        public DBObject read() throws IOException {
+            byte[] sizeBytes = new byte[4];
+            int read = readFully(sizeBytes, 0);
+            if (read == 0) {
+                return null;
+            }
+            int size = (sizeBytes[0] & 0xff) | (sizeBytes[1] & 0xff) << 8 | (sizeBytes[2] & 0xff) << 16
+                    | (sizeBytes[3] & 0xff) << 24;
+            if (read < sizeBytes.length || size < sizeBytes.length) {
+                throw new EOFException("Truncated BSON document");
+            }
+            byte[] document = Arrays.copyOf(sizeBytes, size);
+            if (readFully(document, sizeBytes.length) < size - sizeBytes.length) {
+                throw new EOFException("Truncated BSON document");
+            }
+            return decoder.decode(document, (DBCollection) null);
+        }
+
+        private int readFully(byte[] buffer, int offset) throws IOException {
+            int total = 0;
+            while (offset + total < buffer.length) {
+                int read = inputStream.read(buffer, offset + total, buffer.length - offset - total);
+                if (read < 0) {
+                    break;
+                }
+                total += read;
+            }
+            return total;
+        }
+
+        @Override
+        public void close() throws IOException {
+            inputStream.close();
+        }
+    }
+
+    private class CollectionFile {
+
+        private final FileOutputStream file;
+
+        private OutputStream stream;
+
+        CollectionFile(File path) throws IOException {
+            this.file = new FileOutputStream(path, true);
+        }
+
+        void write(byte[] document) throws IOException {
+            if (stream == null) {
+                OutputStream unclosableFile = new UnclosableOutputStream(file);
+                stream = compress ? new GZIPOutputStream(unclosableFile, BUFFER_SIZE)
+                        : new BufferedOutputStream(unclosableFile, BUFFER_SIZE);
+            }
+            stream.write(document);
+        }
+
+        /**
+         * Closes the current gzip member, if compressed, and syncs the file
+         *
+         * @return size of the file
+         */
+        long flush() throws IOException {
+            if (stream != null) {
+                stream.close();
+                stream = null;
+            }
+            file.getChannel().force(false);
+            return file.getChannel().size();
+        }
+
+        void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                file.close();
+            }
+        }
+    }
+
+    /**
+     * Lets the compressing and buffering streams be closed without closing the file below them
+     */
+    private static class UnclosableOutputStream extends FilterOutputStream {
+
+        UnclosableOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.ac.ebi.eva.utils.CompressionHelper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Sorts the lines of a VCF by chromosome and position, so that the variants are written to the database in the order
+ * of its indexes. Chromosomes keep the order in which they first appear in the file, and lines with the same
+ * chromosome and position keep their relative order.
+ * <p>
+ * Files are sorted externally: runs of a bounded number of characters are sorted in memory and spilled
+ * to bgzipped files in the sort directory, which are then merged into the sorted VCF, also bgzipped so that it can be
+ * read from a given position.
+ */
+public class VcfSorter {
+
+    private static final Logger logger = LoggerFactory.getLogger(VcfSorter.class);
+
+    public static final long DEFAULT_MAX_BUFFERED_CHARS = 32 * 1024 * 1024;
+
+    private static final int LINE_OVERHEAD_CHARS = 32;
+
+    private static final String SORTED_SUFFIX = ".sorted.vcf.gz";
+
+    private static final Comparator<DataLine> LINE_ORDER = Comparator.comparingInt((DataLine line) -> line.rank)
+                                                                      .thenComparingInt(line -> line.position);
+
+    private final File directory;
+
+    private final long maxBufferedChars;
+
+    public VcfSorter(File directory) {
+        this(directory, DEFAULT_MAX_BUFFERED_CHARS);
+    }
+
+    public VcfSorter(File directory, long maxBufferedChars) {
+        this.directory = directory;
+        this.maxBufferedChars = maxBufferedChars;
+    }
+
+    /**
+     * @return the VCF itself if it is already sorted, or else a sorted copy in the sort directory. A copy sorted
+     * before, e.g. by a previous execution of the same job, is reused if it is newer than the VCF.
+     */
+    public File sortIfUnsorted(File vcf) throws IOException {
+        File sortedVcf = getSortedFile(vcf);
+        if (isUpToDate(sortedVcf, vcf)) {
+            logger.info("{} was already sorted by chromosome and position into {}", vcf, sortedVcf);
+            return sortedVcf;
+        }
+        if (isSorted(vcf)) {
+            return vcf;
+        }
+
+        logger.info("{} is not sorted by chromosome and position, sorting it into {}", vcf, sortedVcf);
+        sort(vcf, sortedVcf);
+        return sortedVcf;
+    }
+
+    /**
+     * @return the copy of the VCF sorted by {@link #sortIfUnsorted}, or the VCF itself if there is no copy newer than
+     * it, which is the case when the VCF was already sorted.
+     */
+    public File findSortedCopy(File vcf) {
+        File sortedVcf = getSortedFile(vcf);
+        if (isUpToDate(sortedVcf, vcf)) {
+            logger.info("Reading {} sorted by chromosome and position from {}", vcf, sortedVcf);
+            return sortedVcf;
+        }
+        return vcf;
+    }
+
+    private static boolean isUpToDate(File sortedVcf, File vcf) {
+        return sortedVcf.exists() && sortedVcf.lastModified() >= vcf.lastModified();
+    }
+
+    File getSortedFile(File vcf) {
+        String name = vcf.getName().replaceFirst("(\\.vcf)?(\\.b?gz)?$", "");
+        String pathHash = Integer.toHexString(vcf.getAbsolutePath().hashCode());
+        return new File(directory, name + "." + pathHash + SORTED_SUFFIX);
+    }
+
+    /**
+     * Whether every chromosome is in a single block of lines, in which positions never decrease.
+     * <p>
+     * This reads and decompresses the whole VCF, so checking a VCF that is already sorted costs an extra pass over it
+     * before loading.
+     */
+    public static boolean isSorted(File vcf) throws IOException {
+        Map<String, Integer> chromosomeRanks = new HashMap<>();
+        DataLine previous = null;
+        try (BufferedReader reader = openReader(vcf)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("#") || line.isEmpty()) {
+                    continue;
+                }
+                // a chromosome seen before the previous one would have a lower rank
+                DataLine current = new DataLine(line, chromosomeRanks);
+                if (previous != null && LINE_ORDER.compare(previous, current) > 0) {
+                    return false;
+                }
+                previous = current;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The VCF is sorted into a temporary file with a unique name, which is then atomically renamed, so that
+     * concurrent sorts of the same VCF never write into the same file nor read a partial copy.
+     */
+    private void sort(File vcf, File sortedVcf) throws IOException {
+        File partialVcf = Files.createTempFile(directory.toPath(), sortedVcf.getName() + ".", ".part").toFile();
+        List<File> spills = new ArrayList<>();
+        try {
+            List<String> header = new ArrayList<>();
+            List<DataLine> buffer = new ArrayList<>();
+            Map<String, Integer> chromosomeRanks = new HashMap<>();
+            long bufferedChars = 0;
+            try (BufferedReader reader = openReader(vcf)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith("#")) {
+                        header.add(line);
+                    } else if (!line.isEmpty()) {
+                        buffer.add(new DataLine(line, chromosomeRanks));
+                        bufferedChars += line.length() + LINE_OVERHEAD_CHARS;
+                        if (bufferedChars >= maxBufferedChars) {
+                            spills.add(spill(buffer));
+                            buffer.clear();
+                            bufferedChars = 0;
+                        }
+                    }
+                }
+            }
+
+            try (Writer writer = openWriter(partialVcf)) {
+                for (String headerLine : header) {
+                    writer.write(headerLine);
+                    writer.write('\n');
+                }
+                if (spills.isEmpty()) {
+                    buffer.sort(LINE_ORDER);
+                    write(buffer, writer);
+                } else {
+                    if (!buffer.isEmpty()) {
+                        spills.add(spill(buffer));
+                        buffer.clear();
+                    }
+                    merge(spills, chromosomeRanks, writer);
+                }
+            }
+            Files.move(partialVcf.toPath(), sortedVcf.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                       StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            for (File spill : spills) {
+                Files.deleteIfExists(spill.toPath());
+            }
+            Files.deleteIfExists(partialVcf.toPath());
+        }
+    }
+
+    private File spill(List<DataLine> buffer) throws IOException {
+        buffer.sort(LINE_ORDER);
+        File spill = File.createTempFile("vcf-sort-", ".gz", directory);
+        try (Writer writer = openWriter(spill)) {
+            write(buffer, writer);
+        }
+        logger.debug("Spilled {} sorted VCF lines into {}", buffer.size(), spill);
+        return spill;
+    }
+
+    private static void write(List<DataLine> lines, Writer writer) throws IOException {
+        for (DataLine line : lines) {
+            writer.write(line.text);
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * Merges the sorted spills. Ties are taken from the earliest spill, so that the sort is stable.
+     */
+    private static void merge(List<File> spills, Map<String, Integer> chromosomeRanks, Writer writer)
+            throws IOException {
+        PriorityQueue<SpillReader> queue = new PriorityQueue<>(
+                Comparator.comparing((SpillReader spillReader) -> spillReader.current, LINE_ORDER)
+                          .thenComparingInt(spillReader -> spillReader.index));
+        try {
+            for (int i = 0; i < spills.size(); i++) {
+                SpillReader spillReader = new SpillReader(spills.get(i), i, chromosomeRanks);
+                if (spillReader.advance()) {
+                    queue.add(spillReader);
+                } else {
+                    spillReader.close();
+                }
+            }
+            while (!queue.isEmpty()) {
+                SpillReader spillReader = queue.poll();
+                writer.write(spillReader.current.text);
+                writer.write('\n');
+                if (spillReader.advance()) {
+                    queue.add(spillReader);
+                } else {
+                    spillReader.close();
+                }
+            }
+        } finally {
+            for (SpillReader spillReader : queue) {
+                spillReader.close();
+            }
+        }
+    }
+
+    private static BufferedReader openReader(File file) throws IOException {
+        InputStream inputStream = new FileInputStream(file);
+        if (CompressionHelper.isGzip(file)) {
+            inputStream = new GZIPInputStream(inputStream);
+        }
+        return new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+
+    private static Writer openWriter(File file) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(new BgzipOutputStream(new FileOutputStream(file)),
+                                                         StandardCharsets.UTF_8));
+    }
+
+    private static class DataLine {
+
+        private final String text;
+
+        private final int rank;
+
+        private final int position;
+
+        /**
+         * @param chromosomeRanks order of the chromosomes, the new ones are added after the rest
+         */
+        DataLine(String text, Map<String, Integer> chromosomeRanks) throws IOException {
+            int chromosomeEnd = text.indexOf('\t');
+            int positionEnd = chromosomeEnd < 0 ? -1 : text.indexOf('\t', chromosomeEnd + 1);
+            if (positionEnd < 0) {
+                throw new IOException("Malformed VCF line without chromosome and position: " + text);
+            }
+            this.text = text;
+            String chromosome = text.substring(0, chromosomeEnd);
+            Integer rank = chromosomeRanks.get(chromosome);
+            if (rank == null) {
+                rank = chromosomeRanks.size();
+                chromosomeRanks.put(chromosome, rank);
+            }
+            this.rank = rank;
+            try {
+                this.position = Integer.parseInt(text.substring(chromosomeEnd + 1, positionEnd));
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed position in VCF line: " + text, e);
+            }
+        }
+    }
+
+    private static class SpillReader implements Closeable {
+
+        private final BufferedReader reader;
+
+        private final int index;
+
+        private final Map<String, Integer> chromosomeRanks;
+
+        private DataLine current;
+
+        SpillReader(File spill, int index, Map<String, Integer> chromosomeRanks) throws IOException {
+            this.reader = openReader(spill);
+            this.index = index;
+            this.chromosomeRanks = chromosomeRanks;
+        }
+
+        boolean advance() throws IOException {
+            String line = reader.readLine();
+            current = line == null ? null : new DataLine(line, chromosomeRanks);
+            return current != null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
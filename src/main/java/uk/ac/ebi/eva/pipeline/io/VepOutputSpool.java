@@ -0,0 +1,170 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.ac.ebi.eva.pipeline.model.EnsemblVariant;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the VEP output of every batch in a compressed file, so a batch that has to be processed again (e.g. after
+ * a failure in a later writer and a restart) can be replayed without running VEP a second time.
+ * <p>
+ * Each file is keyed by the VEP and cache versions, the batch range, the number of variants and a checksum of the
+ * VEP input, so a file is only reused for exactly the same batch annotated with the same VEP installation.
+ * Files are first written with a temporary name and then moved, so a crash never leaves a partial spool file.
+ * The name of every spool file is recorded in a manifest in the spool directory, so that the files can be cleared
+ * later (even from another process) without touching anything else stored in that directory.
+ */
+public class VepOutputSpool {
+
+    private static final Logger logger = LoggerFactory.getLogger(VepOutputSpool.class);
+
+    /**
+     * When to delete the spooled VEP output
+     */
+    public enum Retention {
+        /** Don't spool the VEP output at all */
+        NONE,
+        /** Delete the spool once the annotation step completes successfully */
+        STEP,
+        /** Never delete the spool */
+        KEEP
+    }
+
+    private static final String SPOOL_FILE_EXTENSION = ".tsv.gz";
+
+    private static final String TEMPORARY_FILE_EXTENSION = ".tmp";
+
+    private static final String MANIFEST_FILE_NAME = "vep_spool.manifest";
+
+    private final Path spoolDirectory;
+
+    private final String versionPrefix;
+
+    public VepOutputSpool(String spoolDirectory, String vepVersion, String vepCacheVersion) {
+        this.spoolDirectory = Paths.get(spoolDirectory);
+        this.versionPrefix = sanitize(vepVersion) + "_" + sanitize(vepCacheVersion);
+    }
+
+    /**
+     * @return the VEP output lines previously spooled for this batch, or null if there are none
+     */
+    public List<String> read(List<EnsemblVariant> ensemblVariants, String vepInput) throws IOException {
+        Path spoolFile = getSpoolFile(ensemblVariants, vepInput);
+        if (!Files.exists(spoolFile)) {
+            return null;
+        }
+
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(spoolFile)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        logger.debug("Replaying {} VEP output lines from {}", lines.size(), spoolFile);
+        return lines;
+    }
+
+    public void write(List<EnsemblVariant> ensemblVariants, String vepInput, List<String> vepOutput)
+            throws IOException {
+        Files.createDirectories(spoolDirectory);
+        Path spoolFile = getSpoolFile(ensemblVariants, vepInput);
+        Path temporaryFile = spoolFile.resolveSibling(spoolFile.getFileName() + TEMPORARY_FILE_EXTENSION);
+        addToManifest(spoolFile);
+
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(temporaryFile)), StandardCharsets.UTF_8))) {
+            for (String line : vepOutput) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+        Files.move(temporaryFile, spoolFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Deletes the spooled files listed in the manifest, and the spool directory if nothing else is left in it
+     */
+    public void clear() throws IOException {
+        clear(spoolDirectory);
+    }
+
+    public static void clear(Path spoolDirectory) throws IOException {
+        Path manifest = spoolDirectory.resolve(MANIFEST_FILE_NAME);
+        if (!Files.exists(manifest)) {
+            return;
+        }
+        for (String fileName : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+            if (!fileName.isEmpty()) {
+                Files.deleteIfExists(spoolDirectory.resolve(fileName));
+                Files.deleteIfExists(spoolDirectory.resolve(fileName + TEMPORARY_FILE_EXTENSION));
+            }
+        }
+        Files.delete(manifest);
+        try {
+            Files.delete(spoolDirectory);
+        } catch (DirectoryNotEmptyException e) {
+            logger.debug("Keeping the VEP output spool directory {}, it contains other files", spoolDirectory);
+        }
+    }
+
+    private synchronized void addToManifest(Path spoolFile) throws IOException {
+        Files.write(spoolDirectory.resolve(MANIFEST_FILE_NAME),
+                    Collections.singletonList(spoolFile.getFileName().toString()), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    Path getSpoolFile(List<EnsemblVariant> ensemblVariants, String vepInput) {
+        EnsemblVariant first = ensemblVariants.get(0);
+        EnsemblVariant last = ensemblVariants.get(ensemblVariants.size() - 1);
+
+        CRC32 checksum = new CRC32();
+        checksum.update(vepInput.getBytes(StandardCharsets.UTF_8));
+
+        String fileName = String.join("_", versionPrefix, sanitize(first.getChr()),
+                                      Integer.toString(first.getStart()), sanitize(last.getChr()),
+                                      Integer.toString(last.getEnd()), Integer.toString(ensemblVariants.size()),
+                                      Long.toHexString(checksum.getValue()));
+        return spoolDirectory.resolve(fileName + SPOOL_FILE_EXTENSION);
+    }
+
+    private static String sanitize(String value) {
+        return String.valueOf(value).replaceAll("[^A-Za-z0-9.\\-]", "-");
+    }
+}
@@ -20,6 +20,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.item.ItemStreamException;
 
+import uk.ac.ebi.eva.pipeline.metrics.events.PipelineEvents;
+import uk.ac.ebi.eva.pipeline.metrics.events.VepProcessEvent;
+import uk.ac.ebi.eva.pipeline.metrics.events.VepReceiveEvent;
+import uk.ac.ebi.eva.pipeline.metrics.events.VepSendEvent;
 import uk.ac.ebi.eva.pipeline.parameters.AnnotationParameters;
 
 import java.io.BufferedOutputStream;
@@ -63,6 +67,9 @@ import java.util.concurrent.atomic.AtomicLong;
  * 20_60479_C/T	20:60479	T	-	-	-	intergenic_variant	-	-	-	-	-	rs149529999	GMAF=T:0.0018;AFR_MAF=T:0.01;AMR_MAF=T:0.0028
  * ..
  * }
+ * <p>
+ * If the {@link PipelineEvents} are enabled, the lifetime of the process and the writes and reads of each batch are
+ * emitted as flight recorder events.
  */
 public class VepProcess {
     private static final Logger logger = LoggerFactory.getLogger(VepProcess.class);
@@ -87,6 +94,8 @@ public class VepProcess {
 
     private boolean skipComments;
 
+    private VepProcessEvent processEvent;
+
     public VepProcess(AnnotationParameters annotationParameters, int chunkSize, Long timeoutInSeconds,
                       Writer annotationWriter, boolean skipComments) {
         if (timeoutInSeconds <= 0) {
@@ -121,6 +130,9 @@ public class VepProcess {
         logger.trace("Starting VEP annotation with parameters = {}", Arrays.toString(processBuilder.command().toArray()));
 
         try {
+            if (PipelineEvents.isEnabled()) {
+                processEvent = new VepProcessEvent(annotationParameters.getVepNumForks());
+            }
             process = processBuilder.start();
         } catch (IOException e) {
             throw new ItemStreamException(e);
@@ -134,8 +146,10 @@ public class VepProcess {
 
     private void captureOutput(Process process, Writer writer) {
         writingOk = new AtomicBoolean(false);
+        boolean emitEvent = PipelineEvents.isEnabled();
         outputCaptureThread = new Thread(() -> {
             long writtenLines = 0;
+            VepReceiveEvent receiveEvent = emitEvent ? new VepReceiveEvent() : null;
 
             try (BufferedReader processStandardOutput = getBufferedReader(process)) {
                 writtenLines = copyVepOutput(processStandardOutput, writer, skipComments);
@@ -143,6 +157,10 @@ public class VepProcess {
             } catch (IOException e) {
                 logger.error("Writing the VEP output failed. ", e);
             }
+            if (receiveEvent != null) {
+                receiveEvent.setLines(writtenLines);
+                receiveEvent.commit();
+            }
             logger.trace("Finished writing VEP output ({} lines written)", writtenLines);
         });
         logger.trace("Starting writing VEP output");
@@ -157,10 +175,14 @@ public class VepProcess {
         if (!isOpen()) {
             throw new IllegalStateException("Process must be initialized (hint: call open() before write())");
         }
+        VepSendEvent sendEvent = PipelineEvents.isEnabled() ? new VepSendEvent(bytes.length) : null;
         tryWithTimeout(() -> {
             processStandardInput.write(bytes);
             return null;
         });
+        if (sendEvent != null) {
+            sendEvent.commit();
+        }
     }
 
     private void tryWithTimeout(Callable<Void> callable) {
@@ -204,12 +226,23 @@ public class VepProcess {
                 checkExitStatus();
                 checkOutputWritingStatus();
             } finally {
+                commitProcessEvent();
                 process = null;
                 logger.trace("VEP process finished");
             }
         }
     }
 
+    private void commitProcessEvent() {
+        if (processEvent != null) {
+            if (!process.isAlive()) {
+                processEvent.setExitValue(process.exitValue());
+            }
+            processEvent.commit();
+            processEvent = null;
+        }
+    }
+
     private void flushProcessStdin() {
         try {
             tryWithTimeout(() -> {
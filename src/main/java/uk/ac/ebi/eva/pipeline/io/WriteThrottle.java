@@ -0,0 +1,202 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Write budget shared by all the writers of the process, so that concurrent steps and jobs together don't write to
+ * the database faster than it can replicate.
+ * <p>
+ * It is a token bucket of documents: each write takes as many tokens as documents it writes, and the bucket is
+ * refilled at the current rate, holding at most one second of writes. A write that finds not enough tokens waits
+ * until they are refilled.
+ * <p>
+ * The rate starts at the configured maximum and adapts to the database: it is halved, at most once per second, when
+ * an acknowledged write takes longer than the target latency or when the replication lag exceeds its limit, and it
+ * grows back by a small fraction of the maximum after every fast write.
+ */
+@ManagedResource(description = "Shared limit of documents per second written to the database")
+public class WriteThrottle {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteThrottle.class);
+
+    static final long ADAPTATION_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    static final long REPLICATION_LAG_CHECK_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private static final double DECREASE_FACTOR = 0.5;
+
+    private static final double INCREASE_FRACTION = 0.02;
+
+    private static final double MIN_RATE_FRACTION = 0.01;
+
+    private final double maxRate;
+
+    private final double minRate;
+
+    private final long targetLatencyNanos;
+
+    private final long maxReplicationLagMillis;
+
+    private final LongSupplier replicationLagProbe;
+
+    private final LongSupplier clock;
+
+    private double rate;
+
+    private double tokens;
+
+    private long lastRefill;
+
+    private long lastDecrease;
+
+    private long lastReplicationLagCheck;
+
+    /**
+     * @param maxDocumentsPerSecond maximum rate, or 0 if the writes are not limited at all
+     * @param targetLatencyMillis writes that take longer than this reduce the rate
+     * @param maxReplicationLagMillis replication lags longer than this reduce the rate
+     * @param replicationLagProbe returns the current replication lag in milliseconds
+     */
+    public WriteThrottle(int maxDocumentsPerSecond, long targetLatencyMillis, long maxReplicationLagMillis,
+                         LongSupplier replicationLagProbe) {
+        this(maxDocumentsPerSecond, targetLatencyMillis, maxReplicationLagMillis, replicationLagProbe,
+             System::nanoTime);
+    }
+
+    WriteThrottle(int maxDocumentsPerSecond, long targetLatencyMillis, long maxReplicationLagMillis,
+                  LongSupplier replicationLagProbe, LongSupplier clock) {
+        Assert.isTrue(maxDocumentsPerSecond >= 0, "The maximum write rate can't be negative");
+        Assert.isTrue(targetLatencyMillis > 0, "The target write latency must be positive");
+        Assert.isTrue(maxReplicationLagMillis > 0, "The maximum replication lag must be positive");
+        Assert.notNull(replicationLagProbe);
+        this.maxRate = maxDocumentsPerSecond;
+        this.minRate = Math.max(1, maxDocumentsPerSecond * MIN_RATE_FRACTION);
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+        this.maxReplicationLagMillis = maxReplicationLagMillis;
+        this.replicationLagProbe = replicationLagProbe;
+        this.clock = clock;
+        this.rate = maxRate;
+        this.tokens = maxRate;
+        long now = clock.getAsLong();
+        this.lastRefill = now;
+        this.lastDecrease = now - ADAPTATION_INTERVAL_NANOS;
+        this.lastReplicationLagCheck = now;
+    }
+
+    public boolean isEnabled() {
+        return maxRate > 0;
+    }
+
+    /**
+     * Waits until the given number of documents can be written.
+     */
+    public void acquire(int documents) throws InterruptedException {
+        if (!isEnabled()) {
+            return;
+        }
+        if (isReplicationLagCheckDue()) {
+            recordReplicationLag(replicationLagProbe.getAsLong());
+        }
+        long delay = reserve(documents);
+        if (delay > 0) {
+            TimeUnit.NANOSECONDS.sleep(delay);
+        }
+    }
+
+    /**
+     * Takes the tokens for a write, leaving the bucket in debt if there are not enough of them.
+     *
+     * @return nanoseconds to wait before writing
+     */
+    synchronized long reserve(int documents) {
+        long now = clock.getAsLong();
+        tokens = Math.min(rate, tokens + (now - lastRefill) * rate / TimeUnit.SECONDS.toNanos(1));
+        lastRefill = now;
+        tokens -= documents;
+        if (tokens >= 0) {
+            return 0;
+        }
+        return (long) (-tokens / rate * TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private synchronized boolean isReplicationLagCheckDue() {
+        long now = clock.getAsLong();
+        if (now - lastReplicationLagCheck < REPLICATION_LAG_CHECK_INTERVAL_NANOS) {
+            return false;
+        }
+        lastReplicationLagCheck = now;
+        return true;
+    }
+
+    /**
+     * Adapts the rate to the time that the database took to acknowledge a write.
+     */
+    public void recordWrite(long latencyNanos) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (latencyNanos > targetLatencyNanos) {
+            decrease("write took " + TimeUnit.NANOSECONDS.toMillis(latencyNanos) + " ms");
+        } else {
+            increase();
+        }
+    }
+
+    /**
+     * Adapts the rate to the delay of the slowest secondary of the replica set.
+     */
+    public void recordReplicationLag(long lagMillis) {
+        if (isEnabled() && lagMillis > maxReplicationLagMillis) {
+            decrease("replication lag is " + lagMillis + " ms");
+        }
+    }
+
+    private synchronized void decrease(String reason) {
+        long now = clock.getAsLong();
+        if (now - lastDecrease < ADAPTATION_INTERVAL_NANOS) {
+            return;
+        }
+        lastDecrease = now;
+        rate = Math.max(minRate, rate * DECREASE_FACTOR);
+        logger.info("Database write rate reduced to {} documents per second, because {}", (long) rate, reason);
+    }
+
+    private synchronized void increase() {
+        rate = Math.min(maxRate, rate + maxRate * INCREASE_FRACTION);
+    }
+
+    /**
+     * @return documents per second currently allowed, or 0 if the writes are not limited
+     */
+    @ManagedAttribute(description = "Documents per second currently allowed, or 0 if not limited")
+    public synchronized double getCurrentRate() {
+        return rate;
+    }
+
+    @ManagedAttribute(description = "Maximum documents per second, or 0 if not limited")
+    public double getMaxRate() {
+        return maxRate;
+    }
+}
@@ -42,6 +42,12 @@ public class AggregatedVcfLineMapper implements LineMapper<List<Variant>> {
 
     public AggregatedVcfLineMapper(String fileId, String studyId, VariantSource.Aggregation aggregation,
                                    String mappingFilePath) throws IOException {
+        this(fileId, studyId, aggregation, mappingFilePath, AttributeRetentionPolicy.keepAll());
+    }
+
+    public AggregatedVcfLineMapper(String fileId, String studyId, VariantSource.Aggregation aggregation,
+                                   String mappingFilePath, AttributeRetentionPolicy attributeRetentionPolicy)
+            throws IOException {
         Assert.notNull(fileId);
         Assert.notNull(studyId);
         Assert.notNull(aggregation);
@@ -69,6 +75,7 @@ public class AggregatedVcfLineMapper implements LineMapper<List<Variant>> {
                         this.getClass().getSimpleName() + " should be used to read aggregated VCFs only, " +
                                 "but the VariantSource.Aggregation is set to NONE");
         }
+        factory.setAttributeRetentionPolicy(attributeRetentionPolicy);
     }
 
     @Override
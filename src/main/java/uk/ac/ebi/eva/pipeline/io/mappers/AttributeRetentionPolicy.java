@@ -0,0 +1,93 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io.mappers;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Decides which attributes of a VCF line are kept in the variant source entries, so that {@link VariantVcfFactory}
+ * doesn't build the ones that won't be stored.
+ * <p>
+ * The source line ("src" attribute) is never stored beyond its first 8 columns, which can be kept as they are or
+ * compressed, or not stored at all. INFO keys can be filtered with a list of keys to keep or a list of keys to drop.
+ * QUAL and FILTER are always kept, and so are the statistics of aggregated files, which don't depend on the
+ * attributes.
+ */
+public class AttributeRetentionPolicy {
+
+    public enum SourceLine {
+        NONE, COLUMNS, COMPRESSED
+    }
+
+    public static final String SOURCE_LINE_ATTRIBUTE = "src";
+
+    private static final int SOURCE_LINE_COLUMNS = 8;
+
+    private final SourceLine sourceLine;
+
+    private final Set<String> infoKeys;
+
+    private final boolean includeInfoKeys;
+
+    private AttributeRetentionPolicy(SourceLine sourceLine, Collection<String> infoKeys, boolean includeInfoKeys) {
+        this.sourceLine = sourceLine;
+        this.infoKeys = new HashSet<>(infoKeys);
+        this.includeInfoKeys = includeInfoKeys;
+    }
+
+    /**
+     * Keeps every INFO key and the compressed source line, as the pipeline always did.
+     */
+    public static AttributeRetentionPolicy keepAll() {
+        return excludingInfoKeys(SourceLine.COMPRESSED, Collections.emptySet());
+    }
+
+    public static AttributeRetentionPolicy includingInfoKeys(SourceLine sourceLine, Collection<String> infoKeys) {
+        return new AttributeRetentionPolicy(sourceLine, infoKeys, true);
+    }
+
+    public static AttributeRetentionPolicy excludingInfoKeys(SourceLine sourceLine, Collection<String> infoKeys) {
+        return new AttributeRetentionPolicy(sourceLine, infoKeys, false);
+    }
+
+    public boolean isInfoKeyRetained(String key) {
+        return infoKeys.contains(key) == includeInfoKeys;
+    }
+
+    /**
+     * @return the value of the "src" attribute for this line, or null if it should not be stored
+     */
+    public String getSourceLine(String line) {
+        if (sourceLine == SourceLine.NONE) {
+            return null;
+        }
+        int end = -1;
+        for (int column = 0; column < SOURCE_LINE_COLUMNS; column++) {
+            end = line.indexOf('\t', end + 1);
+            if (end == -1) {
+                return line;
+            }
+        }
+        return line.substring(0, end);
+    }
+
+    public boolean isSourceLineCompressed() {
+        return sourceLine == SourceLine.COMPRESSED;
+    }
+}
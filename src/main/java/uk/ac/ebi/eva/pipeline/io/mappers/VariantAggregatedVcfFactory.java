@@ -135,7 +135,7 @@ public class VariantAggregatedVcfFactory extends VariantVcfFactory {
             parseInfo(variant, fileId, studyId, info, numAllele);
         }
         sourceEntry.setFormat(format);
-        sourceEntry.addAttribute("src", line);
+        addSourceLine(sourceEntry, line);
 
 
         if (tagMap == null) {
@@ -143,6 +143,22 @@ public class VariantAggregatedVcfFactory extends VariantVcfFactory {
         } else {
             parseCohortStats(variant, fileId, studyId, numAllele, alternateAlleles, info);
         }
+        removeInfoKeysNotRetained(sourceEntry);
+    }
+
+    /**
+     * The statistics of some aggregated formats are taken from the attributes, so every INFO key is parsed, and the
+     * ones not retained are removed by {@link #removeInfoKeysNotRetained} after the statistics are set.
+     */
+    @Override
+    protected boolean isInfoKeyParsed(String key) {
+        return true;
+    }
+
+    protected void removeInfoKeysNotRetained(VariantSourceEntry sourceEntry) {
+        sourceEntry.getAttributes().keySet().removeIf(key -> !key.equals("QUAL") && !key.equals("FILTER")
+                && !key.equals(AttributeRetentionPolicy.SOURCE_LINE_ATTRIBUTE)
+                && !attributeRetentionPolicy.isInfoKeyRetained(key));
     }
 
     protected void parseStats(Variant variant, String fileId, String studyId, int numAllele, String[] alternateAlleles,
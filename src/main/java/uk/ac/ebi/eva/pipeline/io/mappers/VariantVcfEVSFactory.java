@@ -88,7 +88,7 @@ public class VariantVcfEVSFactory extends VariantAggregatedVcfFactory {
             parseInfo(variant, fileId, studyId, info, numAllele);
         }
         sourceEntry.setFormat(format);
-        sourceEntry.addAttribute("src", line);
+        addSourceLine(sourceEntry, line);
 
 
         if (tagMap == null) {   // whether we can parse population stats or not
@@ -96,6 +96,7 @@ public class VariantVcfEVSFactory extends VariantAggregatedVcfFactory {
         } else {
             parseCohortEVSInfo(variant, sourceEntry, numAllele, alternateAlleles);
         }
+        removeInfoKeysNotRetained(sourceEntry);
     }
 
     private void parseEVSAttributes(Variant variant, String fileId, String studyId, int numAllele, String[] alternateAlleles) {
@@ -40,9 +40,18 @@ import static java.lang.Math.max;
 
 /**
  * Class that parses VCF lines to create Variants.
+ * <p>
+ * The attributes taken from each line are limited by an {@link AttributeRetentionPolicy}, which keeps all of them
+ * by default.
  */
 public class VariantVcfFactory {
 
+    protected AttributeRetentionPolicy attributeRetentionPolicy = AttributeRetentionPolicy.keepAll();
+
+    public void setAttributeRetentionPolicy(AttributeRetentionPolicy attributeRetentionPolicy) {
+        this.attributeRetentionPolicy = attributeRetentionPolicy;
+    }
+
     /**
      * Creates a list of Variant objects using the fields in a record of a VCF
      * file. A new Variant object is created per allele, so several of them can
@@ -311,7 +320,27 @@ public class VariantVcfFactory {
         if (!info.isEmpty()) {
             parseInfo(variant, fileId, studyId, info, numAllele);
         }
-        variant.getSourceEntry(fileId, studyId).addAttribute("src", line);
+        addSourceLine(variant.getSourceEntry(fileId, studyId), line);
+    }
+
+    protected void addSourceLine(VariantSourceEntry sourceEntry, String line) {
+        String sourceLine = attributeRetentionPolicy.getSourceLine(line);
+        if (sourceLine != null) {
+            sourceEntry.addAttribute(AttributeRetentionPolicy.SOURCE_LINE_ATTRIBUTE, sourceLine);
+        }
+    }
+
+    /**
+     * @return whether the INFO key has to be added to the attributes while parsing the line
+     */
+    protected boolean isInfoKeyParsed(String key) {
+        return attributeRetentionPolicy.isInfoKeyRetained(key);
+    }
+
+    private void addInfoAttribute(VariantSourceEntry file, String key, String value) {
+        if (isInfoKeyParsed(key)) {
+            file.addAttribute(key, value);
+        }
     }
 
     protected void parseInfo(Variant variant, String fileId, String studyId, String info, int numAllele) {
@@ -319,22 +348,25 @@ public class VariantVcfFactory {
 
         for (String var : info.split(";")) {
             String[] splits = var.split("=");
+            if (!isInfoKeyParsed(splits[0])) {
+                continue;
+            }
             if (splits.length == 2) {
                 switch (splits[0]) {
                     case "ACC":
                         // Managing accession ID for the allele
                         String[] ids = splits[1].split(",");
-                        file.addAttribute(splits[0], ids[numAllele]);
+                        addInfoAttribute(file, splits[0], ids[numAllele]);
                         break;
                     case "AC":
                         // TODO For now, only one alternate is supported
                         String[] counts = splits[1].split(",");
-                        file.addAttribute(splits[0], counts[numAllele]);
+                        addInfoAttribute(file, splits[0], counts[numAllele]);
                         break;
                     case "AF":
                         // TODO For now, only one alternate is supported
                         String[] frequencies = splits[1].split(",");
-                        file.addAttribute(splits[0], frequencies[numAllele]);
+                        addInfoAttribute(file, splits[0], frequencies[numAllele]);
                         break;
 //                    case "AN":
 //                        // TODO For now, only two alleles (reference and one alternate) are supported, but this should be changed
@@ -342,7 +374,7 @@ public class VariantVcfFactory {
 //                        break;
                     case "NS":
                         // Count the number of samples that are associated with the allele
-                        file.addAttribute(splits[0], String.valueOf(file.getSamplesData().size()));
+                        addInfoAttribute(file, splits[0], String.valueOf(file.getSamplesData().size()));
                         break;
                     case "DP":
                         int dp = 0;
@@ -352,7 +384,7 @@ public class VariantVcfFactory {
                                 dp += Integer.parseInt(sampleDp);
                             }
                         }
-                        file.addAttribute(splits[0], String.valueOf(dp));
+                        addInfoAttribute(file, splits[0], String.valueOf(dp));
                         break;
                     case "MQ":
                     case "MQ0":
@@ -368,15 +400,15 @@ public class VariantVcfFactory {
                                 }
                             }
                         }
-                        file.addAttribute("MQ", String.valueOf(mq));
-                        file.addAttribute("MQ0", String.valueOf(mq0));
+                        addInfoAttribute(file, "MQ", String.valueOf(mq));
+                        addInfoAttribute(file, "MQ0", String.valueOf(mq0));
                         break;
                     default:
-                        file.addAttribute(splits[0], splits[1]);
+                        addInfoAttribute(file, splits[0], splits[1]);
                         break;
                 }
             } else {
-                variant.getSourceEntry(fileId, studyId).addAttribute(splits[0], "");
+                addInfoAttribute(file, splits[0], "");
             }
         }
     }
@@ -34,9 +34,14 @@ public class VcfLineMapper implements LineMapper<List<Variant>> {
     private final VariantVcfFactory factory;
 
     public VcfLineMapper(String fileId, String studyId) {
+        this(fileId, studyId, AttributeRetentionPolicy.keepAll());
+    }
+
+    public VcfLineMapper(String fileId, String studyId, AttributeRetentionPolicy attributeRetentionPolicy) {
         this.fileId = fileId;
         this.studyId = studyId;
         this.factory = new VariantVcfFactory();
+        this.factory.setAttributeRetentionPolicy(attributeRetentionPolicy);
     }
 
     @Override
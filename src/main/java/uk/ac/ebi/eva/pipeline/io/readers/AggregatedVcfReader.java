@@ -18,6 +18,7 @@ package uk.ac.ebi.eva.pipeline.io.readers;
 import org.opencb.biodata.models.variant.VariantSource;
 
 import uk.ac.ebi.eva.pipeline.io.mappers.AggregatedVcfLineMapper;
+import uk.ac.ebi.eva.pipeline.io.mappers.AttributeRetentionPolicy;
 
 import java.io.File;
 import java.io.IOException;
@@ -36,4 +37,11 @@ public class AggregatedVcfReader extends VcfReader {
                                String mappingFilePath, File file) throws IOException {
         super(new AggregatedVcfLineMapper(fileId, studyId, aggregation, mappingFilePath), file);
     }
+
+    public AggregatedVcfReader(String fileId, String studyId, VariantSource.Aggregation aggregation,
+                               String mappingFilePath, AttributeRetentionPolicy attributeRetentionPolicy, File file)
+            throws IOException {
+        super(new AggregatedVcfLineMapper(fileId, studyId, aggregation, mappingFilePath, attributeRetentionPolicy),
+              file);
+    }
 }
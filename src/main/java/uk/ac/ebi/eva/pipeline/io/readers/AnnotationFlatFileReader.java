@@ -15,12 +15,15 @@
  */
 package uk.ac.ebi.eva.pipeline.io.readers;
 
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
 import org.springframework.batch.item.file.FlatFileItemReader;
 import org.springframework.core.io.Resource;
 
 import uk.ac.ebi.eva.commons.models.mongo.entity.Annotation;
 import uk.ac.ebi.eva.pipeline.io.GzipLazyResource;
 import uk.ac.ebi.eva.pipeline.io.mappers.AnnotationLineMapper;
+import uk.ac.ebi.eva.pipeline.parameters.ExecutionContextParametersNames;
 
 import java.io.File;
 
@@ -33,16 +36,37 @@ import java.io.File;
  * 20_60419_A/G	20:60419	G	-	-	-	intergenic_variant	-	-	-	-	-	-
  * 20_60479_C/T	20:60479	T	-	-	-	intergenic_variant	-	-	-	-	-	rs149529999	GMAF=T:0.0018;AFR_MAF=T:0.01;AMR_MAF=T:0.0028
  * ...
+ * <p>
+ * The compressed bytes read so far are saved in the execution context, like {@link VcfReader} does.
  */
 public class AnnotationFlatFileReader extends FlatFileItemReader<Annotation> {
 
+    private final CountingBufferedReaderFactory countingBufferedReaderFactory;
+
     public AnnotationFlatFileReader(File file, String vepVersion, String vepCacheVersion) {
         Resource resource = new GzipLazyResource(file);
         setResource(resource);
         setLineMapper(new AnnotationLineMapper(vepVersion, vepCacheVersion));
+        countingBufferedReaderFactory = new CountingBufferedReaderFactory();
+        setBufferedReaderFactory(countingBufferedReaderFactory);
     }
 
     public AnnotationFlatFileReader(String string, String vepVersion, String vepCacheVersion) {
         this(new File(string), vepVersion, vepCacheVersion);
     }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        super.open(executionContext);
+        long bytesRead = countingBufferedReaderFactory.getBytesRead();
+        executionContext.putLong(ExecutionContextParametersNames.INPUT_BYTES_READ_ON_OPEN, bytesRead);
+        executionContext.putLong(ExecutionContextParametersNames.INPUT_BYTES_READ, bytesRead);
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        super.update(executionContext);
+        executionContext.putLong(ExecutionContextParametersNames.INPUT_BYTES_READ,
+                                 countingBufferedReaderFactory.getBytesRead());
+    }
 }
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io.readers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Decompresses a BGZF file one block at a time. Each block is a gzip member of at most 64 KB that records its own
+ * compressed size, so any block can be decompressed without reading the previous ones.
+ */
+class BgzfInput extends PositionedLineReader.Input {
+
+    private static final int MAX_BLOCK_SIZE = 1 << 16;
+
+    private static final int FIXED_HEADER_SIZE = 12;
+
+    private static final int FOOTER_SIZE = 8;
+
+    private static final int BLOCK_OFFSET_BITS = 16;
+
+    private static final int BLOCK_OFFSET_MASK = (1 << BLOCK_OFFSET_BITS) - 1;
+
+    private final RandomAccessFile file;
+
+    private final Inflater inflater;
+
+    private final byte[] compressed;
+
+    private final CRC32 crc;
+
+    private long blockAddress;
+
+    private long nextBlockAddress;
+
+    BgzfInput(File file) throws IOException {
+        this.file = new RandomAccessFile(file, "r");
+        this.inflater = new Inflater(true);
+        this.compressed = new byte[MAX_BLOCK_SIZE];
+        this.crc = new CRC32();
+        this.buffer = new byte[MAX_BLOCK_SIZE];
+    }
+
+    @Override
+    long getPosition() {
+        if (position == limit) {
+            return nextBlockAddress << BLOCK_OFFSET_BITS;
+        }
+        return (blockAddress << BLOCK_OFFSET_BITS) | position;
+    }
+
+    @Override
+    long getBytesRead() {
+        return nextBlockAddress;
+    }
+
+    @Override
+    void seek(long virtualOffset) throws IOException {
+        long address = virtualOffset >>> BLOCK_OFFSET_BITS;
+        int offset = (int) (virtualOffset & BLOCK_OFFSET_MASK);
+        if (address >= file.length()) {
+            blockAddress = address;
+            nextBlockAddress = address;
+            position = limit = 0;
+        } else {
+            readBlock(address);
+        }
+        if (offset > limit) {
+            throw new IOException("Virtual offset " + virtualOffset + " is out of its block");
+        }
+        position = offset;
+    }
+
+    @Override
+    boolean fill() throws IOException {
+        // skip empty blocks, like the one that marks the end of the file
+        while (nextBlockAddress < file.length()) {
+            readBlock(nextBlockAddress);
+            if (limit > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void readBlock(long address) throws IOException {
+        file.seek(address);
+        file.readFully(compressed, 0, FIXED_HEADER_SIZE);
+        if ((compressed[0] & 0xff) != 0x1f || (compressed[1] & 0xff) != 0x8b || compressed[2] != 8
+                || (compressed[3] & 4) == 0) {
+            throw new IOException("No BGZF block at offset " + address);
+        }
+        int extraLength = readShort(compressed, 10);
+        file.readFully(compressed, FIXED_HEADER_SIZE, extraLength);
+        int blockSize = findBlockSize(address, FIXED_HEADER_SIZE, extraLength);
+        int dataOffset = FIXED_HEADER_SIZE + extraLength;
+        if (blockSize < dataOffset + FOOTER_SIZE) {
+            throw new IOException("BGZF block at offset " + address + " is smaller than its header");
+        }
+        file.readFully(compressed, dataOffset, blockSize - dataOffset);
+
+        int compressedLength = blockSize - dataOffset - FOOTER_SIZE;
+        int expectedCrc = readShort(compressed, blockSize - 8) | readShort(compressed, blockSize - 6) << 16;
+        int uncompressedLength = readShort(compressed, blockSize - 4) | readShort(compressed, blockSize - 2) << 16;
+        if (uncompressedLength < 0 || uncompressedLength > MAX_BLOCK_SIZE) {
+            throw new IOException("BGZF block at offset " + address + " is corrupt, it can't hold "
+                                          + uncompressedLength + " bytes");
+        }
+        inflate(address, dataOffset, compressedLength, uncompressedLength);
+        crc.reset();
+        crc.update(buffer, 0, uncompressedLength);
+        if ((int) crc.getValue() != expectedCrc) {
+            throw new IOException("BGZF block at offset " + address + " is corrupt, its CRC32 doesn't match");
+        }
+
+        blockAddress = address;
+        nextBlockAddress = address + blockSize;
+        position = 0;
+        limit = uncompressedLength;
+    }
+
+    private void inflate(long address, int dataOffset, int compressedLength, int uncompressedLength)
+            throws IOException {
+        inflater.reset();
+        inflater.setInput(compressed, dataOffset, compressedLength);
+        try {
+            int inflated = 0;
+            while (inflated < uncompressedLength && !inflater.finished()) {
+                int bytes = inflater.inflate(buffer, inflated, uncompressedLength - inflated);
+                if (bytes == 0) {
+                    // the block ended before its data, or needs a dictionary that BGZF never uses
+                    throw new IOException("BGZF block at offset " + address + " is truncated");
+                }
+                inflated += bytes;
+            }
+            if (inflated != uncompressedLength) {
+                throw new IOException("BGZF block at offset " + address + " is truncated, it has " + inflated
+                                              + " bytes instead of " + uncompressedLength);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("BGZF block at offset " + address + " is corrupt", e);
+        }
+    }
+
+    private int findBlockSize(long address, int start, int extraLength) throws IOException {
+        int subfield = start;
+        while (subfield + 4 <= start + extraLength) {
+            int subfieldLength = readShort(compressed, subfield + 2);
+            if (compressed[subfield] == 'B' && compressed[subfield + 1] == 'C' && subfieldLength == 2) {
+                return readShort(compressed, subfield + 4) + 1;
+            }
+            subfield += 4 + subfieldLength;
+        }
+        throw new IOException("Block at offset " + address + " has no BGZF size field");
+    }
+
+    private static int readShort(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xff) | (bytes[offset + 1] & 0xff) << 8;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        file.close();
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io.readers;
+
+import org.springframework.batch.item.file.BufferedReaderFactory;
+import org.springframework.core.io.Resource;
+
+import uk.ac.ebi.eva.pipeline.io.CountingInputStream;
+import uk.ac.ebi.eva.utils.CompressionHelper;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Opens the file of a resource, decompressing it if it is gzipped, and counts the bytes read from the file. Those are
+ * compressed bytes when the file is compressed, so they can be compared with the size of the file to know how much
+ * of it has been read.
+ */
+public class CountingBufferedReaderFactory implements BufferedReaderFactory {
+
+    private CountingInputStream countingInputStream;
+
+    @Override
+    public BufferedReader create(Resource resource, String encoding) throws IOException {
+        File file = resource.getFile();
+        countingInputStream = new CountingInputStream(new FileInputStream(file));
+        InputStream inputStream = countingInputStream;
+        if (CompressionHelper.isGzip(file)) {
+            inputStream = new GZIPInputStream(inputStream);
+        }
+        return new BufferedReader(new InputStreamReader(inputStream, encoding));
+    }
+
+    /**
+     * @return the bytes read from the file last opened, or 0 if none has been opened yet
+     */
+    public long getBytesRead() {
+        return countingInputStream == null ? 0 : countingInputStream.getCount();
+    }
+}
@@ -19,9 +19,12 @@ package uk.ac.ebi.eva.pipeline.io.readers;
 
 import com.mongodb.BasicDBObject;
 import com.mongodb.BasicDBObjectBuilder;
+import com.mongodb.Bytes;
 import com.mongodb.DBCollection;
 import com.mongodb.DBCursor;
 import com.mongodb.DBObject;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
 import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.data.domain.Sort;
@@ -29,6 +32,7 @@ import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 
+import java.util.Arrays;
 import java.util.Map;
 
 
@@ -39,10 +43,19 @@ import java.util.Map;
  * Its implementation is based on the one available in
  * <a href="https://github.com/acogoluegnes/Spring-Batch-MongoDB/blob/master/src/main/java/com/zenika/batch/item/database/mongo/MongoDbCursorItemReader.java</a>
  * but replaces the direct access to Mongo with a {@link MongoOperations}, following the Spring Data MongoDB model.
+ * <p>
+ * The scan can be restricted to a range of string ids, so a partitioned step (see
+ * {@link uk.ac.ebi.eva.pipeline.jobs.steps.partitioners.MongoIdRangePartitioner}) can read a collection with one cursor
+ * per partition. If no sort is set, a range is read in id order, and the last id read is saved as the restart key of
+ * the partition, so a restart continues after it instead of skipping the documents already read.
  */
 public class MongoDbCursorItemReader extends AbstractItemCountingItemStreamItemReader<DBObject>
         implements InitializingBean {
 
+    private static final String ID_FIELD = "_id";
+
+    private static final String LAST_ID_KEY = "last-id";
+
     private MongoOperations template;
     private String collectionName;
 
@@ -50,6 +63,16 @@ public class MongoDbCursorItemReader extends AbstractItemCountingItemStreamItemR
     private DBObject sort;
     private String[] fields;
 
+    private Integer batchSize;
+    private boolean noCursorTimeout;
+
+    private boolean idRange;
+    private String minIdExclusive;
+    private String maxIdInclusive;
+
+    private String lastId;
+    private boolean resumedFromLastId;
+
     private DBCursor cursor;
 
     public MongoDbCursorItemReader() {
@@ -93,7 +116,7 @@ public class MongoDbCursorItemReader extends AbstractItemCountingItemStreamItemR
     /**
      * {@link Map} of property names/
      * {@link org.springframework.data.domain.Sort.Direction} values to sort the
-     * input by.
+     * input by. Use a sorted map (e.g. {@link java.util.LinkedHashMap}) when sorting by several properties.
      *
      * @param sorts Map of properties and direction to sort each.
      */
@@ -101,6 +124,38 @@ public class MongoDbCursorItemReader extends AbstractItemCountingItemStreamItemR
         this.sort = convertToSort(sorts);
     }
 
+    /**
+     * Number of documents returned by the server in each batch of the cursor. The driver default is used if not set.
+     *
+     * @param batchSize Number of documents per batch
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Prevents the server from closing the cursor after it has been idle for 10 minutes, which would make a slow
+     * step fail. The cursor is still closed when the reader is closed.
+     *
+     * @param noCursorTimeout true to keep the cursor open while it is idle
+     */
+    public void setNoCursorTimeout(boolean noCursorTimeout) {
+        this.noCursorTimeout = noCursorTimeout;
+    }
+
+    /**
+     * Restricts the documents read to a range of ids, like the ones stored by
+     * {@link uk.ac.ebi.eva.pipeline.jobs.steps.partitioners.MongoIdRangePartitioner} in each partition.
+     *
+     * @param minIdExclusive Only ids greater than this one will be read, or any id if null
+     * @param maxIdInclusive Only ids lower than or equal to this one will be read, or any id if null
+     */
+    public void setIdRange(String minIdExclusive, String maxIdInclusive) {
+        this.idRange = true;
+        this.minIdExclusive = minIdExclusive;
+        this.maxIdInclusive = maxIdInclusive;
+    }
+
     /**
      * Name of the Mongo collection to be queried.
      *
@@ -110,12 +165,30 @@ public class MongoDbCursorItemReader extends AbstractItemCountingItemStreamItemR
         this.collectionName = collection;
     }
 
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        String lastIdKey = getExecutionContextKey(LAST_ID_KEY);
+        if (isSavingLastId() && executionContext.containsKey(lastIdKey)) {
+            lastId = executionContext.getString(lastIdKey);
+            resumedFromLastId = true;
+        }
+        super.open(executionContext);
+    }
+
     @Override
     protected void doOpen() throws Exception {
         DBCollection collection = template.getCollection(collectionName);
-        cursor = collection.find(query, createDbObjectKeys());
+        cursor = collection.find(createQuery(), createDbObjectKeys());
         if (sort != null) {
             cursor = cursor.sort(sort);
+        } else if (idRange) {
+            cursor = cursor.sort(new BasicDBObject(ID_FIELD, 1));
+        }
+        if (batchSize != null) {
+            cursor = cursor.batchSize(batchSize);
+        }
+        if (noCursorTimeout) {
+            cursor = cursor.addOption(Bytes.QUERYOPTION_NOTIMEOUT);
         }
     }
 
@@ -124,7 +197,30 @@ public class MongoDbCursorItemReader extends AbstractItemCountingItemStreamItemR
         if (!cursor.hasNext()) {
             return null;
         } else {
-            return cursor.next();
+            DBObject document = cursor.next();
+            if (isSavingLastId()) {
+                lastId = document.get(ID_FIELD).toString();
+            }
+            return document;
+        }
+    }
+
+    /**
+     * When resuming after the last id read, the documents already read are excluded by the query and don't need to be
+     * skipped.
+     */
+    @Override
+    protected void jumpToItem(int itemIndex) throws Exception {
+        if (!resumedFromLastId) {
+            super.jumpToItem(itemIndex);
+        }
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        super.update(executionContext);
+        if (isSaveState() && isSavingLastId() && lastId != null) {
+            executionContext.putString(getExecutionContextKey(LAST_ID_KEY), lastId);
         }
     }
 
@@ -145,6 +241,29 @@ public class MongoDbCursorItemReader extends AbstractItemCountingItemStreamItemR
         Assert.notNull(query, "A query is required.");
     }
 
+    private boolean isSavingLastId() {
+        return idRange && sort == null;
+    }
+
+    private DBObject createQuery() {
+        String lowerBound = lastId != null ? lastId : minIdExclusive;
+        BasicDBObject idBounds = new BasicDBObject();
+        if (lowerBound != null) {
+            idBounds.append("$gt", lowerBound);
+        }
+        if (maxIdInclusive != null) {
+            idBounds.append("$lte", maxIdInclusive);
+        }
+
+        if (idBounds.isEmpty()) {
+            return query;
+        } else if (query.containsField(ID_FIELD)) {
+            return new BasicDBObject("$and", Arrays.asList(query, new BasicDBObject(ID_FIELD, idBounds)));
+        } else {
+            return new BasicDBObject(query.toMap()).append(ID_FIELD, idBounds);
+        }
+    }
+
     private DBObject createDbObjectKeys() {
         if (fields == null) {
             return new BasicDBObject();
@@ -161,7 +280,7 @@ public class MongoDbCursorItemReader extends AbstractItemCountingItemStreamItemR
         BasicDBObject sort = new BasicDBObject();
 
         for (Map.Entry<String, Sort.Direction> currSort : sorts.entrySet()) {
-            sort.append(currSort.getKey(), currSort.getValue());
+            sort.append(currSort.getKey(), currSort.getValue() == Sort.Direction.ASC ? 1 : -1);
         }
 
         return sort;
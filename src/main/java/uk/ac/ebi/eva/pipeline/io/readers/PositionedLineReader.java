@@ -0,0 +1,213 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io.readers;
+
+import uk.ac.ebi.eva.utils.CompressionHelper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads the lines of a file keeping track of the position of the next one, so that reading can continue from there
+ * later without going through the previous lines again.
+ * <p>
+ * Positions are byte offsets in uncompressed files, and virtual offsets in BGZF files: the offset of a block in the
+ * file shifted 16 bits to the left, plus the offset of the line inside the uncompressed block. Plain gzip files
+ * can't be read from a given position, so they are not supported; see {@link #isSeekable(File)}.
+ * <p>
+ * Only {@link #readLine()} is supported from the {@link BufferedReader} methods.
+ */
+public class PositionedLineReader extends BufferedReader {
+
+    private static final int INITIAL_LINE_SIZE = 1024;
+
+    private final Input input;
+
+    private final Charset charset;
+
+    private byte[] line;
+
+    PositionedLineReader(Input input, Charset charset) {
+        // the superclass needs a reader, but all the reads are done on the input
+        super(new StringReader(""), 1);
+        this.input = input;
+        this.charset = charset;
+        this.line = new byte[INITIAL_LINE_SIZE];
+    }
+
+    public static boolean isSeekable(File file) throws IOException {
+        return !CompressionHelper.isGzip(file) || CompressionHelper.isBgzip(file);
+    }
+
+    public static PositionedLineReader open(File file, Charset charset) throws IOException {
+        if (CompressionHelper.isBgzip(file)) {
+            return new PositionedLineReader(new BgzfInput(file), charset);
+        } else if (!CompressionHelper.isGzip(file)) {
+            return new PositionedLineReader(new PlainInput(file), charset);
+        }
+        throw new IllegalArgumentException("File " + file + " is compressed with gzip, which is not seekable");
+    }
+
+    /**
+     * @return the position of the next line
+     */
+    public long getPosition() {
+        return input.getPosition();
+    }
+
+    /**
+     * @return the bytes of the file read so far, compressed ones in BGZF files
+     */
+    public long getBytesRead() {
+        return input.getBytesRead();
+    }
+
+    /**
+     * @param position a value previously returned by {@link #getPosition()}
+     */
+    public void seek(long position) throws IOException {
+        input.seek(position);
+    }
+
+    @Override
+    public String readLine() throws IOException {
+        int length = 0;
+        while (input.position < input.limit || input.fill()) {
+            int start = input.position;
+            int end = start;
+            byte[] buffer = input.buffer;
+            while (end < input.limit && buffer[end] != '\n') {
+                end++;
+            }
+            if (length + end - start > line.length) {
+                line = Arrays.copyOf(line, Math.max(line.length * 2, length + end - start));
+            }
+            System.arraycopy(buffer, start, line, length, end - start);
+            length += end - start;
+            if (end < input.limit) {
+                input.position = end + 1;
+                return decode(length);
+            }
+            input.position = end;
+        }
+        return length > 0 ? decode(length) : null;
+    }
+
+    private String decode(int length) {
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        return new String(line, 0, length, charset);
+    }
+
+    @Override
+    public int read() throws IOException {
+        throw new UnsupportedOperationException("Only whole lines can be read");
+    }
+
+    @Override
+    public int read(char[] chars, int offset, int length) throws IOException {
+        throw new UnsupportedOperationException("Only whole lines can be read");
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    /**
+     * Source of bytes. Implementations refill the buffer, and the reader consumes it directly.
+     */
+    abstract static class Input implements Closeable {
+
+        byte[] buffer;
+
+        int position;
+
+        int limit;
+
+        abstract long getPosition();
+
+        abstract long getBytesRead();
+
+        abstract void seek(long position) throws IOException;
+
+        /**
+         * @return false if the end of the file has been reached
+         */
+        abstract boolean fill() throws IOException;
+    }
+
+    static class PlainInput extends Input {
+
+        private static final int BUFFER_SIZE = 1 << 16;
+
+        private final FileChannel channel;
+
+        private long bufferStart;
+
+        PlainInput(File file) throws IOException {
+            this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            this.buffer = new byte[BUFFER_SIZE];
+        }
+
+        @Override
+        long getPosition() {
+            return bufferStart + position;
+        }
+
+        @Override
+        long getBytesRead() {
+            return bufferStart + position;
+        }
+
+        @Override
+        void seek(long position) throws IOException {
+            if (position < 0 || position > channel.size()) {
+                throw new IOException("Position " + position + " is out of the file");
+            }
+            bufferStart = position;
+            this.position = 0;
+            limit = 0;
+        }
+
+        @Override
+        boolean fill() throws IOException {
+            bufferStart += limit;
+            position = 0;
+            limit = 0;
+            int read = channel.read(ByteBuffer.wrap(buffer), bufferStart);
+            if (read <= 0) {
+                return false;
+            }
+            limit = read;
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -18,12 +18,15 @@ package uk.ac.ebi.eva.pipeline.io.readers;
 import com.mongodb.BasicDBObject;
 import com.mongodb.BasicDBObjectBuilder;
 import com.mongodb.DBObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.batch.item.ExecutionContext;
 import org.springframework.batch.item.NonTransientResourceException;
 import org.springframework.batch.item.ParseException;
 import org.springframework.batch.item.UnexpectedInputException;
 import org.springframework.batch.item.support.AbstractItemStreamItemReader;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.data.mongodb.core.convert.MongoConverter;
 import org.springframework.util.ClassUtils;
@@ -33,14 +36,21 @@ import uk.ac.ebi.eva.commons.models.mongo.entity.VariantDocument;
 import uk.ac.ebi.eva.commons.models.mongo.entity.projections.SimplifiedVariant;
 import uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.VariantAnnotation;
 import uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.VariantSourceEntryMongo;
+import uk.ac.ebi.eva.pipeline.metrics.events.MongoCursorBatchEvent;
+import uk.ac.ebi.eva.pipeline.metrics.events.PipelineEvents;
 import uk.ac.ebi.eva.pipeline.model.EnsemblVariant;
+import uk.ac.ebi.eva.pipeline.model.Region;
 
 import javax.annotation.PostConstruct;
 import java.time.LocalTime;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static uk.ac.ebi.eva.commons.models.mongo.entity.VariantDocument.ALTERNATE_FIELD;
 import static uk.ac.ebi.eva.commons.models.mongo.entity.VariantDocument.CHROMOSOME_FIELD;
@@ -53,6 +63,11 @@ import static uk.ac.ebi.eva.commons.models.mongo.entity.VariantDocument.START_FI
  * the reading of the variant in big collections. The
  * {@link org.springframework.batch.item.data.MongoItemReader} is using
  * pagination and it is slow with large collections
+ * <p>
+ * The variants are sorted by chromosome and start, using the same fields as the coordinates index, and a batch never
+ * spans more than one chromosome. This way every batch sent to VEP covers a contiguous region and VEP only needs to
+ * load the cache regions of that part of the genome. The number of cache regions touched by each batch is logged, to
+ * help tuning the chunk size.
  */
 public class VariantsMongoReader
         extends AbstractItemStreamItemReader<List<EnsemblVariant>> implements InitializingBean {
@@ -63,14 +78,32 @@ public class VariantsMongoReader
 
     private static final String LAST_READ_TIMESTAMP_KEY = "last_read_timestamp";
 
+    private static final String VEP_CACHE_REGIONS_KEY = "vep_cache_regions";
+
+    /**
+     * Size of the regions in which the VEP cache is split (VEP option --cache_region_size)
+     */
+    private static final int VEP_CACHE_REGION_SIZE = 1000000;
+
+    private static final Logger logger = LoggerFactory.getLogger(VariantsMongoReader.class);
+
     private MongoDbCursorItemReader delegateReader;
 
     private MongoConverter converter;
 
+    private String collection;
+
     private Integer chunkSize;
 
     private ZonedDateTime lastRead;
 
+    /**
+     * First variant of the next batch, read in advance when the chromosome of the current batch changed
+     */
+    private EnsemblVariant nextBatchFirstVariant;
+
+    private long vepCacheRegions;
+
     /**
      *
      * @param vepVersion Only bring variants whose annotation does not contain this VEP version.
@@ -83,13 +116,15 @@ public class VariantsMongoReader
      *                file is ignored. This is mainly due to performance reasons.
      *                Can be the empty string or null, meaning to bring all non-annotated variants in a study.
      *                If the studyId string is not empty, bring only non-annotated variants from that study and file.
+     * @param region Only bring variants that start in this region, using the index on chromosome, start and end.
+     *               Can be null, meaning to bring variants from the whole genome.
      * @param excludeAnnotated If true, bring only non-annotated variants. If false, bring all variants (ignoring the
      *                         vepVersion and vepCacheVersion parameters)
      * @param chunkSize size of the list returned by the "read" method.
      */
     public VariantsMongoReader(MongoOperations mongoOperations, String collectionVariantsName, String vepVersion,
-                               String vepCacheVersion, String studyId, String fileId, boolean excludeAnnotated,
-                               Integer chunkSize) {
+                               String vepCacheVersion, String studyId, String fileId, Region region,
+                               boolean excludeAnnotated, Integer chunkSize) {
         setName(ClassUtils.getShortName(VariantsMongoReader.class));
         delegateReader = new MongoDbCursorItemReader();
         delegateReader.setTemplate(mongoOperations);
@@ -98,6 +133,10 @@ public class VariantsMongoReader
         // the query excludes processed variants automatically, so a new query has to start from the beginning
         delegateReader.setSaveState(false);
 
+        // a batch of variants is sent to VEP before reading the next one, which can leave the cursor idle for long
+        delegateReader.setBatchSize(chunkSize);
+        delegateReader.setNoCursorTimeout(true);
+
         BasicDBObjectBuilder queryBuilder = BasicDBObjectBuilder.start();
 
         if (studyId != null && !studyId.isEmpty()) {
@@ -108,6 +147,13 @@ public class VariantsMongoReader
             }
         }
 
+        if (region != null) {
+            DBObject regionQuery = region.toCriteria().getCriteriaObject();
+            for (String key : regionQuery.keySet()) {
+                queryBuilder.add(key, regionQuery.get(key));
+            }
+        }
+
         if (excludeAnnotated) {
             BasicDBObject exists = new BasicDBObject("$exists", 1);
             BasicDBObject annotationSubdocument = new BasicDBObject(VariantAnnotation.SO_ACCESSION_FIELD, exists)
@@ -119,10 +165,16 @@ public class VariantsMongoReader
         }
         delegateReader.setQuery(queryBuilder.get());
 
+        Map<String, Sort.Direction> sort = new LinkedHashMap<>();
+        sort.put(CHROMOSOME_FIELD, Sort.Direction.ASC);
+        sort.put(START_FIELD, Sort.Direction.ASC);
+        delegateReader.setSort(sort);
+
         String[] fields = {CHROMOSOME_FIELD, START_FIELD, END_FIELD, REFERENCE_FIELD, ALTERNATE_FIELD};
         delegateReader.setFields(fields);
 
         this.converter = mongoOperations.getConverter();
+        this.collection = collectionVariantsName;
         this.chunkSize = chunkSize;
         this.lastRead = ZonedDateTime.now();
     }
@@ -136,6 +188,7 @@ public class VariantsMongoReader
     @Override
     public void open(ExecutionContext executionContext) {
         delegateReader.open(executionContext);
+        vepCacheRegions = executionContext.getLong(VEP_CACHE_REGIONS_KEY, 0L);
     }
 
     @Override
@@ -149,18 +202,47 @@ public class VariantsMongoReader
     }
 
     private List<EnsemblVariant> readBatch(Integer chunkSize) throws Exception {
+        MongoCursorBatchEvent event = PipelineEvents.isEnabled() ? new MongoCursorBatchEvent(collection) : null;
         List<EnsemblVariant> variants = new ArrayList<>();
+        if (nextBatchFirstVariant != null) {
+            variants.add(nextBatchFirstVariant);
+            nextBatchFirstVariant = null;
+        }
+
         DBObject dbObject;
-        while ((dbObject = delegateDoRead()) != null) {
-            SimplifiedVariant variant = converter.read(SimplifiedVariant.class, dbObject);
-            variants.add(buildVariantWrapper(variant));
-            if (variants.size() == chunkSize) {
+        while (variants.size() < chunkSize && (dbObject = delegateDoRead()) != null) {
+            EnsemblVariant variant = buildVariantWrapper(converter.read(SimplifiedVariant.class, dbObject));
+            if (!variants.isEmpty() && !variants.get(0).getChr().equals(variant.getChr())) {
+                nextBatchFirstVariant = variant;
                 break;
             }
+            variants.add(variant);
+        }
+
+        if (!variants.isEmpty()) {
+            logVepCacheRegions(variants);
+        }
+        if (event != null) {
+            event.setDocuments(variants.size());
+            event.commit();
         }
         return variants;
     }
 
+    private void logVepCacheRegions(List<EnsemblVariant> variants) {
+        Set<Integer> cacheRegions = new HashSet<>();
+        for (EnsemblVariant variant : variants) {
+            cacheRegions.add((variant.getStart() - 1) / VEP_CACHE_REGION_SIZE);
+            cacheRegions.add((variant.getEnd() - 1) / VEP_CACHE_REGION_SIZE);
+        }
+        vepCacheRegions += cacheRegions.size();
+
+        EnsemblVariant first = variants.get(0);
+        EnsemblVariant last = variants.get(variants.size() - 1);
+        logger.debug("Batch of {} variants in region {}:{}-{} uses {} VEP cache regions", variants.size(),
+                    first.getChr(), first.getStart(), last.getEnd(), cacheRegions.size());
+    }
+
     private DBObject delegateDoRead() throws Exception {
         lastRead = ZonedDateTime.now();
         return delegateReader.doRead();
@@ -177,6 +259,7 @@ public class VariantsMongoReader
     @Override
     public void close() {
         delegateReader.close();
+        logger.info("The batches read so far used {} VEP cache regions", vepCacheRegions);
     }
 
     @Override
@@ -185,5 +268,6 @@ public class VariantsMongoReader
 
         // to debug EVA-781: mongo timeouts
         executionContext.put(LAST_READ_TIMESTAMP_KEY, lastRead.format(DateTimeFormatter.ISO_DATE_TIME));
+        executionContext.putLong(VEP_CACHE_REGIONS_KEY, vepCacheRegions);
     }
 }
@@ -15,16 +15,22 @@
  */
 package uk.ac.ebi.eva.pipeline.io.readers;
 
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
 import org.springframework.batch.item.file.FlatFileItemReader;
 import org.springframework.batch.item.file.LineMapper;
 import org.springframework.core.io.Resource;
 
 import uk.ac.ebi.eva.commons.models.data.Variant;
+import uk.ac.ebi.eva.pipeline.io.mappers.AttributeRetentionPolicy;
 import uk.ac.ebi.eva.pipeline.io.mappers.VcfLineMapper;
+import uk.ac.ebi.eva.pipeline.parameters.ExecutionContextParametersNames;
 import uk.ac.ebi.eva.utils.FileUtils;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.Charset;
 import java.util.List;
 
 /**
@@ -34,9 +40,28 @@ import java.util.List;
  * <p>
  * It receives a VariantSource (which needs to be completely filled, including the samples, possibly by
  * {@link VcfHeaderReader}), and a file (compressed or not).
+ * <p>
+ * Uncompressed and bgzipped files are read with a {@link PositionedLineReader}, and the position of the next line is
+ * saved in the execution context on every update, so that a restart can go straight to it. Files compressed with
+ * plain gzip are restarted like any {@link FlatFileItemReader}, reading again every line up to the saved count.
+ * Line numbers given to the line mapper after a restart from a position start counting from that position.
+ * <p>
+ * The bytes of the file read so far (compressed bytes if the file is compressed) and its size are also saved in the
+ * execution context, without prefix, for the {@link uk.ac.ebi.eva.pipeline.listeners.StepProgressListener}. The file
+ * read may not be the VCF in the job parameters, e.g. if it had to be sorted first.
  */
 public class VcfReader extends FlatFileItemReader<List<Variant>> {
 
+    static final String POSITION_KEY = "position";
+
+    private PositionedLineReader positionedLineReader;
+
+    private Long restartPosition;
+
+    private final CountingBufferedReaderFactory countingBufferedReaderFactory;
+
+    private final File file;
+
     public VcfReader(String fileId, String studyId, String file)
             throws IOException {
         this(fileId, studyId, new File(file));
@@ -47,10 +72,64 @@ public class VcfReader extends FlatFileItemReader<List<Variant>> {
         this(new VcfLineMapper(fileId, studyId), file);
     }
 
+    public VcfReader(String fileId, String studyId, AttributeRetentionPolicy attributeRetentionPolicy, File file)
+            throws IOException {
+        this(new VcfLineMapper(fileId, studyId, attributeRetentionPolicy), file);
+    }
+
     public VcfReader(LineMapper<List<Variant>> lineMapper, File file) throws IOException {
+        this.file = file;
         Resource resource = FileUtils.getResource(file);
         setResource(resource);
         setLineMapper(lineMapper);
+        countingBufferedReaderFactory = new CountingBufferedReaderFactory();
+        setBufferedReaderFactory((fileResource, encoding) -> createBufferedReader(file, fileResource, encoding));
+    }
+
+    private BufferedReader createBufferedReader(File file, Resource resource, String encoding) throws IOException {
+        if (PositionedLineReader.isSeekable(file)) {
+            positionedLineReader = PositionedLineReader.open(file, Charset.forName(encoding));
+            return positionedLineReader;
+        }
+        positionedLineReader = null;
+        return countingBufferedReaderFactory.create(resource, encoding);
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        String positionKey = getExecutionContextKey(POSITION_KEY);
+        restartPosition = isSaveState() && executionContext.containsKey(positionKey) ?
+                executionContext.getLong(positionKey) : null;
+        super.open(executionContext);
+        long bytesRead = getBytesRead();
+        executionContext.putLong(ExecutionContextParametersNames.INPUT_FILE_SIZE, file.length());
+        executionContext.putLong(ExecutionContextParametersNames.INPUT_BYTES_READ_ON_OPEN, bytesRead);
+        executionContext.putLong(ExecutionContextParametersNames.INPUT_BYTES_READ, bytesRead);
+    }
+
+    @Override
+    protected void jumpToItem(int itemIndex) throws Exception {
+        if (positionedLineReader != null && restartPosition != null) {
+            positionedLineReader.seek(restartPosition);
+        } else {
+            super.jumpToItem(itemIndex);
+        }
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        super.update(executionContext);
+        if (isSaveState() && positionedLineReader != null) {
+            executionContext.putLong(getExecutionContextKey(POSITION_KEY), positionedLineReader.getPosition());
+        }
+        executionContext.putLong(ExecutionContextParametersNames.INPUT_BYTES_READ, getBytesRead());
+    }
+
+    long getBytesRead() {
+        if (positionedLineReader != null) {
+            return positionedLineReader.getBytesRead();
+        }
+        return countingBufferedReaderFactory.getBytesRead();
     }
 
 }
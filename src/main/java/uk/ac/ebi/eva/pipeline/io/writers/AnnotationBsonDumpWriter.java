@@ -0,0 +1,56 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io.writers;
+
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.util.Assert;
+
+import uk.ac.ebi.eva.commons.models.mongo.entity.Annotation;
+import uk.ac.ebi.eva.utils.MongoDBHelper;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Dumps the annotations as the documents that {@link AnnotationMongoWriter} would insert in a new annotations
+ * collection. The annotations of the same variant in different chunks are merged when imported.
+ */
+public class AnnotationBsonDumpWriter extends BsonDumpItemWriter<List<Annotation>> {
+
+    private final String collection;
+
+    private final MongoConverter mongoConverter;
+
+    public AnnotationBsonDumpWriter(File directory, String partition, String database, boolean compress,
+                                    String collection, MongoConverter mongoConverter) {
+        super(directory, partition, database, compress);
+        Assert.hasText(collection, "A collection name is required");
+        Assert.notNull(mongoConverter, "A Mongo converter is required");
+        this.collection = collection;
+        this.mongoConverter = mongoConverter;
+    }
+
+    @Override
+    public void write(List<? extends List<Annotation>> annotations) throws Exception {
+        for (List<Annotation> annotationList : annotations) {
+            for (Annotation annotation : AnnotationMongoWriter.groupAnnotationById(annotationList).values()) {
+                dump(collection, MongoDBHelper.buildUpsertedDocument(
+                        AnnotationMongoWriter.buildUpsertQuery(mongoConverter, annotation),
+                        AnnotationMongoWriter.buildUpdateQuery(mongoConverter, annotation)));
+            }
+        }
+    }
+}
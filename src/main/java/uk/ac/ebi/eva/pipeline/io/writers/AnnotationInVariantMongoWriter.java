@@ -27,6 +27,8 @@ import org.springframework.util.Assert;
 
 import uk.ac.ebi.eva.commons.models.mongo.entity.Annotation;
 import uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.VariantAnnotation;
+import uk.ac.ebi.eva.pipeline.metrics.events.MongoBulkEvent;
+import uk.ac.ebi.eva.pipeline.metrics.events.PipelineEvents;
 
 import java.util.Arrays;
 import java.util.HashMap;
@@ -86,7 +88,12 @@ public class AnnotationInVariantMongoWriter implements ItemWriter<List<Annotatio
 
             BulkOperations bulkOperations = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
             bulkPrepare(bulkOperations, variantAnnotations);
+            MongoBulkEvent event = PipelineEvents.isEnabled()
+                    ? new MongoBulkEvent(collection, variantAnnotations.size()) : null;
             bulkOperations.execute();
+            if (event != null) {
+                event.commit();
+            }
         }
     }
 
@@ -22,6 +22,7 @@ import com.mongodb.DBObject;
 import org.springframework.batch.item.ItemWriter;
 import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
 import org.springframework.data.mongodb.core.query.BasicQuery;
 import org.springframework.data.mongodb.core.query.BasicUpdate;
 import org.springframework.data.mongodb.core.query.Query;
@@ -31,6 +32,8 @@ import uk.ac.ebi.eva.commons.models.mongo.entity.Annotation;
 import uk.ac.ebi.eva.commons.models.mongo.entity.projections.SimplifiedAnnotation;
 import uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.ConsequenceType;
 import uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.Xref;
+import uk.ac.ebi.eva.pipeline.metrics.events.MongoBulkEvent;
+import uk.ac.ebi.eva.pipeline.metrics.events.PipelineEvents;
 import uk.ac.ebi.eva.utils.MongoDBHelper;
 
 import java.util.Collection;
@@ -82,26 +85,34 @@ public class AnnotationMongoWriter implements ItemWriter<List<Annotation>> {
         this.mongoOperations = mongoOperations;
         this.collection = collection;
 
-        createIndexes();
+        createIndexes(mongoOperations, collection);
     }
 
     @Override
     public void write(List<? extends List<Annotation>> annotations) throws Exception {
         for (List<Annotation> annotationList : annotations) {
             BulkOperations bulk = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
-            prepareBulk(annotationList, bulk);
+            int operations = prepareBulk(annotationList, bulk);
+            MongoBulkEvent event = PipelineEvents.isEnabled() ? new MongoBulkEvent(collection, operations) : null;
             bulk.execute();
+            if (event != null) {
+                event.commit();
+            }
         }
     }
 
-    private void prepareBulk(List<? extends Annotation> annotations, BulkOperations bulk) {
+    /**
+     * @return number of operations added to the bulk
+     */
+    private int prepareBulk(List<? extends Annotation> annotations, BulkOperations bulk) {
         Map<String, Annotation> annotationsByStorageId = groupAnnotationById(annotations);
         for (Annotation annotation : annotationsByStorageId.values()) {
             writeAnnotationInMongoDb(bulk, annotation);
         }
+        return annotationsByStorageId.size();
     }
 
-    private Map<String, Annotation> groupAnnotationById(List<? extends Annotation> annotations) {
+    static Map<String, Annotation> groupAnnotationById(List<? extends Annotation> annotations) {
         Map<String, Annotation> groupedAnnotations = new HashMap<>();
         for (Annotation annotation : annotations) {
             String id = annotation.getId();
@@ -112,35 +123,29 @@ public class AnnotationMongoWriter implements ItemWriter<List<Annotation>> {
     }
 
     private void writeAnnotationInMongoDb(BulkOperations bulk, Annotation annotation) {
-        Query upsertQuery = new BasicQuery(convertToMongo(new SimplifiedAnnotation(annotation)));
-        Update update = buildUpdateQuery(annotation);
+        MongoConverter converter = mongoOperations.getConverter();
+        Query upsertQuery = new BasicQuery(buildUpsertQuery(converter, annotation));
+        Update update = new BasicUpdate(buildUpdateQuery(converter, annotation));
         bulk.upsert(upsertQuery, update);
     }
 
-    private BasicUpdate buildUpdateQuery(Annotation annotation) {
-        final BasicDBObject addToSetValue = new BasicDBObject();
-        addToSetValue.append(CONSEQUENCE_TYPE_FIELD, buildInsertConsequenceTypeQuery(annotation));
-        addToSetValue.append(XREFS_FIELD, buildInsertXrefsQuery(annotation));
-        return new BasicUpdate(new BasicDBObject(ADD_TO_SET, addToSetValue));
-    }
-
-    private BasicDBObject buildInsertXrefsQuery(Annotation annotation) {
-        return new BasicDBObject(EACH, convertToMongo(annotation.getXrefs()));
+    static DBObject buildUpsertQuery(MongoConverter converter, Annotation annotation) {
+        return (DBObject) converter.convertToMongoType(new SimplifiedAnnotation(annotation));
     }
 
-    private BasicDBObject buildInsertConsequenceTypeQuery(Annotation annotation) {
-        return new BasicDBObject(EACH, convertToMongo(annotation.getConsequenceTypes()));
-    }
-
-    private DBObject convertToMongo(SimplifiedAnnotation simplifiedAnnotation) {
-        return (DBObject) mongoOperations.getConverter().convertToMongoType(simplifiedAnnotation);
+    static DBObject buildUpdateQuery(MongoConverter converter, Annotation annotation) {
+        final BasicDBObject addToSetValue = new BasicDBObject();
+        addToSetValue.append(CONSEQUENCE_TYPE_FIELD,
+                             new BasicDBObject(EACH, convertToMongo(converter, annotation.getConsequenceTypes())));
+        addToSetValue.append(XREFS_FIELD, new BasicDBObject(EACH, convertToMongo(converter, annotation.getXrefs())));
+        return new BasicDBObject(ADD_TO_SET, addToSetValue);
     }
 
-    private BasicDBList convertToMongo(Collection<?> object) {
-        return (BasicDBList) mongoOperations.getConverter().convertToMongoType(object);
+    private static BasicDBList convertToMongo(MongoConverter converter, Collection<?> object) {
+        return (BasicDBList) converter.convertToMongoType(object);
     }
 
-    private void createIndexes() {
+    public static void createIndexes(MongoOperations mongoOperations, String collection) {
         mongoOperations.getCollection(collection).createIndex(
                 new BasicDBObject(ANNOTATION_XREF_ID_FIELD, 1),
                 new BasicDBObject(MongoDBHelper.BACKGROUND_INDEX, true));
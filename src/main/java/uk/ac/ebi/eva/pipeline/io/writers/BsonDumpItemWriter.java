@@ -0,0 +1,136 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io.writers;
+
+import com.mongodb.DBObject;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+import uk.ac.ebi.eva.pipeline.io.BsonDump;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Base of the writers that dump the documents of a step into a {@link BsonDump}, to be imported later, instead of
+ * writing them to MongoDB.
+ * <p>
+ * Every step execution, or partition, writes to its own partition of the dump. The files are flushed when each chunk
+ * is committed, and their sizes are kept in the execution context, so a restarted step goes on writing to the same
+ * partition after discarding the chunks that were not committed.
+ *
+ * @param <T>
+ */
+public abstract class BsonDumpItemWriter<T> extends ItemStreamSupport implements ItemStreamWriter<T> {
+
+    private static final String PARTITION_KEY = "partition";
+
+    private static final String SIZE_KEY = "size.";
+
+    private final File directory;
+
+    private final String database;
+
+    private final boolean compress;
+
+    private String partition;
+
+    private BsonDump dump;
+
+    /**
+     * @param directory folder where the partitions of the dump are written
+     * @param partition name of the partition of a new step execution, see {@link #getPartitionName}
+     */
+    protected BsonDumpItemWriter(File directory, String partition, String database, boolean compress) {
+        Assert.notNull(directory, "A directory for the BSON dump is required");
+        Assert.hasText(partition, "A partition name is required");
+        Assert.hasText(database, "A database name is required");
+        this.directory = directory;
+        this.partition = partition;
+        this.database = database;
+        this.compress = compress;
+        setName(ClassUtils.getShortName(getClass()));
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        if (executionContext.containsKey(getExecutionContextKey(PARTITION_KEY))) {
+            partition = executionContext.getString(getExecutionContextKey(PARTITION_KEY));
+        }
+
+        String sizeKeyPrefix = getExecutionContextKey(SIZE_KEY);
+        Map<String, Long> sizes = new HashMap<>();
+        for (Map.Entry<String, Object> entry : executionContext.entrySet()) {
+            if (entry.getKey().startsWith(sizeKeyPrefix)) {
+                sizes.put(entry.getKey().substring(sizeKeyPrefix.length()), (Long) entry.getValue());
+            }
+        }
+
+        dump = new BsonDump(new File(directory, partition), database, compress);
+        try {
+            dump.truncate(sizes);
+        } catch (IOException e) {
+            throw new ItemStreamException("Could not open the BSON dump partition " + partition, e);
+        }
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) {
+        if (dump == null) {
+            return;
+        }
+        try {
+            executionContext.putString(getExecutionContextKey(PARTITION_KEY), partition);
+            for (Map.Entry<String, Long> size : dump.flush().entrySet()) {
+                executionContext.putLong(getExecutionContextKey(SIZE_KEY + size.getKey()), size.getValue());
+            }
+        } catch (IOException e) {
+            throw new ItemStreamException("Could not flush the BSON dump partition " + partition, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (dump != null) {
+            try {
+                dump.close();
+            } catch (IOException e) {
+                throw new ItemStreamException("Could not close the BSON dump partition " + partition, e);
+            } finally {
+                dump = null;
+            }
+        }
+    }
+
+    protected void dump(String collection, DBObject document) throws IOException {
+        Assert.state(dump != null, "The BSON dump must be opened before writing to it");
+        dump.write(collection, document);
+    }
+
+    /**
+     * @return a name for the partition written by a step execution, unique within the job repository
+     */
+    public static String getPartitionName(StepExecution stepExecution) {
+        return (stepExecution.getStepName() + "-" + stepExecution.getId()).replaceAll("[^\\w.-]", "_");
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io.writers;
+
+import com.mongodb.WriteResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.util.Assert;
+
+import uk.ac.ebi.eva.commons.models.mongo.entity.GenotypeDocument;
+
+import java.util.List;
+
+import static uk.ac.ebi.eva.commons.models.data.VariantSourceEntity.STUDYID_FIELD;
+import static uk.ac.ebi.eva.commons.models.mongo.entity.VariantDocument.FILES_FIELD;
+
+/**
+ * Removes the variants with the given ids that are reported only in one study, with a single bounded delete per
+ * chunk.
+ * <p>
+ * The study condition is checked again in the delete, so a variant that got an entry from another study since it
+ * was read is kept.
+ * <p>
+ * If the genotypes are stored in their own collection, the genotypes of the study for those variants are removed
+ * before the variants, so that they are found again if the step is restarted.
+ */
+public class DropVariantsByStudyWriter implements ItemWriter<String> {
+
+    private static final Logger logger = LoggerFactory.getLogger(DropVariantsByStudyWriter.class);
+
+    private static final String ID_FIELD = "_id";
+
+    private final MongoOperations mongoOperations;
+
+    private final String collectionName;
+
+    private final String studyId;
+
+    private final String genotypesCollectionName;
+
+    public DropVariantsByStudyWriter(MongoOperations mongoOperations, String collectionName, String studyId) {
+        this(mongoOperations, collectionName, studyId, null);
+    }
+
+    /**
+     * @param genotypesCollectionName collection where the genotypes are stored apart from the variants, or null
+     */
+    public DropVariantsByStudyWriter(MongoOperations mongoOperations, String collectionName, String studyId,
+                                     String genotypesCollectionName) {
+        Assert.notNull(mongoOperations);
+        Assert.hasText(collectionName);
+        Assert.hasText(studyId);
+        this.mongoOperations = mongoOperations;
+        this.collectionName = collectionName;
+        this.studyId = studyId;
+        this.genotypesCollectionName = genotypesCollectionName;
+    }
+
+    /**
+     * @return the criteria that a variant must match to be removed
+     */
+    public static Criteria variantsOnlyInStudy(String studyId) {
+        String filesStudyIdField = String.format("%s.%s", FILES_FIELD, STUDYID_FIELD);
+        return new Criteria(filesStudyIdField).is(studyId).and(FILES_FIELD).size(1);
+    }
+
+    /**
+     * Removes the genotypes of a study for the variants with the given ids, if they are stored in their own collection
+     */
+    static void removeGenotypes(MongoOperations mongoOperations, String genotypesCollectionName, String studyId,
+                                List<? extends String> ids) {
+        if (genotypesCollectionName == null) {
+            return;
+        }
+        Query query = new Query(Criteria.where(GenotypeDocument.VARIANT_ID_FIELD).in(ids)
+                                        .and(STUDYID_FIELD).is(studyId));
+        WriteResult writeResult = mongoOperations.remove(query, genotypesCollectionName);
+        logger.debug("{} genotype documents removed out of {} variant ids", writeResult.getN(), ids.size());
+    }
+
+    @Override
+    public void write(List<? extends String> ids) throws Exception {
+        removeGenotypes(mongoOperations, genotypesCollectionName, studyId, ids);
+
+        Query query = new Query(variantsOnlyInStudy(studyId)).addCriteria(Criteria.where(ID_FIELD).in(ids));
+        WriteResult writeResult = mongoOperations.remove(query, collectionName);
+        logger.debug("{} variants removed out of {} ids", writeResult.getN(), ids.size());
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io.writers;
+
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Passes each chunk to several independent writers at the same time, so that writing the chunk takes as long as
+ * the slowest writer instead of the sum of all of them.
+ * <p>
+ * The last delegate runs in the calling thread and the rest in the provided executor. The write waits for all the
+ * delegates to finish, and fails with the first error found if any of them failed, so the chunk is rolled back
+ * as it would be with a {@link org.springframework.batch.item.support.CompositeItemWriter}. Delegates must not depend
+ * on each other, e.g. they write to different collections.
+ * <p>
+ * The delegates that are {@link ItemStream}s are opened, updated and closed with this writer.
+ *
+ * @param <T>
+ */
+public class ParallelCompositeItemWriter<T> implements ItemStreamWriter<T> {
+
+    private final List<ItemWriter<? super T>> delegates;
+
+    private final AsyncTaskExecutor taskExecutor;
+
+    public ParallelCompositeItemWriter(List<ItemWriter<? super T>> delegates, AsyncTaskExecutor taskExecutor) {
+        Assert.notEmpty(delegates);
+        Assert.notNull(taskExecutor);
+        this.delegates = delegates;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @Override
+    public void write(List<? extends T> items) throws Exception {
+        List<Future<?>> futures = new ArrayList<>();
+        for (ItemWriter<? super T> delegate : delegates.subList(0, delegates.size() - 1)) {
+            futures.add(taskExecutor.submit(() -> {
+                delegate.write(items);
+                return null;
+            }));
+        }
+
+        Throwable firstError = null;
+        try {
+            delegates.get(delegates.size() - 1).write(items);
+        } catch (Exception e) {
+            firstError = e;
+        }
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (firstError == null) {
+                    firstError = e.getCause();
+                }
+            }
+        }
+
+        if (firstError instanceof Exception) {
+            throw (Exception) firstError;
+        } else if (firstError != null) {
+            throw (Error) firstError;
+        }
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        for (ItemWriter<? super T> delegate : delegates) {
+            if (delegate instanceof ItemStream) {
+                ((ItemStream) delegate).open(executionContext);
+            }
+        }
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) {
+        for (ItemWriter<? super T> delegate : delegates) {
+            if (delegate instanceof ItemStream) {
+                ((ItemStream) delegate).update(executionContext);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        for (ItemWriter<? super T> delegate : delegates) {
+            if (delegate instanceof ItemStream) {
+                ((ItemStream) delegate).close();
+            }
+        }
+    }
+}
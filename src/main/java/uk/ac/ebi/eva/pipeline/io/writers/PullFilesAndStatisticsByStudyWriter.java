@@ -0,0 +1,96 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io.writers;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import com.mongodb.WriteResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.util.Assert;
+
+import java.util.List;
+
+import static uk.ac.ebi.eva.commons.models.data.VariantSourceEntity.STUDYID_FIELD;
+import static uk.ac.ebi.eva.commons.models.mongo.entity.VariantDocument.FILES_FIELD;
+import static uk.ac.ebi.eva.commons.models.mongo.entity.VariantDocument.STATS_FIELD;
+
+/**
+ * Removes the files and statistics of a study from the variants with the given ids, with a single bounded update per
+ * chunk.
+ * <p>
+ * If the genotypes are stored in their own collection, the genotypes of the study for those variants are removed
+ * before the files, so that the variants are found again if the step is restarted.
+ */
+public class PullFilesAndStatisticsByStudyWriter implements ItemWriter<String> {
+
+    private static final Logger logger = LoggerFactory.getLogger(PullFilesAndStatisticsByStudyWriter.class);
+
+    private static final String ID_FIELD = "_id";
+
+    private final MongoOperations mongoOperations;
+
+    private final String collectionName;
+
+    private final String studyId;
+
+    private final String genotypesCollectionName;
+
+    public PullFilesAndStatisticsByStudyWriter(MongoOperations mongoOperations, String collectionName,
+                                               String studyId) {
+        this(mongoOperations, collectionName, studyId, null);
+    }
+
+    /**
+     * @param genotypesCollectionName collection where the genotypes are stored apart from the variants, or null
+     */
+    public PullFilesAndStatisticsByStudyWriter(MongoOperations mongoOperations, String collectionName,
+                                               String studyId, String genotypesCollectionName) {
+        Assert.notNull(mongoOperations);
+        Assert.hasText(collectionName);
+        Assert.hasText(studyId);
+        this.mongoOperations = mongoOperations;
+        this.collectionName = collectionName;
+        this.studyId = studyId;
+        this.genotypesCollectionName = genotypesCollectionName;
+    }
+
+    /**
+     * @return the criteria that a variant must match to have something to pull
+     */
+    public static Criteria variantsInStudy(String studyId) {
+        String filesStudyIdField = String.format("%s.%s", FILES_FIELD, STUDYID_FIELD);
+        return Criteria.where(filesStudyIdField).is(studyId);
+    }
+
+    @Override
+    public void write(List<? extends String> ids) throws Exception {
+        DropVariantsByStudyWriter.removeGenotypes(mongoOperations, genotypesCollectionName, studyId, ids);
+
+        Query query = Query.query(Criteria.where(ID_FIELD).in(ids));
+
+        DBObject containsStudyId = new BasicDBObject(STUDYID_FIELD, studyId);
+        Update update = new Update().pull(FILES_FIELD, containsStudyId).pull(STATS_FIELD, containsStudyId);
+
+        WriteResult writeResult = mongoOperations.updateMulti(query, update, collectionName);
+        logger.debug("{} variants updated out of {} ids", writeResult.getN(), ids.size());
+    }
+}
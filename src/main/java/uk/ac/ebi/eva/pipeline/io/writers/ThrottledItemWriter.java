@@ -0,0 +1,71 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io.writers;
+
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.util.Assert;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the number of items per second passed to another writer. Each chunk delays the next one by the time its
+ * items take at the maximum rate, so the writer never goes faster than the limit, although it can go slower.
+ *
+ * @param <T>
+ */
+public class ThrottledItemWriter<T> implements ItemWriter<T> {
+
+    private final ItemWriter<T> delegate;
+
+    private final double nanosecondsPerItem;
+
+    private long nextWriteTime;
+
+    /**
+     * @param itemsPerSecond maximum write rate, must be positive
+     */
+    public ThrottledItemWriter(ItemWriter<T> delegate, int itemsPerSecond) {
+        Assert.notNull(delegate);
+        Assert.isTrue(itemsPerSecond > 0, "The rate limit must be positive");
+        this.delegate = delegate;
+        this.nanosecondsPerItem = TimeUnit.SECONDS.toNanos(1) / (double) itemsPerSecond;
+        this.nextWriteTime = System.nanoTime();
+    }
+
+    /**
+     * @param itemsPerSecond maximum write rate shared by all the concurrent writers, or 0 if unlimited
+     * @param concurrentWriters number of writers that will be running at the same time, each one throttled to a
+     *                          fraction of the total rate
+     * @return a throttled writer, or the same writer if there is no limit
+     */
+    public static <T> ItemWriter<T> throttle(ItemWriter<T> writer, int itemsPerSecond, int concurrentWriters) {
+        if (itemsPerSecond <= 0) {
+            return writer;
+        }
+        return new ThrottledItemWriter<>(writer, Math.max(1, itemsPerSecond / concurrentWriters));
+    }
+
+    @Override
+    public void write(List<? extends T> items) throws Exception {
+        long delay = nextWriteTime - System.nanoTime();
+        if (delay > 0) {
+            TimeUnit.NANOSECONDS.sleep(delay);
+        }
+        nextWriteTime = Math.max(nextWriteTime, System.nanoTime()) + (long) (items.size() * nanosecondsPerItem);
+        delegate.write(items);
+    }
+}
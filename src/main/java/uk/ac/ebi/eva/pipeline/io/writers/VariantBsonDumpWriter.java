@@ -0,0 +1,80 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io.writers;
+
+import com.mongodb.DBObject;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.util.Assert;
+
+import uk.ac.ebi.eva.commons.models.data.Variant;
+import uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.SamplesEncoding;
+import uk.ac.ebi.eva.utils.MongoDBHelper;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Dumps the variants as the documents that {@link VariantMongoWriter} would insert in a new variants collection, and
+ * their genotypes if a genotypes collection is given.
+ * <p>
+ * The upserts are built by the same code as in {@link VariantMongoWriter}, so variants with the same id in a chunk are
+ * a single document. Variants with the same id in different chunks are dumped as several documents, which are merged
+ * when imported with {@link uk.ac.ebi.eva.pipeline.jobs.steps.tasklets.ImportBsonDumpTasklet}.
+ */
+public class VariantBsonDumpWriter extends BsonDumpItemWriter<Variant> {
+
+    private final String collection;
+
+    private final MongoConverter mongoConverter;
+
+    private final VariantToMongoUpdateConverter updateConverter;
+
+    private final String genotypesCollection;
+
+    private final SamplesEncoding samplesEncoding;
+
+    /**
+     * @param genotypesCollection collection where the samples are stored if they are included, or null to store them
+     *                            in the variants collection
+     */
+    public VariantBsonDumpWriter(File directory, String partition, String database, boolean compress,
+                                 String collection, MongoConverter mongoConverter, boolean includeStats,
+                                 boolean includeSamples, boolean compressSourceLine, SamplesEncoding samplesEncoding,
+                                 String genotypesCollection) {
+        super(directory, partition, database, compress);
+        Assert.hasText(collection, "A collection name is required");
+        this.collection = collection;
+        this.mongoConverter = mongoConverter;
+        this.genotypesCollection = includeSamples ? genotypesCollection : null;
+        this.samplesEncoding = samplesEncoding;
+        this.updateConverter = new VariantToMongoUpdateConverter(mongoConverter, includeStats,
+                                                                 includeSamples && this.genotypesCollection == null,
+                                                                 compressSourceLine, samplesEncoding);
+    }
+
+    @Override
+    public void write(List<? extends Variant> variants) throws Exception {
+        for (VariantMongoWriter.Upsert upsert : VariantMongoWriter.buildUpserts(variants, updateConverter)) {
+            dump(collection, MongoDBHelper.buildUpsertedDocument(upsert.query, upsert.update));
+        }
+
+        if (genotypesCollection != null) {
+            for (DBObject genotypes : VariantMongoWriter.convertGenotypes(variants, mongoConverter, samplesEncoding)) {
+                dump(genotypesCollection, genotypes);
+            }
+        }
+    }
+}
@@ -15,88 +15,276 @@
  */
 package uk.ac.ebi.eva.pipeline.io.writers;
 
-import com.mongodb.BasicDBList;
 import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteError;
+import com.mongodb.BulkWriteException;
 import com.mongodb.BulkWriteOperation;
+import com.mongodb.DBCollection;
 import com.mongodb.DBObject;
+import org.bson.BasicBSONEncoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.batch.item.WriteFailedException;
 import org.springframework.batch.item.data.MongoItemWriter;
 import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
 import org.springframework.util.Assert;
 import uk.ac.ebi.eva.commons.models.data.Variant;
 import uk.ac.ebi.eva.commons.models.data.VariantSourceEntry;
-import uk.ac.ebi.eva.commons.models.data.VariantStats;
+import uk.ac.ebi.eva.commons.models.mongo.entity.GenotypeDocument;
 import uk.ac.ebi.eva.commons.models.mongo.entity.VariantDocument;
-import uk.ac.ebi.eva.commons.models.mongo.entity.projections.SimplifiedVariant;
+import uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.SamplesEncoding;
+import uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.VariantAt;
 import uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.VariantSourceEntryMongo;
-import uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.VariantStatsMongo;
+import uk.ac.ebi.eva.pipeline.io.WriteThrottle;
+import uk.ac.ebi.eva.pipeline.metrics.PipelineMetrics;
+import uk.ac.ebi.eva.pipeline.metrics.events.MongoBulkEvent;
+import uk.ac.ebi.eva.pipeline.metrics.events.PipelineEvents;
 import uk.ac.ebi.eva.utils.MongoDBHelper;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import static uk.ac.ebi.eva.commons.models.mongo.entity.VariantDocument.ANNOTATION_FIELD;
-import static uk.ac.ebi.eva.commons.models.mongo.entity.VariantDocument.IDS_FIELD;
 import static uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.VariantAnnotation.SO_ACCESSION_FIELD;
 import static uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.VariantAnnotation.XREFS_FIELD;
 
 /**
  * Write a list of {@link Variant} into MongoDB
  * See also {@link org.opencb.opencga.storage.mongodb.variant.VariantMongoDBWriter}
+ * <p>
+ * If a {@link PipelineMetrics} is given, the latency of each bulk write is recorded, and so is the BSON size of one
+ * in every {@link #DOCUMENT_SIZE_SAMPLING} updates, which is enough to estimate the bytes written.
+ * <p>
+ * If a genotypes collection is given, the samples are not added to the files of the variants, but inserted as one
+ * {@link GenotypeDocument} per variant and file. Those documents are never updated: the ones already inserted when a
+ * chunk is written again are skipped, and a variant with different genotypes in several lines of the same file
+ * fails the write instead of losing any of them.
+ * <p>
+ * If a {@link WriteThrottle} is given, both the variants and the genotypes are counted in it. The writes happen when
+ * the chunk is committed, so this writer takes the permits itself instead of being wrapped in a
+ * {@link WriteThrottledItemWriter}.
  */
 public class VariantMongoWriter extends MongoItemWriter<Variant> {
 
     private static final Logger logger = LoggerFactory.getLogger(VariantMongoWriter.class);
 
+    public static final String BULK_METRIC = "mongo.bulk";
+
+    public static final String DOCUMENTS_METRIC = "mongo.documents";
+
+    public static final String DOCUMENT_SIZE_METRIC = "mongo.document.size";
+
+    public static final String ESTIMATED_BYTES_METRIC = "mongo.bytes.estimated";
+
+    static final int DOCUMENT_SIZE_SAMPLING = 16;
+
+    private static final String ID_FIELD = "_id";
+
     private final MongoOperations mongoOperations;
 
     private final String collection;
-    private final boolean includeStats;
-    private final boolean includeSamples;
+    private final VariantToMongoUpdateConverter updateConverter;
+
+    private final String genotypesCollection;
+
+    private final SamplesEncoding samplesEncoding;
+
+    private final PipelineMetrics metrics;
+
+    private final WriteThrottle writeThrottle;
+
+    private long updates;
 
     public VariantMongoWriter(String collection, MongoOperations mongoOperations, boolean includeStats,
                               boolean includeSamples) {
+        this(collection, mongoOperations, includeStats, includeSamples, null);
+    }
+
+    public VariantMongoWriter(String collection, MongoOperations mongoOperations, boolean includeStats,
+                              boolean includeSamples, PipelineMetrics metrics) {
+        this(collection, mongoOperations, includeStats, includeSamples, true, SamplesEncoding.ARRAY, null, metrics,
+             null);
+    }
+
+    /**
+     * @param genotypesCollection collection where the samples are stored if they are included, or null to store them
+     *                            in the variants collection
+     * @param writeThrottle       throttle shared by the writers, or null if the writes are not throttled
+     */
+    public VariantMongoWriter(String collection, MongoOperations mongoOperations, boolean includeStats,
+                              boolean includeSamples, boolean compressSourceLine, SamplesEncoding samplesEncoding,
+                              String genotypesCollection, PipelineMetrics metrics, WriteThrottle writeThrottle) {
         Assert.notNull(mongoOperations, "A Mongo instance is required");
         Assert.hasText(collection, "A collection name is required");
 
         this.mongoOperations = mongoOperations;
         this.collection = collection;
         setTemplate(mongoOperations);
-        this.includeStats = includeStats;
-        this.includeSamples = includeSamples;
+        this.genotypesCollection = includeSamples ? genotypesCollection : null;
+        this.samplesEncoding = samplesEncoding;
+        this.updateConverter = new VariantToMongoUpdateConverter(mongoOperations.getConverter(), includeStats,
+                                                                 includeSamples && this.genotypesCollection == null,
+                                                                 compressSourceLine, samplesEncoding);
+        this.metrics = metrics;
+        this.writeThrottle = writeThrottle;
+        this.updates = 0;
 
-        createIndexes();
+        createIndexes(mongoOperations, collection);
+        if (this.genotypesCollection != null) {
+            createGenotypesIndexes(mongoOperations, this.genotypesCollection);
+        }
     }
 
     @Override
     protected void doWrite(List<? extends Variant> variants) {
+        Collection<Upsert> upserts = buildUpserts(variants, updateConverter);
+
         BulkWriteOperation bulk = mongoOperations.getCollection(collection).initializeUnorderedBulkOperation();
+        for (Upsert upsert : upserts) {
+            sampleDocumentSize(upsert.update);
+            bulk.find(upsert.query).upsert().updateOne(upsert.update);
+        }
+        executeBulk(bulk, collection, upserts.size());
+
+        if (genotypesCollection != null) {
+            writeGenotypes(variants);
+        }
+    }
+
+    /**
+     * Converts the variants into one upsert per variant id. Variants with the same id, e.g. from several lines of a
+     * sorted VCF, are merged into a single update.
+     *
+     * @return the upserts, in the order of the variants
+     */
+    static Collection<Upsert> buildUpserts(List<? extends Variant> variants,
+                                           VariantToMongoUpdateConverter updateConverter) {
+        Map<String, Upsert> upserts = new LinkedHashMap<>();
         for (Variant variant : variants) {
             String id = VariantDocument.buildVariantId(variant.getChromosome(), variant.getStart(),
                     variant.getReference(), variant.getAlternate());
 
-            // the chromosome and start appear just as shard keys, in an unsharded cluster they wouldn't be needed
-            BasicDBObject query = new BasicDBObject("_id", id)
-                    .append(VariantDocument.CHROMOSOME_FIELD, variant.getChromosome())
-                    .append(VariantDocument.START_FIELD, variant.getStart());
+            DBObject update = updateConverter.convert(variant);
+            Upsert previousUpsert = upserts.get(id);
+            if (previousUpsert == null) {
+                // the chromosome and start appear just as shard keys, in an unsharded cluster they wouldn't be needed
+                DBObject query = new BasicDBObject("_id", id)
+                        .append(VariantDocument.CHROMOSOME_FIELD, variant.getChromosome())
+                        .append(VariantDocument.START_FIELD, variant.getStart());
+                upserts.put(id, new Upsert(query, update));
+            } else {
+                VariantToMongoUpdateConverter.merge(previousUpsert.update, update);
+            }
+        }
+        return upserts.values();
+    }
 
-            bulk.find(query).upsert().updateOne(generateUpdate(variant));
+    private void writeGenotypes(List<? extends Variant> variants) {
+        DBCollection dbCollection = mongoOperations.getCollection(genotypesCollection);
+        BulkWriteOperation bulk = dbCollection.initializeUnorderedBulkOperation();
+        List<DBObject> genotypes = convertGenotypes(variants, mongoOperations.getConverter(), samplesEncoding);
+        for (DBObject genotypesDocument : genotypes) {
+            bulk.insert(genotypesDocument);
+        }
+
+        try {
+            executeBulk(bulk, genotypesCollection, genotypes.size());
+        } catch (BulkWriteException e) {
+            for (BulkWriteError error : e.getWriteErrors()) {
+                if (error.getCode() != MongoDBHelper.DUPLICATE_KEY_ERROR_CODE) {
+                    throw e;
+                }
+                DBObject genotypesDocument = genotypes.get(error.getIndex());
+                DBObject storedDocument = dbCollection.findOne(
+                        new BasicDBObject(ID_FIELD, genotypesDocument.get(ID_FIELD)));
+                if (!genotypesDocument.equals(storedDocument)) {
+                    throw new IllegalStateException(buildGenotypesConflictMessage(genotypesDocument));
+                }
+            }
+            logger.debug("{} genotype documents were already inserted", e.getWriteErrors().size());
+        }
+    }
 
+    /**
+     * Several lines of a file with the same variant, whose variant updates are merged in {@link #buildUpserts}, have a
+     * single genotypes document. Identical documents are inserted only once, but different ones can't be merged.
+     *
+     * @return a {@link GenotypeDocument} for every file of every variant
+     * @throws IllegalStateException if a variant has different genotypes in several lines of the same file
+     */
+    static List<DBObject> convertGenotypes(List<? extends Variant> variants, MongoConverter converter,
+                                           SamplesEncoding samplesEncoding) {
+        Map<String, DBObject> genotypes = new LinkedHashMap<>();
+        for (Variant variant : variants) {
+            for (VariantSourceEntry variantSourceEntry : variant.getSourceEntries().values()) {
+                GenotypeDocument genotypesDocument = new GenotypeDocument(variant, variantSourceEntry, samplesEncoding);
+                DBObject convertedDocument = (DBObject) converter.convertToMongoType(genotypesDocument);
+                DBObject previousDocument = genotypes.putIfAbsent(genotypesDocument.getId(), convertedDocument);
+                if (previousDocument != null && !previousDocument.equals(convertedDocument)) {
+                    throw new IllegalStateException(buildGenotypesConflictMessage(convertedDocument));
+                }
+            }
         }
+        return new ArrayList<>(genotypes.values());
+    }
 
-        executeBulk(bulk, variants.size());
+    private static String buildGenotypesConflictMessage(DBObject genotypesDocument) {
+        return "Variant " + genotypesDocument.get(GenotypeDocument.VARIANT_ID_FIELD) + " has different genotypes in"
+                + " several lines of file " + genotypesDocument.get(VariantSourceEntryMongo.FILEID_FIELD)
+                + ", which can't be stored in the same genotypes document";
     }
 
-    private void executeBulk(BulkWriteOperation bulk, int currentBulkSize) {
+    private void executeBulk(BulkWriteOperation bulk, String collectionName, int currentBulkSize) {
         if (currentBulkSize != 0) {
             logger.trace("Execute bulk. BulkSize : " + currentBulkSize);
-            bulk.execute();
+            acquireWritePermits(collectionName, currentBulkSize);
+            MongoBulkEvent event = null;
+            if (PipelineEvents.isEnabled()) {
+                event = new MongoBulkEvent(collectionName, currentBulkSize);
+            }
+            long start = System.nanoTime();
+            try {
+                bulk.execute();
+            } finally {
+                if (writeThrottle != null) {
+                    writeThrottle.recordWrite(System.nanoTime() - start);
+                }
+            }
+            if (event != null) {
+                event.commit();
+            }
+            if (metrics != null) {
+                metrics.recordTime(BULK_METRIC, System.nanoTime() - start);
+                metrics.increment(DOCUMENTS_METRIC, currentBulkSize);
+            }
         }
     }
 
-    private void createIndexes() {
+    private void acquireWritePermits(String collectionName, int documents) {
+        if (writeThrottle == null) {
+            return;
+        }
+        try {
+            writeThrottle.acquire(documents);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WriteFailedException("Interrupted while waiting to write into " + collectionName, e);
+        }
+    }
+
+    private void sampleDocumentSize(DBObject update) {
+        if (metrics != null && updates++ % DOCUMENT_SIZE_SAMPLING == 0) {
+            int size = new BasicBSONEncoder().encode(update).length;
+            metrics.recordValue(DOCUMENT_SIZE_METRIC, size);
+            metrics.increment(ESTIMATED_BYTES_METRIC, (long) size * DOCUMENT_SIZE_SAMPLING);
+        }
+    }
+
+    public static void createIndexes(MongoOperations mongoOperations, String collection) {
         mongoOperations.getCollection(collection).createIndex(
                 new BasicDBObject(VariantDocument.CHROMOSOME_FIELD, 1)
                         .append(VariantDocument.START_FIELD, 1).append(VariantDocument.END_FIELD, 1),
@@ -122,81 +310,30 @@ public class VariantMongoWriter extends MongoItemWriter<Variant> {
                 new BasicDBObject(MongoDBHelper.BACKGROUND_INDEX, true));
     }
 
-    private DBObject generateUpdate(Variant variant) {
-        Assert.notNull(variant, "Variant should not be null. Please provide a valid Variant object");
-        logger.trace("Convert variant {} into mongo object", variant);
-
-        BasicDBObject addToSet = new BasicDBObject();
-
-        if (!variant.getSourceEntries().isEmpty()) {
-            VariantSourceEntry variantSourceEntry = variant.getSourceEntries().values().iterator().next();
-
-            addToSet.put(VariantDocument.FILES_FIELD, convert(variantSourceEntry));
+    public static void createGenotypesIndexes(MongoOperations mongoOperations, String genotypesCollection) {
+        mongoOperations.getCollection(genotypesCollection).createIndex(
+                new BasicDBObject(GenotypeDocument.VARIANT_ID_FIELD, 1),
+                new BasicDBObject(MongoDBHelper.BACKGROUND_INDEX, true));
 
-            if (includeStats) {
-                BasicDBList basicDBList = convertStatistics(variantSourceEntry);
-                addToSet.put(VariantDocument.STATS_FIELD, new BasicDBObject("$each", basicDBList));
-            }
-        }
+        mongoOperations.getCollection(genotypesCollection).createIndex(
+                new BasicDBObject(VariantDocument.AT_FIELD + "." + VariantAt.CHUNK_IDS_FIELD, 1),
+                new BasicDBObject(MongoDBHelper.BACKGROUND_INDEX, true));
 
-        if (variant.getIds() != null && !variant.getIds().isEmpty()) {
-            addToSet.put(IDS_FIELD, new BasicDBObject("$each", variant.getIds()));
-        }
+        mongoOperations.getCollection(genotypesCollection).createIndex(
+                new BasicDBObject(VariantSourceEntryMongo.STUDYID_FIELD, 1)
+                        .append(VariantSourceEntryMongo.FILEID_FIELD, 1),
+                new BasicDBObject(MongoDBHelper.BACKGROUND_INDEX, true));
+    }
 
-        BasicDBObject update = new BasicDBObject();
-        if (!addToSet.isEmpty()) {
-            update.put("$addToSet", addToSet);
-        }
-        update.append("$setOnInsert", convert(variant));
+    static class Upsert {
 
-        return update;
-    }
+        final DBObject query;
 
-    private BasicDBList convertStatistics(VariantSourceEntry variantSourceEntry) {
-        List<VariantStatsMongo> variantStats = new ArrayList<>();
-        for (Map.Entry<String, VariantStats> variantStatsEntry : variantSourceEntry.getCohortStats().entrySet()) {
-            variantStats.add(new VariantStatsMongo(
-                    variantSourceEntry.getStudyId(),
-                    variantSourceEntry.getFileId(),
-                    variantStatsEntry.getKey(),
-                    variantStatsEntry.getValue()
-            ));
-        }
-        return (BasicDBList) mongoOperations.getConverter().convertToMongoType(variantStats);
-    }
+        final DBObject update;
 
-    private DBObject convert(VariantSourceEntry variantSourceEntry) {
-        VariantSourceEntryMongo variantSource = null;
-        if (includeSamples) {
-            variantSource = new VariantSourceEntryMongo(
-                    variantSourceEntry.getFileId(),
-                    variantSourceEntry.getStudyId(),
-                    variantSourceEntry.getSecondaryAlternates(),
-                    variantSourceEntry.getAttributes(),
-                    variantSourceEntry.getFormat(),
-                    variantSourceEntry.getSamplesData()
-            );
-        } else {
-            variantSource = new VariantSourceEntryMongo(
-                    variantSourceEntry.getFileId(),
-                    variantSourceEntry.getStudyId(),
-                    variantSourceEntry.getSecondaryAlternates(),
-                    variantSourceEntry.getAttributes()
-            );
+        Upsert(DBObject query, DBObject update) {
+            this.query = query;
+            this.update = update;
         }
-        return (DBObject) mongoOperations.getConverter().convertToMongoType(variantSource);
-    }
-
-    private DBObject convert(Variant variant) {
-        SimplifiedVariant simplifiedVariant = new SimplifiedVariant(
-                variant.getType(),
-                variant.getChromosome(),
-                variant.getStart(),
-                variant.getEnd(),
-                variant.getLength(),
-                variant.getReference(),
-                variant.getAlternate(),
-                variant.getHgvs());
-        return (DBObject) mongoOperations.getConverter().convertToMongoType(simplifiedVariant);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io.writers;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.util.Assert;
+
+import uk.ac.ebi.eva.commons.models.data.VariantSourceEntity;
+import uk.ac.ebi.eva.pipeline.io.BsonDump;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Dumps a list of {@link VariantSourceEntity} as the documents that {@link VariantSourceEntityMongoWriter} would
+ * save, including their type and a new ObjectId.
+ * <p>
+ * The files are only written by tasklets, so the documents are appended to the dump partition and flushed right
+ * away instead of waiting for the chunk to be committed.
+ */
+public class VariantSourceEntityBsonDumpWriter implements ItemWriter<VariantSourceEntity> {
+
+    private static final String ID_FIELD = "_id";
+
+    private final File partitionDirectory;
+
+    private final String database;
+
+    private final boolean compress;
+
+    private final String collection;
+
+    private final MongoConverter mongoConverter;
+
+    public VariantSourceEntityBsonDumpWriter(File directory, String partition, String database, boolean compress,
+                                             String collection, MongoConverter mongoConverter) {
+        Assert.notNull(directory, "A directory for the BSON dump is required");
+        Assert.hasText(partition, "A partition name is required");
+        Assert.hasText(database, "A database name is required");
+        Assert.hasText(collection, "A collection name is required");
+        Assert.notNull(mongoConverter, "A Mongo converter is required");
+        this.partitionDirectory = new File(directory, partition);
+        this.database = database;
+        this.compress = compress;
+        this.collection = collection;
+        this.mongoConverter = mongoConverter;
+    }
+
+    @Override
+    public void write(List<? extends VariantSourceEntity> variantSourceEntities) throws Exception {
+        try (BsonDump dump = new BsonDump(partitionDirectory, database, compress)) {
+            for (VariantSourceEntity variantSourceEntity : variantSourceEntities) {
+                DBObject document = new BasicDBObject();
+                mongoConverter.write(variantSourceEntity, document);
+                if (!document.containsField(ID_FIELD)) {
+                    document.put(ID_FIELD, new ObjectId());
+                }
+                dump.write(collection, document);
+            }
+        }
+    }
+}
@@ -44,10 +44,10 @@ public class VariantSourceEntityMongoWriter extends MongoItemWriter<VariantSourc
         this.mongoOperations = mongoOperations;
         this.collection = collection;
 
-        createIndexes();
+        createIndexes(mongoOperations, collection);
     }
 
-    private void createIndexes() {
+    public static void createIndexes(MongoOperations mongoOperations, String collection) {
         mongoOperations.getCollection(collection).createIndex(
                 new BasicDBObject(VariantSourceEntity.STUDYID_FIELD, 1).append(VariantSourceEntity.FILEID_FIELD, 1)
                     .append(VariantSourceEntity.FILENAME_FIELD, 1),
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io.writers;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.util.Assert;
+import uk.ac.ebi.eva.commons.models.data.Variant;
+import uk.ac.ebi.eva.commons.models.data.VariantSourceEntry;
+import uk.ac.ebi.eva.commons.models.data.VariantStats;
+import uk.ac.ebi.eva.commons.models.mongo.entity.VariantDocument;
+import uk.ac.ebi.eva.commons.models.mongo.entity.projections.SimplifiedVariant;
+import uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.VariantSourceEntryMongo;
+import uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.SamplesEncoding;
+import uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.VariantStatsMongo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static uk.ac.ebi.eva.commons.models.mongo.entity.VariantDocument.IDS_FIELD;
+
+/**
+ * Converts a {@link Variant} into the update that {@link VariantMongoWriter} upserts for it: the file (and
+ * optionally its statistics) and the ids are added to the existing sets, and the rest of the variant is only set if
+ * the document is new.
+ * <p>
+ * It only needs a {@link MongoConverter}, not a database connection.
+ */
+public class VariantToMongoUpdateConverter implements Converter<Variant, DBObject> {
+
+    private static final Logger logger = LoggerFactory.getLogger(VariantToMongoUpdateConverter.class);
+
+    private final MongoConverter mongoConverter;
+
+    private final boolean includeStats;
+
+    private final boolean includeSamples;
+
+    private final boolean compressSourceLine;
+
+    private final SamplesEncoding samplesEncoding;
+
+    public VariantToMongoUpdateConverter(MongoConverter mongoConverter, boolean includeStats,
+                                         boolean includeSamples) {
+        this(mongoConverter, includeStats, includeSamples, true, SamplesEncoding.ARRAY);
+    }
+
+    public VariantToMongoUpdateConverter(MongoConverter mongoConverter, boolean includeStats, boolean includeSamples,
+                                         boolean compressSourceLine, SamplesEncoding samplesEncoding) {
+        Assert.notNull(mongoConverter, "A Mongo converter is required");
+        this.mongoConverter = mongoConverter;
+        this.includeStats = includeStats;
+        this.includeSamples = includeSamples;
+        this.compressSourceLine = compressSourceLine;
+        this.samplesEncoding = samplesEncoding;
+    }
+
+    @Override
+    public DBObject convert(Variant variant) {
+        Assert.notNull(variant, "Variant should not be null. Please provide a valid Variant object");
+        logger.trace("Convert variant {} into mongo object", variant);
+
+        BasicDBObject addToSet = new BasicDBObject();
+
+        if (!variant.getSourceEntries().isEmpty()) {
+            VariantSourceEntry variantSourceEntry = variant.getSourceEntries().values().iterator().next();
+
+            addToSet.put(VariantDocument.FILES_FIELD, convertSourceEntry(variantSourceEntry));
+
+            if (includeStats) {
+                BasicDBList basicDBList = convertStatistics(variantSourceEntry);
+                addToSet.put(VariantDocument.STATS_FIELD, new BasicDBObject("$each", basicDBList));
+            }
+        }
+
+        if (variant.getIds() != null && !variant.getIds().isEmpty()) {
+            addToSet.put(IDS_FIELD, new BasicDBObject("$each", variant.getIds()));
+        }
+
+        BasicDBObject update = new BasicDBObject();
+        if (!addToSet.isEmpty()) {
+            update.put("$addToSet", addToSet);
+        }
+        update.append("$setOnInsert", convertVariant(variant));
+
+        return update;
+    }
+
+    /**
+     * Merges into an update the update of another variant with the same id, e.g. from another line of the VCF, so that
+     * both are written at once: their files, statistics and ids are added to the sets together, and the rest of the
+     * variant is set from the first one.
+     */
+    public static void merge(DBObject update, DBObject otherUpdate) {
+        DBObject otherAddToSet = (DBObject) otherUpdate.get("$addToSet");
+        if (otherAddToSet == null) {
+            return;
+        }
+        DBObject addToSet = (DBObject) update.get("$addToSet");
+        if (addToSet == null) {
+            addToSet = new BasicDBObject();
+            update.put("$addToSet", addToSet);
+        }
+        for (String field : otherAddToSet.keySet()) {
+            BasicDBList values = getValuesToAdd(addToSet.get(field));
+            values.addAll(getValuesToAdd(otherAddToSet.get(field)));
+            addToSet.put(field, new BasicDBObject("$each", values));
+        }
+    }
+
+    private static BasicDBList getValuesToAdd(Object addToSetValue) {
+        BasicDBList values = new BasicDBList();
+        if (addToSetValue instanceof DBObject && ((DBObject) addToSetValue).containsField("$each")) {
+            values.addAll((Collection<?>) ((DBObject) addToSetValue).get("$each"));
+        } else if (addToSetValue != null) {
+            values.add(addToSetValue);
+        }
+        return values;
+    }
+
+    private BasicDBList convertStatistics(VariantSourceEntry variantSourceEntry) {
+        List<VariantStatsMongo> variantStats = new ArrayList<>();
+        for (Map.Entry<String, VariantStats> variantStatsEntry : variantSourceEntry.getCohortStats().entrySet()) {
+            variantStats.add(new VariantStatsMongo(
+                    variantSourceEntry.getStudyId(),
+                    variantSourceEntry.getFileId(),
+                    variantStatsEntry.getKey(),
+                    variantStatsEntry.getValue()
+            ));
+        }
+        return (BasicDBList) mongoConverter.convertToMongoType(variantStats);
+    }
+
+    private DBObject convertSourceEntry(VariantSourceEntry variantSourceEntry) {
+        VariantSourceEntryMongo variantSource = null;
+        if (includeSamples) {
+            variantSource = new VariantSourceEntryMongo(
+                    variantSourceEntry.getFileId(),
+                    variantSourceEntry.getStudyId(),
+                    variantSourceEntry.getSecondaryAlternates(),
+                    variantSourceEntry.getAttributes(),
+                    variantSourceEntry.getFormat(),
+                    variantSourceEntry.getSamplesData(),
+                    compressSourceLine,
+                    samplesEncoding
+            );
+        } else {
+            variantSource = new VariantSourceEntryMongo(
+                    variantSourceEntry.getFileId(),
+                    variantSourceEntry.getStudyId(),
+                    variantSourceEntry.getSecondaryAlternates(),
+                    variantSourceEntry.getAttributes(),
+                    compressSourceLine
+            );
+        }
+        return (DBObject) mongoConverter.convertToMongoType(variantSource);
+    }
+
+    private DBObject convertVariant(Variant variant) {
+        SimplifiedVariant simplifiedVariant = new SimplifiedVariant(
+                variant.getType(),
+                variant.getChromosome(),
+                variant.getStart(),
+                variant.getEnd(),
+                variant.getLength(),
+                variant.getReference(),
+                variant.getAlternate(),
+                variant.getHgvs());
+        return (DBObject) mongoConverter.convertToMongoType(simplifiedVariant);
+    }
+}
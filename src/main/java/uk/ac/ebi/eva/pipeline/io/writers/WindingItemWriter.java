@@ -0,0 +1,73 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io.writers;
+
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The winding writer takes a writer of collections of elements and passes it all the items of a chunk as a single
+ * list. This is the counterpart of {@link uk.ac.ebi.eva.pipeline.io.readers.UnwindingItemReader}, and allows a writer
+ * that groups its input (e.g. several annotations of the same variant) to do it across the whole chunk.
+ * <p>
+ * If the winded writer is an {@link ItemStream}, it is opened, updated and closed with this writer.
+ *
+ * @param <T>
+ */
+public class WindingItemWriter<T> implements ItemStreamWriter<T> {
+
+    private final ItemWriter<List<T>> windedWriter;
+
+    public WindingItemWriter(ItemWriter<List<T>> windedWriter) {
+        Assert.notNull(windedWriter);
+        this.windedWriter = windedWriter;
+    }
+
+    @Override
+    public void write(List<? extends T> items) throws Exception {
+        if (!items.isEmpty()) {
+            windedWriter.write(Collections.singletonList(new ArrayList<T>(items)));
+        }
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        if (windedWriter instanceof ItemStream) {
+            ((ItemStream) windedWriter).open(executionContext);
+        }
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) {
+        if (windedWriter instanceof ItemStream) {
+            ((ItemStream) windedWriter).update(executionContext);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (windedWriter instanceof ItemStream) {
+            ((ItemStream) windedWriter).close();
+        }
+    }
+}
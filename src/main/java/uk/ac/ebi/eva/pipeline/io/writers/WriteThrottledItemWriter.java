@@ -0,0 +1,72 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io.writers;
+
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.util.Assert;
+
+import uk.ac.ebi.eva.pipeline.io.WriteThrottle;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Passes the items to another writer when the {@link WriteThrottle} shared by all the writers allows it, and reports
+ * back how long the write took so that the throttle can adapt its rate.
+ * <p>
+ * Items that are collections, like the annotations written in a single chunk, count as one document per element.
+ *
+ * @param <T>
+ */
+public class WriteThrottledItemWriter<T> implements ItemWriter<T> {
+
+    private final ItemWriter<T> delegate;
+
+    private final WriteThrottle throttle;
+
+    public WriteThrottledItemWriter(ItemWriter<T> delegate, WriteThrottle throttle) {
+        Assert.notNull(delegate);
+        Assert.notNull(throttle);
+        this.delegate = delegate;
+        this.throttle = throttle;
+    }
+
+    /**
+     * @return a throttled writer, or the same writer if the throttle does not limit the writes
+     */
+    public static <T> ItemWriter<T> throttle(ItemWriter<T> writer, WriteThrottle throttle) {
+        if (!throttle.isEnabled()) {
+            return writer;
+        }
+        return new WriteThrottledItemWriter<>(writer, throttle);
+    }
+
+    @Override
+    public void write(List<? extends T> items) throws Exception {
+        throttle.acquire(countDocuments(items));
+        long start = System.nanoTime();
+        delegate.write(items);
+        throttle.recordWrite(System.nanoTime() - start);
+    }
+
+    static int countDocuments(List<?> items) {
+        int documents = 0;
+        for (Object item : items) {
+            documents += item instanceof Collection ? ((Collection<?>) item).size() : 1;
+        }
+        return documents;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.jobs;
+
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.JobRestartException;
+
+import uk.ac.ebi.eva.pipeline.jobs.steps.partitioners.JobRepositoryPartitionHandler;
+import uk.ac.ebi.eva.pipeline.parameters.JobParametersNames;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * JobRepository for chunk steps that persists the step execution and its execution context at most once per
+ * {@link JobParametersNames#CONFIG_CHECKPOINT_INTERVAL} seconds while the step is running, instead of after every
+ * chunk. The updates that start or finish a step are always persisted.
+ * <p>
+ * If a step fails between two checkpoints, the restart resumes from the last one and processes again the chunks
+ * written after it, so the writers of these steps must be idempotent. Stop requests are also noticed on the next
+ * checkpoint. The interval is capped to half of the partitions lease timeout, so that a running partition is never
+ * taken for dead.
+ */
+public class CheckpointingJobRepository implements JobRepository {
+
+    private final JobRepository delegate;
+
+    private final LongSupplier clock;
+
+    private final Map<Long, Long> lastCheckpoints;
+
+    public CheckpointingJobRepository(JobRepository delegate) {
+        this(delegate, System::currentTimeMillis);
+    }
+
+    CheckpointingJobRepository(JobRepository delegate, LongSupplier clock) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.lastCheckpoints = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void update(StepExecution stepExecution) {
+        if (isCheckpointDue(stepExecution)) {
+            delegate.update(stepExecution);
+            if (stepExecution.getStatus() == BatchStatus.STARTED) {
+                lastCheckpoints.put(stepExecution.getId(), clock.getAsLong());
+            } else {
+                lastCheckpoints.remove(stepExecution.getId());
+            }
+        }
+    }
+
+    @Override
+    public void updateExecutionContext(StepExecution stepExecution) {
+        if (isCheckpointDue(stepExecution)) {
+            delegate.updateExecutionContext(stepExecution);
+        }
+    }
+
+    private boolean isCheckpointDue(StepExecution stepExecution) {
+        long intervalMillis = getCheckpointIntervalMillis(stepExecution.getJobExecution().getJobParameters());
+        if (intervalMillis <= 0 || stepExecution.getStatus() != BatchStatus.STARTED
+                || stepExecution.isTerminateOnly()) {
+            return true;
+        }
+        Long lastCheckpoint = lastCheckpoints.get(stepExecution.getId());
+        return lastCheckpoint == null || clock.getAsLong() - lastCheckpoint >= intervalMillis;
+    }
+
+    private long getCheckpointIntervalMillis(JobParameters jobParameters) {
+        String interval = jobParameters.getString(JobParametersNames.CONFIG_CHECKPOINT_INTERVAL);
+        if (interval == null) {
+            return 0;
+        }
+        String leaseTimeout = jobParameters.getString(JobParametersNames.CONFIG_PARTITIONS_LEASE_TIMEOUT);
+        long leaseTimeoutSeconds = leaseTimeout == null ?
+                JobRepositoryPartitionHandler.DEFAULT_LEASE_TIMEOUT_SECONDS : Long.parseLong(leaseTimeout);
+        return TimeUnit.SECONDS.toMillis(Math.min(Long.parseLong(interval), leaseTimeoutSeconds / 2));
+    }
+
+    @Override
+    public boolean isJobInstanceExists(String jobName, JobParameters jobParameters) {
+        return delegate.isJobInstanceExists(jobName, jobParameters);
+    }
+
+    @Override
+    public JobInstance createJobInstance(String jobName, JobParameters jobParameters) {
+        return delegate.createJobInstance(jobName, jobParameters);
+    }
+
+    @Override
+    public JobExecution createJobExecution(JobInstance jobInstance, JobParameters jobParameters,
+                                           String jobConfigurationLocation) {
+        return delegate.createJobExecution(jobInstance, jobParameters, jobConfigurationLocation);
+    }
+
+    @Override
+    public JobExecution createJobExecution(String jobName, JobParameters jobParameters)
+            throws JobExecutionAlreadyRunningException, JobRestartException, JobInstanceAlreadyCompleteException {
+        return delegate.createJobExecution(jobName, jobParameters);
+    }
+
+    @Override
+    public void update(JobExecution jobExecution) {
+        delegate.update(jobExecution);
+    }
+
+    @Override
+    public void add(StepExecution stepExecution) {
+        delegate.add(stepExecution);
+    }
+
+    @Override
+    public void addAll(Collection<StepExecution> stepExecutions) {
+        delegate.addAll(stepExecutions);
+    }
+
+    @Override
+    public void updateExecutionContext(JobExecution jobExecution) {
+        delegate.updateExecutionContext(jobExecution);
+    }
+
+    @Override
+    public StepExecution getLastStepExecution(JobInstance jobInstance, String stepName) {
+        return delegate.getLastStepExecution(jobInstance, stepName);
+    }
+
+    @Override
+    public int getStepExecutionCount(JobInstance jobInstance, String stepName) {
+        return delegate.getStepExecutionCount(jobInstance, stepName);
+    }
+
+    @Override
+    public JobExecution getLastJobExecution(String jobName, JobParameters jobParameters) {
+        return delegate.getLastJobExecution(jobName, jobParameters);
+    }
+}
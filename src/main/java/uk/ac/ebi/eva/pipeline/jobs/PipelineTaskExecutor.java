@@ -0,0 +1,268 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.jobs;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Named thread pools that run the concurrent work of every job in the process: the flows of a split, the partitions
+ * of a partitioned step and the delegates of a parallel writer.
+ * <p>
+ * Each pool has its own number of threads, and each task of a pool costs a weight (e.g. the cores it keeps busy) out
+ * of a capacity shared by all pools, so that heavy work from different jobs or steps does not oversubscribe the
+ * host. Tasks wait in their pool queue until both a thread and enough capacity are available. Work that does not run
+ * in a pool, like the VEP processes, can take capacity with {@link #admit(int)}.
+ * <p>
+ * Tasks submitted from a task that already holds capacity are considered part of it and do not need more, so a
+ * partition waiting for its writers can not starve them. Pools whose tasks only wait for other tasks, like the flows
+ * of a split, should have weight 0 for the same reason.
+ */
+@ManagedResource(description = "Thread pools and capacity shared by the concurrent work of all the jobs")
+public class PipelineTaskExecutor implements DisposableBean {
+
+    public static final String FLOWS_POOL = "flows";
+
+    public static final String PARTITIONS_POOL = "partitions";
+
+    public static final String WRITERS_POOL = "writers";
+
+    /**
+     * Concurrency limit of an executor that can use all the threads of its pool.
+     */
+    public static final int UNLIMITED = 0;
+
+    private static final Admission NO_ADMISSION = () -> {
+    };
+
+    private static final ThreadLocal<Boolean> admitted = ThreadLocal.withInitial(() -> false);
+
+    private final int capacity;
+
+    private final Semaphore availableCapacity;
+
+    private final AtomicInteger waitingForAdmission;
+
+    private final Map<String, Pool> pools;
+
+    public PipelineTaskExecutor(int capacity) {
+        Assert.isTrue(capacity > 0, "Capacity must be greater than 0");
+        this.capacity = capacity;
+        this.availableCapacity = new Semaphore(capacity, true);
+        this.waitingForAdmission = new AtomicInteger(0);
+        this.pools = new LinkedHashMap<>();
+    }
+
+    /**
+     * @param threads maximum number of tasks of this pool running at the same time
+     * @param weight capacity taken by each running task, capped to the whole capacity
+     */
+    public synchronized void addPool(String name, int threads, int weight) {
+        Assert.isTrue(!pools.containsKey(name), "Pool '" + name + "' already exists");
+        Assert.isTrue(threads > 0, "Number of threads of pool '" + name + "' must be greater than 0");
+        Assert.isTrue(weight >= 0, "Weight of pool '" + name + "' can't be negative");
+        pools.put(name, new Pool(name, threads, Math.min(weight, capacity)));
+    }
+
+    public AsyncTaskExecutor getExecutor(String poolName) {
+        return getExecutor(poolName, UNLIMITED);
+    }
+
+    /**
+     * @param concurrencyLimit maximum number of tasks of the returned executor running or queued at the same time,
+     * or {@link #UNLIMITED}. Submitting more tasks blocks the caller until a previous one finishes.
+     */
+    public synchronized AsyncTaskExecutor getExecutor(String poolName, int concurrencyLimit) {
+        Pool pool = pools.get(poolName);
+        Assert.notNull(pool, "Pool '" + poolName + "' does not exist");
+        return new PoolTaskExecutor(pool, concurrencyLimit > 0 ? new Semaphore(concurrencyLimit) : null);
+    }
+
+    /**
+     * Blocks until the given capacity is available and takes it until the returned admission is closed. If the
+     * current thread already holds capacity nothing is taken.
+     */
+    public Admission admit(int weight) throws InterruptedException {
+        if (weight <= 0 || admitted.get()) {
+            return NO_ADMISSION;
+        }
+
+        int permits = Math.min(weight, capacity);
+        waitingForAdmission.incrementAndGet();
+        try {
+            availableCapacity.acquire(permits);
+        } finally {
+            waitingForAdmission.decrementAndGet();
+        }
+
+        admitted.set(true);
+        return () -> {
+            admitted.set(false);
+            availableCapacity.release(permits);
+        };
+    }
+
+    @ManagedAttribute(description = "Capacity shared by all the pools")
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @ManagedAttribute(description = "Capacity not taken by any running task")
+    public int getAvailableCapacity() {
+        return availableCapacity.availablePermits();
+    }
+
+    @ManagedAttribute(description = "Tasks waiting for capacity to run")
+    public int getWaitingForAdmission() {
+        return waitingForAdmission.get();
+    }
+
+    @ManagedAttribute(description = "Tasks waiting for a thread, by pool")
+    public synchronized Map<String, Integer> getQueueDepths() {
+        Map<String, Integer> queueDepths = new LinkedHashMap<>();
+        pools.forEach((name, pool) -> queueDepths.put(name, pool.executor.getQueue().size()));
+        return queueDepths;
+    }
+
+    @ManagedAttribute(description = "Threads running a task, by pool")
+    public synchronized Map<String, Integer> getActiveThreads() {
+        Map<String, Integer> activeThreads = new LinkedHashMap<>();
+        pools.forEach((name, pool) -> activeThreads.put(name, pool.executor.getActiveCount()));
+        return activeThreads;
+    }
+
+    @Override
+    public synchronized void destroy() {
+        pools.values().forEach(pool -> pool.executor.shutdownNow());
+    }
+
+    /**
+     * Capacity taken by a thread, which is given back on close.
+     */
+    @FunctionalInterface
+    public interface Admission extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static class Pool {
+
+        private final int weight;
+
+        private final ThreadPoolExecutor executor;
+
+        Pool(String name, int threads, int weight) {
+            this.weight = weight;
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(name + "-");
+            threadFactory.setDaemon(true);
+            this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                                                   new LinkedBlockingQueue<>(), threadFactory);
+        }
+    }
+
+    private class PoolTaskExecutor implements AsyncTaskExecutor {
+
+        private final Pool pool;
+
+        private final Semaphore concurrencyLimit;
+
+        PoolTaskExecutor(Pool pool, Semaphore concurrencyLimit) {
+            this.pool = pool;
+            this.concurrencyLimit = concurrencyLimit;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            if (concurrencyLimit != null) {
+                try {
+                    concurrencyLimit.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new TaskRejectedException("Interrupted while waiting to submit a task", e);
+                }
+            }
+
+            try {
+                pool.executor.execute(wrap(task, admitted.get()));
+            } catch (RejectedExecutionException e) {
+                releaseConcurrencyLimit();
+                throw new TaskRejectedException("Pool executor did not accept the task", e);
+            }
+        }
+
+        private Runnable wrap(Runnable task, boolean submittedByAdmittedTask) {
+            return () -> {
+                try (Admission admission = submittedByAdmittedTask ? inheritAdmission() : admit(pool.weight)) {
+                    task.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    if (task instanceof Future) {
+                        ((Future<?>) task).cancel(false);
+                    }
+                } finally {
+                    releaseConcurrencyLimit();
+                }
+            };
+        }
+
+        private Admission inheritAdmission() {
+            admitted.set(true);
+            return () -> admitted.set(false);
+        }
+
+        private void releaseConcurrencyLimit() {
+            if (concurrencyLimit != null) {
+                concurrencyLimit.release();
+            }
+        }
+
+        @Override
+        public void execute(Runnable task, long startTimeout) {
+            execute(task);
+        }
+
+        @Override
+        public Future<?> submit(Runnable task) {
+            FutureTask<Object> future = new FutureTask<>(task, null);
+            execute(future);
+            return future;
+        }
+
+        @Override
+        public <T> Future<T> submit(Callable<T> task) {
+            FutureTask<T> future = new FutureTask<>(task);
+            execute(future);
+            return future;
+        }
+    }
+}
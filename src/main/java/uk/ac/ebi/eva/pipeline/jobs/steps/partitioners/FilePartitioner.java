@@ -0,0 +1,56 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.jobs.steps.partitioners;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.util.Assert;
+
+import uk.ac.ebi.eva.pipeline.parameters.ExecutionContextParametersNames;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates one partition per input file. The path of the file is stored in the execution context of the partition
+ * under the key {@link ExecutionContextParametersNames#PARTITION_FILE}.
+ * <p>
+ * The partition names depend only on the position of the file in the list, so a restarted job with the same
+ * parameters will resume the same partitions that failed in the previous execution.
+ */
+public class FilePartitioner implements Partitioner {
+
+    private static final String PARTITION_PREFIX = "partition";
+
+    private final List<String> files;
+
+    public FilePartitioner(List<String> files) {
+        Assert.notEmpty(files);
+        this.files = files;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, ExecutionContext> partitions = new HashMap<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            ExecutionContext context = new ExecutionContext();
+            context.putString(ExecutionContextParametersNames.PARTITION_FILE, files.get(i));
+            partitions.put(PARTITION_PREFIX + i, context);
+        }
+        return partitions;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.jobs.steps.partitioners;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.partition.PartitionHandler;
+import org.springframework.batch.core.partition.StepExecutionSplitter;
+import org.springframework.batch.core.partition.support.TaskExecutorPartitionHandler;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import uk.ac.ebi.eva.pipeline.parameters.JobParametersNames;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Partition handler that can hand the partitions of a step over to other processes sharing the same job repository.
+ * <p>
+ * By default the partitions are executed in the threads of the given task executor. If the job parameter
+ * {@link JobParametersNames#CONFIG_PARTITIONS_REMOTE} is true, the partitions are only stored in the job repository
+ * with status STARTING, to be claimed and executed by any {@link PartitionWorker}, and this handler waits until all
+ * of them have finished.
+ * <p>
+ * A worker that stops updating a claimed partition for longer than the lease timeout
+ * ({@link JobParametersNames#CONFIG_PARTITIONS_LEASE_TIMEOUT}, in seconds) is considered dead, and the partition is
+ * released to be claimed again. Workers renew the lease periodically while the partition is running, not only when
+ * a chunk is committed, so that a tasklet that runs for longer than the lease timeout is not released. The new worker
+ * resumes it from its last committed execution context, and the version of the step execution prevents the dead
+ * worker from committing any further chunk if it was only stalled.
+ */
+public class JobRepositoryPartitionHandler implements PartitionHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobRepositoryPartitionHandler.class);
+
+    public static final long DEFAULT_LEASE_TIMEOUT_SECONDS = 600;
+
+    public static final long DEFAULT_POLL_INTERVAL_MILLIS = 5000;
+
+    private final JobExplorer jobExplorer;
+
+    private final JobRepository jobRepository;
+
+    private final PartitionHandler localHandler;
+
+    private final long pollIntervalMillis;
+
+    public JobRepositoryPartitionHandler(Step partitionStep, TaskExecutor taskExecutor, JobExplorer jobExplorer,
+                                         JobRepository jobRepository) throws Exception {
+        this(partitionStep, taskExecutor, jobExplorer, jobRepository, DEFAULT_POLL_INTERVAL_MILLIS);
+    }
+
+    public JobRepositoryPartitionHandler(Step partitionStep, TaskExecutor taskExecutor, JobExplorer jobExplorer,
+                                         JobRepository jobRepository, long pollIntervalMillis) throws Exception {
+        this.localHandler = createLocalHandler(partitionStep, taskExecutor);
+        this.jobExplorer = jobExplorer;
+        this.jobRepository = jobRepository;
+        this.pollIntervalMillis = pollIntervalMillis;
+    }
+
+    private static PartitionHandler createLocalHandler(Step partitionStep, TaskExecutor taskExecutor)
+            throws Exception {
+        TaskExecutorPartitionHandler handler = new TaskExecutorPartitionHandler();
+        handler.setStep(partitionStep);
+        handler.setTaskExecutor(taskExecutor);
+        handler.afterPropertiesSet();
+        return handler;
+    }
+
+    public static boolean isRemote(JobParameters jobParameters) {
+        return Boolean.parseBoolean(jobParameters.getString(JobParametersNames.CONFIG_PARTITIONS_REMOTE));
+    }
+
+    static long getLeaseTimeoutMillis(JobParameters jobParameters) {
+        String leaseTimeout = jobParameters.getString(JobParametersNames.CONFIG_PARTITIONS_LEASE_TIMEOUT);
+        long seconds = leaseTimeout == null ? DEFAULT_LEASE_TIMEOUT_SECONDS : Long.parseLong(leaseTimeout);
+        return TimeUnit.SECONDS.toMillis(seconds);
+    }
+
+    @Override
+    public Collection<StepExecution> handle(StepExecutionSplitter stepSplitter, StepExecution managerStepExecution)
+            throws Exception {
+        JobParameters jobParameters = managerStepExecution.getJobParameters();
+        if (!isRemote(jobParameters)) {
+            return localHandler.handle(stepSplitter, managerStepExecution);
+        }
+
+        Set<StepExecution> partitions = stepSplitter.split(managerStepExecution, 1);
+        logger.info("{} partitions of step '{}' waiting to be claimed by a worker", partitions.size(),
+                    managerStepExecution.getStepName());
+        return waitForPartitions(managerStepExecution.getJobExecutionId(), partitions,
+                                 getLeaseTimeoutMillis(jobParameters));
+    }
+
+    private Collection<StepExecution> waitForPartitions(Long jobExecutionId, Set<StepExecution> partitions,
+                                                        long leaseTimeoutMillis) throws InterruptedException {
+        Set<Long> pending = new HashSet<>();
+        for (StepExecution partition : partitions) {
+            pending.add(partition.getId());
+        }
+
+        List<StepExecution> finished = new ArrayList<>();
+        while (!pending.isEmpty()) {
+            Thread.sleep(pollIntervalMillis);
+            Iterator<Long> iterator = pending.iterator();
+            while (iterator.hasNext()) {
+                StepExecution partition = jobExplorer.getStepExecution(jobExecutionId, iterator.next());
+                if (!partition.getStatus().isRunning()) {
+                    finished.add(partition);
+                    iterator.remove();
+                } else if (isLeaseExpired(partition, leaseTimeoutMillis)) {
+                    release(partition);
+                }
+            }
+        }
+        return finished;
+    }
+
+    private boolean isLeaseExpired(StepExecution partition, long leaseTimeoutMillis) {
+        return partition.getStatus() == BatchStatus.STARTED && partition.getLastUpdated() != null
+                && System.currentTimeMillis() - partition.getLastUpdated().getTime() > leaseTimeoutMillis;
+    }
+
+    private void release(StepExecution partition) {
+        Date lastUpdated = partition.getLastUpdated();
+        partition.setStatus(BatchStatus.STARTING);
+        try {
+            jobRepository.update(partition);
+            logger.warn("Partition '{}' has not been updated since {}, it will be claimed by another worker",
+                        partition.getStepName(), lastUpdated);
+        } catch (OptimisticLockingFailureException e) {
+            logger.debug("Partition '{}' was updated by its worker while being released", partition.getStepName());
+        }
+    }
+
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.jobs.steps.partitioners;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import com.mongodb.MongoException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.partition.support.PartitionNameProvider;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.util.Assert;
+
+import uk.ac.ebi.eva.pipeline.parameters.ExecutionContextParametersNames;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits the documents that match a criteria into a fixed number of ranges of string ids with a similar number of
+ * documents each. The bounds of each range are stored in the execution context of the partition under the keys
+ * {@link ExecutionContextParametersNames#PARTITION_MIN_ID} (exclusive, absent in the first partition) and
+ * {@link ExecutionContextParametersNames#PARTITION_MAX_ID} (inclusive, absent in the last partition).
+ * <p>
+ * The partition names only depend on the number of partitions, and on a restart the partitions that didn't complete
+ * resume with their previous ranges, even if the matching documents changed after the failed execution.
+ * <p>
+ * The boundaries are exact by default, but finding each of them skips over the ids before it. For big collections,
+ * the boundaries can be taken from a random sample of ids instead, so the partitions will only have a similar number
+ * of documents. If the server doesn't support sampling, the exact boundaries are used.
+ */
+public class MongoIdRangePartitioner implements Partitioner, PartitionNameProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoIdRangePartitioner.class);
+
+    private static final String PARTITION_PREFIX = "partition";
+
+    private static final String ID_FIELD = "_id";
+
+    private static final String LOWEST_ID = "";
+
+    /**
+     * Enough samples per partition to make the partitions of a big collection similar in size
+     */
+    public static final int DEFAULT_SAMPLES_PER_PARTITION = 1000;
+
+    private final MongoOperations mongoOperations;
+
+    private final String collectionName;
+
+    private final Criteria criteria;
+
+    private final int numberOfPartitions;
+
+    private final int samplesPerPartition;
+
+    public MongoIdRangePartitioner(MongoOperations mongoOperations, String collectionName, Criteria criteria,
+                                   int numberOfPartitions) {
+        this(mongoOperations, collectionName, criteria, numberOfPartitions, 0);
+    }
+
+    /**
+     * @param samplesPerPartition number of ids sampled per partition to estimate the boundaries, or 0 to find the
+     *                            exact ones. The exact boundaries are also used if there are not many more documents
+     *                            than samples.
+     */
+    public MongoIdRangePartitioner(MongoOperations mongoOperations, String collectionName, Criteria criteria,
+                                   int numberOfPartitions, int samplesPerPartition) {
+        Assert.notNull(mongoOperations);
+        Assert.hasText(collectionName);
+        Assert.notNull(criteria);
+        Assert.isTrue(numberOfPartitions > 0, "The number of partitions must be positive");
+        Assert.isTrue(samplesPerPartition >= 0, "The number of samples per partition can't be negative");
+        this.mongoOperations = mongoOperations;
+        this.collectionName = collectionName;
+        this.criteria = criteria;
+        this.numberOfPartitions = numberOfPartitions;
+        this.samplesPerPartition = samplesPerPartition;
+    }
+
+    /**
+     * @param gridSize ignored, the number of partitions is set in the constructor
+     */
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        List<String> boundaries = getBoundaries();
+
+        Map<String, ExecutionContext> partitions = new HashMap<>(numberOfPartitions);
+        for (int i = 0; i < numberOfPartitions; i++) {
+            ExecutionContext context = new ExecutionContext();
+            if (i > 0) {
+                context.putString(ExecutionContextParametersNames.PARTITION_MIN_ID, boundaries.get(i - 1));
+            }
+            if (i < numberOfPartitions - 1) {
+                context.putString(ExecutionContextParametersNames.PARTITION_MAX_ID, boundaries.get(i));
+            }
+            partitions.put(PARTITION_PREFIX + i, context);
+        }
+        return partitions;
+    }
+
+    @Override
+    public Collection<String> getPartitionNames(int gridSize) {
+        List<String> names = new ArrayList<>(numberOfPartitions);
+        for (int i = 0; i < numberOfPartitions; i++) {
+            names.add(PARTITION_PREFIX + i);
+        }
+        return names;
+    }
+
+    /**
+     * The id found after skipping a fraction of the matching documents is the upper bound of each partition but the
+     * last one. If there are fewer documents than partitions, some partitions will be empty.
+     */
+    private List<String> getBoundaries() {
+        long count = mongoOperations.count(new Query(criteria), collectionName);
+        logger.info("Splitting {} documents in {} partitions", count, numberOfPartitions);
+
+        long samples = (long) samplesPerPartition * numberOfPartitions;
+        if (numberOfPartitions > 1 && samples > 0 && count > 2 * samples) {
+            try {
+                List<String> boundaries = getSampledBoundaries((int) samples);
+                if (boundaries != null) {
+                    return boundaries;
+                }
+            } catch (MongoException e) {
+                logger.warn("Could not sample the ids, the exact partition boundaries will be used instead", e);
+            }
+        }
+
+        List<String> boundaries = new ArrayList<>(numberOfPartitions - 1);
+        String previousBoundary = LOWEST_ID;
+        for (int i = 1; i < numberOfPartitions; i++) {
+            long skip = count * i / numberOfPartitions;
+            String boundary = skip > 0 ? getIdAt(skip - 1) : null;
+            previousBoundary = boundary != null ? boundary : previousBoundary;
+            boundaries.add(previousBoundary);
+        }
+        return boundaries;
+    }
+
+    /**
+     * @return the boundaries between the quantiles of the sampled ids, or null if too few ids were sampled
+     */
+    private List<String> getSampledBoundaries(int samples) {
+        List<DBObject> pipeline = Arrays.<DBObject>asList(
+                new BasicDBObject("$match", criteria.getCriteriaObject()),
+                new BasicDBObject("$sample", new BasicDBObject("size", samples)),
+                new BasicDBObject("$project", new BasicDBObject(ID_FIELD, 1)));
+
+        List<String> ids = new ArrayList<>(samples);
+        for (DBObject document : mongoOperations.getCollection(collectionName).aggregate(pipeline).results()) {
+            ids.add(document.get(ID_FIELD).toString());
+        }
+        if (ids.size() < numberOfPartitions) {
+            return null;
+        }
+        Collections.sort(ids);
+
+        List<String> boundaries = new ArrayList<>(numberOfPartitions - 1);
+        for (int i = 1; i < numberOfPartitions; i++) {
+            boundaries.add(ids.get(ids.size() * i / numberOfPartitions - 1));
+        }
+        return boundaries;
+    }
+
+    private String getIdAt(long position) {
+        Query query = new Query(criteria);
+        query.fields().include(ID_FIELD);
+        query.with(new Sort(Sort.Direction.ASC, ID_FIELD)).skip((int) position).limit(1);
+        List<DBObject> documents = mongoOperations.find(query, DBObject.class, collectionName);
+        return documents.isEmpty() ? null : documents.get(0).get(ID_FIELD).toString();
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.jobs.steps.partitioners;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInterruptedException;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.dao.AbstractJdbcBatchMetadataDao;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes the partitions that a {@link JobRepositoryPartitionHandler} has stored in the shared job repository.
+ * <p>
+ * A worker looks for partitions with status STARTING in the running job executions that were launched with remote
+ * partitions, and claims one of them by marking it as STARTED. The version of the step execution guarantees that only
+ * one worker can claim each partition. The partition is then executed with the step of the same name, which restores
+ * its state from the execution context of the partition.
+ * <p>
+ * While a partition is running, its lease is renewed from a separate thread several times per lease timeout, by
+ * updating only the last updated time of the claimed step execution. This way the lease doesn't depend on how often
+ * the step commits, and tasklet partitions are not released while they are still running. The version and the rest
+ * of the step execution are only written by the step, so the renewals never conflict with its chunk transactions.
+ * <p>
+ * A partition that is still being executed in this process is never claimed again, even if its lease has expired:
+ * step contexts are registered per step execution for the whole process, so both executions would share the same
+ * context. Such partitions can only be claimed by workers in other processes.
+ */
+public class PartitionWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionWorker.class);
+
+    private static final String PARTITION_NAME_SEPARATOR = ":";
+
+    private static final int LEASE_RENEWALS_PER_TIMEOUT = 4;
+
+    private static final String RENEW_LEASE = "UPDATE " + AbstractJdbcBatchMetadataDao.DEFAULT_TABLE_PREFIX
+            + "STEP_EXECUTION SET LAST_UPDATED = ? WHERE STEP_EXECUTION_ID = ? AND STATUS = ?";
+
+    private static final Set<Long> partitionsInProcess = ConcurrentHashMap.newKeySet();
+
+    private final JobExplorer jobExplorer;
+
+    private final JobRepository jobRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<String, Step> steps;
+
+    private final ScheduledExecutorService leaseRenewer;
+
+    public PartitionWorker(JobExplorer jobExplorer, JobRepository jobRepository, DataSource dataSource,
+                           Collection<Step> steps) {
+        this.jobExplorer = jobExplorer;
+        this.jobRepository = jobRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.steps = new HashMap<>();
+        for (Step step : steps) {
+            this.steps.put(step.getName(), step);
+        }
+        this.leaseRenewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "partition-lease-renewer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Claims and executes partitions until no partition has been found for the given time.
+     *
+     * @param idleTimeoutMillis maximum time without partitions to execute, or zero to run until interrupted
+     * @param pollIntervalMillis time to wait between searches when there are no partitions to execute
+     */
+    public void run(long idleTimeoutMillis, long pollIntervalMillis) throws InterruptedException {
+        long lastPartitionTime = System.currentTimeMillis();
+        while (!Thread.currentThread().isInterrupted()) {
+            if (executeNextPartition()) {
+                lastPartitionTime = System.currentTimeMillis();
+            } else if (idleTimeoutMillis > 0 && System.currentTimeMillis() - lastPartitionTime > idleTimeoutMillis) {
+                logger.info("No partitions to execute in the last {} ms, stopping worker", idleTimeoutMillis);
+                return;
+            } else {
+                Thread.sleep(pollIntervalMillis);
+            }
+        }
+    }
+
+    /**
+     * @return true if a partition was claimed and executed, false if there were no partitions to execute
+     */
+    public boolean executeNextPartition() {
+        for (String jobName : jobExplorer.getJobNames()) {
+            for (JobExecution jobExecution : jobExplorer.findRunningJobExecutions(jobName)) {
+                if (!JobRepositoryPartitionHandler.isRemote(jobExecution.getJobParameters())) {
+                    continue;
+                }
+                for (StepExecution partition : jobExecution.getStepExecutions()) {
+                    Step step = getPartitionStep(partition);
+                    if (step != null && partitionsInProcess.add(partition.getId())) {
+                        try {
+                            if (claim(partition)) {
+                                execute(step, partition);
+                                return true;
+                            }
+                        } finally {
+                            partitionsInProcess.remove(partition.getId());
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private Step getPartitionStep(StepExecution partition) {
+        String partitionName = partition.getStepName();
+        int separator = partitionName.lastIndexOf(PARTITION_NAME_SEPARATOR);
+        if (partition.getStatus() != BatchStatus.STARTING || separator < 0
+                || partitionsInProcess.contains(partition.getId())) {
+            return null;
+        }
+        return steps.get(partitionName.substring(0, separator));
+    }
+
+    boolean claim(StepExecution partition) {
+        partition.setStatus(BatchStatus.STARTED);
+        try {
+            jobRepository.update(partition);
+            return true;
+        } catch (OptimisticLockingFailureException e) {
+            logger.debug("Partition '{}' has been claimed by another worker", partition.getStepName());
+            return false;
+        }
+    }
+
+    private void execute(Step step, StepExecution partition) {
+        logger.info("Executing partition '{}' of job execution {}", partition.getStepName(),
+                    partition.getJobExecutionId());
+        ScheduledFuture<?> leaseRenewal = scheduleLeaseRenewal(partition);
+        try {
+            step.execute(partition);
+        } catch (JobInterruptedException e) {
+            logger.warn("Partition '{}' was interrupted", partition.getStepName());
+        } finally {
+            leaseRenewal.cancel(false);
+        }
+        logger.info("Partition '{}' finished with status {}", partition.getStepName(), partition.getStatus());
+    }
+
+    private ScheduledFuture<?> scheduleLeaseRenewal(StepExecution partition) {
+        long leaseTimeoutMillis = JobRepositoryPartitionHandler.getLeaseTimeoutMillis(partition.getJobParameters());
+        long renewalIntervalMillis = Math.max(1, leaseTimeoutMillis / LEASE_RENEWALS_PER_TIMEOUT);
+        return leaseRenewer.scheduleWithFixedDelay(() -> renewLease(partition), renewalIntervalMillis,
+                                                   renewalIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Only renews the lease while the partition is still claimed, so a partition released to another worker is not
+     * kept alive by this one.
+     */
+    private void renewLease(StepExecution partition) {
+        int renewed = jdbcTemplate.update(RENEW_LEASE, new Date(), partition.getId(), BatchStatus.STARTED.name());
+        if (renewed == 0 && partition.getStatus().isRunning()) {
+            logger.warn("The lease of partition '{}' could not be renewed, it is no longer claimed",
+                        partition.getStepName());
+            // the exception stops the renewals, the step will fail on its next update if it was released
+            throw new IllegalStateException("Partition '" + partition.getStepName() + "' is no longer claimed");
+        }
+    }
+
+}
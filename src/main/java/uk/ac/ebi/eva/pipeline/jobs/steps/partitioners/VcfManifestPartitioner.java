@@ -0,0 +1,57 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.jobs.steps.partitioners;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import uk.ac.ebi.eva.pipeline.model.VcfManifest;
+import uk.ac.ebi.eva.pipeline.parameters.ExecutionContextParametersNames;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates one partition per VCF in a manifest. The path and ID of the file are stored in the execution context of the
+ * partition under the keys {@link ExecutionContextParametersNames#PARTITION_VCF} and
+ * {@link ExecutionContextParametersNames#PARTITION_VCF_ID}, where they take precedence over the job parameters.
+ * <p>
+ * As in {@link FilePartitioner}, the partition names depend only on the position of the file in the manifest.
+ */
+public class VcfManifestPartitioner implements Partitioner {
+
+    private static final String PARTITION_PREFIX = "partition";
+
+    private final VcfManifest manifest;
+
+    public VcfManifestPartitioner(VcfManifest manifest) {
+        this.manifest = manifest;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        List<VcfManifest.Entry> entries = manifest.getEntries();
+        Map<String, ExecutionContext> partitions = new HashMap<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            ExecutionContext context = new ExecutionContext();
+            context.putString(ExecutionContextParametersNames.PARTITION_VCF, entries.get(i).getVcf());
+            context.putString(ExecutionContextParametersNames.PARTITION_VCF_ID, entries.get(i).getVcfId());
+            partitions.put(PARTITION_PREFIX + i, context);
+        }
+        return partitions;
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2015-2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.jobs.steps.processors;
+
+import com.mongodb.DBObject;
+import org.springframework.batch.item.ItemProcessor;
+
+/**
+ * Maps every document read from mongo to its id, for the steps that only need the ids of the documents to update.
+ */
+public class DocumentIdProcessor implements ItemProcessor<DBObject, String> {
+
+    @Override
+    public String process(DBObject document) throws Exception {
+        return document.get("_id").toString();
+    }
+}
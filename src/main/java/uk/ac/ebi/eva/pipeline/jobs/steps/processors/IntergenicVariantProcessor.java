@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.jobs.steps.processors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.item.ItemProcessor;
+
+import uk.ac.ebi.eva.pipeline.model.EnsemblVariant;
+import uk.ac.ebi.eva.pipeline.model.FeatureIntervalIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Annotates as intergenic_variant, without running VEP, the variants that are farther than a given distance from
+ * any feature in a {@link FeatureIntervalIndex}. The rest of the variants are sent to the delegate processor.
+ * <p>
+ * Variants in chromosomes without features in the index are always sent to the delegate. The lines generated for
+ * intergenic variants follow the VEP default output format, so they can be parsed together with the VEP output.
+ */
+public class IntergenicVariantProcessor implements ItemProcessor<List<EnsemblVariant>, List<String>> {
+
+    private static final Logger logger = LoggerFactory.getLogger(IntergenicVariantProcessor.class);
+
+    private static final String INTERGENIC_VARIANT = "intergenic_variant";
+
+    private static final String EMPTY_FIELD = "-";
+
+    private final ItemProcessor<List<EnsemblVariant>, List<String>> delegate;
+
+    private final FeatureIntervalIndex featureIntervalIndex;
+
+    private final int distance;
+
+    public IntergenicVariantProcessor(ItemProcessor<List<EnsemblVariant>, List<String>> delegate,
+                                      FeatureIntervalIndex featureIntervalIndex, int distance) {
+        this.delegate = delegate;
+        this.featureIntervalIndex = featureIntervalIndex;
+        this.distance = distance;
+    }
+
+    @Override
+    public List<String> process(List<EnsemblVariant> ensemblVariants) throws Exception {
+        List<EnsemblVariant> variantsNearFeatures = new ArrayList<>();
+        List<String> lines = new ArrayList<>();
+
+        for (EnsemblVariant variant : ensemblVariants) {
+            if (isIntergenic(variant)) {
+                lines.add(getIntergenicVariantLine(variant));
+            } else {
+                variantsNearFeatures.add(variant);
+            }
+        }
+        logger.debug("{} out of {} variants annotated as intergenic without VEP", lines.size(),
+                     ensemblVariants.size());
+
+        if (!variantsNearFeatures.isEmpty()) {
+            lines.addAll(delegate.process(variantsNearFeatures));
+        }
+        return lines;
+    }
+
+    private boolean isIntergenic(EnsemblVariant variant) {
+        return featureIntervalIndex.hasFeatures(variant.getChr())
+                && !featureIntervalIndex.isNearFeature(variant.getChr(), variant.getStart(), variant.getEnd(),
+                                                       distance);
+    }
+
+    private String getIntergenicVariantLine(EnsemblVariant variant) {
+        String refAlt = variant.getRefAlt();
+        String alternate = refAlt.substring(refAlt.indexOf('/') + 1);
+        int start = Math.min(variant.getStart(), variant.getEnd());
+        int end = Math.max(variant.getStart(), variant.getEnd());
+        String location = variant.getChr() + ":" + (start == end ? Integer.toString(start) : start + "-" + end);
+
+        return String.join("\t",
+                           variant.getChr() + "_" + variant.getStart() + "_" + refAlt,
+                           location,
+                           alternate,
+                           EMPTY_FIELD, EMPTY_FIELD, EMPTY_FIELD,
+                           INTERGENIC_VARIANT,
+                           EMPTY_FIELD, EMPTY_FIELD, EMPTY_FIELD, EMPTY_FIELD, EMPTY_FIELD, EMPTY_FIELD);
+    }
+}
@@ -19,7 +19,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.item.ItemProcessor;
 
+import uk.ac.ebi.eva.pipeline.io.VepOutputSpool;
 import uk.ac.ebi.eva.pipeline.io.VepProcess;
+import uk.ac.ebi.eva.pipeline.jobs.PipelineTaskExecutor;
+import uk.ac.ebi.eva.pipeline.metrics.PipelineMetrics;
 import uk.ac.ebi.eva.pipeline.model.EnsemblVariant;
 import uk.ac.ebi.eva.pipeline.parameters.AnnotationParameters;
 
@@ -30,6 +33,15 @@ import java.util.List;
 /**
  * ItemStreamWriter that takes VariantWrappers and serialize them into a {@link VepProcess}, which will be responsible
  * for annotating the variants and writing them to a file.
+ * <p>
+ * If a {@link VepOutputSpool} is provided, the VEP output of each batch is spooled, and a batch that was already
+ * annotated (e.g. before a writer failed) is replayed from the spool instead of going through VEP again.
+ * <p>
+ * If a {@link PipelineTaskExecutor} is provided, each VEP run takes one unit of its capacity per VEP fork, so that
+ * VEP does not compete for the cores used by the rest of the concurrent work.
+ * <p>
+ * If a {@link PipelineMetrics} is provided, it records how long each batch takes in VEP and how long it waited to be
+ * admitted into the executor.
  */
 public class VepAnnotationProcessor implements ItemProcessor<List<EnsemblVariant>, List<String>> {
 
@@ -37,30 +49,93 @@ public class VepAnnotationProcessor implements ItemProcessor<List<EnsemblVariant
 
     private static final boolean SKIP_COMMENTS = true;
 
+    public static final String VEP_BATCH_METRIC = "vep.batch";
+
+    public static final String VEP_ADMISSION_METRIC = "vep.admission.wait";
+
+    public static final String VEP_REPLAYED_METRIC = "vep.batches.replayed";
+
     private final AnnotationParameters annotationParameters;
 
     private final Integer chunkSize;
 
     private final Long timeoutInSeconds;
 
+    private final VepOutputSpool vepOutputSpool;
+
+    private final PipelineTaskExecutor taskExecutor;
+
+    private final PipelineMetrics metrics;
+
     public VepAnnotationProcessor(AnnotationParameters annotationParameters, Integer chunkSize, Long timeoutInSeconds) {
+        this(annotationParameters, chunkSize, timeoutInSeconds, null);
+    }
+
+    public VepAnnotationProcessor(AnnotationParameters annotationParameters, Integer chunkSize, Long timeoutInSeconds,
+                                  VepOutputSpool vepOutputSpool) {
+        this(annotationParameters, chunkSize, timeoutInSeconds, vepOutputSpool, null);
+    }
+
+    public VepAnnotationProcessor(AnnotationParameters annotationParameters, Integer chunkSize, Long timeoutInSeconds,
+                                  VepOutputSpool vepOutputSpool, PipelineTaskExecutor taskExecutor) {
+        this(annotationParameters, chunkSize, timeoutInSeconds, vepOutputSpool, taskExecutor, null);
+    }
+
+    public VepAnnotationProcessor(AnnotationParameters annotationParameters, Integer chunkSize, Long timeoutInSeconds,
+                                  VepOutputSpool vepOutputSpool, PipelineTaskExecutor taskExecutor,
+                                  PipelineMetrics metrics) {
         this.annotationParameters = annotationParameters;
         this.chunkSize = chunkSize;
         this.timeoutInSeconds = timeoutInSeconds;
+        this.vepOutputSpool = vepOutputSpool;
+        this.taskExecutor = taskExecutor;
+        this.metrics = metrics;
     }
 
     @Override
     public List<String> process(List<EnsemblVariant> ensemblVariants) throws Exception {
+        StringBuilder vepInput = new StringBuilder();
+        for (EnsemblVariant ensemblVariant : ensemblVariants) {
+            vepInput.append(getVariantInVepInputFormat(ensemblVariant)).append(System.lineSeparator());
+        }
+
+        boolean spoolEnabled = vepOutputSpool != null && !ensemblVariants.isEmpty();
+        if (spoolEnabled) {
+            List<String> spooledLines = vepOutputSpool.read(ensemblVariants, vepInput.toString());
+            if (spooledLines != null) {
+                if (metrics != null) {
+                    metrics.increment(VEP_REPLAYED_METRIC, 1);
+                }
+                return spooledLines;
+            }
+        }
+
+        List<String> lines;
+        if (taskExecutor == null) {
+            lines = runVep(ensemblVariants, vepInput.toString());
+        } else {
+            long waitStart = System.nanoTime();
+            try (PipelineTaskExecutor.Admission admission = taskExecutor.admit(getVepForks())) {
+                if (metrics != null) {
+                    metrics.recordTime(VEP_ADMISSION_METRIC, System.nanoTime() - waitStart);
+                }
+                lines = runVep(ensemblVariants, vepInput.toString());
+            }
+        }
+
+        if (spoolEnabled) {
+            vepOutputSpool.write(ensemblVariants, vepInput.toString(), lines);
+        }
+        return lines;
+    }
+
+    private List<String> runVep(List<EnsemblVariant> ensemblVariants, String vepInput) throws Exception {
+        long start = System.nanoTime();
         StringWriter writer = new StringWriter();
 
         VepProcess vepProcess = new VepProcess(annotationParameters, chunkSize, timeoutInSeconds, writer, SKIP_COMMENTS);
         vepProcess.open();
-
-        for (EnsemblVariant ensemblVariant : ensemblVariants) {
-            String line = getVariantInVepInputFormat(ensemblVariant);
-            vepProcess.write(line.getBytes());
-            vepProcess.write(System.lineSeparator().getBytes());
-        }
+        vepProcess.write(vepInput.getBytes());
 
         logBatch(ensemblVariants);
 
@@ -69,9 +144,17 @@ public class VepAnnotationProcessor implements ItemProcessor<List<EnsemblVariant
         writer.close();
 
         String[] lines = writer.getBuffer().toString().split("\n"); // TODO is it possible to refactor this?
+        if (metrics != null) {
+            metrics.recordTime(VEP_BATCH_METRIC, System.nanoTime() - start);
+        }
         return Arrays.asList(lines);
     }
 
+    private int getVepForks() {
+        Integer vepNumForks = annotationParameters.getVepNumForks();
+        return vepNumForks != null ? vepNumForks : 1;
+    }
+
     private void logBatch(List<EnsemblVariant> ensemblVariants) {
         if (ensemblVariants.size() > 0) {
             EnsemblVariant first = ensemblVariants.get(0);
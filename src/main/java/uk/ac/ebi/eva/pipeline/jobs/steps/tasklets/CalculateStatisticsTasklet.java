@@ -31,6 +31,7 @@ import org.springframework.batch.core.step.tasklet.Tasklet;
 import org.springframework.batch.repeat.RepeatStatus;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import uk.ac.ebi.eva.pipeline.model.Region;
 import uk.ac.ebi.eva.pipeline.parameters.ChunkSizeParameters;
 import uk.ac.ebi.eva.pipeline.parameters.DatabaseParameters;
 import uk.ac.ebi.eva.pipeline.parameters.InputParameters;
@@ -48,10 +49,17 @@ import java.nio.file.Paths;
  * <p>
  * Input: variants loaded into mongodb
  * Output: file containing statistics (.variants.stats.json.gz)
+ * <p>
+ * If a region is provided, only the variants in that region are used, and the output files are named after it.
  */
 public class CalculateStatisticsTasklet implements Tasklet {
     private static final Logger logger = LoggerFactory.getLogger(CalculateStatisticsTasklet.class);
 
+    /**
+     * Query option of the OpenCGA variant adaptor that restricts the variants iterated to a region
+     */
+    private static final String REGION_OPTION = "region";
+
     @Autowired
     private InputParameters inputParameters;
 
@@ -84,8 +92,8 @@ public class CalculateStatisticsTasklet implements Tasklet {
     }
 
     private URI getStatsBaseUri() throws URISyntaxException {
-        return URLHelper.getStatsBaseUri(
-                outputParameters.getOutputDirStatistics(), inputParameters.getStudyId(), inputParameters.getVcfId());
+        return URLHelper.getStatsBaseUri(outputParameters.getOutputDirStatistics(), inputParameters.getStudyId(),
+                                         inputParameters.getVcfId(), inputParameters.getRegion());
     }
 
     private ObjectMap getVariantOptions() {
@@ -105,6 +113,12 @@ public class CalculateStatisticsTasklet implements Tasklet {
         variantOptions.put(VariantStorageManager.ANNOTATE, annotate);
         variantOptions.put(VariantStatisticsManager.BATCH_SIZE, chunkSizeParameters.getChunkSize());
 
+        Region region = inputParameters.getRegion();
+        if (region != null) {
+            logger.info("Calculating statistics of the variants in region {}", region);
+            variantOptions.put(REGION_OPTION, region.toString());
+        }
+
         variantOptions.put(VariantStorageManager.DB_NAME, dbParameters.getDatabaseName());
         MongoConnection mongoConnection = dbParameters.getMongoConnection();
         variantOptions.put(MongoDBVariantStorageManager.OPENCGA_STORAGE_MONGODB_VARIANT_DB_NAME,
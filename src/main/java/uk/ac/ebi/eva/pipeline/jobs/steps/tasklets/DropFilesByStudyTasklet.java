@@ -39,6 +39,9 @@ import static uk.ac.ebi.eva.commons.models.data.VariantSourceEntity.STUDYID_FIEL
  * Input: a studyId
  * <p>
  * Output: all files that are in that study are removed
+ * <p>
+ * If a region is provided, the files are kept, because the variants of the study outside the region still refer to
+ * them.
  */
 public class DropFilesByStudyTasklet implements Tasklet {
 
@@ -55,6 +58,12 @@ public class DropFilesByStudyTasklet implements Tasklet {
 
     @Override
     public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+        if (inputParameters.getRegion() != null) {
+            logger.info("Files from study \"{}\" kept, as only region {} was dropped", inputParameters.getStudyId(),
+                        inputParameters.getRegion());
+            return RepeatStatus.FINISHED;
+        }
+
         Query query = new Query(new Criteria(STUDYID_FIELD).is(inputParameters.getStudyId()));
 
         logger.info("Deleting files from study \"{}\"", inputParameters.getStudyId(),
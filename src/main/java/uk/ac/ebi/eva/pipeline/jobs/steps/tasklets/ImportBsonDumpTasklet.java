@@ -0,0 +1,202 @@
+/*
+ * Copyright 2015-2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.jobs.steps.tasklets;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteError;
+import com.mongodb.BulkWriteException;
+import com.mongodb.BulkWriteOperation;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
+
+import uk.ac.ebi.eva.pipeline.io.BsonDump;
+import uk.ac.ebi.eva.pipeline.io.WriteThrottle;
+import uk.ac.ebi.eva.pipeline.io.writers.AnnotationMongoWriter;
+import uk.ac.ebi.eva.pipeline.io.writers.VariantMongoWriter;
+import uk.ac.ebi.eva.pipeline.io.writers.VariantSourceEntityMongoWriter;
+import uk.ac.ebi.eva.pipeline.parameters.DatabaseParameters;
+import uk.ac.ebi.eva.pipeline.parameters.OutputParameters;
+import uk.ac.ebi.eva.utils.MongoDBHelper;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tasklet that imports the BSON dump written with the "bson" profile, and creates the indexes of the imported
+ * collections afterwards, which is faster than keeping them up to date during the import.
+ * <p>
+ * The documents of a variant or an annotation that were dumped in different chunks are merged, adding the elements of
+ * their arrays as the upserts of the MongoDB writers would do. The files collection keeps its unique index from the
+ * start, so a file that was already imported is not imported again. The genotypes of a variant in a file can't be
+ * merged, so the import fails if they were dumped several times with different values.
+ * <p>
+ * Input: the directory with the BSON dump
+ * <p>
+ * Output: the variants, files, genotypes and annotations collections, with their indexes
+ */
+public class ImportBsonDumpTasklet implements Tasklet {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportBsonDumpTasklet.class);
+
+    private static final int BULK_SIZE = 1000;
+
+    private static final String ID_FIELD = "_id";
+
+    @Autowired
+    private MongoOperations mongoOperations;
+
+    @Autowired
+    private OutputParameters outputParameters;
+
+    @Autowired
+    private DatabaseParameters databaseParameters;
+
+    @Autowired
+    private WriteThrottle writeThrottle;
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+        VariantSourceEntityMongoWriter.createIndexes(mongoOperations, databaseParameters.getCollectionFilesName());
+
+        Set<String> collections = new LinkedHashSet<>();
+        File dumpDirectory = new File(outputParameters.getOutputDirBson());
+        for (File file : BsonDump.listFiles(dumpDirectory, databaseParameters.getDatabaseName())) {
+            String collection = BsonDump.getCollectionName(file);
+            collections.add(collection);
+            logger.info("Importing {} into collection {}", file, collection);
+            contribution.incrementWriteCount(importFile(file, collection));
+        }
+
+        createIndexes(collections);
+        return RepeatStatus.FINISHED;
+    }
+
+    private int importFile(File file, String collection) throws Exception {
+        DBCollection dbCollection = mongoOperations.getCollection(collection);
+        boolean merge = collection.equals(databaseParameters.getCollectionVariantsName())
+                || collection.equals(databaseParameters.getCollectionAnnotationsName());
+
+        int imported = 0;
+        List<DBObject> documents = new ArrayList<>(BULK_SIZE);
+        try (BsonDump.Reader reader = BsonDump.openReader(file)) {
+            DBObject document;
+            while ((document = reader.read()) != null) {
+                documents.add(document);
+                if (documents.size() == BULK_SIZE) {
+                    insert(dbCollection, documents, merge);
+                    imported += documents.size();
+                    documents.clear();
+                }
+            }
+        }
+        if (!documents.isEmpty()) {
+            insert(dbCollection, documents, merge);
+            imported += documents.size();
+        }
+        return imported;
+    }
+
+    /**
+     * Inserts the documents, and merges the ones whose id was already inserted if required. Otherwise the duplicated
+     * documents are skipped. Both the insert and the merge are limited by the {@link WriteThrottle} shared with the
+     * MongoDB writers.
+     */
+    private void insert(DBCollection dbCollection, List<DBObject> documents, boolean merge)
+            throws InterruptedException {
+        BulkWriteOperation bulk = dbCollection.initializeUnorderedBulkOperation();
+        for (DBObject document : documents) {
+            bulk.insert(document);
+        }
+
+        writeThrottle.acquire(documents.size());
+        long start = System.nanoTime();
+        try {
+            bulk.execute();
+            writeThrottle.recordWrite(System.nanoTime() - start);
+        } catch (BulkWriteException e) {
+            writeThrottle.recordWrite(System.nanoTime() - start);
+            for (BulkWriteError error : e.getWriteErrors()) {
+                if (error.getCode() != MongoDBHelper.DUPLICATE_KEY_ERROR_CODE) {
+                    throw e;
+                }
+            }
+            if (merge) {
+                mergeDuplicates(dbCollection, documents, e.getWriteErrors());
+            } else if (dbCollection.getName().equals(databaseParameters.getCollectionGenotypesName())) {
+                checkDuplicatesAreEqual(dbCollection, documents, e.getWriteErrors());
+            }
+            logger.debug("{} documents were already in collection {}", e.getWriteErrors().size(),
+                         dbCollection.getName());
+        }
+    }
+
+    private void mergeDuplicates(DBCollection dbCollection, List<DBObject> documents, List<BulkWriteError> duplicates)
+            throws InterruptedException {
+        writeThrottle.acquire(duplicates.size());
+        long start = System.nanoTime();
+        for (BulkWriteError duplicate : duplicates) {
+            DBObject document = documents.get(duplicate.getIndex());
+            DBObject update = MongoDBHelper.buildAddToSetUpdate(document);
+            if (update != null) {
+                dbCollection.update(new BasicDBObject(ID_FIELD, document.get(ID_FIELD)), update);
+            }
+        }
+        writeThrottle.recordWrite(System.nanoTime() - start);
+    }
+
+    /**
+     * Genotype documents can't be merged, so a duplicate is only skipped if it's the same document, e.g. imported
+     * again after a restart.
+     */
+    private void checkDuplicatesAreEqual(DBCollection dbCollection, List<DBObject> documents,
+                                         List<BulkWriteError> duplicates) {
+        for (BulkWriteError duplicate : duplicates) {
+            DBObject document = documents.get(duplicate.getIndex());
+            DBObject storedDocument = dbCollection.findOne(new BasicDBObject(ID_FIELD, document.get(ID_FIELD)));
+            if (!document.equals(storedDocument)) {
+                throw new IllegalStateException("Genotypes document " + document.get(ID_FIELD)
+                                                + " was dumped several times with different genotypes");
+            }
+        }
+    }
+
+    private void createIndexes(Set<String> collections) {
+        String variantsCollection = databaseParameters.getCollectionVariantsName();
+        String genotypesCollection = databaseParameters.getCollectionGenotypesName();
+        String annotationsCollection = databaseParameters.getCollectionAnnotationsName();
+
+        if (collections.contains(variantsCollection)) {
+            VariantMongoWriter.createIndexes(mongoOperations, variantsCollection);
+        }
+        if (genotypesCollection != null && collections.contains(genotypesCollection)) {
+            VariantMongoWriter.createGenotypesIndexes(mongoOperations, genotypesCollection);
+        }
+        if (annotationsCollection != null && collections.contains(annotationsCollection)) {
+            AnnotationMongoWriter.createIndexes(mongoOperations, annotationsCollection);
+        }
+    }
+}
@@ -19,37 +19,37 @@ import org.springframework.batch.core.StepContribution;
 import org.springframework.batch.core.scope.context.ChunkContext;
 import org.springframework.batch.core.step.tasklet.Tasklet;
 import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.batch.item.ItemWriter;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.beans.factory.annotation.Qualifier;
 
 import uk.ac.ebi.eva.commons.models.data.VariantSourceEntity;
 import uk.ac.ebi.eva.pipeline.io.readers.VcfHeaderReader;
-import uk.ac.ebi.eva.pipeline.io.writers.VariantSourceEntityMongoWriter;
-import uk.ac.ebi.eva.pipeline.parameters.DatabaseParameters;
 import uk.ac.ebi.eva.pipeline.parameters.InputParameters;
 
 import java.io.File;
 import java.util.Collections;
 
+import static uk.ac.ebi.eva.pipeline.configuration.BeanNames.VARIANT_SOURCE_ENTITY_WRITER;
+
 /**
  * Tasklet that writes the metadata of a file into mongo. Uses
  * {@link uk.ac.ebi.eva.commons.models.data.VariantSourceEntity} as the collection schema.
  * <p>
  * Input: VCF file
  * <p>
- * Output: the collection "files" contains the metadata of the VCF.
+ * Output: the collection "files" contains the metadata of the VCF, or the BSON dump of that collection with the
+ * "bson" profile.
  */
 public class LoadFileTasklet implements Tasklet {
 
     @Autowired
-    private MongoOperations mongoOperations;
+    @Qualifier(VARIANT_SOURCE_ENTITY_WRITER)
+    private ItemWriter<VariantSourceEntity> variantSourceEntityWriter;
 
     @Autowired
     private InputParameters inputParameters;
 
-    @Autowired
-    private DatabaseParameters dbParameters;
-
     @Override
     public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
         File file = new File(inputParameters.getVcf());
@@ -63,9 +63,7 @@ public class LoadFileTasklet implements Tasklet {
         vcfHeaderReader.open(null);
         VariantSourceEntity variantSourceEntity = vcfHeaderReader.read();
 
-        VariantSourceEntityMongoWriter variantSourceEntityMongoWriter = new VariantSourceEntityMongoWriter(
-                mongoOperations, dbParameters.getCollectionFilesName());
-        variantSourceEntityMongoWriter.write(Collections.singletonList(variantSourceEntity));
+        variantSourceEntityWriter.write(Collections.singletonList(variantSourceEntity));
 
         return RepeatStatus.FINISHED;
     }
@@ -40,6 +40,8 @@ import org.springframework.batch.core.step.tasklet.Tasklet;
 import org.springframework.batch.repeat.RepeatStatus;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import uk.ac.ebi.eva.pipeline.io.WriteThrottle;
+import uk.ac.ebi.eva.pipeline.model.Region;
 import uk.ac.ebi.eva.pipeline.parameters.DatabaseParameters;
 import uk.ac.ebi.eva.pipeline.parameters.InputParameters;
 import uk.ac.ebi.eva.pipeline.parameters.MongoConnection;
@@ -62,6 +64,9 @@ import java.util.zip.GZIPInputStream;
  * Input: file containing statistics (.variants.stats.json.gz)
  * Output: stats loaded into mongodb
  * <p>
+ * If a region is provided, the statistics calculated for that region are loaded. The statistics of the whole file
+ * are not updated, because the ones calculated for a region would be partial.
+ * <p>
  * Example:
  * {
  * "chromosome":"20",
@@ -106,6 +111,9 @@ public class LoadStatisticsTasklet implements Tasklet {
     @Autowired
     private DatabaseParameters dbParameters;
 
+    @Autowired
+    private WriteThrottle writeThrottle;
+
     private JsonFactory jsonFactory;
 
     private ObjectMapper jsonObjectMapper;
@@ -119,15 +127,22 @@ public class LoadStatisticsTasklet implements Tasklet {
     @Override
     public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
         VariantDBAdaptor dbAdaptor = getDbAdaptor();
-        URI variantStatsOutputUri = URLHelper.getVariantsStatsUri(
-                outputParameters.getOutputDirStatistics(), inputParameters.getStudyId(), inputParameters.getVcfId());
-        URI sourceStatsOutputUri = URLHelper.getSourceStatsUri(
-                outputParameters.getOutputDirStatistics(), inputParameters.getStudyId(), inputParameters.getVcfId());
+        Region region = inputParameters.getRegion();
+        URI variantStatsOutputUri = URLHelper.getVariantsStatsUri(outputParameters.getOutputDirStatistics(),
+                                                                  inputParameters.getStudyId(),
+                                                                  inputParameters.getVcfId(), region);
+        URI sourceStatsOutputUri = URLHelper.getSourceStatsUri(outputParameters.getOutputDirStatistics(),
+                                                               inputParameters.getStudyId(),
+                                                               inputParameters.getVcfId(), region);
         QueryOptions statsOptions = new QueryOptions(getVariantOptions());
 
         // Load statistics for variants and the file
         loadVariantStats(dbAdaptor, variantStatsOutputUri, statsOptions);
-        loadSourceStats(dbAdaptor, sourceStatsOutputUri);
+        if (region == null) {
+            loadSourceStats(dbAdaptor, sourceStatsOutputUri);
+        } else {
+            logger.info("Statistics of the file not loaded, as they only describe region {}", region);
+        }
 
         return RepeatStatus.FINISHED;
     }
@@ -172,7 +187,7 @@ public class LoadStatisticsTasklet implements Tasklet {
     }
 
     private void loadVariantStats(VariantDBAdaptor variantDBAdaptor, URI variantsStatsUri, QueryOptions options)
-            throws IOException {
+            throws IOException, InterruptedException {
 
         // Open input stream
         InputStream variantInputStream = new GZIPInputStream(new FileInputStream(variantsStatsUri.getPath()));
@@ -191,7 +206,7 @@ public class LoadStatisticsTasklet implements Tasklet {
             statsBatch.add(parser.readValueAs(VariantStatsWrapper.class));
 
             if (statsBatch.size() == batchSize) {
-                QueryResult<?> writeResult = variantDBAdaptor.updateStats(statsBatch, options);
+                QueryResult<?> writeResult = updateStats(variantDBAdaptor, statsBatch, options);
                 writes += writeResult.getNumResults();
                 logger.info("stats loaded up to position {}:{}",
                         statsBatch.get(statsBatch.size() - 1).getChromosome(),
@@ -201,7 +216,7 @@ public class LoadStatisticsTasklet implements Tasklet {
         }
 
         if (!statsBatch.isEmpty()) {
-            QueryResult<?> writeResult = variantDBAdaptor.updateStats(statsBatch, options);
+            QueryResult<?> writeResult = updateStats(variantDBAdaptor, statsBatch, options);
             writes += writeResult.getNumResults();
             logger.info("stats loaded up to position {}:{}",
                     statsBatch.get(statsBatch.size() - 1).getChromosome(),
@@ -216,6 +231,15 @@ public class LoadStatisticsTasklet implements Tasklet {
         }
     }
 
+    private QueryResult<?> updateStats(VariantDBAdaptor variantDBAdaptor, List<VariantStatsWrapper> statsBatch,
+                                       QueryOptions options) throws InterruptedException {
+        writeThrottle.acquire(statsBatch.size());
+        long start = System.nanoTime();
+        QueryResult<?> writeResult = variantDBAdaptor.updateStats(statsBatch, options);
+        writeThrottle.recordWrite(System.nanoTime() - start);
+        return writeResult;
+    }
+
     private void loadSourceStats(VariantDBAdaptor variantDBAdaptor, URI sourceStatsUri) throws IOException {
         // Open input stream
         InputStream sourceInputStream = new GZIPInputStream(new FileInputStream(sourceStatsUri.getPath()));
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.jobs.steps.tasklets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import uk.ac.ebi.eva.pipeline.io.VcfSorter;
+import uk.ac.ebi.eva.pipeline.parameters.InputParameters;
+import uk.ac.ebi.eva.pipeline.parameters.OutputParameters;
+
+import java.io.File;
+
+/**
+ * Tasklet that sorts the VCF by chromosome and position if it is requested and the VCF is not sorted yet, so that the
+ * load step reads the sorted copy instead.
+ * <p>
+ * Input: VCF file
+ * <p>
+ * Output: a copy of the VCF sorted and compressed with bgzip, in the output directory (or the temporary one, if there
+ * is no output directory)
+ */
+public class SortVcfTasklet implements Tasklet {
+
+    private static final Logger logger = LoggerFactory.getLogger(SortVcfTasklet.class);
+
+    @Autowired
+    private InputParameters inputParameters;
+
+    @Autowired
+    private OutputParameters outputParameters;
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+        if (!inputParameters.getVcfSort()) {
+            logger.debug("Sorting of {} not requested", inputParameters.getVcf());
+            return RepeatStatus.FINISHED;
+        }
+
+        File vcf = new File(inputParameters.getVcf());
+        new VcfSorter(new File(outputParameters.getVcfSortDir())).sortIfUnsorted(vcf);
+        return RepeatStatus.FINISHED;
+    }
+}
@@ -24,11 +24,13 @@ import org.springframework.batch.core.StepExecutionListener;
 
 import uk.ac.ebi.eva.pipeline.parameters.ExecutionContextParametersNames;
 import uk.ac.ebi.eva.pipeline.parameters.JobParametersNames;
-import uk.ac.ebi.eva.utils.FileWithHeaderNumberOfLinesEstimator;
 import uk.ac.ebi.eva.utils.URLHelper;
 
+import java.io.File;
+
 /**
- * - Estimate the number of lines in the VEP annotation file before the step. This will be used in {@link StepProgressListener}
+ * - Save the size of the VEP annotation file (or the file of the partition) before the step. This will be used in
+ * {@link StepProgressListener}
  * - Log a statistics summary after the step
  */
 public class AnnotationLoaderStepStatisticsListener implements StepExecutionListener {
@@ -36,18 +38,22 @@ public class AnnotationLoaderStepStatisticsListener implements StepExecutionList
 
     @Override
     public void beforeStep(StepExecution stepExecution) {
-        JobParameters parameters = stepExecution.getJobExecution().getJobParameters();
+        String vepAnnotationFilePath;
+        if (stepExecution.getExecutionContext().containsKey(ExecutionContextParametersNames.PARTITION_FILE)) {
+            vepAnnotationFilePath = stepExecution.getExecutionContext()
+                    .getString(ExecutionContextParametersNames.PARTITION_FILE);
+        } else {
+            JobParameters parameters = stepExecution.getJobExecution().getJobParameters();
 
-        String outputDirAnnotation = parameters.getString(JobParametersNames.OUTPUT_DIR_ANNOTATION);
-        String studyId = parameters.getString(JobParametersNames.INPUT_STUDY_ID);
-        String fileId = parameters.getString(JobParametersNames.INPUT_VCF_ID);
+            String outputDirAnnotation = parameters.getString(JobParametersNames.OUTPUT_DIR_ANNOTATION);
+            String studyId = parameters.getString(JobParametersNames.INPUT_STUDY_ID);
+            String fileId = parameters.getString(JobParametersNames.INPUT_VCF_ID);
 
-        String vepAnnotationFilePath = URLHelper.resolveVepOutput(outputDirAnnotation, studyId, fileId);
+            vepAnnotationFilePath = URLHelper.resolveVepOutput(outputDirAnnotation, studyId, fileId);
+        }
 
-        long estimatedTotalNumberOfLines = new FileWithHeaderNumberOfLinesEstimator()
-                .estimateNumberOfLines(vepAnnotationFilePath);
         stepExecution.getExecutionContext()
-                .put(ExecutionContextParametersNames.NUMBER_OF_LINES, estimatedTotalNumberOfLines);
+                .putLong(ExecutionContextParametersNames.INPUT_FILE_SIZE, new File(vepAnnotationFilePath).length());
     }
 
     @Override
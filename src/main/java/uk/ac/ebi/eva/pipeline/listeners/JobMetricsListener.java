@@ -0,0 +1,87 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.listeners;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+
+import uk.ac.ebi.eva.pipeline.metrics.PipelineMetrics;
+import uk.ac.ebi.eva.pipeline.metrics.events.PipelineEvents;
+import uk.ac.ebi.eva.pipeline.parameters.JobParametersNames;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Dumps the {@link PipelineMetrics} of a job as JSON when it ends: into a file named
+ * &lt;jobName&gt;-&lt;jobExecutionId&gt;-metrics.json if a directory is given, or into the debug log otherwise.
+ * <p>
+ * While the job runs, it also turns on the {@link PipelineEvents} if the job parameter
+ * {@link JobParametersNames#CONFIG_JFR_EVENTS} asks for them.
+ */
+public class JobMetricsListener implements JobExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobMetricsListener.class);
+
+    private final PipelineMetrics metrics;
+
+    private final String dir;
+
+    public JobMetricsListener(PipelineMetrics metrics, String dir) {
+        this.metrics = metrics;
+        this.dir = dir;
+    }
+
+    @Override
+    public void beforeJob(JobExecution jobExecution) {
+        if (isFlightRecorderEventsEnabled(jobExecution)) {
+            PipelineEvents.enable();
+        }
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        long jobExecutionId = jobExecution.getId();
+        String json = metrics.getJobJson(jobExecutionId);
+        if (dir == null) {
+            logger.debug("Metrics of job execution {}: {}", jobExecutionId, json);
+        } else {
+            Path file = Paths.get(dir, jobExecution.getJobInstance().getJobName() + "-" + jobExecutionId
+                    + "-metrics.json");
+            try {
+                Files.createDirectories(file.getParent());
+                Files.write(file, json.getBytes(StandardCharsets.UTF_8));
+                logger.info("Metrics of job execution {} written to {}", jobExecutionId, file);
+            } catch (IOException e) {
+                logger.warn("Could not write the metrics of job execution " + jobExecutionId + " to " + file, e);
+            }
+        }
+        metrics.finishJob(jobExecutionId);
+
+        if (isFlightRecorderEventsEnabled(jobExecution)) {
+            PipelineEvents.disable();
+        }
+    }
+
+    private boolean isFlightRecorderEventsEnabled(JobExecution jobExecution) {
+        return Boolean.parseBoolean(jobExecution.getJobParameters().getString(JobParametersNames.CONFIG_JFR_EVENTS));
+    }
+}
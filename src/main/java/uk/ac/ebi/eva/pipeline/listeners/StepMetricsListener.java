@@ -0,0 +1,201 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.listeners;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.ItemProcessListener;
+import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+
+import uk.ac.ebi.eva.pipeline.metrics.PipelineMetrics;
+import uk.ac.ebi.eva.pipeline.metrics.StepMetrics;
+import uk.ac.ebi.eva.pipeline.metrics.events.ChunkEvent;
+import uk.ac.ebi.eva.pipeline.metrics.events.PipelineEvents;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Records in the {@link PipelineMetrics} the items read and written by a chunk oriented step, and how long each
+ * chunk spends reading, processing and writing. Registered as a {@link StepExecutionListener}, the step builder also
+ * registers it as chunk and item listener.
+ * <p>
+ * The timings are kept per thread, so the listener can be shared by the partitions of a step. If the
+ * {@link PipelineEvents} are enabled, each chunk is also emitted as a {@link ChunkEvent}.
+ */
+public class StepMetricsListener implements StepExecutionListener, ChunkListener, ItemReadListener<Object>,
+        ItemProcessListener<Object, Object>, ItemWriteListener<Object> {
+
+    public static final String CHUNK = "chunk";
+
+    public static final String CHUNK_READ = "chunk.read";
+
+    public static final String CHUNK_PROCESS = "chunk.process";
+
+    public static final String CHUNK_WRITE = "chunk.write";
+
+    public static final String ITEMS_READ = "items.read";
+
+    public static final String ITEMS_WRITTEN = "items.written";
+
+    private final PipelineMetrics metrics;
+
+    private final LongSupplier clock;
+
+    private final ThreadLocal<ChunkTimes> chunkTimes;
+
+    public StepMetricsListener(PipelineMetrics metrics) {
+        this(metrics, System::nanoTime);
+    }
+
+    StepMetricsListener(PipelineMetrics metrics, LongSupplier clock) {
+        this.metrics = metrics;
+        this.clock = clock;
+        this.chunkTimes = ThreadLocal.withInitial(ChunkTimes::new);
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        metrics.startStep(stepExecution);
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        metrics.endStep(stepExecution);
+        return null;
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        ChunkTimes times = chunkTimes.get();
+        times.reset();
+        times.start = clock.getAsLong();
+        if (PipelineEvents.isEnabled()) {
+            times.event = new ChunkEvent();
+        }
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        ChunkTimes times = chunkTimes.get();
+        if (times.items > 0) {
+            StepMetrics stepMetrics = metrics.getStepMetrics(context.getStepContext().getStepExecution());
+            stepMetrics.recordTime(CHUNK, clock.getAsLong() - times.start);
+            stepMetrics.recordTime(CHUNK_READ, times.read);
+            stepMetrics.recordTime(CHUNK_PROCESS, times.process);
+            stepMetrics.recordTime(CHUNK_WRITE, times.write);
+            stepMetrics.increment(ITEMS_READ, times.items);
+            stepMetrics.increment(ITEMS_WRITTEN, times.written);
+
+            if (times.event != null) {
+                times.event.setStep(context.getStepContext().getStepName());
+                times.event.setItems(times.items, times.written);
+                times.event.setTimes(times.read, times.process, times.write);
+                times.event.commit();
+            }
+        }
+        times.reset();
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        chunkTimes.get().reset();
+    }
+
+    @Override
+    public void beforeRead() {
+        chunkTimes.get().phaseStart = clock.getAsLong();
+    }
+
+    @Override
+    public void afterRead(Object item) {
+        ChunkTimes times = chunkTimes.get();
+        times.read += clock.getAsLong() - times.phaseStart;
+        times.items++;
+    }
+
+    @Override
+    public void onReadError(Exception ex) {
+        ChunkTimes times = chunkTimes.get();
+        times.read += clock.getAsLong() - times.phaseStart;
+    }
+
+    @Override
+    public void beforeProcess(Object item) {
+        chunkTimes.get().phaseStart = clock.getAsLong();
+    }
+
+    @Override
+    public void afterProcess(Object item, Object result) {
+        ChunkTimes times = chunkTimes.get();
+        times.process += clock.getAsLong() - times.phaseStart;
+    }
+
+    @Override
+    public void onProcessError(Object item, Exception e) {
+        afterProcess(item, null);
+    }
+
+    @Override
+    public void beforeWrite(List<?> items) {
+        chunkTimes.get().phaseStart = clock.getAsLong();
+    }
+
+    @Override
+    public void afterWrite(List<?> items) {
+        ChunkTimes times = chunkTimes.get();
+        times.write += clock.getAsLong() - times.phaseStart;
+        times.written += items.size();
+    }
+
+    @Override
+    public void onWriteError(Exception exception, List<?> items) {
+        ChunkTimes times = chunkTimes.get();
+        times.write += clock.getAsLong() - times.phaseStart;
+    }
+
+    private static class ChunkTimes {
+
+        private long start;
+
+        private long phaseStart;
+
+        private long read;
+
+        private long process;
+
+        private long write;
+
+        private long items;
+
+        private long written;
+
+        private ChunkEvent event;
+
+        void reset() {
+            read = 0;
+            process = 0;
+            write = 0;
+            items = 0;
+            written = 0;
+            event = null;
+        }
+    }
+}
@@ -18,44 +18,103 @@ package uk.ac.ebi.eva.pipeline.listeners;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.StepExecution;
 import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.ExecutionContext;
 
 import uk.ac.ebi.eva.pipeline.parameters.ExecutionContextParametersNames;
 
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
 /**
  * Log the number of read, write and skip items for each chunk.
  * Should be wired into a {@link org.springframework.batch.core.Step}
+ * <p>
+ * If the step execution context has the size of the input file and the bytes read from it (see
+ * {@link VariantLoaderStepStatisticsListener} and {@link uk.ac.ebi.eva.pipeline.io.readers.VcfReader}), the
+ * percentage of the file already read and the estimated time left are logged as well. The estimate uses the bytes
+ * read since the reader was opened, so a restarted step doesn't count the part read by a previous execution.
  */
 public class StepProgressListener implements ChunkListener {
     private static final Logger logger = LoggerFactory.getLogger(StepProgressListener.class);
 
+    private final LongSupplier clock;
+
+    public StepProgressListener() {
+        this(System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock current time in milliseconds
+     */
+    StepProgressListener(LongSupplier clock) {
+        this.clock = clock;
+    }
+
     @Override
     public void beforeChunk(ChunkContext context) {
     }
 
     @Override
     public void afterChunk(ChunkContext context) {
-        long estimatedTotalNumberOfLines = (long) context.getStepContext().getStepExecutionContext()
-                .getOrDefault(ExecutionContextParametersNames.NUMBER_OF_LINES, 0L);
+        StepExecution stepExecution = context.getStepContext().getStepExecution();
 
-        long read = context.getStepContext().getStepExecution().getReadCount();
-        long write = context.getStepContext().getStepExecution().getWriteCount();
-        long skip = context.getStepContext().getStepExecution().getReadSkipCount()
-                + context.getStepContext().getStepExecution().getProcessSkipCount()
-                + context.getStepContext().getStepExecution().getWriteSkipCount();
+        long read = stepExecution.getReadCount();
+        long write = stepExecution.getWriteCount();
+        long skip = stepExecution.getReadSkipCount()
+                + stepExecution.getProcessSkipCount()
+                + stepExecution.getWriteSkipCount();
 
         String chunkStatisticsMessage = "Items read = " + read + ", items written = " + write + ", items skipped = " + skip;
         String stepName = context.getStepContext().getStepName() + ": ";
 
-        if (estimatedTotalNumberOfLines != 0) {
-            int percent = (int) ((read * 100) / estimatedTotalNumberOfLines);
-            logger.info(stepName + percent + "% complete: " + chunkStatisticsMessage);
+        String progress = getProgress(stepExecution);
+        if (progress != null) {
+            logger.info(stepName + progress + ": " + chunkStatisticsMessage);
         } else {
             logger.info(stepName + chunkStatisticsMessage);
         }
 
     }
 
+    /**
+     * @return the percentage of the input file read and the time left, or null if the input file is unknown
+     */
+    String getProgress(StepExecution stepExecution) {
+        ExecutionContext executionContext = stepExecution.getExecutionContext();
+        long fileSize = executionContext.getLong(ExecutionContextParametersNames.INPUT_FILE_SIZE, 0L);
+        long bytesRead = executionContext.getLong(ExecutionContextParametersNames.INPUT_BYTES_READ, 0L);
+        if (fileSize <= 0 || bytesRead <= 0) {
+            return null;
+        }
+
+        bytesRead = Math.min(bytesRead, fileSize);
+        String progress = (bytesRead * 100 / fileSize) + "% complete";
+
+        long bytesReadInThisExecution = bytesRead - executionContext
+                .getLong(ExecutionContextParametersNames.INPUT_BYTES_READ_ON_OPEN, 0L);
+        long elapsedMillis = clock.getAsLong() - stepExecution.getStartTime().getTime();
+        if (bytesReadInThisExecution > 0 && elapsedMillis > 0) {
+            double millisPerByte = (double) elapsedMillis / bytesReadInThisExecution;
+            long millisLeft = (long) ((fileSize - bytesRead) * millisPerByte);
+            progress += ", about " + formatDuration(millisLeft) + " left";
+        }
+        return progress;
+    }
+
+    private static String formatDuration(long millis) {
+        long hours = TimeUnit.MILLISECONDS.toHours(millis);
+        long minutes = TimeUnit.MILLISECONDS.toMinutes(millis) % 60;
+        long seconds = TimeUnit.MILLISECONDS.toSeconds(millis) % 60;
+        if (hours > 0) {
+            return String.format("%dh %02dm", hours, minutes);
+        } else if (minutes > 0) {
+            return String.format("%dm %02ds", minutes, seconds);
+        }
+        return seconds + "s";
+    }
+
     @Override
     public void afterChunkError(ChunkContext context) {
     }
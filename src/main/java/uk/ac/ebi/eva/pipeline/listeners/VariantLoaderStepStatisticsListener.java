@@ -23,10 +23,11 @@ import org.springframework.batch.core.StepExecutionListener;
 
 import uk.ac.ebi.eva.pipeline.parameters.ExecutionContextParametersNames;
 import uk.ac.ebi.eva.pipeline.parameters.JobParametersNames;
-import uk.ac.ebi.eva.utils.FileWithHeaderNumberOfLinesEstimator;
+
+import java.io.File;
 
 /**
- * - Estimate the number of lines in the VCF file before the step. This will be used in {@link StepProgressListener}
+ * - Save the size of the VCF file before the step. This will be used in {@link StepProgressListener}
  * - Log a statistics summary after the step
  */
 public class VariantLoaderStepStatisticsListener implements StepExecutionListener {
@@ -34,9 +35,11 @@ public class VariantLoaderStepStatisticsListener implements StepExecutionListene
 
     @Override
     public void beforeStep(StepExecution stepExecution) {
-        String vcfFilePath = stepExecution.getJobExecution().getJobParameters().getString(JobParametersNames.INPUT_VCF);
-        long estimatedTotalNumberOfLines = new FileWithHeaderNumberOfLinesEstimator().estimateNumberOfLines(vcfFilePath);
-        stepExecution.getExecutionContext().put(ExecutionContextParametersNames.NUMBER_OF_LINES, estimatedTotalNumberOfLines);
+        String vcfFilePath = stepExecution.getExecutionContext().getString(
+                ExecutionContextParametersNames.PARTITION_VCF,
+                stepExecution.getJobExecution().getJobParameters().getString(JobParametersNames.INPUT_VCF));
+        stepExecution.getExecutionContext().putLong(ExecutionContextParametersNames.INPUT_FILE_SIZE,
+                                                    new File(vcfFilePath).length());
     }
 
     @Override
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.listeners;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+
+import uk.ac.ebi.eva.pipeline.io.VepOutputSpool;
+import uk.ac.ebi.eva.pipeline.model.Region;
+import uk.ac.ebi.eva.pipeline.parameters.JobParametersNames;
+import uk.ac.ebi.eva.utils.URLHelper;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Deletes the {@link VepOutputSpool} when the annotation step completes, unless the job parameter
+ * {@link JobParametersNames#APP_VEP_SPOOL_RETENTION} asks to keep it. A failed step always keeps its spool, so the
+ * restart can replay it.
+ */
+public class VepOutputSpoolListener implements StepExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(VepOutputSpoolListener.class);
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        JobParameters jobParameters = stepExecution.getJobParameters();
+        String retention = jobParameters.getString(JobParametersNames.APP_VEP_SPOOL_RETENTION,
+                                                   VepOutputSpool.Retention.STEP.name());
+
+        if (stepExecution.getStatus() == BatchStatus.COMPLETED
+                && VepOutputSpool.Retention.valueOf(retention) == VepOutputSpool.Retention.STEP) {
+            String spool = URLHelper.resolveVepSpool(jobParameters.getString(JobParametersNames.OUTPUT_DIR_ANNOTATION),
+                                                     jobParameters.getString(JobParametersNames.INPUT_STUDY_ID, ""),
+                                                     jobParameters.getString(JobParametersNames.INPUT_VCF_ID, ""),
+                                                     getRegion(jobParameters));
+            try {
+                VepOutputSpool.clear(Paths.get(spool));
+            } catch (IOException e) {
+                logger.warn("Could not delete the VEP output spool " + spool, e);
+            }
+        }
+        return stepExecution.getExitStatus();
+    }
+
+    private Region getRegion(JobParameters jobParameters) {
+        String region = jobParameters.getString(JobParametersNames.INPUT_REGION);
+        return region == null ? null : Region.parseRegion(region);
+    }
+}
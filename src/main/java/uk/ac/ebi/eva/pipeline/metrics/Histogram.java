@@ -0,0 +1,127 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Distribution of non-negative values, kept in buckets whose width grows with the value, so that the percentiles
+ * are approximated with an error below 1/16 of the value while using a fixed amount of memory.
+ */
+public class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final double scale;
+
+    private final long[] buckets;
+
+    private long count;
+
+    private long sum;
+
+    private long min;
+
+    private long max;
+
+    /**
+     * @param scale factor applied to the values when reporting them, e.g. to report nanoseconds as milliseconds
+     */
+    public Histogram(double scale) {
+        this.scale = scale;
+        this.buckets = new long[BUCKETS];
+        this.min = Long.MAX_VALUE;
+        this.max = 0;
+    }
+
+    public synchronized void record(long value) {
+        long nonNegativeValue = Math.max(0, value);
+        buckets[bucketIndex(nonNegativeValue)]++;
+        count++;
+        sum += nonNegativeValue;
+        min = Math.min(min, nonNegativeValue);
+        max = Math.max(max, nonNegativeValue);
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized double getMean() {
+        return count == 0 ? 0 : sum * scale / count;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     */
+    public synchronized double getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        if (rank >= count) {
+            return max * scale;
+        }
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                long lowerBound = bucketLowerBound(i);
+                long estimate = lowerBound + (bucketLowerBound(i + 1) - 1 - lowerBound) / 2;
+                return Math.min(max, Math.max(min, estimate)) * scale;
+            }
+        }
+        return max * scale;
+    }
+
+    public synchronized Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("count", count);
+        snapshot.put("mean", getMean());
+        snapshot.put("min", count == 0 ? 0 : min * scale);
+        snapshot.put("p50", getPercentile(50));
+        snapshot.put("p95", getPercentile(95));
+        snapshot.put("p99", getPercentile(99));
+        snapshot.put("max", max * scale);
+        return snapshot;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketLowerBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        if (index >= BUCKETS) {
+            return Long.MAX_VALUE;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        return (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serves the {@link PipelineMetrics} as JSON on GET /metrics, only on the loopback address. The metrics of a single
+ * job execution are served on GET /metrics?job=&lt;jobExecutionId&gt;.
+ */
+public class MetricsHttpServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsHttpServer.class);
+
+    static final String PATH = "/metrics";
+
+    private static final String JOB_QUERY = "job=";
+
+    private final PipelineMetrics metrics;
+
+    private final int port;
+
+    private HttpServer server;
+
+    /**
+     * @param port local port to listen on, or 0 to not serve the metrics at all
+     */
+    public MetricsHttpServer(PipelineMetrics metrics, int port) {
+        this.metrics = metrics;
+        this.port = port;
+    }
+
+    public synchronized void start() throws IOException {
+        if (port <= 0 || server != null) {
+            return;
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext(PATH, this::handle);
+        server.start();
+        logger.info("Serving metrics on http://{}:{}{}", InetAddress.getLoopbackAddress().getHostAddress(), port, PATH);
+    }
+
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            String json;
+            String query = exchange.getRequestURI().getQuery();
+            if (query != null && query.startsWith(JOB_QUERY)) {
+                try {
+                    json = metrics.getJobJson(Long.parseLong(query.substring(JOB_QUERY.length())));
+                } catch (NumberFormatException e) {
+                    exchange.sendResponseHeaders(400, -1);
+                    return;
+                }
+                if ("null".equals(json)) {
+                    exchange.sendResponseHeaders(404, -1);
+                    return;
+                }
+            } else {
+                json = metrics.getJson();
+            }
+            byte[] body = json.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
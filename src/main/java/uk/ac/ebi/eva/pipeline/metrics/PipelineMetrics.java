@@ -0,0 +1,217 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.metrics;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Registry of the performance metrics of the jobs run by this process, with one {@link StepMetrics} per step of each
+ * job execution. Metrics recorded outside of a step (e.g. from a thread pool) are kept at process level, together
+ * with the gauges that sample shared resources like thread pools or database connections.
+ * <p>
+ * The metrics of the last finished jobs are kept, so they can still be queried after the job ends.
+ */
+@ManagedResource(description = "Performance metrics of the jobs run by this process")
+public class PipelineMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(PipelineMetrics.class);
+
+    static final int MAX_FINISHED_JOBS = 10;
+
+    private static final String PARTITION_SEPARATOR = ":";
+
+    private final LongSupplier clock;
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Supplier<Number>> gauges;
+
+    private final StepMetrics processMetrics;
+
+    private final Map<Long, JobMetrics> jobs;
+
+    private final Deque<Long> finishedJobs;
+
+    public PipelineMetrics() {
+        this(System::nanoTime);
+    }
+
+    PipelineMetrics(LongSupplier clock) {
+        this.clock = clock;
+        this.objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        this.gauges = new ConcurrentHashMap<>();
+        this.processMetrics = new StepMetrics(clock);
+        this.processMetrics.start();
+        this.jobs = new ConcurrentHashMap<>();
+        this.finishedJobs = new ArrayDeque<>();
+    }
+
+    public void registerGauge(String name, Supplier<Number> gauge) {
+        gauges.put(name, gauge);
+    }
+
+    /**
+     * Partitions of a step are aggregated with the step that runs them.
+     */
+    public StepMetrics getStepMetrics(StepExecution stepExecution) {
+        JobExecution jobExecution = stepExecution.getJobExecution();
+        JobMetrics jobMetrics = jobs.computeIfAbsent(jobExecution.getId(), id -> new JobMetrics(
+                jobExecution.getJobInstance() == null ? null : jobExecution.getJobInstance().getJobName()));
+        String stepName = stepExecution.getStepName();
+        int partitionSeparator = stepName.indexOf(PARTITION_SEPARATOR);
+        if (partitionSeparator > 0) {
+            stepName = stepName.substring(0, partitionSeparator);
+        }
+        return jobMetrics.steps.computeIfAbsent(stepName, name -> new StepMetrics(clock));
+    }
+
+    public void startStep(StepExecution stepExecution) {
+        getStepMetrics(stepExecution).start();
+    }
+
+    public void endStep(StepExecution stepExecution) {
+        getStepMetrics(stepExecution).end();
+    }
+
+    /**
+     * Records a duration in the metrics of the step run by the current thread
+     */
+    public void recordTime(String name, long nanos) {
+        getCurrentStepMetrics().recordTime(name, nanos);
+    }
+
+    /**
+     * Records a value in the metrics of the step run by the current thread
+     */
+    public void recordValue(String name, long value) {
+        getCurrentStepMetrics().recordValue(name, value);
+    }
+
+    /**
+     * Increments a counter in the metrics of the step run by the current thread
+     */
+    public void increment(String name, long delta) {
+        getCurrentStepMetrics().increment(name, delta);
+    }
+
+    private StepMetrics getCurrentStepMetrics() {
+        StepContext stepContext = StepSynchronizationManager.getContext();
+        return stepContext == null ? processMetrics : getStepMetrics(stepContext.getStepExecution());
+    }
+
+    /**
+     * Marks a job as finished, forgetting the oldest finished jobs if there are too many
+     */
+    public synchronized void finishJob(long jobExecutionId) {
+        JobMetrics jobMetrics = jobs.get(jobExecutionId);
+        if (jobMetrics != null && !finishedJobs.contains(jobExecutionId)) {
+            finishedJobs.addLast(jobExecutionId);
+            while (finishedJobs.size() > MAX_FINISHED_JOBS) {
+                jobs.remove(finishedJobs.removeFirst());
+            }
+        }
+    }
+
+    public Map<String, Object> getJobSnapshot(long jobExecutionId) {
+        JobMetrics jobMetrics = jobs.get(jobExecutionId);
+        if (jobMetrics == null) {
+            return null;
+        }
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("jobExecutionId", jobExecutionId);
+        snapshot.put("jobName", jobMetrics.name);
+        Map<String, Object> steps = new LinkedHashMap<>();
+        jobMetrics.steps.forEach((name, stepMetrics) -> steps.put(name, stepMetrics.snapshot()));
+        snapshot.put("steps", steps);
+        return snapshot;
+    }
+
+    public Map<String, Object> getSnapshot() {
+        Map<String, Object> gaugeValues = new LinkedHashMap<>();
+        gauges.forEach((name, gauge) -> {
+            try {
+                gaugeValues.put(name, gauge.get());
+            } catch (RuntimeException e) {
+                logger.debug("Gauge {} could not be read", name, e);
+            }
+        });
+
+        List<Map<String, Object>> jobSnapshots = new ArrayList<>();
+        jobs.keySet().stream().sorted().forEach(id -> {
+            Map<String, Object> jobSnapshot = getJobSnapshot(id);
+            if (jobSnapshot != null) {
+                jobSnapshots.add(jobSnapshot);
+            }
+        });
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("gauges", gaugeValues);
+        snapshot.put("process", processMetrics.snapshot());
+        snapshot.put("jobs", jobSnapshots);
+        return snapshot;
+    }
+
+    @ManagedAttribute(description = "Metrics of the process and the running and last finished jobs, in JSON")
+    public String getJson() {
+        return toJson(getSnapshot());
+    }
+
+    @ManagedOperation(description = "Metrics of a job execution, in JSON")
+    public String getJobJson(long jobExecutionId) {
+        return toJson(getJobSnapshot(jobExecutionId));
+    }
+
+    private String toJson(Object snapshot) {
+        try {
+            return objectMapper.writeValueAsString(snapshot);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Metrics could not be serialized", e);
+        }
+    }
+
+    private static class JobMetrics {
+
+        private final String name;
+
+        private final Map<String, StepMetrics> steps;
+
+        JobMetrics(String name) {
+            this.name = name;
+            this.steps = new ConcurrentHashMap<>();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Counters and histograms of a step, aggregated over all its executions in a job (e.g. its partitions). The rate of
+ * each counter is calculated over the time since the first execution started until the last one finished.
+ */
+public class StepMetrics {
+
+    private static final String TIME_SUFFIX = ".ms";
+
+    private static final String RATE_SUFFIX = ".per-second";
+
+    private static final double MILLIS_PER_NANO = 1.0 / TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final LongSupplier clock;
+
+    private final Map<String, LongAdder> counters;
+
+    private final Map<String, Histogram> histograms;
+
+    private long startNanos;
+
+    private long endNanos;
+
+    private int runningExecutions;
+
+    private boolean started;
+
+    StepMetrics(LongSupplier clock) {
+        this.clock = clock;
+        this.counters = new ConcurrentHashMap<>();
+        this.histograms = new ConcurrentHashMap<>();
+        this.startNanos = clock.getAsLong();
+        this.endNanos = startNanos;
+        this.runningExecutions = 0;
+        this.started = false;
+    }
+
+    synchronized void start() {
+        if (!started) {
+            startNanos = clock.getAsLong();
+            started = true;
+        }
+        runningExecutions++;
+    }
+
+    synchronized void end() {
+        runningExecutions = Math.max(0, runningExecutions - 1);
+        endNanos = clock.getAsLong();
+    }
+
+    public void recordTime(String name, long nanos) {
+        histograms.computeIfAbsent(name + TIME_SUFFIX, key -> new Histogram(MILLIS_PER_NANO)).record(nanos);
+    }
+
+    public void recordValue(String name, long value) {
+        histograms.computeIfAbsent(name, key -> new Histogram(1)).record(value);
+    }
+
+    public void increment(String name, long delta) {
+        counters.computeIfAbsent(name, key -> new LongAdder()).add(delta);
+    }
+
+    public long getCount(String counter) {
+        LongAdder adder = counters.get(counter);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    public Histogram getHistogram(String name) {
+        return histograms.get(name);
+    }
+
+    public synchronized double getElapsedSeconds() {
+        long end = runningExecutions > 0 ? clock.getAsLong() : endNanos;
+        return (end - startNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    Map<String, Object> snapshot() {
+        double elapsedSeconds = getElapsedSeconds();
+        Map<String, Object> counterValues = new TreeMap<>();
+        counters.forEach((name, adder) -> {
+            long value = adder.sum();
+            counterValues.put(name, value);
+            counterValues.put(name + RATE_SUFFIX, elapsedSeconds > 0 ? value / elapsedSeconds : 0);
+        });
+        Map<String, Object> histogramValues = new TreeMap<>();
+        histograms.forEach((name, histogram) -> histogramValues.put(name, histogram.snapshot()));
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        synchronized (this) {
+            snapshot.put("running", runningExecutions > 0);
+        }
+        snapshot.put("elapsedSeconds", elapsedSeconds);
+        snapshot.put("counters", counterValues);
+        snapshot.put("histograms", histogramValues);
+        return snapshot;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.metrics.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A chunk of a chunk oriented step, from the first read to the end of the write.
+ */
+@Name("uk.ac.ebi.eva.pipeline.Chunk")
+@Label("Chunk")
+@Category({PipelineEvents.CATEGORY, "Steps"})
+@Description("Items read, processed and written in a chunk, and the time spent in each phase")
+@StackTrace(false)
+public class ChunkEvent extends Event {
+
+    @Label("Step")
+    private String step;
+
+    @Label("Items Read")
+    private long itemsRead;
+
+    @Label("Items Written")
+    private long itemsWritten;
+
+    @Label("Read Time")
+    @Timespan(Timespan.NANOSECONDS)
+    private long readTime;
+
+    @Label("Process Time")
+    @Timespan(Timespan.NANOSECONDS)
+    private long processTime;
+
+    @Label("Write Time")
+    @Timespan(Timespan.NANOSECONDS)
+    private long writeTime;
+
+    public ChunkEvent() {
+        begin();
+    }
+
+    public void setStep(String step) {
+        this.step = step;
+    }
+
+    public void setItems(long itemsRead, long itemsWritten) {
+        this.itemsRead = itemsRead;
+        this.itemsWritten = itemsWritten;
+    }
+
+    public void setTimes(long readTime, long processTime, long writeTime) {
+        this.readTime = readTime;
+        this.processTime = processTime;
+        this.writeTime = writeTime;
+    }
+}
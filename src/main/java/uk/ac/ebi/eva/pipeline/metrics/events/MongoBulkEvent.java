@@ -0,0 +1,46 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.metrics.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Execution of a bulk write in MongoDB. The duration of the event is the latency of the bulk.
+ */
+@Name("uk.ac.ebi.eva.pipeline.MongoBulk")
+@Label("Mongo Bulk Write")
+@Category({PipelineEvents.CATEGORY, "MongoDB"})
+@Description("Execution of a bulk write operation")
+@StackTrace(false)
+public class MongoBulkEvent extends Event {
+
+    @Label("Collection")
+    private String collection;
+
+    @Label("Operations")
+    private int operations;
+
+    public MongoBulkEvent(String collection, int operations) {
+        this.collection = collection;
+        this.operations = operations;
+        begin();
+    }
+}
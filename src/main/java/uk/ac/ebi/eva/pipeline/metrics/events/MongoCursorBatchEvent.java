@@ -0,0 +1,49 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.metrics.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Read of a batch of documents from a MongoDB cursor, including their conversion.
+ */
+@Name("uk.ac.ebi.eva.pipeline.MongoCursorBatch")
+@Label("Mongo Cursor Batch")
+@Category({PipelineEvents.CATEGORY, "MongoDB"})
+@Description("Read of a batch of documents from a cursor")
+@StackTrace(false)
+public class MongoCursorBatchEvent extends Event {
+
+    @Label("Collection")
+    private String collection;
+
+    @Label("Documents")
+    private int documents;
+
+    public MongoCursorBatchEvent(String collection) {
+        this.collection = collection;
+        begin();
+    }
+
+    public void setDocuments(int documents) {
+        this.documents = documents;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.metrics.events;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Switch for the Java Flight Recorder events of the pipeline. The events are emitted while at least one running job
+ * asked for them, and are only recorded if a flight recording is active, e.g. one started with
+ * -XX:StartFlightRecording.
+ * <p>
+ * The event classes need the jdk.jfr API, available since JDK 8u262. Callers must check {@link #isEnabled()} before
+ * creating an event, so that the event classes are never loaded on a JVM without it.
+ */
+public class PipelineEvents {
+
+    private static final Logger logger = LoggerFactory.getLogger(PipelineEvents.class);
+
+    static final String CATEGORY = "EVA pipeline";
+
+    private static final boolean AVAILABLE = isFlightRecorderAvailable();
+
+    private static final AtomicInteger enablingJobs = new AtomicInteger(0);
+
+    private PipelineEvents() {
+    }
+
+    public static boolean isEnabled() {
+        return enablingJobs.get() > 0;
+    }
+
+    public static void enable() {
+        if (AVAILABLE) {
+            enablingJobs.incrementAndGet();
+        } else {
+            logger.warn("Flight recorder events were requested, but this JVM does not support them");
+        }
+    }
+
+    public static void disable() {
+        if (AVAILABLE) {
+            enablingJobs.updateAndGet(jobs -> Math.max(0, jobs - 1));
+        }
+    }
+
+    private static boolean isFlightRecorderAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.metrics.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Read of the whole output of a VEP process, from the start of the capture until VEP closes its standard output.
+ */
+@Name("uk.ac.ebi.eva.pipeline.VepReceive")
+@Label("VEP Batch Receive")
+@Category({PipelineEvents.CATEGORY, "VEP"})
+@Description("Read of the annotations written by VEP")
+@StackTrace(false)
+public class VepReceiveEvent extends Event {
+
+    @Label("Lines")
+    private long lines;
+
+    public VepReceiveEvent() {
+        begin();
+    }
+
+    public void setLines(long lines) {
+        this.lines = lines;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.metrics.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Write of a batch of variants into the standard input of VEP. A long send means VEP is not consuming its input.
+ */
+@Name("uk.ac.ebi.eva.pipeline.VepSend")
+@Label("VEP Batch Send")
+@Category({PipelineEvents.CATEGORY, "VEP"})
+@Description("Write of a batch of variants to VEP")
+@StackTrace(false)
+public class VepSendEvent extends Event {
+
+    @Label("Bytes")
+    @DataAmount
+    private long bytes;
+
+    public VepSendEvent(long bytes) {
+        this.bytes = bytes;
+        begin();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory index of the regions covered by genomic features (genes, transcripts...), used to know whether a variant
+ * lies near any of them without querying the database.
+ * <p>
+ * Overlapping features are merged, so each chromosome keeps a sorted list of disjoint intervals and every lookup is a
+ * binary search.
+ */
+public class FeatureIntervalIndex {
+
+    private final Map<String, int[]> startsByChromosome;
+
+    private final Map<String, int[]> endsByChromosome;
+
+    public FeatureIntervalIndex(Iterable<FeatureCoordinates> features) {
+        Map<String, List<FeatureCoordinates>> featuresByChromosome = new HashMap<>();
+        for (FeatureCoordinates feature : features) {
+            featuresByChromosome.computeIfAbsent(feature.getChromosome(), chromosome -> new ArrayList<>())
+                                .add(feature);
+        }
+
+        startsByChromosome = new HashMap<>();
+        endsByChromosome = new HashMap<>();
+        for (Map.Entry<String, List<FeatureCoordinates>> entry : featuresByChromosome.entrySet()) {
+            mergeIntervals(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void mergeIntervals(String chromosome, List<FeatureCoordinates> features) {
+        features.sort(Comparator.comparingInt(FeatureCoordinates::getStart));
+        int[] starts = new int[features.size()];
+        int[] ends = new int[features.size()];
+        int merged = -1;
+
+        for (FeatureCoordinates feature : features) {
+            if (merged >= 0 && feature.getStart() <= ends[merged]) {
+                ends[merged] = Math.max(ends[merged], feature.getEnd());
+            } else {
+                merged++;
+                starts[merged] = feature.getStart();
+                ends[merged] = feature.getEnd();
+            }
+        }
+
+        startsByChromosome.put(chromosome, Arrays.copyOf(starts, merged + 1));
+        endsByChromosome.put(chromosome, Arrays.copyOf(ends, merged + 1));
+    }
+
+    /**
+     * @return whether the index has any feature in the chromosome; if not, nothing can be said about the distance of a
+     * variant to the features in that chromosome
+     */
+    public boolean hasFeatures(String chromosome) {
+        return startsByChromosome.containsKey(chromosome);
+    }
+
+    /**
+     * @return whether any feature overlaps the region from start to end, both extended by the given distance
+     */
+    public boolean isNearFeature(String chromosome, int start, int end, int distance) {
+        int[] starts = startsByChromosome.get(chromosome);
+        if (starts == null) {
+            return false;
+        }
+        long regionStart = (long) Math.min(start, end) - distance;
+        long regionEnd = (long) Math.max(start, end) + distance;
+
+        // last interval starting before the end of the region; intervals are disjoint, so ends are sorted too
+        int index = Arrays.binarySearch(starts, (int) Math.min(regionEnd, Integer.MAX_VALUE));
+        if (index < 0) {
+            index = -index - 2;
+        }
+        return index >= 0 && endsByChromosome.get(chromosome)[index] >= regionStart;
+    }
+}
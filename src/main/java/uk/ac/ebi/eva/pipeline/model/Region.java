@@ -0,0 +1,162 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.model;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static uk.ac.ebi.eva.commons.models.mongo.entity.VariantDocument.CHROMOSOME_FIELD;
+import static uk.ac.ebi.eva.commons.models.mongo.entity.VariantDocument.START_FIELD;
+
+/**
+ * A whole chromosome, or an interval of a chromosome with 1-based inclusive coordinates.
+ * <p>
+ * A variant belongs to a region if it starts inside it. This way, disjoint regions never share a variant, even if it
+ * spans the boundary between them.
+ */
+public class Region {
+
+    private static final Pattern INTERVAL = Pattern.compile("^(.+):(\\d+)-(\\d+)$");
+
+    private final String chromosome;
+
+    private final Integer start;
+
+    private final Integer end;
+
+    public Region(String chromosome) {
+        this(chromosome, null, null);
+    }
+
+    public Region(String chromosome, Integer start, Integer end) {
+        if (chromosome == null || chromosome.trim().isEmpty()) {
+            throw new IllegalArgumentException("The chromosome of a region must be specified");
+        }
+        if ((start == null) != (end == null)) {
+            throw new IllegalArgumentException("A region must have both start and end, or none of them");
+        }
+        if (start != null && (start < 1 || end < start)) {
+            throw new IllegalArgumentException(
+                    "Region " + chromosome + ":" + start + "-" + end + " must have 0 < start <= end");
+        }
+        this.chromosome = chromosome;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * @param region a chromosome, like "20", or an interval, like "20:60000-70000"
+     * @throws IllegalArgumentException if the region is not well formed
+     */
+    public static Region parseRegion(String region) {
+        if (region == null) {
+            throw new IllegalArgumentException("The region must be specified");
+        }
+        Matcher matcher = INTERVAL.matcher(region);
+        if (matcher.matches()) {
+            try {
+                return new Region(matcher.group(1), Integer.valueOf(matcher.group(2)),
+                                  Integer.valueOf(matcher.group(3)));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("The coordinates of region " + region + " are too big", e);
+            }
+        }
+        if (region.contains(":")) {
+            throw new IllegalArgumentException(
+                    "Region " + region + " must be a chromosome or have the format chromosome:start-end");
+        }
+        return new Region(region);
+    }
+
+    public String getChromosome() {
+        return chromosome;
+    }
+
+    /**
+     * @return the first position of the region, or null if the region is a whole chromosome
+     */
+    public Integer getStart() {
+        return start;
+    }
+
+    /**
+     * @return the last position of the region, or null if the region is a whole chromosome
+     */
+    public Integer getEnd() {
+        return end;
+    }
+
+    /**
+     * @return a criteria on the variants collection that selects the variants that start in this region, and that
+     * can use the index on chromosome, start and end
+     */
+    public Criteria toCriteria() {
+        Criteria criteria = Criteria.where(CHROMOSOME_FIELD).is(chromosome);
+        if (start != null) {
+            criteria.and(START_FIELD).gte(start).lte(end);
+        }
+        return criteria;
+    }
+
+    /**
+     * @return the given criteria restricted to the variants that start in the region, or the criteria unchanged if
+     * the region is null
+     */
+    public static Criteria restrict(Criteria criteria, Region region) {
+        if (region == null) {
+            return criteria;
+        }
+        return new Criteria().andOperator(criteria, region.toCriteria());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        Region region = (Region) o;
+
+        if (!chromosome.equals(region.chromosome)) {
+            return false;
+        }
+        if (start != null ? !start.equals(region.start) : region.start != null) {
+            return false;
+        }
+        return end != null ? end.equals(region.end) : region.end == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = chromosome.hashCode();
+        result = 31 * result + (start != null ? start.hashCode() : 0);
+        result = 31 * result + (end != null ? end.hashCode() : 0);
+        return result;
+    }
+
+    /**
+     * @return the region in the same format accepted by {@link #parseRegion(String)}
+     */
+    @Override
+    public String toString() {
+        return start == null ? chromosome : chromosome + ":" + start + "-" + end;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.model;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * List of VCF files to load together into the same study.
+ * <p>
+ * Every line of a manifest has the path of a VCF and its file ID, separated by a tab. Empty lines and lines starting
+ * with '#' are ignored. Relative paths are resolved against the directory of the manifest.
+ */
+public class VcfManifest {
+
+    private static final String COMMENT = "#";
+
+    private static final String SEPARATOR = "\t";
+
+    private final List<Entry> entries;
+
+    public VcfManifest(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            throw new IllegalArgumentException("A VCF manifest must contain at least one file");
+        }
+        Set<String> vcfIds = new HashSet<>();
+        for (Entry entry : entries) {
+            if (!vcfIds.add(entry.getVcfId())) {
+                throw new IllegalArgumentException("File ID " + entry.getVcfId() + " is repeated in the manifest");
+            }
+        }
+        this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
+    }
+
+    /**
+     * @throws IOException if the manifest can't be read
+     * @throws IllegalArgumentException if the manifest is empty, a line is not well formed or a file ID is repeated
+     */
+    public static VcfManifest read(Path manifest) throws IOException {
+        Path directory = manifest.toAbsolutePath().getParent();
+        List<Entry> entries = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            if (line.trim().isEmpty() || line.startsWith(COMMENT)) {
+                continue;
+            }
+            String[] columns = line.split(SEPARATOR);
+            if (columns.length != 2 || columns[0].trim().isEmpty() || columns[1].trim().isEmpty()) {
+                throw new IllegalArgumentException(
+                        "Line " + lineNumber + " of manifest " + manifest + " must have a VCF path and a file ID "
+                                + "separated by a tab");
+            }
+            String vcf = directory.resolve(columns[0].trim()).toString();
+            entries.add(new Entry(vcf, columns[1].trim()));
+        }
+        return new VcfManifest(entries);
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public static class Entry {
+
+        private final String vcf;
+
+        private final String vcfId;
+
+        public Entry(String vcf, String vcfId) {
+            this.vcf = vcf;
+            this.vcfId = vcfId;
+        }
+
+        public String getVcf() {
+            return vcf;
+        }
+
+        public String getVcfId() {
+            return vcfId;
+        }
+    }
+}
@@ -19,8 +19,13 @@ import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import uk.ac.ebi.eva.pipeline.io.VepOutputSpool;
+import uk.ac.ebi.eva.pipeline.model.Region;
 import uk.ac.ebi.eva.utils.URLHelper;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Service that holds access to the values for annotatation steps like VEP etc.
  *
@@ -45,6 +50,9 @@ public class AnnotationParameters {
     @Value(PARAMETER + JobParametersNames.INPUT_VCF_ID + OR_EMPTY)
     private String fileId;
 
+    @Value(PARAMETER + JobParametersNames.INPUT_REGION + "']?:null}")
+    private String region;
+
     @Value(PARAMETER + JobParametersNames.APP_VEP_PATH + END)
     private String vepPath;
 
@@ -66,12 +74,21 @@ public class AnnotationParameters {
     @Value(PARAMETER + JobParametersNames.APP_VEP_TIMEOUT + END)
     private Long timeout;
 
+    @Value(PARAMETER + JobParametersNames.APP_VEP_SPOOL_RETENTION + "']?:'STEP'}")
+    private String vepSpoolRetention;
+
     @Value(PARAMETER + JobParametersNames.INPUT_FASTA + END)
     private String inputFasta;
 
     @Value(PARAMETER + JobParametersNames.ANNOTATION_OVERWRITE + "']?:false}")
     private Boolean overwriteAnnotation;
 
+    @Value(PARAMETER + JobParametersNames.ANNOTATION_INTERGENIC_DISTANCE + "']?:0}")
+    private Integer intergenicDistance;
+
+    @Value(PARAMETER + JobParametersNames.INPUT_ANNOTATION + OR_EMPTY)
+    private String inputAnnotation;
+
     public String getVepPath() {
         return vepPath;
     }
@@ -100,6 +117,10 @@ public class AnnotationParameters {
         return timeout;
     }
 
+    public VepOutputSpool.Retention getVepSpoolRetention() {
+        return VepOutputSpool.Retention.valueOf(vepSpoolRetention);
+    }
+
     public String getInputFasta() {
         return inputFasta;
     }
@@ -108,10 +129,37 @@ public class AnnotationParameters {
         return overwriteAnnotation;
     }
 
+    /**
+     * @return minimum distance to any feature for a variant to be annotated as intergenic without running VEP, or 0
+     * if all the variants must go through VEP
+     */
+    public Integer getIntergenicDistance() {
+        return intergenicDistance;
+    }
+
     public String getVepOutput() {
         return URLHelper.resolveVepOutput(outputDirAnnotation, studyId, fileId);
     }
 
+    public String getVepSpool() {
+        return URLHelper.resolveVepSpool(outputDirAnnotation, studyId, fileId,
+                                         region == null ? null : Region.parseRegion(region));
+    }
+
+    /**
+     * @return the pre-computed VEP output files provided as a comma-separated list in
+     * {@link JobParametersNames#INPUT_ANNOTATION}, in the same order they were specified
+     */
+    public List<String> getInputAnnotationFiles() {
+        List<String> files = new ArrayList<>();
+        for (String file : inputAnnotation.split(",")) {
+            if (!file.trim().isEmpty()) {
+                files.add(file.trim());
+            }
+        }
+        return files;
+    }
+
     public void setOutputDirAnnotation(String outputDirAnnotation) {
         this.outputDirAnnotation = outputDirAnnotation;
     }
@@ -152,9 +200,21 @@ public class AnnotationParameters {
         this.timeout = timeout;
     }
 
+    public void setVepSpoolRetention(String vepSpoolRetention) {
+        this.vepSpoolRetention = vepSpoolRetention;
+    }
+
     public void setInputFasta(String inputFasta) {
         this.inputFasta = inputFasta;
     }
+
+    public void setIntergenicDistance(Integer intergenicDistance) {
+        this.intergenicDistance = intergenicDistance;
+    }
+
+    public void setInputAnnotation(String inputAnnotation) {
+        this.inputAnnotation = inputAnnotation;
+    }
 }
 
 
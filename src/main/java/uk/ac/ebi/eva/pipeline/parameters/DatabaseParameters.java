@@ -20,6 +20,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.SamplesEncoding;
+
 /**
  * Service that holds access to the values for database. This include the configuration
  * values for database connection that are got as values not parameters.
@@ -49,6 +51,12 @@ public class DatabaseParameters {
     @Value(PARAMETER + JobParametersNames.DB_COLLECTIONS_ANNOTATIONS_NAME + END)
     private String collectionAnnotationsName;
 
+    @Value(PARAMETER + JobParametersNames.DB_COLLECTIONS_GENOTYPES_NAME + "']?:null}")
+    private String collectionGenotypesName;
+
+    @Value(PARAMETER + JobParametersNames.DB_VARIANTS_SAMPLES_ENCODING + "']?:'ARRAY'}")
+    private SamplesEncoding variantsSamplesEncoding;
+
     @Autowired
     private MongoConnection mongoConnection;
 
@@ -79,4 +87,15 @@ public class DatabaseParameters {
     public String getCollectionAnnotationsName() {
         return collectionAnnotationsName;
     }
+
+    /**
+     * @return the collection where the genotypes are stored apart from the variants, or null if they are not
+     */
+    public String getCollectionGenotypesName() {
+        return collectionGenotypesName;
+    }
+
+    public SamplesEncoding getVariantsSamplesEncoding() {
+        return variantsSamplesEncoding;
+    }
 }
@@ -19,5 +19,12 @@ package uk.ac.ebi.eva.pipeline.parameters;
  * Class that holds the names (keys) of the parameters used into {@link org.springframework.batch.item.ExecutionContext}
  */
 public class ExecutionContextParametersNames {
-    public static final String NUMBER_OF_LINES = "line";
+    public static final String INPUT_FILE_SIZE = "input-file-size";
+    public static final String INPUT_BYTES_READ = "input-bytes-read";
+    public static final String INPUT_BYTES_READ_ON_OPEN = "input-bytes-read-on-open";
+    public static final String PARTITION_FILE = "partition-file";
+    public static final String PARTITION_MIN_ID = "partition-min-id";
+    public static final String PARTITION_MAX_ID = "partition-max-id";
+    public static final String PARTITION_VCF = "partition-vcf";
+    public static final String PARTITION_VCF_ID = "partition-vcf-id";
 }
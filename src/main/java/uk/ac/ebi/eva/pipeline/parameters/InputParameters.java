@@ -21,8 +21,18 @@ import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import uk.ac.ebi.eva.pipeline.io.mappers.AttributeRetentionPolicy;
+import uk.ac.ebi.eva.pipeline.model.Region;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Service that holds access to Job input parameters.
+ * <p>
+ * The VCF and its ID are taken from the step execution context if present, so that each partition of a multi-file
+ * load processes a different file.
  */
 @Service
 @StepScope
@@ -32,16 +42,23 @@ public class InputParameters {
     private static final String END = "']}";
     private static final String OR_NULL = "']?:null}";
     private static final String OR_EMPTY = "']?:''}";
+    private static final String PARTITION_PARAMETER = "#{stepExecutionContext['";
+    private static final String OR_PARAMETER = "']?:jobParameters['";
 
     @Value(PARAMETER + JobParametersNames.INPUT_STUDY_ID + END)
     private String studyId;
 
-    @Value(PARAMETER + JobParametersNames.INPUT_VCF_ID + OR_EMPTY)
+    @Value(PARTITION_PARAMETER + ExecutionContextParametersNames.PARTITION_VCF_ID
+            + OR_PARAMETER + JobParametersNames.INPUT_VCF_ID + OR_EMPTY)
     private String vcfId;
 
-    @Value(PARAMETER + JobParametersNames.INPUT_VCF + END)
+    @Value(PARTITION_PARAMETER + ExecutionContextParametersNames.PARTITION_VCF
+            + OR_PARAMETER + JobParametersNames.INPUT_VCF + END)
     private String vcf;
 
+    @Value(PARAMETER + JobParametersNames.INPUT_VCF_MANIFEST + OR_NULL)
+    private String vcfManifest;
+
     @Value(PARAMETER + JobParametersNames.INPUT_GTF + END)
     private String gtf;
 
@@ -60,10 +77,37 @@ public class InputParameters {
     @Value(PARAMETER + JobParametersNames.INPUT_VCF_AGGREGATION_MAPPING_PATH + OR_NULL)
     private String aggregatedMappingFile;
 
+    @Value(PARAMETER + JobParametersNames.INPUT_REGION + OR_NULL)
+    private String region;
+
+    @Value(PARAMETER + JobParametersNames.INPUT_VCF_SOURCE_LINE + "']?:'COMPRESSED'}")
+    private String sourceLine;
+
+    @Value(PARAMETER + JobParametersNames.INPUT_VCF_INFO_INCLUDE + OR_NULL)
+    private String infoInclude;
+
+    @Value(PARAMETER + JobParametersNames.INPUT_VCF_INFO_EXCLUDE + OR_NULL)
+    private String infoExclude;
+
+    @Value(PARAMETER + JobParametersNames.INPUT_VCF_SORT + "']?:false}")
+    private boolean vcfSort;
+
     public String getVcf() {
         return vcf;
     }
 
+    /**
+     * @return whether the VCF has to be sorted by chromosome and position before loading it, if it isn't already.
+     * Checking the order costs a full decompression pass over the VCF, even when it is already sorted.
+     */
+    public boolean getVcfSort() {
+        return vcfSort;
+    }
+
+    public String getVcfManifest() {
+        return vcfManifest;
+    }
+
     public VariantSource.Aggregation getVcfAggregation() {
         return VariantSource.Aggregation.valueOf(vcfAggregation);
     }
@@ -95,4 +139,28 @@ public class InputParameters {
     public String getAggregatedMappingFile() {
         return aggregatedMappingFile;
     }
+
+    /**
+     * @return the region the job is restricted to, or null if it processes the whole genome
+     */
+    public Region getRegion() {
+        return region == null ? null : Region.parseRegion(region);
+    }
+
+    /**
+     * @return the attributes to keep from each line of the VCF, all of them if no parameter restricts them
+     */
+    public AttributeRetentionPolicy getAttributeRetentionPolicy() {
+        AttributeRetentionPolicy.SourceLine retainedSourceLine =
+                AttributeRetentionPolicy.SourceLine.valueOf(sourceLine);
+        if (infoInclude != null) {
+            return AttributeRetentionPolicy.includingInfoKeys(retainedSourceLine, splitInfoKeys(infoInclude));
+        }
+        List<String> excludedKeys = infoExclude == null ? Collections.emptyList() : splitInfoKeys(infoExclude);
+        return AttributeRetentionPolicy.excludingInfoKeys(retainedSourceLine, excludedKeys);
+    }
+
+    private static List<String> splitInfoKeys(String infoKeys) {
+        return Arrays.asList(infoKeys.trim().split("\\s*,\\s*"));
+    }
 }
@@ -29,6 +29,16 @@ public class JobParametersNames {
 
     public static final String INPUT_VCF_AGGREGATION = "input.vcf.aggregation";
 
+    public static final String INPUT_VCF_MANIFEST = "input.vcf.manifest";
+
+    public static final String INPUT_VCF_SOURCE_LINE = "input.vcf.source-line";
+
+    public static final String INPUT_VCF_INFO_INCLUDE = "input.vcf.info.include";
+
+    public static final String INPUT_VCF_INFO_EXCLUDE = "input.vcf.info.exclude";
+
+    public static final String INPUT_VCF_SORT = "input.vcf.sort";
+
     public static final String INPUT_STUDY_NAME = "input.study.name";
 
     public static final String INPUT_STUDY_ID = "input.study.id";
@@ -43,6 +53,10 @@ public class JobParametersNames {
 
     public static final String INPUT_VCF_AGGREGATION_MAPPING_PATH = "input.vcf.aggregation.mapping-path";
 
+    public static final String INPUT_ANNOTATION = "input.annotation";
+
+    public static final String INPUT_REGION = "input.region";
+
     /*
      * Output
      */
@@ -53,6 +67,10 @@ public class JobParametersNames {
 
     public static final String OUTPUT_DIR_STATISTICS = "output.dir.statistics";
 
+    public static final String OUTPUT_DIR_BSON = "output.dir.bson";
+
+    public static final String OUTPUT_BSON_COMPRESS = "output.bson.compress";
+
 
     /*
      * Database infrastructure (Spring Data)
@@ -68,6 +86,24 @@ public class JobParametersNames {
 
     public static final String CONFIG_DB_READPREFERENCE = "config.db.read-preference";
 
+    public static final String CONFIG_DB_WRITE_MAX_RATE = "config.db.write.max-rate";
+
+    public static final String CONFIG_DB_WRITE_TARGET_LATENCY = "config.db.write.target-latency";
+
+    public static final String CONFIG_DB_WRITE_MAX_REPLICATION_LAG = "config.db.write.max-replication-lag";
+
+    public static final String CONFIG_EXECUTOR_CAPACITY = "config.executor.capacity";
+
+    public static final String CONFIG_EXECUTOR_FLOWS_THREADS = "config.executor.flows.threads";
+
+    public static final String CONFIG_EXECUTOR_PARTITIONS_THREADS = "config.executor.partitions.threads";
+
+    public static final String CONFIG_EXECUTOR_PARTITIONS_WEIGHT = "config.executor.partitions.weight";
+
+    public static final String CONFIG_EXECUTOR_WRITERS_THREADS = "config.executor.writers.threads";
+
+    public static final String CONFIG_EXECUTOR_WRITERS_WEIGHT = "config.executor.writers.weight";
+
 
     /*
      * Database and collections
@@ -87,6 +123,10 @@ public class JobParametersNames {
 
     public static final String DB_COLLECTIONS_ANNOTATIONS_NAME = "db.collections.annotations.name";
 
+    public static final String DB_COLLECTIONS_GENOTYPES_NAME = "db.collections.genotypes.name";
+
+    public static final String DB_VARIANTS_SAMPLES_ENCODING = "db.variants.samples-encoding";
+
 
     /*
      * Skip and overwrite steps
@@ -100,6 +140,8 @@ public class JobParametersNames {
 
     public static final String ANNOTATION_OVERWRITE = "annotation.overwrite";
 
+    public static final String ANNOTATION_INTERGENIC_DISTANCE = "annotation.intergenic.distance";
+
 
     /*
      * OpenCGA (parameters read from OpenCGA "conf" folder)
@@ -140,6 +182,8 @@ public class JobParametersNames {
 
     public static final String APP_VEP_TIMEOUT = "app.vep.timeout";
 
+    public static final String APP_VEP_SPOOL_RETENTION = "app.vep.spool.retention";
+
 
     /*
      * Other configuration
@@ -149,9 +193,35 @@ public class JobParametersNames {
 
     public static final String CONFIG_CHUNK_SIZE = "config.chunk.size";
 
+    public static final String CONFIG_PARALLELISM = "config.parallelism";
+
+    public static final String CONFIG_WRITE_RATE_LIMIT = "config.write.rate-limit";
+
+    public static final String CONFIG_PARTITIONS_REMOTE = "config.partitions.remote";
+
+    public static final String CONFIG_PARTITIONS_LEASE_TIMEOUT = "config.partitions.lease-timeout";
+
+    public static final String CONFIG_CHECKPOINT_INTERVAL = "config.checkpoint.interval";
+
+    public static final String CONFIG_JFR_EVENTS = "config.jfr.events";
+
+    public static final String CONFIG_METRICS_HTTP_PORT = "config.metrics.http.port";
+
+    public static final String CONFIG_METRICS_DIR = "config.metrics.dir";
+
 
     public static final String PROPERTY_FILE_PROPERTY = "parameters.path";
 
     public static final String RESTART_PROPERTY = "force.restart";
 
+    public static final String PARTITION_WORKER_PROPERTY = "partition.worker";
+
+    public static final String PARTITION_WORKER_THREADS_PROPERTY = "partition.worker.threads";
+
+    public static final String PARTITION_WORKER_IDLE_TIMEOUT_PROPERTY = "partition.worker.idle-timeout";
+
+    public static final String SERVER_DIRECTORY_PROPERTY = "pipeline.server.directory";
+
+    public static final String SERVER_PARALLELISM_PROPERTY = "pipeline.server.parallelism";
+
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.parameters;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Where the performance metrics of the jobs are published.
+ *
+ * The values are injected directly from environment, not from JobParameters.
+ */
+@Service
+public class MetricsParameters {
+
+    @Value("${" + JobParametersNames.CONFIG_METRICS_HTTP_PORT + ":0}")
+    private int httpPort;
+
+    @Value("${" + JobParametersNames.CONFIG_METRICS_DIR + ":#{null}}")
+    private String dir;
+
+    /**
+     * @return local port where the metrics are served over HTTP, or 0 if they are not
+     */
+    public int getHttpPort() {
+        return httpPort;
+    }
+
+    /**
+     * @return directory where the metrics of each job are written when it ends, or null if they are not
+     */
+    public String getDir() {
+        return dir;
+    }
+}
@@ -38,6 +38,12 @@ public class OutputParameters {
     @Value(PARAMETER + JobParametersNames.OUTPUT_DIR_STATISTICS  + END)
     private String outputDirStatistics;
 
+    @Value(PARAMETER + JobParametersNames.OUTPUT_DIR_BSON + END)
+    private String outputDirBson;
+
+    @Value(PARAMETER + JobParametersNames.OUTPUT_BSON_COMPRESS + "']?:false}")
+    private boolean bsonCompress;
+
     @Value(PARAMETER + JobParametersNames.STATISTICS_OVERWRITE  + "']?:false}")
     private boolean statisticsOverwrite;
 
@@ -45,6 +51,14 @@ public class OutputParameters {
         return outputDir;
     }
 
+    /**
+     * @return folder where the unsorted VCFs are sorted into, which is the output one, or the temporary one if there is
+     * no output folder
+     */
+    public String getVcfSortDir() {
+        return outputDir != null ? outputDir : System.getProperty("java.io.tmpdir");
+    }
+
     public String getOutputDirAnnotation() {
         return outputDirAnnotation;
     }
@@ -53,6 +67,18 @@ public class OutputParameters {
         return outputDirStatistics;
     }
 
+    /**
+     * @return folder where the documents are dumped as BSON files instead of written to MongoDB, when the "bson"
+     * profile is active
+     */
+    public String getOutputDirBson() {
+        return outputDirBson;
+    }
+
+    public boolean isBsonCompress() {
+        return bsonCompress;
+    }
+
     public boolean getStatisticsOverwrite() {
         return statisticsOverwrite;
     }
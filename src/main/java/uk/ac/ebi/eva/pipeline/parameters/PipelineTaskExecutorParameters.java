@@ -0,0 +1,78 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.parameters;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Size of the thread pools shared by all the jobs that run in the same process, and the capacity that their tasks
+ * take from the host.
+ *
+ * The values are injected directly from environment, not from JobParameters. A capacity or number of threads of 0
+ * means the number of available processors.
+ */
+@Service
+public class PipelineTaskExecutorParameters {
+
+    private static final int DEFAULT_FLOWS_THREADS = 16;
+
+    @Value("${" + JobParametersNames.CONFIG_EXECUTOR_CAPACITY + ":0}")
+    private int capacity;
+
+    @Value("${" + JobParametersNames.CONFIG_EXECUTOR_FLOWS_THREADS + ":" + DEFAULT_FLOWS_THREADS + "}")
+    private int flowsThreads;
+
+    @Value("${" + JobParametersNames.CONFIG_EXECUTOR_PARTITIONS_THREADS + ":0}")
+    private int partitionsThreads;
+
+    @Value("${" + JobParametersNames.CONFIG_EXECUTOR_PARTITIONS_WEIGHT + ":1}")
+    private int partitionsWeight;
+
+    @Value("${" + JobParametersNames.CONFIG_EXECUTOR_WRITERS_THREADS + ":0}")
+    private int writersThreads;
+
+    @Value("${" + JobParametersNames.CONFIG_EXECUTOR_WRITERS_WEIGHT + ":1}")
+    private int writersWeight;
+
+    public int getCapacity() {
+        return orAvailableProcessors(capacity);
+    }
+
+    public int getFlowsThreads() {
+        return orAvailableProcessors(flowsThreads);
+    }
+
+    public int getPartitionsThreads() {
+        return orAvailableProcessors(partitionsThreads);
+    }
+
+    public int getPartitionsWeight() {
+        return partitionsWeight;
+    }
+
+    public int getWritersThreads() {
+        return orAvailableProcessors(writersThreads);
+    }
+
+    public int getWritersWeight() {
+        return writersWeight;
+    }
+
+    private static int orAvailableProcessors(int value) {
+        return value > 0 ? value : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.parameters;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Limits of the database writes shared by all the jobs that run in the same process.
+ *
+ * The values are injected directly from environment, not from JobParameters.
+ */
+@Service
+public class WriteThrottleParameters {
+
+    @Value("${" + JobParametersNames.CONFIG_DB_WRITE_MAX_RATE + ":0}")
+    private int maxRate;
+
+    @Value("${" + JobParametersNames.CONFIG_DB_WRITE_TARGET_LATENCY + ":1000}")
+    private long targetLatency;
+
+    @Value("${" + JobParametersNames.CONFIG_DB_WRITE_MAX_REPLICATION_LAG + ":10}")
+    private long maxReplicationLag;
+
+    /**
+     * @return maximum documents per second written to the database, or 0 if unlimited
+     */
+    public int getMaxRate() {
+        return maxRate;
+    }
+
+    /**
+     * @return milliseconds that a write may take before the write rate is reduced
+     */
+    public long getTargetLatency() {
+        return targetLatency;
+    }
+
+    /**
+     * @return seconds that the secondaries may lag behind the primary before the write rate is reduced
+     */
+    public long getMaxReplicationLag() {
+        return maxReplicationLag;
+    }
+}
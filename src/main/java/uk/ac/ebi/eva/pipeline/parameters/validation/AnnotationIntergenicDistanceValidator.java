@@ -0,0 +1,46 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.parameters.validation;
+
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersInvalidException;
+import org.springframework.batch.core.JobParametersValidator;
+
+import uk.ac.ebi.eva.pipeline.parameters.JobParametersNames;
+
+/**
+ * Checks that the distance to annotate variants as intergenic is zero or a positive number, and that a features
+ * collection is provided when it is positive
+ *
+ * @throws JobParametersInvalidException If the distance is not a valid number, is negative, or there is no features
+ * collection to compare the variants with
+ */
+public class AnnotationIntergenicDistanceValidator implements JobParametersValidator {
+    @Override
+    public void validate(JobParameters parameters) throws JobParametersInvalidException {
+        String distance = parameters.getString(JobParametersNames.ANNOTATION_INTERGENIC_DISTANCE);
+        int integer = ParametersValidatorUtil.checkIsInteger(distance,
+                                                             JobParametersNames.ANNOTATION_INTERGENIC_DISTANCE);
+        if (integer < 0) {
+            throw new JobParametersInvalidException(
+                    String.format("%s is %s, please provide zero or a positive number",
+                                  JobParametersNames.ANNOTATION_INTERGENIC_DISTANCE, distance));
+        }
+        if (integer > 0) {
+            new DbCollectionsFeaturesNameValidator().validate(parameters);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.parameters.validation;
+
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersInvalidException;
+import org.springframework.batch.core.JobParametersValidator;
+
+import uk.ac.ebi.eva.pipeline.parameters.JobParametersNames;
+
+/**
+ * Checks that the seconds between checkpoints of the chunk steps are zero (every chunk) or a positive number
+ *
+ * @throws JobParametersInvalidException If the checkpoint interval is not a valid number or is negative
+ */
+public class ConfigCheckpointIntervalValidator implements JobParametersValidator {
+    @Override
+    public void validate(JobParameters parameters) throws JobParametersInvalidException {
+        String interval = parameters.getString(JobParametersNames.CONFIG_CHECKPOINT_INTERVAL);
+        if (ParametersValidatorUtil.checkIsInteger(interval, JobParametersNames.CONFIG_CHECKPOINT_INTERVAL) < 0) {
+            throw new JobParametersInvalidException(
+                    String.format("%s is %s, please provide zero or a positive number",
+                                  JobParametersNames.CONFIG_CHECKPOINT_INTERVAL, interval));
+        }
+    }
+}
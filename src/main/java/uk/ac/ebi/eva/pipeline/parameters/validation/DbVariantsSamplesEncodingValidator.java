@@ -0,0 +1,42 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.parameters.validation;
+
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersInvalidException;
+import org.springframework.batch.core.JobParametersValidator;
+
+import uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.SamplesEncoding;
+import uk.ac.ebi.eva.pipeline.parameters.JobParametersNames;
+
+/**
+ * Checks that the encoding of the samples in the variants collection is one of the values in {@link SamplesEncoding}
+ *
+ * @throws JobParametersInvalidException If the encoding is null, empty or not a valid value
+ */
+public class DbVariantsSamplesEncodingValidator implements JobParametersValidator {
+
+    @Override
+    public void validate(JobParameters parameters) throws JobParametersInvalidException {
+        String samplesEncoding = parameters.getString(JobParametersNames.DB_VARIANTS_SAMPLES_ENCODING);
+        ParametersValidatorUtil.checkIsValidString(samplesEncoding, JobParametersNames.DB_VARIANTS_SAMPLES_ENCODING);
+        try {
+            SamplesEncoding.valueOf(samplesEncoding);
+        } catch (IllegalArgumentException e) {
+            throw new JobParametersInvalidException(e.getMessage());
+        }
+    }
+}
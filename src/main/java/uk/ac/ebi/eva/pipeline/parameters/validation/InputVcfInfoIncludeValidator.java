@@ -0,0 +1,41 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.parameters.validation;
+
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersInvalidException;
+import org.springframework.batch.core.JobParametersValidator;
+
+import uk.ac.ebi.eva.pipeline.parameters.JobParametersNames;
+
+/**
+ * Checks that the INFO keys to keep are a comma separated list, and that no keys to drop are given as well
+ *
+ * @throws JobParametersInvalidException If the list is null, empty or malformed, or the keys to drop are also given
+ */
+public class InputVcfInfoIncludeValidator implements JobParametersValidator {
+
+    @Override
+    public void validate(JobParameters parameters) throws JobParametersInvalidException {
+        ParametersValidatorUtil.checkIsListOfInfoKeys(parameters.getString(JobParametersNames.INPUT_VCF_INFO_INCLUDE),
+                                                      JobParametersNames.INPUT_VCF_INFO_INCLUDE);
+        if (parameters.getString(JobParametersNames.INPUT_VCF_INFO_EXCLUDE) != null) {
+            throw new JobParametersInvalidException(
+                    String.format("%s and %s can't be used together", JobParametersNames.INPUT_VCF_INFO_INCLUDE,
+                                  JobParametersNames.INPUT_VCF_INFO_EXCLUDE));
+        }
+    }
+}
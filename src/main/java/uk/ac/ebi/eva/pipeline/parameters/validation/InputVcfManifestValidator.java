@@ -0,0 +1,49 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.parameters.validation;
+
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersInvalidException;
+import org.springframework.batch.core.JobParametersValidator;
+
+import uk.ac.ebi.eva.pipeline.model.VcfManifest;
+import uk.ac.ebi.eva.pipeline.parameters.JobParametersNames;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Checks that the manifest of VCFs exists, is readable and is well formed.
+ *
+ * @throws JobParametersInvalidException If the manifest does not exist, is not readable or any of its lines is not
+ * a VCF path followed by a unique file ID
+ */
+public class InputVcfManifestValidator implements JobParametersValidator {
+
+    @Override
+    public void validate(JobParameters parameters) throws JobParametersInvalidException {
+        String manifest = parameters.getString(JobParametersNames.INPUT_VCF_MANIFEST);
+        ParametersValidatorUtil.checkFileExists(manifest, JobParametersNames.INPUT_VCF_MANIFEST);
+        ParametersValidatorUtil.checkFileIsReadable(manifest, JobParametersNames.INPUT_VCF_MANIFEST);
+        try {
+            VcfManifest.read(Paths.get(manifest));
+        } catch (IOException | IllegalArgumentException e) {
+            throw new JobParametersInvalidException(
+                    String.format("%s in %s is not a valid manifest: %s", manifest,
+                                  JobParametersNames.INPUT_VCF_MANIFEST, e.getMessage()));
+        }
+    }
+}
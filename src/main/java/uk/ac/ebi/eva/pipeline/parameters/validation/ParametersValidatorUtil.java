@@ -28,6 +28,8 @@ import java.util.regex.Pattern;
  */
 public class ParametersValidatorUtil {
 
+    private static final Pattern INFO_KEY = Pattern.compile("[^\\s=;,]+");
+
     static void checkIsValidString(String stringToValidate,
                                    String jobParametersName) throws JobParametersInvalidException {
         checkIsNotNullString(stringToValidate, jobParametersName);
@@ -146,4 +148,18 @@ public class ParametersValidatorUtil {
                     String.format("%s is %s, please provide a positive number", jobParametersName, numberToValidate));
         }
     }
+
+    /**
+     * Checks a comma separated list of VCF INFO keys, which can't contain spaces, '=' nor ';'
+     */
+    static void checkIsListOfInfoKeys(String keysToValidate,
+                                      String jobParametersName) throws JobParametersInvalidException {
+        checkIsValidString(keysToValidate, jobParametersName);
+        for (String key : keysToValidate.trim().split("\\s*,\\s*")) {
+            if (key.isEmpty() || !INFO_KEY.matcher(key).matches()) {
+                throw new JobParametersInvalidException(
+                        String.format("%s in %s is not a valid list of INFO keys", keysToValidate, jobParametersName));
+            }
+        }
+    }
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.parameters.validation.job;
+
+import org.springframework.batch.core.JobParameter;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersInvalidException;
+import org.springframework.batch.core.JobParametersValidator;
+import org.springframework.batch.core.job.CompositeJobParametersValidator;
+import org.springframework.batch.core.job.DefaultJobParametersValidator;
+
+import uk.ac.ebi.eva.pipeline.configuration.jobs.MultiFileVcfJobConfiguration;
+import uk.ac.ebi.eva.pipeline.model.VcfManifest;
+import uk.ac.ebi.eva.pipeline.parameters.JobParametersNames;
+import uk.ac.ebi.eva.pipeline.parameters.validation.ConfigParallelismValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.ConfigPartitionsLeaseTimeoutValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.ConfigPartitionsRemoteValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.InputVcfManifestValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.OptionalValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.step.AnnotationMetadataStepParametersValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.step.CalculateStatisticsStepParametersValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.step.GenerateVepAnnotationStepParametersValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.step.LoadFileStepParametersValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.step.LoadStatisticsStepParametersValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.step.LoadVariantsStepParametersValidator;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Validates the job parameters necessary to execute a {@link MultiFileVcfJobConfiguration}
+ * <p>
+ * The steps that load a single file are validated once per VCF in the manifest, as if its path and ID had been
+ * passed as job parameters.
+ */
+public class MultiFileVcfJobParametersValidator extends DefaultJobParametersValidator {
+
+    public MultiFileVcfJobParametersValidator() {
+        super(new String[]{JobParametersNames.INPUT_VCF_MANIFEST}, new String[]{});
+    }
+
+    @Override
+    public void validate(JobParameters parameters) throws JobParametersInvalidException {
+        super.validate(parameters);
+        new InputVcfManifestValidator().validate(parameters);
+
+        VcfManifest manifest;
+        try {
+            manifest = VcfManifest.read(Paths.get(parameters.getString(JobParametersNames.INPUT_VCF_MANIFEST)));
+        } catch (IOException e) {
+            throw new JobParametersInvalidException(e.getMessage());
+        }
+
+        CompositeJobParametersValidator fileValidator = fileCompositeJobParametersValidator(parameters);
+        for (VcfManifest.Entry entry : manifest.getEntries()) {
+            fileValidator.validate(fileParameters(parameters, entry));
+        }
+
+        studyCompositeJobParametersValidator(parameters).validate(parameters);
+    }
+
+    private JobParameters fileParameters(JobParameters jobParameters, VcfManifest.Entry entry) {
+        Map<String, JobParameter> parameters = new HashMap<>(jobParameters.getParameters());
+        parameters.put(JobParametersNames.INPUT_VCF, new JobParameter(entry.getVcf()));
+        parameters.put(JobParametersNames.INPUT_VCF_ID, new JobParameter(entry.getVcfId()));
+        return new JobParameters(parameters);
+    }
+
+    private CompositeJobParametersValidator fileCompositeJobParametersValidator(JobParameters jobParameters) {
+        List<JobParametersValidator> jobParametersValidators = new ArrayList<>();
+
+        jobParametersValidators.add(new LoadVariantsStepParametersValidator());
+        jobParametersValidators.add(new LoadFileStepParametersValidator());
+
+        Boolean skipStats = Boolean.valueOf(jobParameters.getString(JobParametersNames.STATISTICS_SKIP));
+        if (!skipStats) {
+            jobParametersValidators.add(new CalculateStatisticsStepParametersValidator());
+            jobParametersValidators.add(new LoadStatisticsStepParametersValidator());
+        }
+
+        CompositeJobParametersValidator compositeJobParametersValidator = new CompositeJobParametersValidator();
+        compositeJobParametersValidator.setValidators(jobParametersValidators);
+        return compositeJobParametersValidator;
+    }
+
+    private CompositeJobParametersValidator studyCompositeJobParametersValidator(JobParameters jobParameters) {
+        List<JobParametersValidator> jobParametersValidators = new ArrayList<>();
+
+        jobParametersValidators.add(
+                new OptionalValidator(new ConfigParallelismValidator(), JobParametersNames.CONFIG_PARALLELISM));
+        jobParametersValidators.add(
+                new OptionalValidator(new ConfigPartitionsRemoteValidator(),
+                                      JobParametersNames.CONFIG_PARTITIONS_REMOTE));
+        jobParametersValidators.add(
+                new OptionalValidator(new ConfigPartitionsLeaseTimeoutValidator(),
+                                      JobParametersNames.CONFIG_PARTITIONS_LEASE_TIMEOUT));
+
+        Boolean skipAnnotation = Boolean.valueOf(jobParameters.getString(JobParametersNames.ANNOTATION_SKIP));
+        if (!skipAnnotation) {
+            // the whole study is annotated at once, so a file ID is not needed. The study ID is checked with the files
+            boolean studyIdRequired = false;
+
+            jobParametersValidators.add(new GenerateVepAnnotationStepParametersValidator(studyIdRequired));
+            jobParametersValidators.add(new AnnotationMetadataStepParametersValidator());
+        }
+
+        CompositeJobParametersValidator compositeJobParametersValidator = new CompositeJobParametersValidator();
+        compositeJobParametersValidator.setValidators(jobParametersValidators);
+        return compositeJobParametersValidator;
+    }
+
+}
@@ -21,9 +21,11 @@ import org.springframework.batch.core.JobParametersValidator;
 import org.springframework.batch.core.job.CompositeJobParametersValidator;
 import org.springframework.batch.core.job.DefaultJobParametersValidator;
 
+import uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.SamplesEncoding;
 import uk.ac.ebi.eva.pipeline.jobs.steps.tasklets.CalculateStatisticsTasklet;
 import uk.ac.ebi.eva.pipeline.parameters.JobParametersNames;
 import uk.ac.ebi.eva.pipeline.parameters.validation.DbNameValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.InputRegionValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.InputStudyIdValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.InputVcfIdValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.OptionalValidator;
@@ -51,6 +53,20 @@ public class CalculateStatisticsStepParametersValidator extends DefaultJobParame
     public void validate(JobParameters parameters) throws JobParametersInvalidException {
         super.validate(parameters);
         compositeJobParametersValidator().validate(parameters);
+
+        // the statistics are calculated by OpenCGA, which only reads the samples stored as arrays in the variants
+        if (parameters.getString(JobParametersNames.DB_COLLECTIONS_GENOTYPES_NAME) != null) {
+            throw new JobParametersInvalidException(
+                    String.format("Statistics can't be calculated for samples stored in %s",
+                                  JobParametersNames.DB_COLLECTIONS_GENOTYPES_NAME));
+        }
+
+        String samplesEncoding = parameters.getString(JobParametersNames.DB_VARIANTS_SAMPLES_ENCODING);
+        if (SamplesEncoding.BINARY.name().equals(samplesEncoding)) {
+            throw new JobParametersInvalidException(
+                    String.format("Statistics can't be calculated for samples stored with %s %s",
+                                  JobParametersNames.DB_VARIANTS_SAMPLES_ENCODING, SamplesEncoding.BINARY));
+        }
     }
 
     private CompositeJobParametersValidator compositeJobParametersValidator() {
@@ -59,7 +75,8 @@ public class CalculateStatisticsStepParametersValidator extends DefaultJobParame
                 new DbNameValidator(),
                 new InputStudyIdValidator(),
                 new InputVcfIdValidator(),
-                new OutputDirStatisticsValidator()
+                new OutputDirStatisticsValidator(),
+                new OptionalValidator(new InputRegionValidator(), JobParametersNames.INPUT_REGION)
         );
 
         CompositeJobParametersValidator compositeJobParametersValidator = new CompositeJobParametersValidator();
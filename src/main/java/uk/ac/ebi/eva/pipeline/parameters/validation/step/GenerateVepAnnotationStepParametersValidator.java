@@ -23,20 +23,27 @@ import org.springframework.batch.core.job.DefaultJobParametersValidator;
 
 import uk.ac.ebi.eva.pipeline.configuration.jobs.steps.GenerateVepAnnotationStepConfiguration;
 import uk.ac.ebi.eva.pipeline.parameters.JobParametersNames;
+import uk.ac.ebi.eva.pipeline.parameters.validation.AnnotationIntergenicDistanceValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.AnnotationOverwriteValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.ConfigCheckpointIntervalValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.ConfigChunkSizeValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.ConfigJfrEventsValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.DbCollectionsVariantsNameValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.DbNameValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.InputFastaValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.InputRegionValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.InputStudyIdValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.InputVcfIdValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.OptionalValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.OutputBsonCompressValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.OutputDirAnnotationValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.OutputDirBsonValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.VepCachePathValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.VepCacheSpeciesValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.VepCacheVersionValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.VepNumForksValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.VepPathValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.VepSpoolRetentionValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.VepTimeoutValidator;
 
 import java.util.ArrayList;
@@ -89,7 +96,16 @@ public class GenerateVepAnnotationStepParametersValidator extends DefaultJobPara
                 new VepNumForksValidator(),
                 new VepPathValidator(),
                 new VepTimeoutValidator(),
-                new OptionalValidator(new ConfigChunkSizeValidator(), JobParametersNames.CONFIG_CHUNK_SIZE)
+                new OptionalValidator(new ConfigChunkSizeValidator(), JobParametersNames.CONFIG_CHUNK_SIZE),
+                new OptionalValidator(new ConfigCheckpointIntervalValidator(),
+                                      JobParametersNames.CONFIG_CHECKPOINT_INTERVAL),
+                new OptionalValidator(new ConfigJfrEventsValidator(), JobParametersNames.CONFIG_JFR_EVENTS),
+                new OptionalValidator(new VepSpoolRetentionValidator(), JobParametersNames.APP_VEP_SPOOL_RETENTION),
+                new OptionalValidator(new AnnotationIntergenicDistanceValidator(),
+                                      JobParametersNames.ANNOTATION_INTERGENIC_DISTANCE),
+                new OptionalValidator(new InputRegionValidator(), JobParametersNames.INPUT_REGION),
+                new OptionalValidator(new OutputDirBsonValidator(), JobParametersNames.OUTPUT_DIR_BSON),
+                new OptionalValidator(new OutputBsonCompressValidator(), JobParametersNames.OUTPUT_BSON_COMPRESS)
         );
 
         if (isStudyIdRequired) {
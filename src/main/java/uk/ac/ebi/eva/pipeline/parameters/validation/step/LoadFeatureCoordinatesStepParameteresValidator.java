@@ -23,7 +23,9 @@ import org.springframework.batch.core.job.DefaultJobParametersValidator;
 
 import uk.ac.ebi.eva.pipeline.configuration.jobs.steps.LoadFeatureCoordinatesStepConfiguration;
 import uk.ac.ebi.eva.pipeline.parameters.JobParametersNames;
+import uk.ac.ebi.eva.pipeline.parameters.validation.ConfigCheckpointIntervalValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.ConfigChunkSizeValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.ConfigJfrEventsValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.ConfigRestartabilityAllowValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.DbCollectionsFeaturesNameValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.DbNameValidator;
@@ -58,7 +60,10 @@ public class LoadFeatureCoordinatesStepParameteresValidator extends DefaultJobPa
                 new InputGtfValidator(),
                 new OptionalValidator(new ConfigRestartabilityAllowValidator(),
                                       JobParametersNames.CONFIG_RESTARTABILITY_ALLOW),
-                new OptionalValidator(new ConfigChunkSizeValidator(), JobParametersNames.CONFIG_CHUNK_SIZE)
+                new OptionalValidator(new ConfigChunkSizeValidator(), JobParametersNames.CONFIG_CHUNK_SIZE),
+                new OptionalValidator(new ConfigCheckpointIntervalValidator(),
+                                      JobParametersNames.CONFIG_CHECKPOINT_INTERVAL),
+                new OptionalValidator(new ConfigJfrEventsValidator(), JobParametersNames.CONFIG_JFR_EVENTS)
         );
 
         CompositeJobParametersValidator compositeJobParametersValidator = new CompositeJobParametersValidator();
@@ -31,6 +31,9 @@ import uk.ac.ebi.eva.pipeline.parameters.validation.InputStudyTypeValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.InputVcfAggregationValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.InputVcfIdValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.InputVcfValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.OptionalValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.OutputBsonCompressValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.OutputDirBsonValidator;
 
 import java.util.Arrays;
 import java.util.List;
@@ -67,7 +70,9 @@ public class LoadFileStepParametersValidator extends DefaultJobParametersValidat
                 new InputStudyTypeValidator(),
                 new InputVcfValidator(),
                 new InputVcfIdValidator(),
-                new InputVcfAggregationValidator()
+                new InputVcfAggregationValidator(),
+                new OptionalValidator(new OutputDirBsonValidator(), JobParametersNames.OUTPUT_DIR_BSON),
+                new OptionalValidator(new OutputBsonCompressValidator(), JobParametersNames.OUTPUT_BSON_COMPRESS)
         );
 
         CompositeJobParametersValidator compositeJobParametersValidator = new CompositeJobParametersValidator();
@@ -26,6 +26,7 @@ import uk.ac.ebi.eva.pipeline.parameters.JobParametersNames;
 import uk.ac.ebi.eva.pipeline.parameters.validation.DbCollectionsFilesNameValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.DbCollectionsVariantsNameValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.DbNameValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.InputRegionValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.InputStudyIdValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.InputVcfIdValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.OptionalValidator;
@@ -65,7 +66,8 @@ public class LoadStatisticsStepParametersValidator extends DefaultJobParametersV
                 new InputStudyIdValidator(),
                 new InputVcfIdValidator(),
                 new OutputDirStatisticsValidator(),
-                new OptionalValidator(new StatisticsOverwriteValidator(), JobParametersNames.STATISTICS_OVERWRITE)
+                new OptionalValidator(new StatisticsOverwriteValidator(), JobParametersNames.STATISTICS_OVERWRITE),
+                new OptionalValidator(new InputRegionValidator(), JobParametersNames.INPUT_REGION)
         );
 
         CompositeJobParametersValidator compositeJobParametersValidator = new CompositeJobParametersValidator();
@@ -23,16 +23,26 @@ import org.springframework.batch.core.job.DefaultJobParametersValidator;
 
 import uk.ac.ebi.eva.pipeline.configuration.jobs.steps.LoadVariantsStepConfiguration;
 import uk.ac.ebi.eva.pipeline.parameters.JobParametersNames;
+import uk.ac.ebi.eva.pipeline.parameters.validation.ConfigCheckpointIntervalValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.ConfigChunkSizeValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.ConfigJfrEventsValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.ConfigRestartabilityAllowValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.DbCollectionsGenotypesNameValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.DbCollectionsVariantsNameValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.DbNameValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.DbVariantsSamplesEncodingValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.InputStudyIdValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.InputVcfAggregationMappingPathValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.InputVcfAggregationValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.InputVcfIdValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.InputVcfInfoExcludeValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.InputVcfInfoIncludeValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.InputVcfSortValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.InputVcfSourceLineValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.InputVcfValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.OptionalValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.OutputBsonCompressValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.OutputDirBsonValidator;
 
 import java.util.Arrays;
 import java.util.List;
@@ -70,9 +80,22 @@ public class LoadVariantsStepParametersValidator extends DefaultJobParametersVal
                 new InputVcfAggregationValidator(),
                 new OptionalValidator(new InputVcfAggregationMappingPathValidator(),
                         JobParametersNames.INPUT_VCF_AGGREGATION_MAPPING_PATH),
+                new OptionalValidator(new InputVcfSourceLineValidator(), JobParametersNames.INPUT_VCF_SOURCE_LINE),
+                new OptionalValidator(new InputVcfInfoIncludeValidator(), JobParametersNames.INPUT_VCF_INFO_INCLUDE),
+                new OptionalValidator(new InputVcfInfoExcludeValidator(), JobParametersNames.INPUT_VCF_INFO_EXCLUDE),
+                new OptionalValidator(new InputVcfSortValidator(), JobParametersNames.INPUT_VCF_SORT),
+                new OptionalValidator(new DbCollectionsGenotypesNameValidator(),
+                                      JobParametersNames.DB_COLLECTIONS_GENOTYPES_NAME),
+                new OptionalValidator(new DbVariantsSamplesEncodingValidator(),
+                                      JobParametersNames.DB_VARIANTS_SAMPLES_ENCODING),
                 new OptionalValidator(new ConfigChunkSizeValidator(), JobParametersNames.CONFIG_CHUNK_SIZE),
+                new OptionalValidator(new ConfigCheckpointIntervalValidator(),
+                                      JobParametersNames.CONFIG_CHECKPOINT_INTERVAL),
+                new OptionalValidator(new ConfigJfrEventsValidator(), JobParametersNames.CONFIG_JFR_EVENTS),
                 new OptionalValidator(new ConfigRestartabilityAllowValidator(),
-                        JobParametersNames.CONFIG_RESTARTABILITY_ALLOW)
+                        JobParametersNames.CONFIG_RESTARTABILITY_ALLOW),
+                new OptionalValidator(new OutputDirBsonValidator(), JobParametersNames.OUTPUT_DIR_BSON),
+                new OptionalValidator(new OutputBsonCompressValidator(), JobParametersNames.OUTPUT_BSON_COMPRESS)
         );
 
         CompositeJobParametersValidator compositeJobParametersValidator = new CompositeJobParametersValidator();
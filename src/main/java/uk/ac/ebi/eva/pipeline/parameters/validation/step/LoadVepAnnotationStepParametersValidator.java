@@ -0,0 +1,94 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.parameters.validation.step;
+
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersInvalidException;
+import org.springframework.batch.core.JobParametersValidator;
+import org.springframework.batch.core.job.CompositeJobParametersValidator;
+import org.springframework.batch.core.job.DefaultJobParametersValidator;
+
+import uk.ac.ebi.eva.pipeline.configuration.jobs.steps.LoadVepAnnotationStepConfiguration;
+import uk.ac.ebi.eva.pipeline.parameters.JobParametersNames;
+import uk.ac.ebi.eva.pipeline.parameters.validation.ConfigCheckpointIntervalValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.ConfigChunkSizeValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.ConfigJfrEventsValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.ConfigParallelismValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.ConfigPartitionsLeaseTimeoutValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.ConfigPartitionsRemoteValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.DbCollectionsAnnotationsNameValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.DbCollectionsVariantsNameValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.DbNameValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.InputAnnotationValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.OptionalValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.OutputBsonCompressValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.OutputDirBsonValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.VepCacheVersionValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.VepVersionValidator;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Validates the job parameters necessary to execute a {@link LoadVepAnnotationStepConfiguration}
+ * <p>
+ * The VEP and cache versions can't be read from the VEP output files, so they must be provided to identify the
+ * annotations.
+ */
+public class LoadVepAnnotationStepParametersValidator extends DefaultJobParametersValidator {
+
+    public LoadVepAnnotationStepParametersValidator() {
+        super(new String[]{JobParametersNames.APP_VEP_CACHE_VERSION,
+                           JobParametersNames.APP_VEP_VERSION,
+                           JobParametersNames.DB_COLLECTIONS_ANNOTATIONS_NAME,
+                           JobParametersNames.DB_COLLECTIONS_VARIANTS_NAME,
+                           JobParametersNames.DB_NAME,
+                           JobParametersNames.INPUT_ANNOTATION},
+              new String[]{});
+    }
+
+    @Override
+    public void validate(JobParameters parameters) throws JobParametersInvalidException {
+        super.validate(parameters);
+        compositeJobParametersValidator().validate(parameters);
+    }
+
+    private CompositeJobParametersValidator compositeJobParametersValidator() {
+        final List<JobParametersValidator> jobParametersValidators = Arrays.asList(
+                new DbCollectionsAnnotationsNameValidator(),
+                new DbCollectionsVariantsNameValidator(),
+                new DbNameValidator(),
+                new InputAnnotationValidator(),
+                new VepCacheVersionValidator(),
+                new VepVersionValidator(),
+                new OptionalValidator(new ConfigChunkSizeValidator(), JobParametersNames.CONFIG_CHUNK_SIZE),
+                new OptionalValidator(new ConfigCheckpointIntervalValidator(),
+                                      JobParametersNames.CONFIG_CHECKPOINT_INTERVAL),
+                new OptionalValidator(new ConfigJfrEventsValidator(), JobParametersNames.CONFIG_JFR_EVENTS),
+                new OptionalValidator(new ConfigParallelismValidator(), JobParametersNames.CONFIG_PARALLELISM),
+                new OptionalValidator(new ConfigPartitionsRemoteValidator(), JobParametersNames.CONFIG_PARTITIONS_REMOTE),
+                new OptionalValidator(new ConfigPartitionsLeaseTimeoutValidator(),
+                                      JobParametersNames.CONFIG_PARTITIONS_LEASE_TIMEOUT),
+                new OptionalValidator(new OutputDirBsonValidator(), JobParametersNames.OUTPUT_DIR_BSON),
+                new OptionalValidator(new OutputBsonCompressValidator(), JobParametersNames.OUTPUT_BSON_COMPRESS)
+        );
+
+        CompositeJobParametersValidator compositeJobParametersValidator = new CompositeJobParametersValidator();
+        compositeJobParametersValidator.setValidators(jobParametersValidators);
+        return compositeJobParametersValidator;
+    }
+
+}
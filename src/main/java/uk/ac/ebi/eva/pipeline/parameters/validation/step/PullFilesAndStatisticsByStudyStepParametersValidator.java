@@ -23,9 +23,18 @@ import org.springframework.batch.core.job.DefaultJobParametersValidator;
 
 import uk.ac.ebi.eva.pipeline.configuration.jobs.steps.PullFilesAndStatisticsByStudyStepConfiguration;
 import uk.ac.ebi.eva.pipeline.parameters.JobParametersNames;
+import uk.ac.ebi.eva.pipeline.parameters.validation.ConfigCheckpointIntervalValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.ConfigChunkSizeValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.ConfigJfrEventsValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.ConfigParallelismValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.ConfigPartitionsLeaseTimeoutValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.ConfigPartitionsRemoteValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.ConfigRestartabilityAllowValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.ConfigWriteRateLimitValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.DbCollectionsGenotypesNameValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.DbCollectionsVariantsNameValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.DbNameValidator;
+import uk.ac.ebi.eva.pipeline.parameters.validation.InputRegionValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.InputStudyIdValidator;
 import uk.ac.ebi.eva.pipeline.parameters.validation.OptionalValidator;
 
@@ -56,7 +65,19 @@ public class PullFilesAndStatisticsByStudyStepParametersValidator extends Defaul
                 new DbCollectionsVariantsNameValidator(),
                 new DbNameValidator(),
                 new InputStudyIdValidator(),
-                new OptionalValidator(new ConfigRestartabilityAllowValidator(), JobParametersNames.CONFIG_RESTARTABILITY_ALLOW)
+                new OptionalValidator(new ConfigRestartabilityAllowValidator(), JobParametersNames.CONFIG_RESTARTABILITY_ALLOW),
+                new OptionalValidator(new ConfigChunkSizeValidator(), JobParametersNames.CONFIG_CHUNK_SIZE),
+                new OptionalValidator(new ConfigCheckpointIntervalValidator(),
+                                      JobParametersNames.CONFIG_CHECKPOINT_INTERVAL),
+                new OptionalValidator(new ConfigJfrEventsValidator(), JobParametersNames.CONFIG_JFR_EVENTS),
+                new OptionalValidator(new ConfigParallelismValidator(), JobParametersNames.CONFIG_PARALLELISM),
+                new OptionalValidator(new ConfigWriteRateLimitValidator(), JobParametersNames.CONFIG_WRITE_RATE_LIMIT),
+                new OptionalValidator(new InputRegionValidator(), JobParametersNames.INPUT_REGION),
+                new OptionalValidator(new DbCollectionsGenotypesNameValidator(),
+                                      JobParametersNames.DB_COLLECTIONS_GENOTYPES_NAME),
+                new OptionalValidator(new ConfigPartitionsRemoteValidator(), JobParametersNames.CONFIG_PARTITIONS_REMOTE),
+                new OptionalValidator(new ConfigPartitionsLeaseTimeoutValidator(),
+                                      JobParametersNames.CONFIG_PARTITIONS_LEASE_TIMEOUT)
         );
 
         CompositeJobParametersValidator compositeJobParametersValidator = new CompositeJobParametersValidator();
@@ -19,9 +19,11 @@ package uk.ac.ebi.eva.pipeline.runner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.JobExecutionException;
 import org.springframework.batch.core.JobParameters;
 import org.springframework.batch.core.JobParametersInvalidException;
+import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.JobRegistry;
 import org.springframework.batch.core.converter.DefaultJobParametersConverter;
 import org.springframework.batch.core.converter.JobParametersConverter;
@@ -42,6 +44,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.PatternMatchUtils;
 import org.springframework.util.StringUtils;
 
+import uk.ac.ebi.eva.pipeline.jobs.steps.partitioners.JobRepositoryPartitionHandler;
+import uk.ac.ebi.eva.pipeline.jobs.steps.partitioners.PartitionWorker;
 import uk.ac.ebi.eva.pipeline.parameters.JobParametersNames;
 import uk.ac.ebi.eva.pipeline.runner.exceptions.NoJobToExecuteException;
 import uk.ac.ebi.eva.pipeline.runner.exceptions.NoParametersHaveBeenPassedException;
@@ -51,16 +55,25 @@ import uk.ac.ebi.eva.pipeline.runner.exceptions.UnexpectedErrorReadingFileExcept
 import uk.ac.ebi.eva.pipeline.runner.exceptions.UnexpectedFileEncodingException;
 import uk.ac.ebi.eva.pipeline.runner.exceptions.UnknownJobException;
 
+import javax.sql.DataSource;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class is a modified version of the default JobLauncherCommandLineRunner.
@@ -69,6 +82,10 @@ import java.util.Properties;
  * -Job parameters can be passed from command line as normal parameters.
  * -Job parameters can be passed from a properties file by the user.
  * -The user can restart a job that has been run previously marking the previous execution as failed.
+ * -Instead of launching a job, the runner can act as a worker that executes the partitions that other processes
+ * have stored in the job repository, see {@link PartitionWorker}.
+ * -Instead of launching a job, the runner can keep running the jobs submitted to a directory, see
+ * {@link PipelineServer}.
  */
 @Component
 public class EvaPipelineJobLauncherCommandLineRunner extends JobLauncherCommandLineRunner implements
@@ -82,6 +99,8 @@ public class EvaPipelineJobLauncherCommandLineRunner extends JobLauncherCommandL
 
     public static final int EXIT_WITH_ERRORS = 1;
 
+    private static final long SERVER_POLL_INTERVAL_MILLIS = 5000;
+
     @Value("${" + SPRING_BATCH_JOB_NAME_PROPERTY + ":#{null}}")
     private String jobName;
 
@@ -91,23 +110,55 @@ public class EvaPipelineJobLauncherCommandLineRunner extends JobLauncherCommandL
     @Value("${" + JobParametersNames.RESTART_PROPERTY + ":false}")
     private boolean restartPreviousExecution;
 
+    @Value("${" + JobParametersNames.PARTITION_WORKER_PROPERTY + ":false}")
+    private boolean partitionWorker;
+
+    @Value("${" + JobParametersNames.PARTITION_WORKER_THREADS_PROPERTY + ":1}")
+    private int partitionWorkerThreads;
+
+    @Value("${" + JobParametersNames.PARTITION_WORKER_IDLE_TIMEOUT_PROPERTY + ":0}")
+    private long partitionWorkerIdleTimeout;
+
+    @Value("${" + JobParametersNames.SERVER_DIRECTORY_PROPERTY + ":#{null}}")
+    private String serverDirectory;
+
+    @Value("${" + JobParametersNames.SERVER_PARALLELISM_PROPERTY + ":1}")
+    private int serverParallelism;
+
+    private ExecutionRecordingJobLauncher jobLauncher;
+
     private Collection<Job> jobs;
 
+    private Collection<Step> steps;
+
+    private JobExplorer jobExplorer;
+
     private JobRepository jobRepository;
 
     private JobRegistry jobRegistry;
 
     private JobParametersConverter converter;
 
+    private DataSource dataSource;
+
     @Autowired
     private JobExecutionApplicationListener jobExecutionApplicationListener;
 
     private boolean abnormalExit;
 
+    @Autowired
     public EvaPipelineJobLauncherCommandLineRunner(JobLauncher jobLauncher, JobExplorer jobExplorer,
                                                    JobRepository jobRepository) {
+        this(new ExecutionRecordingJobLauncher(jobLauncher), jobExplorer, jobRepository);
+    }
+
+    private EvaPipelineJobLauncherCommandLineRunner(ExecutionRecordingJobLauncher jobLauncher,
+                                                    JobExplorer jobExplorer, JobRepository jobRepository) {
         super(jobLauncher, jobExplorer);
         jobs = Collections.emptySet();
+        steps = Collections.emptySet();
+        this.jobLauncher = jobLauncher;
+        this.jobExplorer = jobExplorer;
         this.jobRepository = jobRepository;
         abnormalExit = false;
         converter = new DefaultJobParametersConverter();
@@ -124,11 +175,21 @@ public class EvaPipelineJobLauncherCommandLineRunner extends JobLauncherCommandL
         this.converter = converter;
     }
 
+    @Autowired
+    public void setDataSource(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
     @Autowired(required = false)
     public void setJobs(Collection<Job> jobs) {
         this.jobs = jobs;
     }
 
+    @Autowired(required = false)
+    public void setSteps(Collection<Step> steps) {
+        this.steps = steps;
+    }
+
     @Override
     public void setJobNames(String jobName) {
         this.jobName = jobName;
@@ -141,7 +202,9 @@ public class EvaPipelineJobLauncherCommandLineRunner extends JobLauncherCommandL
 
     @Override
     public int getExitCode() {
-        if (!abnormalExit && jobExecutionApplicationListener.isJobExecutionComplete()) {
+        if (partitionWorker || serverDirectory != null) {
+            return abnormalExit ? EXIT_WITH_ERRORS : EXIT_WITHOUT_ERRORS;
+        } else if (!abnormalExit && jobExecutionApplicationListener.isJobExecutionComplete()) {
             return EXIT_WITHOUT_ERRORS;
         } else {
             return EXIT_WITH_ERRORS;
@@ -153,6 +216,15 @@ public class EvaPipelineJobLauncherCommandLineRunner extends JobLauncherCommandL
         try {
             abnormalExit = false;
 
+            if (partitionWorker) {
+                runPartitionWorkers();
+                return;
+            }
+            if (serverDirectory != null) {
+                runServer();
+                return;
+            }
+
             Properties commandLineProperties = getJobParametersFromCommandLine(args)
                     .orElseThrow(NoParametersHaveBeenPassedException::new);
 
@@ -182,13 +254,23 @@ public class EvaPipelineJobLauncherCommandLineRunner extends JobLauncherCommandL
         properties.putAll(fileProperties);
         properties.putAll(commandLineProperties);
 
-        // Filter all runner specific parameters
+        removeRunnerProperties(properties);
+        return converter.getJobParameters(properties);
+
+    }
+
+    /**
+     * Filter all runner specific parameters
+     */
+    static void removeRunnerProperties(Properties properties) {
         properties.remove(SPRING_BATCH_JOB_NAME_PROPERTY);
         properties.remove(JobParametersNames.PROPERTY_FILE_PROPERTY);
         properties.remove(JobParametersNames.RESTART_PROPERTY);
-
-        return converter.getJobParameters(properties);
-
+        properties.remove(JobParametersNames.PARTITION_WORKER_PROPERTY);
+        properties.remove(JobParametersNames.PARTITION_WORKER_THREADS_PROPERTY);
+        properties.remove(JobParametersNames.PARTITION_WORKER_IDLE_TIMEOUT_PROPERTY);
+        properties.remove(JobParametersNames.SERVER_DIRECTORY_PROPERTY);
+        properties.remove(JobParametersNames.SERVER_PARALLELISM_PROPERTY);
     }
 
     private void configureLauncherPropertiesFromFileProperties(Properties fileProperties) {
@@ -210,32 +292,97 @@ public class EvaPipelineJobLauncherCommandLineRunner extends JobLauncherCommandL
     }
 
     private void launchJob(JobParameters jobParameters) throws JobExecutionException, UnknownJobException {
+        execute(getJob(jobName), jobParameters);
+    }
+
+    private Job getJob(String name) throws UnknownJobException {
         for (Job job : this.jobs) {
-            if (PatternMatchUtils.simpleMatch(jobName, job.getName())) {
-                execute(job, jobParameters);
-                return;
+            if (PatternMatchUtils.simpleMatch(name, job.getName())) {
+                return job;
             }
         }
 
         if (this.jobRegistry != null) {
             try {
-                execute(jobRegistry.getJob(jobName), jobParameters);
+                return jobRegistry.getJob(name);
             } catch (NoSuchJobException ex) {
-                logger.error("No job found in registry for job name: " + jobName);
+                logger.error("No job found in registry for job name: " + name);
             }
         }
 
-        throw new UnknownJobException(jobName);
+        throw new UnknownJobException(name);
     }
 
     @Override
     protected void execute(Job job, JobParameters jobParameters) throws JobExecutionAlreadyRunningException,
             JobRestartException, JobInstanceAlreadyCompleteException, JobParametersInvalidException,
             JobParametersNotFoundException {
-        logger.info("Running job '" + jobName + "' with parameters: " + jobParameters);
+        logger.info("Running job '" + job.getName() + "' with parameters: " + jobParameters);
         super.execute(job, jobParameters);
     }
 
+    /**
+     * Launches a job submitted to a {@link PipelineServer} in the same way as a job passed in the command line: the
+     * parameters of a failed execution are reused, the incrementer of the job creates new instances, and the
+     * previous execution is marked as failed first if the submission includes the restart property.
+     *
+     * @return the execution of the job, or null if it was not launched
+     */
+    JobExecution launchSubmission(String submittedJobName, Properties properties) throws JobExecutionException,
+            UnknownJobException, NoPreviousJobExecutionException {
+        boolean restart = Boolean.parseBoolean(properties.getProperty(JobParametersNames.RESTART_PROPERTY));
+        removeRunnerProperties(properties);
+        JobParameters jobParameters = converter.getJobParameters(properties);
+
+        Job job = getJob(submittedJobName);
+        if (restart) {
+            logger.info("Force restartPreviousExecution of job '" + submittedJobName + "' with parameters: " +
+                        jobParameters);
+            ManageJobsUtils.markLastJobAsFailed(jobRepository, submittedJobName, jobParameters);
+        }
+        jobLauncher.clearLastExecution();
+        execute(job, jobParameters);
+        return jobLauncher.getLastExecution();
+    }
+
+    private void runPartitionWorkers() {
+        logger.info("Running " + partitionWorkerThreads + " partition workers");
+        PartitionWorker worker = new PartitionWorker(jobExplorer, jobRepository, dataSource, steps);
+        long idleTimeoutMillis = TimeUnit.SECONDS.toMillis(partitionWorkerIdleTimeout);
+
+        ExecutorService executor = Executors.newFixedThreadPool(partitionWorkerThreads);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < partitionWorkerThreads; i++) {
+            workers.add(executor.submit(() -> {
+                worker.run(idleTimeoutMillis, JobRepositoryPartitionHandler.DEFAULT_POLL_INTERVAL_MILLIS);
+                return null;
+            }));
+        }
+        executor.shutdown();
+
+        try {
+            for (Future<?> future : workers) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.error("Partition worker failed", e.getCause());
+            executor.shutdownNow();
+            abnormalExit = true;
+        }
+    }
+
+    private void runServer() {
+        try {
+            new PipelineServer(Paths.get(serverDirectory), serverParallelism, this).run(SERVER_POLL_INTERVAL_MILLIS);
+        } catch (IOException e) {
+            logger.error("Jobs submitted to " + serverDirectory + " can not be read", e);
+            abnormalExit = true;
+        }
+    }
+
     private void restartPreviousJobExecution(JobParameters jobParameters) throws
             NoPreviousJobExecutionException {
         logger.info("Force restartPreviousExecution of job '" + jobName + "' with parameters: " + jobParameters);
@@ -292,4 +439,34 @@ public class EvaPipelineJobLauncherCommandLineRunner extends JobLauncherCommandL
         return properties;
     }
 
+    /**
+     * Remembers the execution launched by each thread, because the launcher of the superclass doesn't return it.
+     */
+    private static class ExecutionRecordingJobLauncher implements JobLauncher {
+
+        private final JobLauncher jobLauncher;
+
+        private final ThreadLocal<JobExecution> lastExecution = new ThreadLocal<>();
+
+        ExecutionRecordingJobLauncher(JobLauncher jobLauncher) {
+            this.jobLauncher = jobLauncher;
+        }
+
+        @Override
+        public JobExecution run(Job job, JobParameters jobParameters) throws JobExecutionAlreadyRunningException,
+                JobRestartException, JobInstanceAlreadyCompleteException, JobParametersInvalidException {
+            JobExecution jobExecution = jobLauncher.run(job, jobParameters);
+            lastExecution.set(jobExecution);
+            return jobExecution;
+        }
+
+        JobExecution getLastExecution() {
+            return lastExecution.get();
+        }
+
+        void clearLastExecution() {
+            lastExecution.remove();
+        }
+    }
+
 }
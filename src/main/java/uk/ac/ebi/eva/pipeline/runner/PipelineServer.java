@@ -0,0 +1,216 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.runner;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static uk.ac.ebi.eva.pipeline.runner.EvaPipelineJobLauncherCommandLineRunner.SPRING_BATCH_JOB_NAME_PROPERTY;
+
+/**
+ * Runs the jobs submitted to a directory, reusing the same application context, and so the same Mongo clients and
+ * job repository connections, for all of them.
+ * <p>
+ * Every file with the extension ".properties" in the directory is a submission, written in the same format as the
+ * file passed with the "parameters.path" option, including the name of the job. Submissions are taken in
+ * alphabetical order and moved to the "running" subdirectory, and then to "completed" or "failed" when their job
+ * finishes. Only a limited number of jobs run at the same time; the rest of the submissions wait in the directory.
+ * <p>
+ * Jobs are launched in the same way as from the command line, see
+ * {@link EvaPipelineJobLauncherCommandLineRunner#launchSubmission}, so submitting the same file again restarts its
+ * failed job or starts a new instance of a completed one.
+ * <p>
+ * Files should be written with another extension and then renamed, so that a submission is never read before it has
+ * been completely written.
+ */
+public class PipelineServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(PipelineServer.class);
+
+    public static final String SUBMISSION_EXTENSION = ".properties";
+
+    public static final String RUNNING_DIRECTORY = "running";
+
+    public static final String COMPLETED_DIRECTORY = "completed";
+
+    public static final String FAILED_DIRECTORY = "failed";
+
+    private final Path directory;
+
+    private final EvaPipelineJobLauncherCommandLineRunner runner;
+
+    private final Semaphore availableJobs;
+
+    private final ExecutorService jobExecutor;
+
+    public PipelineServer(Path directory, int parallelism, EvaPipelineJobLauncherCommandLineRunner runner)
+            throws IOException {
+        this.directory = directory;
+        this.runner = runner;
+        this.availableJobs = new Semaphore(parallelism);
+        this.jobExecutor = Executors.newFixedThreadPool(parallelism);
+
+        Files.createDirectories(directory.resolve(RUNNING_DIRECTORY));
+        Files.createDirectories(directory.resolve(COMPLETED_DIRECTORY));
+        Files.createDirectories(directory.resolve(FAILED_DIRECTORY));
+        warnAboutInterruptedSubmissions();
+    }
+
+    private void warnAboutInterruptedSubmissions() throws IOException {
+        for (Path submission : listSubmissions(directory.resolve(RUNNING_DIRECTORY))) {
+            logger.warn("Submission {} was running when a previous server stopped, submit it again to restart it",
+                        submission);
+        }
+    }
+
+    /**
+     * Launches the jobs submitted to the directory until the thread is interrupted, and then waits until the jobs
+     * already running finish.
+     */
+    public void run(long pollIntervalMillis) throws IOException {
+        logger.info("Waiting for jobs submitted to {}", directory);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                submitPendingJobs();
+                Thread.sleep(pollIntervalMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            shutdown();
+        }
+    }
+
+    /**
+     * @return number of jobs launched, limited by the number of jobs that can still run at the same time
+     */
+    public int submitPendingJobs() throws IOException {
+        int launched = 0;
+        for (Path submission : listSubmissions(directory)) {
+            if (!availableJobs.tryAcquire()) {
+                break;
+            }
+            Path running;
+            try {
+                running = moveTo(submission, RUNNING_DIRECTORY);
+            } catch (IOException e) {
+                availableJobs.release();
+                throw e;
+            }
+            try {
+                jobExecutor.execute(() -> runSubmission(running));
+            } catch (RejectedExecutionException e) {
+                // the submission is left as it was, to be taken by the next server
+                availableJobs.release();
+                Files.move(running, submission, StandardCopyOption.REPLACE_EXISTING);
+                throw e;
+            }
+            launched++;
+        }
+        return launched;
+    }
+
+    private List<Path> listSubmissions(Path submissionsDirectory) throws IOException {
+        List<Path> submissions = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(submissionsDirectory,
+                                                                    "*" + SUBMISSION_EXTENSION)) {
+            for (Path file : files) {
+                if (Files.isRegularFile(file)) {
+                    submissions.add(file);
+                }
+            }
+        }
+        Collections.sort(submissions);
+        return submissions;
+    }
+
+    private void runSubmission(Path submission) {
+        boolean completed = false;
+        try {
+            Properties properties = readProperties(submission);
+            String jobName = properties.getProperty(SPRING_BATCH_JOB_NAME_PROPERTY);
+
+            logger.info("Running job '{}' submitted in {}", jobName, submission);
+            JobExecution jobExecution = runner.launchSubmission(jobName, properties);
+            if (jobExecution == null) {
+                logger.error("Job '{}' submitted in {} was not launched", jobName, submission);
+            } else {
+                completed = jobExecution.getStatus() == BatchStatus.COMPLETED;
+                logger.info("Job '{}' submitted in {} finished with status {}", jobName, submission,
+                            jobExecution.getStatus());
+            }
+        } catch (Exception e) {
+            logger.error("Job submitted in " + submission + " could not be run", e);
+        } finally {
+            moveToFinished(submission, completed);
+            availableJobs.release();
+        }
+    }
+
+    private Properties readProperties(Path submission) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(submission)) {
+            properties.load(input);
+        }
+        return properties;
+    }
+
+    private void moveToFinished(Path submission, boolean completed) {
+        try {
+            moveTo(submission, completed ? COMPLETED_DIRECTORY : FAILED_DIRECTORY);
+        } catch (IOException e) {
+            logger.error("Submission " + submission + " could not be moved out of the running directory", e);
+        }
+    }
+
+    private Path moveTo(Path submission, String subdirectory) throws IOException {
+        Path target = directory.resolve(subdirectory).resolve(submission.getFileName());
+        return Files.move(submission, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Stops accepting submissions and waits until the jobs already running finish.
+     */
+    public void shutdown() {
+        jobExecutor.shutdown();
+        try {
+            while (!jobExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+                logger.info("Waiting for running jobs to finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
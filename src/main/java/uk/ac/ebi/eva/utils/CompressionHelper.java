@@ -17,6 +17,8 @@ package uk.ac.ebi.eva.utils;
 
 import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -29,6 +31,15 @@ import java.util.zip.ZipException;
  */
 public class CompressionHelper {
 
+    private static final int ANY_BYTE = -1;
+
+    /**
+     * gzip magic number, deflate, extra field flag, any time, flags and OS, extra length 6 and 'BC' subfield of
+     * length 2
+     */
+    private static final int[] BGZIP_HEADER = {0x1f, 0x8b, 8, 4, ANY_BYTE, ANY_BYTE, ANY_BYTE, ANY_BYTE, ANY_BYTE,
+            ANY_BYTE, 6, 0, 'B', 'C', 2, 0};
+
     public static boolean isGzip(String file) throws IOException {
         return isGzip(new File(file));
     }
@@ -43,6 +54,25 @@ public class CompressionHelper {
         return true;
     }
 
+    /**
+     * Whether the file is compressed with the blocked gzip format (BGZF) written by bgzip, whose gzip members carry
+     * their compressed size in a 'BC' extra subfield.
+     */
+    public static boolean isBgzip(File file) throws IOException {
+        byte[] header = new byte[BGZIP_HEADER.length];
+        try (DataInputStream inputStream = new DataInputStream(new FileInputStream(file))) {
+            inputStream.readFully(header);
+        } catch (EOFException exception) {
+            return false;
+        }
+        for (int i = 0; i < BGZIP_HEADER.length; i++) {
+            if (BGZIP_HEADER[i] != ANY_BYTE && (header[i] & 0xff) != BGZIP_HEADER[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static byte[] gzip(String text) throws IOException {
         ByteArrayOutputStream bos = new ByteArrayOutputStream();
         BufferedOutputStream bufos = new BufferedOutputStream(new GZIPOutputStream(bos));
@@ -15,9 +15,15 @@
  */
 package uk.ac.ebi.eva.utils;
 
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
 import com.mongodb.ServerAddress;
 
 import java.net.UnknownHostException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -30,6 +36,30 @@ public class MongoDBHelper {
 
     public static final String INDEX_NAME = "name";
 
+    public static final int DUPLICATE_KEY_ERROR_CODE = 11000;
+
+    public static final String REPLICA_SET_STATUS_COMMAND = "replSetGetStatus";
+
+    private static final String MEMBERS_FIELD = "members";
+
+    private static final String STATE_FIELD = "stateStr";
+
+    private static final String OPTIME_DATE_FIELD = "optimeDate";
+
+    private static final String ID_FIELD = "_id";
+
+    private static final String SET_ON_INSERT = "$setOnInsert";
+
+    private static final String SET = "$set";
+
+    private static final String ADD_TO_SET = "$addToSet";
+
+    private static final String EACH = "$each";
+
+    private static final String PRIMARY_STATE = "PRIMARY";
+
+    private static final String SECONDARY_STATE = "SECONDARY";
+
     private MongoDBHelper() {
         // Can't be instantiated
     }
@@ -48,4 +78,92 @@ public class MongoDBHelper {
         return serverAddresses;
     }
 
+    /**
+     * @param replicaSetStatus the result of the {@link #REPLICA_SET_STATUS_COMMAND} command
+     * @return milliseconds that the slowest secondary is behind the primary, or 0 if there is no primary or no
+     * secondaries
+     */
+    public static long getReplicationLagMillis(DBObject replicaSetStatus) {
+        Date primaryOptime = null;
+        Date oldestSecondaryOptime = null;
+        Object members = replicaSetStatus.get(MEMBERS_FIELD);
+        if (members instanceof List) {
+            for (Object member : (List<?>) members) {
+                DBObject memberStatus = (DBObject) member;
+                Date optime = (Date) memberStatus.get(OPTIME_DATE_FIELD);
+                String state = (String) memberStatus.get(STATE_FIELD);
+                if (optime == null) {
+                    continue;
+                }
+                if (PRIMARY_STATE.equals(state)) {
+                    primaryOptime = optime;
+                } else if (SECONDARY_STATE.equals(state)
+                        && (oldestSecondaryOptime == null || optime.before(oldestSecondaryOptime))) {
+                    oldestSecondaryOptime = optime;
+                }
+            }
+        }
+        if (primaryOptime == null || oldestSecondaryOptime == null) {
+            return 0;
+        }
+        return Math.max(0, primaryOptime.getTime() - oldestSecondaryOptime.getTime());
+    }
+
+    /**
+     * Builds the document that an upsert inserts when no document matches its query: the fields of the query, then
+     * the fields set by $setOnInsert and $set, and then the sets of $addToSet, without repeated values.
+     *
+     * @throws IllegalArgumentException if the update uses any other operator
+     */
+    public static DBObject buildUpsertedDocument(DBObject query, DBObject update) {
+        BasicDBObject document = new BasicDBObject();
+        document.putAll(query);
+        for (String operator : update.keySet()) {
+            DBObject fields = (DBObject) update.get(operator);
+            if (SET_ON_INSERT.equals(operator) || SET.equals(operator)) {
+                document.putAll(fields);
+            } else if (ADD_TO_SET.equals(operator)) {
+                for (String field : fields.keySet()) {
+                    document.put(field, addToSet((BasicDBList) document.get(field), fields.get(field)));
+                }
+            } else {
+                throw new IllegalArgumentException("Can't build the document of an upsert with " + operator);
+            }
+        }
+        return document;
+    }
+
+    private static BasicDBList addToSet(BasicDBList set, Object value) {
+        BasicDBList result = set == null ? new BasicDBList() : set;
+        Collection<?> values;
+        if (value instanceof DBObject && ((DBObject) value).containsField(EACH)) {
+            values = (Collection<?>) ((DBObject) value).get(EACH);
+        } else {
+            values = Collections.singletonList(value);
+        }
+        for (Object element : values) {
+            if (!result.contains(element)) {
+                result.add(element);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Builds the update that merges a document into another one with the same id, adding the elements of its top
+     * level arrays to the arrays of the existing document, as the $addToSet of the upsert that would have written it.
+     *
+     * @return the update, or null if the document doesn't have any array to add
+     */
+    public static DBObject buildAddToSetUpdate(DBObject document) {
+        BasicDBObject addToSet = new BasicDBObject();
+        for (String field : document.keySet()) {
+            Object value = document.get(field);
+            if (!ID_FIELD.equals(field) && value instanceof Collection) {
+                addToSet.append(field, new BasicDBObject(EACH, value));
+            }
+        }
+        return addToSet.isEmpty() ? null : new BasicDBObject(ADD_TO_SET, addToSet);
+    }
+
 }
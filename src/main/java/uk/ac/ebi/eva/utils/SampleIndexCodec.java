@@ -0,0 +1,215 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.utils;
+
+import com.mongodb.DBObject;
+import org.bson.types.Binary;
+
+import java.io.ByteArrayOutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes a set of sample indices into the compact binary value stored for each genotype in the "samp" subdocument
+ * of the variant files, when the samples are not stored as arrays of integers, and decodes it back.
+ * <p>
+ * Format version 1. Every value starts with the version byte and a layout byte, followed by:
+ * <ul>
+ * <li>{@link #DELTA_VARINT}: the number of indices and then the first index and the differences between each index
+ * and the previous one, all of them as unsigned LEB128 varints (7 bits per byte, least significant group first).</li>
+ * <li>{@link #BITMAP}: one bit per sample, set if the sample is in the set. Sample i is the bit {@code i % 8} (least
+ * significant first) of the byte {@code i / 8}.</li>
+ * </ul>
+ * The encoder writes whichever layout is shorter, so sparse sets are delta encoded and dense ones take a bitmap.
+ */
+public class SampleIndexCodec {
+
+    public static final byte FORMAT_VERSION = 1;
+
+    public static final byte DELTA_VARINT = 0;
+
+    public static final byte BITMAP = 1;
+
+    private static final int HEADER_LENGTH = 2;
+
+    private static final String DEFAULT_GENOTYPE_KEY = "def";
+
+    private SampleIndexCodec() {
+        // Can't be instantiated
+    }
+
+    /**
+     * @param sampleIndices sample indices in strictly ascending order
+     */
+    public static byte[] encode(List<Integer> sampleIndices) {
+        int[] indices = new int[sampleIndices.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = sampleIndices.get(i);
+        }
+        return encode(indices);
+    }
+
+    /**
+     * @param sampleIndices sample indices in strictly ascending order
+     */
+    public static byte[] encode(int[] sampleIndices) {
+        int deltaLength = varintLength(sampleIndices.length);
+        int previous = -1;
+        for (int i = 0; i < sampleIndices.length; i++) {
+            int index = sampleIndices[i];
+            if (index <= previous || index < 0) {
+                throw new IllegalArgumentException("Sample indices must be non-negative and strictly ascending, but "
+                                                           + index + " follows " + previous);
+            }
+            deltaLength += varintLength(i == 0 ? index : index - previous);
+            previous = index;
+        }
+        int bitmapLength = previous / 8 + 1;
+
+        if (bitmapLength < deltaLength) {
+            byte[] encoded = new byte[HEADER_LENGTH + bitmapLength];
+            encoded[0] = FORMAT_VERSION;
+            encoded[1] = BITMAP;
+            for (int index : sampleIndices) {
+                encoded[HEADER_LENGTH + index / 8] |= 1 << (index % 8);
+            }
+            return encoded;
+        } else {
+            ByteArrayOutputStream encoded = new ByteArrayOutputStream(HEADER_LENGTH + deltaLength);
+            encoded.write(FORMAT_VERSION);
+            encoded.write(DELTA_VARINT);
+            writeVarint(encoded, sampleIndices.length);
+            previous = 0;
+            for (int index : sampleIndices) {
+                writeVarint(encoded, index - previous);
+                previous = index;
+            }
+            return encoded.toByteArray();
+        }
+    }
+
+    /**
+     * @return the sample indices in ascending order
+     * @throws IllegalArgumentException if the value is truncated or its format version is not supported
+     */
+    public static int[] decode(byte[] encoded) {
+        if (encoded.length < HEADER_LENGTH) {
+            throw new IllegalArgumentException("Encoded sample indices are too short: " + encoded.length + " bytes");
+        }
+        if (encoded[0] != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported format version of the sample indices: " + encoded[0]);
+        }
+        switch (encoded[1]) {
+            case DELTA_VARINT:
+                return decodeDeltaVarint(encoded);
+            case BITMAP:
+                return decodeBitmap(encoded);
+            default:
+                throw new IllegalArgumentException("Unknown layout of the sample indices: " + encoded[1]);
+        }
+    }
+
+    /**
+     * Decodes the "samp" subdocument of a variant file, whatever the encoding it was stored with.
+     *
+     * @return the sample indices of every genotype but the default one, which is not listed in the subdocument
+     */
+    public static Map<String, int[]> decodeSamples(DBObject samples) {
+        Map<String, int[]> samplesByGenotype = new LinkedHashMap<>();
+        for (String genotype : samples.keySet()) {
+            if (!genotype.equals(DEFAULT_GENOTYPE_KEY)) {
+                samplesByGenotype.put(genotype, decodeValue(samples.get(genotype)));
+            }
+        }
+        return samplesByGenotype;
+    }
+
+    private static int[] decodeValue(Object value) {
+        if (value instanceof byte[]) {
+            return decode((byte[]) value);
+        } else if (value instanceof Binary) {
+            return decode(((Binary) value).getData());
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            int[] indices = new int[list.size()];
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = ((Number) list.get(i)).intValue();
+            }
+            return indices;
+        }
+        throw new IllegalArgumentException("Unexpected value for the sample indices: " + value);
+    }
+
+    private static int[] decodeDeltaVarint(byte[] encoded) {
+        int[] position = {HEADER_LENGTH};
+        int[] indices = new int[readVarint(encoded, position)];
+        int previous = 0;
+        for (int i = 0; i < indices.length; i++) {
+            previous += readVarint(encoded, position);
+            indices[i] = previous;
+        }
+        return indices;
+    }
+
+    private static int[] decodeBitmap(byte[] encoded) {
+        int count = 0;
+        for (int i = HEADER_LENGTH; i < encoded.length; i++) {
+            count += Integer.bitCount(encoded[i] & 0xff);
+        }
+        int[] indices = new int[count];
+        int next = 0;
+        for (int i = HEADER_LENGTH; i < encoded.length; i++) {
+            int bits = encoded[i] & 0xff;
+            while (bits != 0) {
+                indices[next++] = (i - HEADER_LENGTH) * 8 + Integer.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return indices;
+    }
+
+    private static int varintLength(int value) {
+        int length = 1;
+        while ((value >>>= 7) != 0) {
+            length++;
+        }
+        return length;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream output, int value) {
+        while ((value & ~0x7f) != 0) {
+            output.write((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        output.write(value);
+    }
+
+    private static int readVarint(byte[] encoded, int[] position) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            if (position[0] >= encoded.length) {
+                throw new IllegalArgumentException("Encoded sample indices are truncated");
+            }
+            byte b = encoded[position[0]++];
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in the encoded sample indices");
+    }
+}
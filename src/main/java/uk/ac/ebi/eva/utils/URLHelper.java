@@ -15,6 +15,8 @@
  */
 package uk.ac.ebi.eva.utils;
 
+import uk.ac.ebi.eva.pipeline.model.Region;
+
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.Paths;
@@ -27,6 +29,8 @@ public class URLHelper {
 
     public static final String ANNOTATED_VARIANTS_SUFFIX = "_vep_annotation.tsv.gz";
 
+    public static final String VEP_SPOOL_SUFFIX = "_vep_spool";
+
     public static URI createUri(String input) throws URISyntaxException {
         URI sourceUri = new URI(input);
         if (sourceUri.getScheme() == null || sourceUri.getScheme().isEmpty()) {
@@ -36,18 +40,37 @@ public class URLHelper {
     }
 
     public static URI getVariantsStatsUri(String outputDirStatistics, String studyId, String fileId) throws URISyntaxException {
+        return getVariantsStatsUri(outputDirStatistics, studyId, fileId, null);
+    }
+
+    public static URI getVariantsStatsUri(String outputDirStatistics, String studyId, String fileId, Region region)
+            throws URISyntaxException {
         return URLHelper.createUri(
-                getStatsBaseUri(outputDirStatistics, studyId, fileId).getPath() + VARIANT_STATS_SUFFIX);
+                getStatsBaseUri(outputDirStatistics, studyId, fileId, region).getPath() + VARIANT_STATS_SUFFIX);
     }
 
     public static URI getSourceStatsUri(String outputDirStatistics, String studyId, String fileId) throws URISyntaxException {
+        return getSourceStatsUri(outputDirStatistics, studyId, fileId, null);
+    }
+
+    public static URI getSourceStatsUri(String outputDirStatistics, String studyId, String fileId, Region region)
+            throws URISyntaxException {
         return URLHelper.createUri(
-                getStatsBaseUri(outputDirStatistics, studyId, fileId).getPath() + SOURCE_STATS_SUFFIX);
+                getStatsBaseUri(outputDirStatistics, studyId, fileId, region).getPath() + SOURCE_STATS_SUFFIX);
     }
 
     public static URI getStatsBaseUri(String outputDirStatistics, String studyId, String fileId) throws URISyntaxException {
+        return getStatsBaseUri(outputDirStatistics, studyId, fileId, null);
+    }
+
+    /**
+     * @param region if not null, the statistics of the region get their own files, so jobs on different regions of
+     *               the same file don't overwrite each other's
+     */
+    public static URI getStatsBaseUri(String outputDirStatistics, String studyId, String fileId, Region region)
+            throws URISyntaxException {
         URI outdirUri = URLHelper.createUri(outputDirStatistics);
-        return outdirUri.resolve(buildSourceEntryId(studyId, fileId));
+        return outdirUri.resolve(buildSourceEntryId(studyId, fileId) + buildRegionSuffix(region));
     }
 
     public static String buildSourceEntryId(String studyId, String fileId) {
@@ -57,4 +80,20 @@ public class URLHelper {
     public static String resolveVepOutput(String outputDirAnnotation, String studyId, String vcfId) {
         return outputDirAnnotation + "/" + studyId + "_" + vcfId + ANNOTATED_VARIANTS_SUFFIX;
     }
+
+    public static String resolveVepSpool(String outputDirAnnotation, String studyId, String vcfId) {
+        return resolveVepSpool(outputDirAnnotation, studyId, vcfId, null);
+    }
+
+    public static String resolveVepSpool(String outputDirAnnotation, String studyId, String vcfId, Region region) {
+        return outputDirAnnotation + "/" + studyId + "_" + vcfId + buildRegionSuffix(region) + VEP_SPOOL_SUFFIX;
+    }
+
+    /**
+     * @return a suffix for the files of a region that can be used in paths and URIs, or the empty string if the
+     * region is null
+     */
+    public static String buildRegionSuffix(Region region) {
+        return region == null ? "" : "_" + region.toString().replace(':', '_');
+    }
 }
@@ -90,7 +90,7 @@ public class AggregatedVcfJobTest {
     private JobLauncherTestUtils jobLauncherTestUtils;
 
     public static final Set<String> EXPECTED_REQUIRED_STEP_NAMES = new TreeSet<>(
-            Arrays.asList(BeanNames.LOAD_VARIANTS_STEP, BeanNames.LOAD_FILE_STEP));
+            Arrays.asList(BeanNames.SORT_VCF_STEP, BeanNames.LOAD_VARIANTS_STEP, BeanNames.LOAD_FILE_STEP));
 
     @Before
     public void setUp() throws Exception {
@@ -84,7 +84,7 @@ public class GenotypedVcfJobWorkflowTest {
     private JobOptions jobOptions;  // we need this for stats.skip and annot.skip
 
     public static final Set<String> EXPECTED_REQUIRED_STEP_NAMES = new TreeSet<>(
-            Arrays.asList(BeanNames.LOAD_VARIANTS_STEP, BeanNames.LOAD_FILE_STEP));
+            Arrays.asList(BeanNames.SORT_VCF_STEP, BeanNames.LOAD_VARIANTS_STEP, BeanNames.LOAD_FILE_STEP));
 
     public static final Set<String> EXPECTED_STATS_STEP_NAMES = new TreeSet<>(
             Arrays.asList(BeanNames.CALCULATE_STATISTICS_STEP, BeanNames.LOAD_STATISTICS_STEP));
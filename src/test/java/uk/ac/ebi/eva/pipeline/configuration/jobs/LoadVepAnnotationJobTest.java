@@ -0,0 +1,127 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.configuration.jobs;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import uk.ac.ebi.eva.pipeline.configuration.BeanNames;
+import uk.ac.ebi.eva.test.configuration.BatchTestConfiguration;
+import uk.ac.ebi.eva.test.data.VepOutputContent;
+import uk.ac.ebi.eva.test.rules.PipelineTemporaryFolderRule;
+import uk.ac.ebi.eva.test.rules.TemporaryMongoRule;
+import uk.ac.ebi.eva.utils.EvaJobParameterBuilder;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static uk.ac.ebi.eva.commons.models.mongo.entity.Annotation.CONSEQUENCE_TYPE_FIELD;
+import static uk.ac.ebi.eva.test.utils.JobTestUtils.assertCompleted;
+
+/**
+ * Test for {@link LoadVepAnnotationJobConfiguration}
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestPropertySource({"classpath:common-configuration.properties", "classpath:test-mongo.properties"})
+@ContextConfiguration(classes = {LoadVepAnnotationJobConfiguration.class, BatchTestConfiguration.class})
+public class LoadVepAnnotationJobTest {
+
+    private static final String COLLECTION_ANNOTATIONS_NAME = "annotations";
+
+    private static final String COLLECTION_ANNOTATION_METADATA_NAME = "annotationMetadata";
+
+    private static final String COLLECTION_VARIANTS_NAME = "variants";
+
+    @Rule
+    public TemporaryMongoRule mongoRule = new TemporaryMongoRule();
+
+    @Rule
+    public PipelineTemporaryFolderRule temporaryFolderRule = new PipelineTemporaryFolderRule();
+
+    @Autowired
+    private JobLauncherTestUtils jobLauncherTestUtils;
+
+    @Test
+    public void allVepOutputFilesShouldBeLoaded() throws Exception {
+        String dbName = mongoRule.getRandomTemporaryDatabaseName();
+
+        // split the VEP output in two files, as if VEP had been run in two different nodes
+        List<String> lines = Arrays.asList(VepOutputContent.vepOutputContent.split("\n"));
+        File firstVepOutput = temporaryFolderRule.newGzipFile(String.join("\n", lines.subList(0, 3)) + "\n");
+        File secondVepOutput = temporaryFolderRule.newGzipFile(
+                String.join("\n", lines.subList(3, lines.size())) + "\n");
+
+        JobParameters jobParameters = new EvaJobParameterBuilder()
+                .collectionAnnotationMetadataName(COLLECTION_ANNOTATION_METADATA_NAME)
+                .collectionAnnotationsName(COLLECTION_ANNOTATIONS_NAME)
+                .collectionVariantsName(COLLECTION_VARIANTS_NAME)
+                .databaseName(dbName)
+                .inputAnnotation(firstVepOutput.getAbsolutePath() + "," + secondVepOutput.getAbsolutePath())
+                .parallelism("2")
+                .vepCacheVersion("80")
+                .vepVersion("80")
+                .toJobParameters();
+
+        JobExecution jobExecution = jobLauncherTestUtils.launchJob(jobParameters);
+
+        assertCompleted(jobExecution);
+
+        // the partitioned step, one execution per file and the metadata step
+        assertEquals(4, jobExecution.getStepExecutions().size());
+        Set<String> stepNames = jobExecution.getStepExecutions().stream().map(StepExecution::getStepName)
+                                            .collect(Collectors.toSet());
+        assertTrue(stepNames.contains(BeanNames.LOAD_VEP_ANNOTATION_STEP));
+        assertTrue(stepNames.contains(BeanNames.LOAD_ANNOTATION_METADATA_STEP));
+
+        DBCursor cursor = mongoRule.getCollection(dbName, COLLECTION_ANNOTATIONS_NAME).find();
+
+        int annotationCount = 0;
+        int consequenceTypeCount = 0;
+        while (cursor.hasNext()) {
+            annotationCount++;
+            DBObject annotation = cursor.next();
+            BasicDBList consequenceTypes = (BasicDBList) annotation.get(CONSEQUENCE_TYPE_FIELD);
+            assertNotNull(consequenceTypes);
+            consequenceTypeCount += consequenceTypes.size();
+        }
+        cursor.close();
+
+        assertEquals(4, annotationCount);
+        assertEquals(lines.size(), consequenceTypeCount);
+        assertEquals(1, mongoRule.getCollection(dbName, COLLECTION_ANNOTATION_METADATA_NAME).count());
+    }
+
+}
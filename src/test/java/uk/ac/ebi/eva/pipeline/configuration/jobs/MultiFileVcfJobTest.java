@@ -0,0 +1,126 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.configuration.jobs;
+
+import com.mongodb.DBCollection;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.opencb.opencga.lib.common.Config;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import uk.ac.ebi.eva.pipeline.Application;
+import uk.ac.ebi.eva.pipeline.configuration.BeanNames;
+import uk.ac.ebi.eva.test.configuration.BatchTestConfiguration;
+import uk.ac.ebi.eva.test.rules.PipelineTemporaryFolderRule;
+import uk.ac.ebi.eva.test.rules.TemporaryMongoRule;
+import uk.ac.ebi.eva.test.utils.GenotypedVcfJobTestUtils;
+import uk.ac.ebi.eva.utils.EvaJobParameterBuilder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static uk.ac.ebi.eva.test.utils.JobTestUtils.assertCompleted;
+import static uk.ac.ebi.eva.utils.FileUtils.getResource;
+
+/**
+ * Test for {@link MultiFileVcfJobConfiguration}
+ */
+@RunWith(SpringRunner.class)
+@ActiveProfiles({Application.VARIANT_WRITER_MONGO_PROFILE, Application.VARIANT_ANNOTATION_MONGO_PROFILE})
+@TestPropertySource({"classpath:common-configuration.properties", "classpath:test-mongo.properties"})
+@ContextConfiguration(classes = {MultiFileVcfJobConfiguration.class, BatchTestConfiguration.class})
+public class MultiFileVcfJobTest {
+
+    private static final String GENOTYPED_INPUT = "/input-files/vcf/genotyped.vcf.gz";
+
+    private static final String SMALL_GENOTYPED_INPUT = "/input-files/vcf/small_genotyped.vcf.gz";
+
+    private static final String COLLECTION_VARIANTS_NAME = "variants";
+
+    private static final String COLLECTION_FILES_NAME = "files";
+
+    @Rule
+    public TemporaryMongoRule mongoRule = new TemporaryMongoRule();
+
+    @Rule
+    public PipelineTemporaryFolderRule temporaryFolderRule = new PipelineTemporaryFolderRule();
+
+    @Autowired
+    private JobLauncherTestUtils jobLauncherTestUtils;
+
+    @Before
+    public void setUp() throws Exception {
+        Config.setOpenCGAHome(GenotypedVcfJobTestUtils.getDefaultOpencgaHome());
+    }
+
+    @Test
+    public void allFilesInTheManifestShouldBeLoaded() throws Exception {
+        String databaseName = mongoRule.getRandomTemporaryDatabaseName();
+        File manifest = temporaryFolderRule.newFile("manifest.tsv");
+        Files.write(manifest.toPath(), Arrays.asList(getResource(GENOTYPED_INPUT).getAbsolutePath() + "\t1",
+                                                     getResource(SMALL_GENOTYPED_INPUT).getAbsolutePath() + "\t2"));
+
+        JobParameters jobParameters = new EvaJobParameterBuilder()
+                .collectionFilesName(COLLECTION_FILES_NAME)
+                .collectionVariantsName(COLLECTION_VARIANTS_NAME)
+                .databaseName(databaseName)
+                .inputStudyId("multi-file-job")
+                .inputStudyName("inputStudyName")
+                .inputStudyType("COLLECTION")
+                .inputVcfManifest(manifest.getAbsolutePath())
+                .inputVcfAggregation("NONE")
+                .annotationSkip(true)
+                .statisticsSkip(true)
+                .timestamp()
+                .toJobParameters();
+        JobExecution jobExecution = jobLauncherTestUtils.launchJob(jobParameters);
+
+        assertCompleted(jobExecution);
+
+        Set<String> names = jobExecution.getStepExecutions().stream().map(StepExecution::getStepName)
+                .collect(Collectors.toSet());
+        Set<String> expectedNames = new TreeSet<>(Arrays.asList(
+                BeanNames.SORT_VCFS_BY_MANIFEST_STEP,
+                BeanNames.SORT_VCF_STEP + ":partition0",
+                BeanNames.SORT_VCF_STEP + ":partition1",
+                BeanNames.LOAD_VARIANTS_BY_MANIFEST_STEP,
+                BeanNames.LOAD_VARIANTS_STEP + ":partition0",
+                BeanNames.LOAD_VARIANTS_STEP + ":partition1",
+                BeanNames.LOAD_FILES_BY_MANIFEST_STEP,
+                BeanNames.LOAD_FILE_STEP + ":partition0",
+                BeanNames.LOAD_FILE_STEP + ":partition1"));
+        assertEquals(expectedNames, names);
+
+        DBCollection fileCollection = mongoRule.getCollection(databaseName, COLLECTION_FILES_NAME);
+        assertEquals(2, fileCollection.count());
+    }
+
+}
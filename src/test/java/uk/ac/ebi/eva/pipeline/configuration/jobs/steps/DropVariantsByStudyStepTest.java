@@ -16,6 +16,7 @@
 
 package uk.ac.ebi.eva.pipeline.configuration.jobs.steps;
 
+import com.mongodb.BasicDBObject;
 import com.mongodb.DBCollection;
 import org.junit.Rule;
 import org.junit.Test;
@@ -39,6 +40,7 @@ import uk.ac.ebi.eva.utils.EvaJobParameterBuilder;
 
 import java.util.Arrays;
 
+import static org.junit.Assert.assertEquals;
 import static uk.ac.ebi.eva.test.utils.DropStudyJobTestUtils.assertDropVariantsByStudy;
 import static uk.ac.ebi.eva.test.utils.JobTestUtils.assertCompleted;
 
@@ -53,6 +55,8 @@ public class DropVariantsByStudyStepTest {
 
     private static final String COLLECTION_VARIANTS_NAME = "variants";
 
+    private static final String COLLECTION_GENOTYPES_NAME = "genotypes";
+
     private static final long EXPECTED_VARIANTS_AFTER_DROP_STUDY = 2;
 
     private static final String STUDY_ID_TO_DROP = "studyIdToDrop";
@@ -93,13 +97,86 @@ public class DropVariantsByStudyStepTest {
         checkDrop(databaseName, EXPECTED_VARIANTS_AFTER_DROP_STUDY);
     }
 
+    @Test
+    public void testSeveralVariantsToDropInSmallChunksAndSeveralPartitions() throws Exception {
+        String databaseName = mongoRule.createDBAndInsertDocuments(COLLECTION_VARIANTS_NAME, Arrays.asList(
+                VariantData.getVariantWithOneStudyToDrop(),
+                VariantData.getOtherVariantWithOneStudyToDrop(),
+                VariantData.getVariantWithOneStudy(),
+                VariantData.getVariantWithTwoStudies()));
+
+        JobParameters jobParameters = new EvaJobParameterBuilder()
+                .collectionVariantsName(COLLECTION_VARIANTS_NAME)
+                .databaseName(databaseName)
+                .inputStudyId(STUDY_ID_TO_DROP)
+                .chunkSize("1")
+                .parallelism("3")
+                .writeRateLimit("100")
+                .toJobParameters();
+
+        checkDrop(databaseName, jobParameters, EXPECTED_VARIANTS_AFTER_DROP_STUDY);
+    }
+
+    @Test
+    public void testOnlyVariantsInRegionAreDropped() throws Exception {
+        String databaseName = mongoRule.createDBAndInsertDocuments(COLLECTION_VARIANTS_NAME, Arrays.asList(
+                VariantData.getVariantWithOneStudyToDrop(),
+                VariantData.getOtherVariantWithOneStudyToDrop(),
+                VariantData.getVariantWithOneStudy(),
+                VariantData.getVariantWithTwoStudies()));
+
+        JobParameters jobParameters = new EvaJobParameterBuilder()
+                .collectionVariantsName(COLLECTION_VARIANTS_NAME)
+                .databaseName(databaseName)
+                .inputStudyId(STUDY_ID_TO_DROP)
+                .inputRegion("20:60340-60345")
+                .toJobParameters();
+
+        JobExecution jobExecution = jobLauncherTestUtils.launchStep(BeanNames.DROP_VARIANTS_BY_STUDY_STEP,
+                jobParameters);
+
+        assertCompleted(jobExecution);
+
+        DBCollection variantsCollection = mongoRule.getCollection(databaseName, COLLECTION_VARIANTS_NAME);
+        assertEquals(EXPECTED_VARIANTS_AFTER_DROP_STUDY + 1, variantsCollection.count());
+        assertEquals(0, variantsCollection.count(new BasicDBObject("_id", "20_60343_G_A")));
+        assertEquals(1, variantsCollection.count(new BasicDBObject("_id", "20_60346_G_A")));
+    }
+
+    @Test
+    public void testGenotypesOfTheStudyAreDropped() throws Exception {
+        String databaseName = mongoRule.createDBAndInsertDocuments(COLLECTION_VARIANTS_NAME, Arrays.asList(
+                VariantData.getVariantWithOneStudyToDrop(),
+                VariantData.getVariantWithOneStudy(),
+                VariantData.getVariantWithTwoStudies()));
+        mongoRule.insertDocuments(databaseName, COLLECTION_GENOTYPES_NAME, Arrays.asList(
+                "{\"_id\": \"20_60343_G_A_studyIdToDrop_5\", \"vid\": \"20_60343_G_A\", \"sid\": \"studyIdToDrop\"}",
+                "{\"_id\": \"20_60345_G_A_1_5\", \"vid\": \"20_60345_G_A\", \"sid\": \"1\"}"));
+
+        JobParameters jobParameters = new EvaJobParameterBuilder()
+                .collectionVariantsName(COLLECTION_VARIANTS_NAME)
+                .collectionGenotypesName(COLLECTION_GENOTYPES_NAME)
+                .databaseName(databaseName)
+                .inputStudyId(STUDY_ID_TO_DROP)
+                .toJobParameters();
+
+        checkDrop(databaseName, jobParameters, EXPECTED_VARIANTS_AFTER_DROP_STUDY);
+
+        DBCollection genotypesCollection = mongoRule.getCollection(databaseName, COLLECTION_GENOTYPES_NAME);
+        assertEquals(1, genotypesCollection.count());
+        assertEquals(0, genotypesCollection.count(new BasicDBObject("sid", STUDY_ID_TO_DROP)));
+    }
+
     private void checkDrop(String databaseName, long expectedVariantsAfterDropStudy) {
         JobParameters jobParameters = new EvaJobParameterBuilder()
                 .collectionVariantsName(COLLECTION_VARIANTS_NAME)
                 .databaseName(databaseName)
                 .inputStudyId(STUDY_ID_TO_DROP)
                 .toJobParameters();
+        checkDrop(databaseName, jobParameters, expectedVariantsAfterDropStudy);
+    }
 
+    private void checkDrop(String databaseName, JobParameters jobParameters, long expectedVariantsAfterDropStudy) {
         JobExecution jobExecution = jobLauncherTestUtils.launchStep(BeanNames.DROP_VARIANTS_BY_STUDY_STEP,
                 jobParameters);
 
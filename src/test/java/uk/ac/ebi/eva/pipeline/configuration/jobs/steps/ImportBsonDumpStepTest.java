@@ -0,0 +1,148 @@
+/*
+ * Copyright 2015-2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.configuration.jobs.steps;
+
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.DuplicateKeyException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import uk.ac.ebi.eva.commons.models.data.Variant;
+import uk.ac.ebi.eva.commons.models.data.VariantSourceEntity;
+import uk.ac.ebi.eva.commons.models.data.VariantSourceEntry;
+import uk.ac.ebi.eva.commons.models.mongo.entity.VariantDocument;
+import uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.SamplesEncoding;
+import uk.ac.ebi.eva.pipeline.configuration.BeanNames;
+import uk.ac.ebi.eva.pipeline.configuration.MongoConfiguration;
+import uk.ac.ebi.eva.pipeline.configuration.jobs.ImportBsonDumpJobConfiguration;
+import uk.ac.ebi.eva.pipeline.io.writers.VariantBsonDumpWriter;
+import uk.ac.ebi.eva.pipeline.io.writers.VariantSourceEntityBsonDumpWriter;
+import uk.ac.ebi.eva.pipeline.parameters.MongoConnection;
+import uk.ac.ebi.eva.test.configuration.BatchTestConfiguration;
+import uk.ac.ebi.eva.test.rules.PipelineTemporaryFolderRule;
+import uk.ac.ebi.eva.test.rules.TemporaryMongoRule;
+import uk.ac.ebi.eva.utils.EvaJobParameterBuilder;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static uk.ac.ebi.eva.test.utils.JobTestUtils.assertCompleted;
+
+/**
+ * Test {@link ImportBsonDumpStepConfiguration}
+ */
+@RunWith(SpringRunner.class)
+@TestPropertySource({"classpath:common-configuration.properties", "classpath:test-mongo.properties"})
+@ContextConfiguration(classes = {ImportBsonDumpJobConfiguration.class, BatchTestConfiguration.class})
+public class ImportBsonDumpStepTest {
+
+    private static final String COLLECTION_VARIANTS_NAME = "variants";
+
+    private static final String COLLECTION_FILES_NAME = "files";
+
+    @Rule
+    public TemporaryMongoRule mongoRule = new TemporaryMongoRule();
+
+    @Rule
+    public PipelineTemporaryFolderRule temporaryFolder = new PipelineTemporaryFolderRule();
+
+    @Autowired
+    private JobLauncherTestUtils jobLauncherTestUtils;
+
+    @Autowired
+    private MongoConnection mongoConnection;
+
+    @Autowired
+    private MongoMappingContext mongoMappingContext;
+
+    @Test
+    public void variantsDumpedInSeveralPartitionsShouldBeMerged() throws Exception {
+        String databaseName = mongoRule.getRandomTemporaryDatabaseName();
+        MongoOperations mongoOperations = MongoConfiguration.getMongoOperations(databaseName, mongoConnection,
+                                                                                mongoMappingContext);
+        File dumpDirectory = temporaryFolder.newFolder();
+        dumpVariant(dumpDirectory, "first-partition", databaseName, mongoOperations, "firstFileId");
+        dumpVariant(dumpDirectory, "second-partition", databaseName, mongoOperations, "secondFileId");
+
+        assertCompleted(launchStep(databaseName, dumpDirectory));
+
+        DBCollection variantsCollection = mongoRule.getCollection(databaseName, COLLECTION_VARIANTS_NAME);
+        assertEquals(1, variantsCollection.count());
+        DBObject variant = variantsCollection.findOne("1_10_A_T");
+        assertEquals(2, ((List) variant.get(VariantDocument.FILES_FIELD)).size());
+        assertTrue(variantsCollection.getIndexInfo().size() > 1);
+    }
+
+    @Test(expected = DuplicateKeyException.class)
+    public void filesShouldHaveTheirUniqueIndex() throws Exception {
+        String databaseName = mongoRule.getRandomTemporaryDatabaseName();
+        MongoOperations mongoOperations = MongoConfiguration.getMongoOperations(databaseName, mongoConnection,
+                                                                                mongoMappingContext);
+        File dumpDirectory = temporaryFolder.newFolder();
+        VariantSourceEntity variantSourceEntity = new VariantSourceEntity("fileId", "fileName", "studyId",
+                                                                          "studyName", null, null, null, null, null);
+        new VariantSourceEntityBsonDumpWriter(dumpDirectory, "partition", databaseName, true, COLLECTION_FILES_NAME,
+                                              mongoOperations.getConverter())
+                .write(Collections.singletonList(variantSourceEntity));
+
+        assertCompleted(launchStep(databaseName, dumpDirectory));
+
+        DBCollection filesCollection = mongoRule.getCollection(databaseName, COLLECTION_FILES_NAME);
+        assertEquals(1, filesCollection.count());
+        DBObject file = filesCollection.findOne();
+        file.put("_id", "anotherId");
+        filesCollection.insert(file);
+    }
+
+    private JobExecution launchStep(String databaseName, File dumpDirectory) {
+        JobParameters jobParameters = new EvaJobParameterBuilder()
+                .databaseName(databaseName)
+                .collectionVariantsName(COLLECTION_VARIANTS_NAME)
+                .collectionFilesName(COLLECTION_FILES_NAME)
+                .outputDirBson(dumpDirectory.getAbsolutePath())
+                .toJobParameters();
+        return jobLauncherTestUtils.launchStep(BeanNames.IMPORT_BSON_DUMP_STEP, jobParameters);
+    }
+
+    private void dumpVariant(File dumpDirectory, String partition, String databaseName,
+                             MongoOperations mongoOperations, String fileId) throws Exception {
+        Variant variant = new Variant("1", 10, 10, "A", "T");
+        variant.addSourceEntry(new VariantSourceEntry(fileId, "studyId"));
+
+        VariantBsonDumpWriter writer = new VariantBsonDumpWriter(dumpDirectory, partition, databaseName, false,
+                                                                 COLLECTION_VARIANTS_NAME,
+                                                                 mongoOperations.getConverter(), false, false, true,
+                                                                 SamplesEncoding.ARRAY, null);
+        writer.open(new ExecutionContext());
+        writer.write(Collections.singletonList(variant));
+        writer.close();
+    }
+}
@@ -132,13 +132,37 @@ public class PullFilesAndStatisticsByStudyStepTest {
         checkPull(databaseName, expectedFilesAfter, expectedStatsAfter);
     }
 
+    @Test
+    public void testFileAndStatsToPullInSmallChunksAndSeveralPartitions() throws IOException {
+        String databaseName = mongoRule.createDBAndInsertDocuments(COLLECTION_VARIANTS_NAME, Arrays.asList(
+                VariantData.getVariantWithOneStudy(),
+                VariantData.getVariantWithTwoStudies(),
+                VariantData.getVariantWithOneStudyToDrop(),
+                VariantData.getOtherVariantWithOneStudyToDrop()));
+
+        JobParameters jobParameters = new EvaJobParameterBuilder()
+                .collectionVariantsName(COLLECTION_VARIANTS_NAME)
+                .databaseName(databaseName)
+                .inputStudyId(STUDY_ID_TO_DROP)
+                .chunkSize("1")
+                .parallelism("2")
+                .toJobParameters();
+
+        checkPull(databaseName, 3, 2);
+        executeStep(jobParameters);
+        checkPull(databaseName, 0, 0);
+    }
+
     private void executeStep(String databaseName) {
         JobParameters jobParameters = new EvaJobParameterBuilder()
                 .collectionVariantsName(COLLECTION_VARIANTS_NAME)
                 .databaseName(databaseName)
                 .inputStudyId(STUDY_ID_TO_DROP)
                 .toJobParameters();
+        executeStep(jobParameters);
+    }
 
+    private void executeStep(JobParameters jobParameters) {
         JobExecution jobExecution = jobLauncherTestUtils.launchStep(BeanNames.PULL_FILES_AND_STATISTICS_BY_STUDY_STEP,
                 jobParameters);
 
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.configuration.jobs.steps;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import uk.ac.ebi.eva.pipeline.Application;
+import uk.ac.ebi.eva.pipeline.configuration.BeanNames;
+import uk.ac.ebi.eva.pipeline.configuration.jobs.GenotypedVcfJobConfiguration;
+import uk.ac.ebi.eva.pipeline.io.VcfSorter;
+import uk.ac.ebi.eva.test.configuration.BatchTestConfiguration;
+import uk.ac.ebi.eva.test.rules.PipelineTemporaryFolderRule;
+import uk.ac.ebi.eva.utils.EvaJobParameterBuilder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static uk.ac.ebi.eva.test.utils.JobTestUtils.assertCompleted;
+
+/**
+ * Test for {@link SortVcfStepConfiguration}
+ */
+@RunWith(SpringRunner.class)
+@ActiveProfiles({Application.VARIANT_WRITER_MONGO_PROFILE, Application.VARIANT_ANNOTATION_MONGO_PROFILE})
+@TestPropertySource({"classpath:common-configuration.properties", "classpath:test-mongo.properties"})
+@ContextConfiguration(classes = {GenotypedVcfJobConfiguration.class, BatchTestConfiguration.class})
+public class SortVcfStepTest {
+
+    @Rule
+    public PipelineTemporaryFolderRule temporaryFolderRule = new PipelineTemporaryFolderRule();
+
+    @Autowired
+    private JobLauncherTestUtils jobLauncherTestUtils;
+
+    @Test
+    public void unsortedVcfIsSortedIntoTheOutputDirectory() throws Exception {
+        File vcf = temporaryFolderRule.newFile();
+        Files.write(vcf.toPath(), Arrays.asList("##fileformat=VCFv4.1",
+                                                "#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO",
+                                                "1\t20\t.\tA\tT\t.\t.\t.",
+                                                "1\t10\t.\tG\tC\t.\t.\t."), StandardCharsets.UTF_8);
+        File outputDir = temporaryFolderRule.newFolder();
+
+        JobParameters jobParameters = new EvaJobParameterBuilder()
+                .inputVcf(vcf.getAbsolutePath())
+                .inputVcfSort("true")
+                .outputDir(outputDir.getAbsolutePath())
+                .toJobParameters();
+        JobExecution jobExecution = jobLauncherTestUtils.launchStep(BeanNames.SORT_VCF_STEP, jobParameters);
+
+        assertCompleted(jobExecution);
+        File sortedVcf = new VcfSorter(outputDir).findSortedCopy(vcf);
+        assertNotEquals(vcf, sortedVcf);
+        assertTrue(VcfSorter.isSorted(sortedVcf));
+        assertArrayEquals(new String[]{sortedVcf.getName()}, outputDir.list());
+    }
+
+    @Test
+    public void vcfIsNotSortedUnlessRequested() throws Exception {
+        File vcf = temporaryFolderRule.newFile();
+        Files.write(vcf.toPath(), Arrays.asList("#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO",
+                                                "1\t20\t.\tA\tT\t.\t.\t.",
+                                                "1\t10\t.\tG\tC\t.\t.\t."), StandardCharsets.UTF_8);
+        File outputDir = temporaryFolderRule.newFolder();
+
+        JobParameters jobParameters = new EvaJobParameterBuilder()
+                .inputVcf(vcf.getAbsolutePath())
+                .outputDir(outputDir.getAbsolutePath())
+                .toJobParameters();
+        JobExecution jobExecution = jobLauncherTestUtils.launchStep(BeanNames.SORT_VCF_STEP, jobParameters);
+
+        assertCompleted(jobExecution);
+        assertEquals(0, outputDir.list().length);
+    }
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.junit.Rule;
+import org.junit.Test;
+
+import uk.ac.ebi.eva.test.rules.PipelineTemporaryFolderRule;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BsonDumpTest {
+
+    private static final String DATABASE = "eva";
+
+    @Rule
+    public PipelineTemporaryFolderRule temporaryFolder = new PipelineTemporaryFolderRule();
+
+    @Test
+    public void documentsAreWrittenWithTheLayoutOfMongodump() throws Exception {
+        File dumpDirectory = temporaryFolder.newFolder();
+        File partition = new File(dumpDirectory, "load-variants-step-1");
+
+        try (BsonDump dump = new BsonDump(partition, DATABASE, false)) {
+            dump.write("variants", document("1_10_A_T", "rs1"));
+            dump.write("files", new BasicDBObject("_id", "file"));
+            dump.write("variants", document("1_20_A_T", "rs2"));
+        }
+
+        File variantsFile = new File(partition, DATABASE + "/variants.bson");
+        assertEquals(Arrays.asList(new File(partition, DATABASE + "/files.bson"), variantsFile),
+                     BsonDump.listFiles(dumpDirectory, DATABASE));
+        assertEquals("variants", BsonDump.getCollectionName(variantsFile));
+        assertEquals(Arrays.asList(document("1_10_A_T", "rs1"), document("1_20_A_T", "rs2")), readAll(variantsFile));
+    }
+
+    @Test
+    public void compressedFilesKeepTheDocumentsOfEveryFlush() throws Exception {
+        File partition = temporaryFolder.newFolder();
+
+        try (BsonDump dump = new BsonDump(partition, DATABASE, true)) {
+            dump.write("variants", document("1_10_A_T", "rs1"));
+            dump.flush();
+            dump.write("variants", document("1_20_A_T", "rs2"));
+        }
+
+        File variantsFile = new File(partition, DATABASE + "/variants.bson.gz");
+        assertEquals("variants", BsonDump.getCollectionName(variantsFile));
+        assertEquals(Arrays.asList(document("1_10_A_T", "rs1"), document("1_20_A_T", "rs2")), readAll(variantsFile));
+    }
+
+    @Test
+    public void documentsWrittenAfterTheLastFlushAreDiscardedWhenTruncating() throws Exception {
+        for (boolean compress : Arrays.asList(false, true)) {
+            File partition = temporaryFolder.newFolder();
+            Map<String, Long> sizes;
+            BsonDump dump = new BsonDump(partition, DATABASE, compress);
+            dump.write("variants", document("1_10_A_T", "rs1"));
+            sizes = dump.flush();
+            dump.write("variants", document("1_20_A_T", "rs2"));
+            dump.write("annotations", new BasicDBObject("_id", "1_20_A_T_82_82"));
+            dump.close();
+
+            try (BsonDump restartedDump = new BsonDump(partition, DATABASE, compress)) {
+                restartedDump.truncate(sizes);
+                restartedDump.write("variants", document("1_30_A_T", "rs3"));
+            }
+
+            assertEquals(Arrays.asList(document("1_10_A_T", "rs1"), document("1_30_A_T", "rs3")),
+                         readAll(new BsonDump(partition, DATABASE, compress).getFile("variants")));
+            assertEquals(Collections.emptyList(),
+                         readAll(new BsonDump(partition, DATABASE, compress).getFile("annotations")));
+        }
+    }
+
+    @Test(expected = EOFException.class)
+    public void truncatedDocumentIsNotRead() throws Exception {
+        File partition = temporaryFolder.newFolder();
+        File variantsFile;
+        try (BsonDump dump = new BsonDump(partition, DATABASE, false)) {
+            dump.write("variants", document("1_10_A_T", "rs1"));
+            variantsFile = dump.getFile("variants");
+        }
+        try (RandomAccessFile file = new RandomAccessFile(variantsFile, "rw")) {
+            file.setLength(file.length() - 1);
+        }
+
+        readAll(variantsFile);
+    }
+
+    @Test
+    public void missingDumpHasNoFiles() throws Exception {
+        assertTrue(BsonDump.listFiles(new File(temporaryFolder.getRoot(), "missing"), DATABASE).isEmpty());
+    }
+
+    private DBObject document(String id, String rs) {
+        BasicDBList ids = new BasicDBList();
+        ids.add(rs);
+        return new BasicDBObject("_id", id).append("ids", ids);
+    }
+
+    private List<DBObject> readAll(File file) throws Exception {
+        List<DBObject> documents = new ArrayList<>();
+        try (BsonDump.Reader reader = BsonDump.openReader(file)) {
+            DBObject document;
+            while ((document = reader.read()) != null) {
+                documents.add(document);
+            }
+        }
+        return documents;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import uk.ac.ebi.eva.pipeline.io.readers.PositionedLineReader;
+import uk.ac.ebi.eva.test.rules.PipelineTemporaryFolderRule;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static uk.ac.ebi.eva.utils.FileUtils.getResource;
+
+public class VcfSorterTest {
+
+    private static final List<String> HEADER = Arrays.asList("##fileformat=VCFv4.1",
+                                                             "#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO");
+
+    @Rule
+    public PipelineTemporaryFolderRule temporaryFolder = new PipelineTemporaryFolderRule();
+
+    private File sortDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        sortDirectory = temporaryFolder.newFolder();
+    }
+
+    @Test
+    public void sortedVcfIsReadAsItIs() throws Exception {
+        File vcf = writeVcf("2\t10\t.\tA\tT\t.\t.\t.", "2\t10\t.\tA\tC\t.\t.\t.", "1\t5\t.\tG\tC\t.\t.\t.");
+
+        assertEquals(vcf, new VcfSorter(sortDirectory).sortIfUnsorted(vcf));
+        assertEquals(0, sortDirectory.list().length);
+        assertTrue(VcfSorter.isSorted(getResource("/input-files/vcf/genotyped.vcf.gz")));
+    }
+
+    @Test
+    public void chromosomeSplitInSeveralBlocksIsNotSorted() throws Exception {
+        assertFalse(VcfSorter.isSorted(writeVcf("2\t10\t.\tA\tT\t.\t.\t.", "1\t5\t.\tG\tC\t.\t.\t.",
+                                                "2\t20\t.\tA\tT\t.\t.\t.")));
+        assertFalse(VcfSorter.isSorted(writeVcf("1\t10\t.\tA\tT\t.\t.\t.", "1\t5\t.\tG\tC\t.\t.\t.")));
+    }
+
+    @Test
+    public void unsortedVcfIsSortedThroughSpills() throws Exception {
+        File vcf = writeVcf("2\t300\t.\tA\tT\t.\t.\t.",
+                            "1\t20\t.\tA\tT\t.\t.\t.",
+                            "2\t100\tfirst\tA\tT\t.\t.\t.",
+                            "1\t10\t.\tA\tT\t.\t.\t.",
+                            "2\t100\tsecond\tA\tC\t.\t.\t.",
+                            "2\t9\t.\tA\tT\t.\t.\t.",
+                            "2\t100\tthird\tA\tG\t.\t.\t.");
+
+        File sortedVcf = new VcfSorter(sortDirectory, 100).sortIfUnsorted(vcf);
+
+        assertNotEquals(vcf, sortedVcf);
+        List<String> expectedLines = Arrays.asList(HEADER.get(0), HEADER.get(1),
+                                                   "2\t9\t.\tA\tT\t.\t.\t.",
+                                                   "2\t100\tfirst\tA\tT\t.\t.\t.",
+                                                   "2\t100\tsecond\tA\tC\t.\t.\t.",
+                                                   "2\t100\tthird\tA\tG\t.\t.\t.",
+                                                   "2\t300\t.\tA\tT\t.\t.\t.",
+                                                   "1\t10\t.\tA\tT\t.\t.\t.",
+                                                   "1\t20\t.\tA\tT\t.\t.\t.");
+        assertEquals(expectedLines, readGzippedLines(sortedVcf));
+        assertTrue(PositionedLineReader.isSeekable(sortedVcf));
+        assertArrayEquals(new String[]{sortedVcf.getName()}, sortDirectory.list());
+    }
+
+    @Test
+    public void sortedCopyIsReused() throws Exception {
+        File vcf = writeVcf("2\t300\t.\tA\tT\t.\t.\t.", "2\t100\t.\tA\tT\t.\t.\t.");
+        VcfSorter vcfSorter = new VcfSorter(sortDirectory);
+        File sortedVcf = vcfSorter.sortIfUnsorted(vcf);
+        assertTrue(sortedVcf.setLastModified(vcf.lastModified() + 1000));
+
+        assertEquals(sortedVcf, vcfSorter.sortIfUnsorted(vcf));
+        assertEquals(vcf.lastModified() + 1000, sortedVcf.lastModified());
+        assertEquals(sortedVcf, vcfSorter.findSortedCopy(vcf));
+
+        assertTrue(sortedVcf.setLastModified(vcf.lastModified() - 1000));
+        assertEquals(vcf, vcfSorter.findSortedCopy(vcf));
+    }
+
+    private File writeVcf(String... lines) throws IOException {
+        File vcf = temporaryFolder.newFile();
+        List<String> content = new ArrayList<>(HEADER);
+        content.addAll(Arrays.asList(lines));
+        Files.write(vcf.toPath(), content, StandardCharsets.UTF_8);
+        return vcf;
+    }
+
+    private List<String> readGzippedLines(File file) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8))) {
+            return reader.lines().collect(Collectors.toList());
+        }
+    }
+}
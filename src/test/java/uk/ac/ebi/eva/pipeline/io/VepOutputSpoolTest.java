@@ -0,0 +1,100 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import uk.ac.ebi.eva.pipeline.model.EnsemblVariant;
+import uk.ac.ebi.eva.test.rules.PipelineTemporaryFolderRule;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class VepOutputSpoolTest {
+
+    private static final String VEP_INPUT = "1\t100\t105\tA/T\t+\n";
+
+    private static final List<EnsemblVariant> VARIANTS = Collections.singletonList(
+            new EnsemblVariant("1", 100, 105, "A", "T"));
+
+    private static final List<String> VEP_OUTPUT = Arrays.asList("1_100_A/T\t1:100\tT", "1_100_A/T\t1:100\tT");
+
+    @Rule
+    public PipelineTemporaryFolderRule temporaryFolder = new PipelineTemporaryFolderRule();
+
+    private File spoolFolder;
+
+    @Before
+    public void setUp() throws Exception {
+        spoolFolder = new File(temporaryFolder.newFolder(), "spool");
+    }
+
+    @Test
+    public void unknownBatchIsNotInTheSpool() throws Exception {
+        VepOutputSpool vepOutputSpool = new VepOutputSpool(spoolFolder.getAbsolutePath(), "78", "78");
+        assertNull(vepOutputSpool.read(VARIANTS, VEP_INPUT));
+    }
+
+    @Test
+    public void spooledBatchIsReadBack() throws Exception {
+        VepOutputSpool vepOutputSpool = new VepOutputSpool(spoolFolder.getAbsolutePath(), "78", "78");
+        vepOutputSpool.write(VARIANTS, VEP_INPUT, VEP_OUTPUT);
+        assertEquals(VEP_OUTPUT, vepOutputSpool.read(VARIANTS, VEP_INPUT));
+    }
+
+    @Test
+    public void spoolIsNotSharedBetweenCacheVersions() throws Exception {
+        new VepOutputSpool(spoolFolder.getAbsolutePath(), "78", "78").write(VARIANTS, VEP_INPUT, VEP_OUTPUT);
+        assertNull(new VepOutputSpool(spoolFolder.getAbsolutePath(), "78", "79").read(VARIANTS, VEP_INPUT));
+    }
+
+    @Test
+    public void spoolFileDependsOnTheVepInput() throws Exception {
+        VepOutputSpool vepOutputSpool = new VepOutputSpool(spoolFolder.getAbsolutePath(), "78", "78");
+        assertNotEquals(vepOutputSpool.getSpoolFile(VARIANTS, VEP_INPUT),
+                        vepOutputSpool.getSpoolFile(VARIANTS, "1\t100\t105\tA/C\t+\n"));
+    }
+
+    @Test
+    public void clearDeletesTheSpool() throws Exception {
+        VepOutputSpool vepOutputSpool = new VepOutputSpool(spoolFolder.getAbsolutePath(), "78", "78");
+        vepOutputSpool.write(VARIANTS, VEP_INPUT, VEP_OUTPUT);
+        vepOutputSpool.clear();
+        assertFalse(spoolFolder.exists());
+    }
+
+    @Test
+    public void clearKeepsFilesNotCreatedByTheSpool() throws Exception {
+        assertTrue(spoolFolder.mkdirs());
+        File otherFile = new File(spoolFolder, "other.tsv.gz.tmp");
+        assertTrue(otherFile.createNewFile());
+        VepOutputSpool vepOutputSpool = new VepOutputSpool(spoolFolder.getAbsolutePath(), "78", "78");
+        vepOutputSpool.write(VARIANTS, VEP_INPUT, VEP_OUTPUT);
+        vepOutputSpool.clear();
+        assertTrue(otherFile.exists());
+        assertNull(vepOutputSpool.read(VARIANTS, VEP_INPUT));
+    }
+}
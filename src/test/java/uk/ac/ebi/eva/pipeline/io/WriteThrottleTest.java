@@ -0,0 +1,122 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link WriteThrottle}
+ * input: documents to write, their latency and the replication lag
+ * output: the time to wait before each write and the adapted rate
+ */
+public class WriteThrottleTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private static final long TARGET_LATENCY_MILLIS = 100;
+
+    private AtomicLong clock;
+
+    private AtomicLong replicationLag;
+
+    private WriteThrottle throttle;
+
+    @Before
+    public void setUp() throws Exception {
+        clock = new AtomicLong(0);
+        replicationLag = new AtomicLong(0);
+        throttle = new WriteThrottle(1000, TARGET_LATENCY_MILLIS, 5000, replicationLag::get, clock::get);
+    }
+
+    @Test
+    public void writesWithinTheRateShouldNotWait() {
+        assertEquals(0, throttle.reserve(600));
+        assertEquals(0, throttle.reserve(400));
+    }
+
+    @Test
+    public void writesOverTheRateShouldWaitForTheMissingTokens() {
+        assertEquals(0, throttle.reserve(1000));
+        assertEquals(SECOND / 2, throttle.reserve(500));
+        assertEquals(SECOND, throttle.reserve(500));
+
+        clock.addAndGet(SECOND);
+        assertEquals(0, throttle.reserve(0));
+    }
+
+    @Test
+    public void tokensShouldNotAccumulateOverOneSecond() {
+        clock.addAndGet(10 * SECOND);
+        assertEquals(0, throttle.reserve(1000));
+        assertEquals(SECOND / 10, throttle.reserve(100));
+    }
+
+    @Test
+    public void slowWritesShouldHalveTheRateOncePerSecond() {
+        throttle.recordWrite(TimeUnit.MILLISECONDS.toNanos(TARGET_LATENCY_MILLIS + 1));
+        assertEquals(500, throttle.getCurrentRate(), 0.001);
+
+        throttle.recordWrite(TimeUnit.MILLISECONDS.toNanos(TARGET_LATENCY_MILLIS + 1));
+        assertEquals(500, throttle.getCurrentRate(), 0.001);
+
+        clock.addAndGet(SECOND);
+        throttle.recordWrite(TimeUnit.MILLISECONDS.toNanos(TARGET_LATENCY_MILLIS + 1));
+        assertEquals(250, throttle.getCurrentRate(), 0.001);
+    }
+
+    @Test
+    public void fastWritesShouldRecoverTheRateUpToTheMaximum() {
+        throttle.recordWrite(TimeUnit.MILLISECONDS.toNanos(TARGET_LATENCY_MILLIS + 1));
+        throttle.recordWrite(TimeUnit.MILLISECONDS.toNanos(1));
+        assertEquals(520, throttle.getCurrentRate(), 0.001);
+
+        for (int i = 0; i < 100; i++) {
+            throttle.recordWrite(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        assertEquals(1000, throttle.getCurrentRate(), 0.001);
+    }
+
+    @Test
+    public void replicationLagShouldBeCheckedPeriodically() throws InterruptedException {
+        replicationLag.set(6000);
+
+        throttle.acquire(1);
+        assertEquals(1000, throttle.getCurrentRate(), 0.001);
+
+        clock.addAndGet(WriteThrottle.REPLICATION_LAG_CHECK_INTERVAL_NANOS);
+        throttle.acquire(1);
+        assertEquals(500, throttle.getCurrentRate(), 0.001);
+    }
+
+    @Test
+    public void zeroRateShouldNotLimitTheWrites() throws InterruptedException {
+        WriteThrottle unlimited = new WriteThrottle(0, TARGET_LATENCY_MILLIS, 5000, replicationLag::get, clock::get);
+        assertFalse(unlimited.isEnabled());
+        assertTrue(throttle.isEnabled());
+
+        unlimited.acquire(1000000);
+        unlimited.recordWrite(SECOND);
+        assertEquals(0, unlimited.getCurrentRate(), 0.001);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io.mappers;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link AttributeRetentionPolicy}
+ * input: a VCF line and INFO keys
+ * output: the source line and keys to store
+ */
+public class AttributeRetentionPolicyTest {
+
+    private static final String LINE = "1\t1000\t.\tC\tT\t.\tPASS\tAC=3\tGT\t0/1\t1/1";
+
+    private static final String FIRST_COLUMNS = "1\t1000\t.\tC\tT\t.\tPASS\tAC=3";
+
+    @Test
+    public void keepAllShouldKeepEveryKeyAndTheCompressedColumns() {
+        AttributeRetentionPolicy policy = AttributeRetentionPolicy.keepAll();
+        assertTrue(policy.isInfoKeyRetained("AC"));
+        assertEquals(FIRST_COLUMNS, policy.getSourceLine(LINE));
+        assertEquals(FIRST_COLUMNS, policy.getSourceLine(FIRST_COLUMNS));
+        assertTrue(policy.isSourceLineCompressed());
+    }
+
+    @Test
+    public void onlyIncludedKeysShouldBeRetained() {
+        AttributeRetentionPolicy policy = AttributeRetentionPolicy.includingInfoKeys(
+                AttributeRetentionPolicy.SourceLine.NONE, Arrays.asList("AC", "AF"));
+        assertTrue(policy.isInfoKeyRetained("AC"));
+        assertTrue(policy.isInfoKeyRetained("AF"));
+        assertFalse(policy.isInfoKeyRetained("DP"));
+        assertNull(policy.getSourceLine(LINE));
+    }
+
+    @Test
+    public void excludedKeysShouldNotBeRetained() {
+        AttributeRetentionPolicy policy = AttributeRetentionPolicy.excludingInfoKeys(
+                AttributeRetentionPolicy.SourceLine.COLUMNS, Arrays.asList("CSQ"));
+        assertFalse(policy.isInfoKeyRetained("CSQ"));
+        assertTrue(policy.isInfoKeyRetained("AC"));
+        assertEquals(FIRST_COLUMNS, policy.getSourceLine(LINE));
+        assertFalse(policy.isSourceLineCompressed());
+    }
+}
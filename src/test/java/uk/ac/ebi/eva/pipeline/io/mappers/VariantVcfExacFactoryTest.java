@@ -23,12 +23,14 @@ import uk.ac.ebi.eva.commons.models.data.Variant;
 import uk.ac.ebi.eva.commons.models.data.VariantSourceEntry;
 import uk.ac.ebi.eva.commons.models.data.VariantStats;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -317,4 +319,24 @@ public class VariantVcfExacFactoryTest extends GenericTest {
         VariantVcfExacFactory.getHomozygousGenotype(3, alleles);    // 0/0
         assertEquals(alleles[0], alleles[1]);
     }
+
+    @Test
+    public void statisticsShouldBeParsedFromInfoKeysNotRetained() {
+        String line = "1\t13525\t.\tG\tT\t828.34\tPASS\tAC=27;AC_Adj=22;AC_Het=22;AC_Hom=0;AF=6.558e-04;AN=41168;"
+                + "AN_Adj=10890";
+        VariantVcfFactory exacFactory = new VariantVcfExacFactory();
+        exacFactory.setAttributeRetentionPolicy(AttributeRetentionPolicy.includingInfoKeys(
+                AttributeRetentionPolicy.SourceLine.COMPRESSED, Collections.singleton("AF")));
+
+        List<Variant> res = exacFactory.create(FILE_ID, STUDY_ID, line);
+
+        VariantSourceEntry sourceEntry = res.get(0).getSourceEntry(FILE_ID, STUDY_ID);
+        assertEquals(22, sourceEntry.getStats().getAltAlleleCount());
+        assertEquals(10890 - 22, sourceEntry.getStats().getRefAlleleCount());
+        assertEquals("6.558e-04", sourceEntry.getAttribute("AF"));
+        assertFalse(sourceEntry.hasAttribute("AC_Adj"));
+        assertFalse(sourceEntry.hasAttribute("AN"));
+        assertTrue(sourceEntry.hasAttribute("QUAL"));
+        assertTrue(sourceEntry.hasAttribute("src"));
+    }
 }
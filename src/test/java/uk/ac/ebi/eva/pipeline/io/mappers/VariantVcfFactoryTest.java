@@ -578,4 +578,44 @@ public class VariantVcfFactoryTest {
         assertEquals(expResult, result);
         assertEquals(emptySet, result.get(0).getIds());
     }
+
+    @Test
+    public void sourceLineShouldKeepOnlyTheFirstEightColumns() {
+        String line = "1\t1000\t.\tC\tT,G\t.\tPASS\tAC=3,4;AF=0.2,0.3;DP=12\tGT:DP\t0/1:4\t1/2:8";
+
+        List<Variant> result = factory.create(FILE_ID, STUDY_ID, line);
+
+        String expectedSourceLine = "1\t1000\t.\tC\tT,G\t.\tPASS\tAC=3,4;AF=0.2,0.3;DP=12";
+        for (Variant variant : result) {
+            assertEquals(expectedSourceLine, variant.getSourceEntry(FILE_ID, STUDY_ID).getAttribute("src"));
+        }
+    }
+
+    @Test
+    public void attributesShouldFollowTheRetentionPolicy() {
+        String line = "1\t1000\t.\tC\tT,G\t.\tPASS\tAC=3,4;AF=0.2,0.3;DP=12;DB\tGT:DP\t0/1:4\t1/2:8";
+
+        VariantVcfFactory includingFactory = new VariantVcfFactory();
+        includingFactory.setAttributeRetentionPolicy(AttributeRetentionPolicy.includingInfoKeys(
+                AttributeRetentionPolicy.SourceLine.NONE, Arrays.asList("AF", "DB")));
+        Map<String, String> attributes = includingFactory.create(FILE_ID, STUDY_ID, line).get(1)
+                                                         .getSourceEntry(FILE_ID, STUDY_ID).getAttributes();
+        Map<String, String> expectedAttributes = new HashMap<>();
+        expectedAttributes.put("FILTER", "PASS");
+        expectedAttributes.put("AF", "0.3");
+        expectedAttributes.put("DB", "");
+        assertEquals(expectedAttributes, attributes);
+
+        VariantVcfFactory excludingFactory = new VariantVcfFactory();
+        excludingFactory.setAttributeRetentionPolicy(AttributeRetentionPolicy.excludingInfoKeys(
+                AttributeRetentionPolicy.SourceLine.COLUMNS, Arrays.asList("AF", "DB")));
+        attributes = excludingFactory.create(FILE_ID, STUDY_ID, line).get(1)
+                                     .getSourceEntry(FILE_ID, STUDY_ID).getAttributes();
+        expectedAttributes = new HashMap<>();
+        expectedAttributes.put("FILTER", "PASS");
+        expectedAttributes.put("AC", "4");
+        expectedAttributes.put("DP", "12");
+        expectedAttributes.put("src", "1\t1000\t.\tC\tT,G\t.\tPASS\tAC=3,4;AF=0.2,0.3;DP=12;DB");
+        assertEquals(expectedAttributes, attributes);
+    }
 }
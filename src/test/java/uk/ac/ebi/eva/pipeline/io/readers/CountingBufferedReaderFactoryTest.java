@@ -0,0 +1,61 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io.readers;
+
+import org.junit.Test;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static uk.ac.ebi.eva.utils.FileUtils.getResource;
+
+/**
+ * {@link CountingBufferedReaderFactory}
+ * <p>
+ * input: a gzipped file
+ * <p>
+ * output: its uncompressed lines, and the compressed bytes read to get them
+ */
+public class CountingBufferedReaderFactoryTest {
+
+    private static final String GZIP_FILE_PATH = "/input-files/vcf/genotyped.vcf.gz";
+
+    @Test
+    public void compressedBytesShouldBeCounted() throws IOException {
+        File file = getResource(GZIP_FILE_PATH);
+        CountingBufferedReaderFactory factory = new CountingBufferedReaderFactory();
+        assertEquals(0, factory.getBytesRead());
+
+        try (BufferedReader reader = factory.create(new FileSystemResource(file), "UTF-8")) {
+            assertTrue(reader.readLine().startsWith("##fileformat=VCF"));
+            long bytesReadForFirstLine = factory.getBytesRead();
+            assertTrue(bytesReadForFirstLine > 0);
+            assertTrue(bytesReadForFirstLine < file.length());
+
+            long uncompressedLength = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                uncompressedLength += line.length();
+            }
+            assertTrue(uncompressedLength > file.length());
+            assertEquals(file.length(), factory.getBytesRead());
+        }
+    }
+}
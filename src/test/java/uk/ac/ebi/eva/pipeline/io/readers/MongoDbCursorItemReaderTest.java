@@ -0,0 +1,166 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io.readers;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import uk.ac.ebi.eva.pipeline.configuration.MongoConfiguration;
+import uk.ac.ebi.eva.pipeline.parameters.MongoConnection;
+import uk.ac.ebi.eva.test.rules.TemporaryMongoRule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * {@link MongoDbCursorItemReader}
+ * input: a collection, a query and optionally a range of ids
+ * output: the matching documents, in id order when reading a range
+ */
+@RunWith(SpringRunner.class)
+@TestPropertySource({"classpath:test-mongo.properties"})
+@ContextConfiguration(classes = {MongoConnection.class, MongoMappingContext.class})
+public class MongoDbCursorItemReaderTest {
+
+    private static final String COLLECTION_NAME = "variants";
+
+    @Autowired
+    private MongoConnection mongoConnection;
+
+    @Autowired
+    private MongoMappingContext mongoMappingContext;
+
+    @Rule
+    public TemporaryMongoRule mongoRule = new TemporaryMongoRule();
+
+    private MongoOperations mongoOperations;
+
+    @Before
+    public void setUp() throws Exception {
+        String databaseName = mongoRule.createDBAndInsertDocuments(COLLECTION_NAME, Arrays.asList(
+                "{\"_id\": \"1_300_A_T\", \"sid\": \"s1\"}",
+                "{\"_id\": \"1_100_A_T\", \"sid\": \"s1\"}",
+                "{\"_id\": \"1_200_A_T\", \"sid\": \"s2\"}",
+                "{\"_id\": \"2_100_A_T\", \"sid\": \"s1\"}",
+                "{\"_id\": \"1_400_A_T\", \"sid\": \"s1\"}"));
+        mongoOperations = MongoConfiguration.getMongoOperations(databaseName, mongoConnection, mongoMappingContext);
+    }
+
+    @Test
+    public void shouldReadAllMatchingDocumentsWithCursorOptions() throws Exception {
+        MongoDbCursorItemReader reader = buildReader(new BasicDBObject("sid", "s1"));
+        reader.setBatchSize(2);
+        reader.setNoCursorTimeout(true);
+        reader.open(new ExecutionContext());
+
+        assertEquals(4, readIds(reader, Integer.MAX_VALUE).size());
+        reader.close();
+    }
+
+    @Test
+    public void shouldReadOnlyIdsInRangeInOrder() throws Exception {
+        MongoDbCursorItemReader reader = buildReader(new BasicDBObject("sid", "s1"));
+        reader.setIdRange("1_100_A_T", "1_400_A_T");
+        reader.open(new ExecutionContext());
+
+        assertEquals(Arrays.asList("1_300_A_T", "1_400_A_T"), readIds(reader, Integer.MAX_VALUE));
+        reader.close();
+    }
+
+    @Test
+    public void rangeShouldBeCombinedWithAQueryOnIds() throws Exception {
+        DBObject query = new BasicDBObject("_id", new BasicDBObject("$ne", "1_300_A_T"));
+        MongoDbCursorItemReader reader = buildReader(query);
+        reader.setIdRange(null, "1_400_A_T");
+        reader.open(new ExecutionContext());
+
+        assertEquals(Arrays.asList("1_100_A_T", "1_200_A_T", "1_400_A_T"), readIds(reader, Integer.MAX_VALUE));
+        reader.close();
+    }
+
+    @Test
+    public void shouldRestartAfterTheLastIdRead() throws Exception {
+        ExecutionContext executionContext = new ExecutionContext();
+        MongoDbCursorItemReader reader = buildReader(new BasicDBObject("sid", "s1"));
+        reader.setIdRange(null, null);
+        reader.open(executionContext);
+        assertEquals(Arrays.asList("1_100_A_T", "1_300_A_T"), readIds(reader, 2));
+        reader.update(executionContext);
+        reader.close();
+
+        // documents before the last id read don't change what is left to read
+        mongoOperations.getCollection(COLLECTION_NAME).remove(new BasicDBObject("_id", "1_100_A_T"));
+
+        MongoDbCursorItemReader restartedReader = buildReader(new BasicDBObject("sid", "s1"));
+        restartedReader.setIdRange(null, null);
+        restartedReader.open(executionContext);
+        assertEquals(Arrays.asList("1_400_A_T", "2_100_A_T"), readIds(restartedReader, Integer.MAX_VALUE));
+        restartedReader.close();
+    }
+
+    @Test
+    public void removingReadDocumentsShouldNotSkipOthers() throws Exception {
+        MongoDbCursorItemReader reader = buildReader(new BasicDBObject("sid", "s1"));
+        reader.setIdRange(null, null);
+        reader.setBatchSize(1);
+        reader.open(new ExecutionContext());
+
+        List<String> ids = new ArrayList<>();
+        DBObject document;
+        while ((document = reader.read()) != null) {
+            ids.add(document.get("_id").toString());
+            mongoOperations.getCollection(COLLECTION_NAME).remove(new BasicDBObject("_id", document.get("_id")));
+        }
+        assertEquals(Arrays.asList("1_100_A_T", "1_300_A_T", "1_400_A_T", "2_100_A_T"), ids);
+        reader.close();
+    }
+
+    private MongoDbCursorItemReader buildReader(DBObject query) throws Exception {
+        MongoDbCursorItemReader reader = new MongoDbCursorItemReader();
+        reader.setTemplate(mongoOperations);
+        reader.setCollection(COLLECTION_NAME);
+        reader.setQuery(query);
+        reader.afterPropertiesSet();
+        return reader;
+    }
+
+    private List<String> readIds(MongoDbCursorItemReader reader, int maxIds) throws Exception {
+        List<String> ids = new ArrayList<>();
+        DBObject document;
+        while (ids.size() < maxIds && (document = reader.read()) != null) {
+            ids.add(document.get("_id").toString());
+        }
+        if (maxIds == Integer.MAX_VALUE) {
+            assertNull(reader.read());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io.readers;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import uk.ac.ebi.eva.pipeline.io.BgzipOutputStream;
+import uk.ac.ebi.eva.test.rules.PipelineTemporaryFolderRule;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static uk.ac.ebi.eva.utils.FileUtils.getResource;
+
+/**
+ * {@link PositionedLineReader}
+ * <p>
+ * input: an uncompressed or bgzipped file
+ * <p>
+ * output: its lines, and the positions to read them again
+ */
+public class PositionedLineReaderTest {
+
+    private static final String BGZIP_FILE_PATH = "/input-files/vcf/genotyped_bgzip.vcf.gz";
+
+    private static final String GZIP_FILE_PATH = "/input-files/vcf/genotyped.vcf.gz";
+
+    private static final int BGZIP_HEADER_SIZE = 18;
+
+    private static final int BGZIP_FOOTER_SIZE = 8;
+
+    private static final int EMPTY_BGZIP_BLOCK_SIZE = 28;
+
+    @Rule
+    public PipelineTemporaryFolderRule temporaryFolderRule = new PipelineTemporaryFolderRule();
+
+    @Test
+    public void onlyPlainGzipShouldNotBeSeekable() throws IOException {
+        assertTrue(PositionedLineReader.isSeekable(getResource(BGZIP_FILE_PATH)));
+        assertTrue(PositionedLineReader.isSeekable(uncompress(getResource(GZIP_FILE_PATH))));
+        assertFalse(PositionedLineReader.isSeekable(getResource(GZIP_FILE_PATH)));
+    }
+
+    @Test
+    public void bgzipFileShouldBeReadAndSeeked() throws IOException {
+        File file = getResource(BGZIP_FILE_PATH);
+        checkReadAndSeek(file, readGzipLines(file));
+    }
+
+    @Test
+    public void uncompressedFileShouldBeReadAndSeeked() throws IOException {
+        File gzipFile = getResource(GZIP_FILE_PATH);
+        checkReadAndSeek(uncompress(gzipFile), readGzipLines(gzipFile));
+    }
+
+    @Test
+    public void windowsLineEndingsAndLastLineWithoutEndShouldBeRead() throws IOException {
+        File file = temporaryFolderRule.newFile();
+        try (OutputStream outputStream = new FileOutputStream(file)) {
+            outputStream.write("first\r\nsecond\n\nlast".getBytes(StandardCharsets.UTF_8));
+        }
+
+        try (PositionedLineReader reader = PositionedLineReader.open(file, StandardCharsets.UTF_8)) {
+            assertEquals("first", reader.readLine());
+            assertEquals("second", reader.readLine());
+            assertEquals("", reader.readLine());
+            assertEquals("last", reader.readLine());
+            assertNull(reader.readLine());
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void truncatedBgzipBlockShouldFail() throws IOException {
+        byte[] block = bgzip("first\nsecond\n");
+        int blockSize = block.length - EMPTY_BGZIP_BLOCK_SIZE;
+        int dataSize = blockSize - BGZIP_HEADER_SIZE - BGZIP_FOOTER_SIZE;
+
+        // keep the header and the footer, but only half of the compressed data
+        int truncatedSize = blockSize - dataSize / 2;
+        byte[] truncated = new byte[truncatedSize];
+        System.arraycopy(block, 0, truncated, 0, BGZIP_HEADER_SIZE + dataSize - dataSize / 2);
+        System.arraycopy(block, blockSize - BGZIP_FOOTER_SIZE, truncated, truncatedSize - BGZIP_FOOTER_SIZE,
+                         BGZIP_FOOTER_SIZE);
+        truncated[16] = (byte) (truncatedSize - 1);
+        truncated[17] = (byte) ((truncatedSize - 1) >>> 8);
+
+        checkReadFails(truncated, "BGZF block at offset 0 is truncated");
+    }
+
+    @Test
+    public void bgzipBlockWithWrongCrcShouldFail() throws IOException {
+        byte[] block = bgzip("first\nsecond\n");
+        int blockSize = block.length - EMPTY_BGZIP_BLOCK_SIZE;
+        block[blockSize - BGZIP_FOOTER_SIZE] ^= 1;
+
+        checkReadFails(block, "BGZF block at offset 0 is corrupt, its CRC32 doesn't match");
+    }
+
+    private byte[] bgzip(String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream outputStream = new BgzipOutputStream(bytes)) {
+            outputStream.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private void checkReadFails(byte[] content, String expectedMessage) throws IOException {
+        File file = temporaryFolderRule.newFile();
+        Files.write(file.toPath(), content);
+        try (PositionedLineReader reader = PositionedLineReader.open(file, StandardCharsets.UTF_8)) {
+            reader.readLine();
+            fail("Reading " + Arrays.toString(content) + " should have failed");
+        } catch (IOException e) {
+            assertEquals(expectedMessage, e.getMessage());
+        }
+    }
+
+    private void checkReadAndSeek(File file, List<String> expectedLines) throws IOException {
+        List<Long> positions = new ArrayList<>();
+        try (PositionedLineReader reader = PositionedLineReader.open(file, StandardCharsets.UTF_8)) {
+            String line;
+            int index = 0;
+            positions.add(reader.getPosition());
+            while ((line = reader.readLine()) != null) {
+                assertEquals(expectedLines.get(index++), line);
+                positions.add(reader.getPosition());
+            }
+            assertEquals(expectedLines.size(), index);
+            assertEquals(file.length(), reader.getBytesRead());
+
+            // go back and forth, going over the blocks of the bgzipped file
+            for (int i = expectedLines.size() - 1; i >= 0; i -= 7) {
+                reader.seek(positions.get(i));
+                assertEquals(expectedLines.get(i), reader.readLine());
+            }
+            reader.seek(positions.get(expectedLines.size()));
+            assertNull(reader.readLine());
+        }
+
+        // positions must also be valid in a new reader
+        try (PositionedLineReader reader = PositionedLineReader.open(file, StandardCharsets.UTF_8)) {
+            int middle = expectedLines.size() / 2;
+            reader.seek(positions.get(middle));
+            assertEquals(expectedLines.get(middle), reader.readLine());
+            assertEquals(expectedLines.get(middle + 1), reader.readLine());
+        }
+    }
+
+    private List<String> readGzipLines(File file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private File uncompress(File gzipFile) throws IOException {
+        File file = temporaryFolderRule.newFile();
+        try (InputStream inputStream = new GZIPInputStream(new FileInputStream(gzipFile));
+             OutputStream outputStream = new FileOutputStream(file)) {
+            byte[] buffer = new byte[1 << 16];
+            int read;
+            while ((read = inputStream.read(buffer)) > 0) {
+                outputStream.write(buffer, 0, read);
+            }
+        }
+        return file;
+    }
+}
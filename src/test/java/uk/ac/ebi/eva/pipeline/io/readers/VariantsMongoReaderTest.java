@@ -32,16 +32,19 @@ import org.springframework.test.context.junit4.SpringRunner;
 import uk.ac.ebi.eva.pipeline.Application;
 import uk.ac.ebi.eva.pipeline.configuration.MongoConfiguration;
 import uk.ac.ebi.eva.pipeline.model.EnsemblVariant;
+import uk.ac.ebi.eva.pipeline.model.Region;
 import uk.ac.ebi.eva.pipeline.parameters.MongoConnection;
 import uk.ac.ebi.eva.test.data.VariantData;
 import uk.ac.ebi.eva.test.rules.TemporaryMongoRule;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * {@link VariantsMongoReader}
@@ -124,7 +127,7 @@ public class VariantsMongoReaderTest {
 
         VariantsMongoReader mongoItemReader = new VariantsMongoReader(mongoOperations, COLLECTION_VARIANTS_NAME,
                                                                       VEP_VERSION, VEP_CACHE_VERSION, study, file,
-                                                                      excludeAnnotated, chunkSize);
+                                                                      null, excludeAnnotated, chunkSize);
         mongoItemReader.open(executionContext);
 
         int itemCount = 0;
@@ -195,4 +198,84 @@ public class VariantsMongoReaderTest {
         checkVariantsRead(EXPECTED_VARIANTS_IN_DB, null, null, false, chunkSize);
     }
 
+    @Test
+    public void batchesShouldBeSortedAndNotSpanSeveralChromosomes() throws Exception {
+        List<List<EnsemblVariant>> batches = readBatchesInRegion(null, 4);
+
+
+        assertEquals(2, batches.size());
+        assertEquals(3, batches.get(0).size());
+        assertEquals(2, batches.get(1).size());
+        for (List<EnsemblVariant> variants : batches) {
+            for (int i = 1; i < variants.size(); i++) {
+                assertEquals(variants.get(0).getChr(), variants.get(i).getChr());
+                assertTrue(variants.get(i - 1).getStart() <= variants.get(i).getStart());
+            }
+        }
+    }
+
+    @Test
+    public void shouldReadOnlyVariantsInAChromosome() throws Exception {
+        List<List<EnsemblVariant>> batches = readBatchesInRegion(Region.parseRegion("2"), 4);
+
+        assertEquals(1, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertEquals("2", batches.get(0).get(0).getChr());
+    }
+
+    @Test
+    public void shouldReadOnlyVariantsStartingInARegion() throws Exception {
+        List<List<EnsemblVariant>> batches = readBatchesInRegion(Region.parseRegion("1:150-300"), 4);
+
+        assertEquals(1, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertEquals(200, batches.get(0).get(0).getStart());
+        assertEquals(300, batches.get(0).get(1).getStart());
+    }
+
+    @Test
+    public void restartedReaderShouldKeepCountingTheVepCacheRegions() throws Exception {
+        ExecutionContext executionContext = MetaDataInstanceFactory.createStepExecution().getExecutionContext();
+        executionContext.putLong("vep_cache_regions", 5);
+
+        List<List<EnsemblVariant>> batches = readBatchesInRegion(null, 4, executionContext);
+
+        assertEquals(2, batches.size());
+        assertEquals(7, executionContext.getLong("vep_cache_regions"));
+    }
+
+    private List<List<EnsemblVariant>> readBatchesInRegion(Region region, int chunkSize) throws Exception {
+        return readBatchesInRegion(region, chunkSize,
+                                   MetaDataInstanceFactory.createStepExecution().getExecutionContext());
+    }
+
+    private List<List<EnsemblVariant>> readBatchesInRegion(Region region, int chunkSize,
+                                                           ExecutionContext executionContext) throws Exception {
+        String databaseName = mongoRule.createDBAndInsertDocuments(COLLECTION_VARIANTS_NAME, Arrays.asList(
+                buildVariant("2", 300), buildVariant("1", 200), buildVariant("2", 100), buildVariant("1", 100),
+                buildVariant("1", 300)));
+
+        MongoOperations mongoOperations = MongoConfiguration.getMongoOperations(databaseName, mongoConnection,
+                                                                                mongoMappingContext);
+
+        VariantsMongoReader mongoItemReader = new VariantsMongoReader(mongoOperations, COLLECTION_VARIANTS_NAME,
+                                                                      VEP_VERSION, VEP_CACHE_VERSION, null, null,
+                                                                      region, false, chunkSize);
+        mongoItemReader.open(executionContext);
+
+        List<List<EnsemblVariant>> batches = new ArrayList<>();
+        List<EnsemblVariant> batch;
+        while ((batch = mongoItemReader.read()) != null) {
+            batches.add(batch);
+        }
+        mongoItemReader.update(executionContext);
+        mongoItemReader.close();
+        return batches;
+    }
+
+    private String buildVariant(String chromosome, int start) {
+        return "{\"_id\":\"" + chromosome + "_" + start + "_A_T\",\"chr\":\"" + chromosome + "\",\"start\":" + start
+                + ",\"end\":" + start + ",\"ref\":\"A\",\"alt\":\"T\",\"type\":\"SNV\"}";
+    }
+
 }
@@ -35,6 +35,8 @@ public class VcfReaderTest {
 
     private static final String INPUT_FILE_PATH = "/input-files/vcf/genotyped.vcf.gz";
 
+    private static final String BGZIP_INPUT_FILE_PATH = "/input-files/vcf/genotyped_bgzip.vcf.gz";
+
     private static final String INPUT_WRONG_FILE_PATH = "/input-files/vcf/wrong_same_ref_alt.vcf.gz";
 
     private static final String FILE_ID = "5";
@@ -91,6 +93,68 @@ public class VcfReaderTest {
         consumeReader(input, vcfReader);
     }
 
+    @Test
+    public void testBgzipVcf() throws Exception {
+        ExecutionContext executionContext = MetaDataInstanceFactory.createStepExecution().getExecutionContext();
+
+        File input = getResource(BGZIP_INPUT_FILE_PATH);
+
+        VcfReader vcfReader = new VcfReader(FILE_ID, STUDY_ID, input);
+        vcfReader.setSaveState(false);
+        vcfReader.open(executionContext);
+
+        consumeReader(input, vcfReader);
+    }
+
+    @Test
+    public void bgzipVcfShouldRestartFromTheSavedPosition() throws Exception {
+        checkRestart(getResource(BGZIP_INPUT_FILE_PATH), true);
+    }
+
+    @Test
+    public void uncompressedVcfShouldRestartFromTheSavedPosition() throws Exception {
+        File tempFile = temporaryFolderRule.newFile();
+        JobTestUtils.uncompress(getResource(INPUT_FILE_PATH).getAbsolutePath(), tempFile);
+
+        checkRestart(tempFile, true);
+    }
+
+    @Test
+    public void gzipVcfShouldRestartFromTheSavedLineCount() throws Exception {
+        checkRestart(getResource(INPUT_FILE_PATH), false);
+    }
+
+    private void checkRestart(File input, boolean positionExpected) throws Exception {
+        ExecutionContext executionContext = MetaDataInstanceFactory.createStepExecution().getExecutionContext();
+        int linesBeforeFailure = 150;
+
+        VcfReader vcfReader = new VcfReader(FILE_ID, STUDY_ID, input);
+        vcfReader.open(executionContext);
+        for (int i = 0; i < linesBeforeFailure; i++) {
+            vcfReader.read();
+        }
+        vcfReader.update(executionContext);
+        List<Variant> firstVariantsAfterRestart = vcfReader.read();
+        vcfReader.close();
+
+        assertEquals(positionExpected,
+                     executionContext.containsKey(vcfReader.getExecutionContextKey(VcfReader.POSITION_KEY)));
+
+        VcfReader restartedVcfReader = new VcfReader(FILE_ID, STUDY_ID, input);
+        restartedVcfReader.open(executionContext);
+        assertEquals(firstVariantsAfterRestart, restartedVcfReader.read());
+
+        int count = 1;
+        while (restartedVcfReader.read() != null) {
+            count++;
+        }
+        restartedVcfReader.close();
+
+        long expectedCount = JobTestUtils.getLines(new GZIPInputStream(new FileInputStream(getResource(
+                INPUT_FILE_PATH))));
+        assertEquals(expectedCount - linesBeforeFailure, count);
+    }
+
     private void consumeReader(File inputFile, VcfReader vcfReader) throws Exception {
         List<Variant> variants;
         int count = 0;
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io.writers;
+
+import org.junit.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link ParallelCompositeItemWriter}
+ * input: a chunk of items
+ * output: the same chunk written by every delegate, concurrently
+ */
+public class ParallelCompositeItemWriterTest {
+
+    @Test
+    public void allDelegatesShouldWriteTheChunk() throws Exception {
+        List<String> first = Collections.synchronizedList(new ArrayList<>());
+        List<String> second = Collections.synchronizedList(new ArrayList<>());
+
+        ParallelCompositeItemWriter<String> writer = new ParallelCompositeItemWriter<>(
+                Arrays.asList(first::addAll, second::addAll), new SimpleAsyncTaskExecutor());
+        writer.write(Arrays.asList("a", "b"));
+
+        assertEquals(Arrays.asList("a", "b"), first);
+        assertEquals(Arrays.asList("a", "b"), second);
+    }
+
+    @Test
+    public void delegatesShouldRunConcurrently() throws Exception {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        ItemWriter<String> waitingWriter = items -> {
+            bothStarted.countDown();
+            assertTrue("The other delegate did not start", bothStarted.await(5, TimeUnit.SECONDS));
+        };
+
+        new ParallelCompositeItemWriter<>(Arrays.asList(waitingWriter, waitingWriter), new SimpleAsyncTaskExecutor())
+                .write(Collections.singletonList("a"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void failureInTheExecutorShouldFailTheWrite() throws Exception {
+        ItemWriter<String> failingWriter = items -> {
+            throw new IllegalStateException("Mongo timeout");
+        };
+        ItemWriter<String> noOpWriter = items -> {
+        };
+
+        new ParallelCompositeItemWriter<>(Arrays.asList(failingWriter, noOpWriter), new SimpleAsyncTaskExecutor())
+                .write(Collections.singletonList("a"));
+    }
+
+    @Test
+    public void failureInTheCallingThreadShouldWaitForTheOtherDelegates() throws Exception {
+        List<String> written = Collections.synchronizedList(new ArrayList<>());
+        ItemWriter<String> slowWriter = items -> {
+            Thread.sleep(200);
+            written.addAll(items);
+        };
+        ItemWriter<String> failingWriter = items -> {
+            throw new IllegalStateException("Mongo timeout");
+        };
+
+        try {
+            new ParallelCompositeItemWriter<>(Arrays.asList(slowWriter, failingWriter), new SimpleAsyncTaskExecutor())
+                    .write(Collections.singletonList("a"));
+        } catch (IllegalStateException e) {
+            assertEquals(Collections.singletonList("a"), written);
+            return;
+        }
+        throw new AssertionError("The write should have failed");
+    }
+
+    @Test
+    public void streamDelegatesShouldBeOpenedUpdatedAndClosed() throws Exception {
+        List<String> calls = new ArrayList<>();
+        ItemStreamWriter<String> streamWriter = new ItemStreamWriter<String>() {
+            @Override
+            public void open(ExecutionContext executionContext) {
+                calls.add("open");
+            }
+
+            @Override
+            public void update(ExecutionContext executionContext) {
+                calls.add("update");
+            }
+
+            @Override
+            public void close() {
+                calls.add("close");
+            }
+
+            @Override
+            public void write(List<? extends String> items) {
+                calls.add("write");
+            }
+        };
+        ItemWriter<String> noOpWriter = items -> {
+        };
+
+        ParallelCompositeItemWriter<String> writer = new ParallelCompositeItemWriter<>(
+                Arrays.asList(noOpWriter, streamWriter), new SimpleAsyncTaskExecutor());
+        writer.open(new ExecutionContext());
+        writer.write(Collections.singletonList("a"));
+        writer.update(new ExecutionContext());
+        writer.close();
+
+        assertEquals(Arrays.asList("open", "write", "update", "close"), calls);
+    }
+}
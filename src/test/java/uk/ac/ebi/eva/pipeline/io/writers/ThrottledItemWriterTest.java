@@ -0,0 +1,70 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io.writers;
+
+import org.junit.Test;
+import org.springframework.batch.item.ItemWriter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link ThrottledItemWriter}
+ * input: chunks of items
+ * output: the same chunks, written no faster than the rate limit
+ */
+public class ThrottledItemWriterTest {
+
+    @Test
+    public void chunksShouldBeDelayedToKeepTheRate() throws Exception {
+        List<String> written = new ArrayList<>();
+        ThrottledItemWriter<String> writer = new ThrottledItemWriter<>(written::addAll, 20);
+
+        long start = System.nanoTime();
+        writer.write(Arrays.asList("a", "b"));
+        writer.write(Arrays.asList("c", "d"));
+        writer.write(Arrays.asList("e"));
+        long elapsedMillis = (System.nanoTime() - start) / 1000000;
+
+        assertEquals(Arrays.asList("a", "b", "c", "d", "e"), written);
+        assertTrue("Writing took only " + elapsedMillis + "ms", elapsedMillis >= 190);
+    }
+
+    @Test
+    public void noLimitShouldNotWrapTheWriter() throws Exception {
+        ItemWriter<String> writer = items -> {
+        };
+        assertSame(writer, ThrottledItemWriter.throttle(writer, 0, 4));
+    }
+
+    @Test
+    public void limitShouldBeSharedByTheConcurrentWriters() throws Exception {
+        ItemWriter<String> writer = ThrottledItemWriter.throttle(items -> {
+        }, 40, 2);
+        assertTrue(writer instanceof ThrottledItemWriter);
+
+        long start = System.nanoTime();
+        writer.write(Arrays.asList("a", "b"));
+        writer.write(Arrays.asList("c"));
+        long elapsedMillis = (System.nanoTime() - start) / 1000000;
+        assertTrue("Writing took only " + elapsedMillis + "ms", elapsedMillis >= 90);
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io.writers;
+
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import uk.ac.ebi.eva.commons.models.data.Variant;
+import uk.ac.ebi.eva.commons.models.data.VariantSourceEntry;
+import uk.ac.ebi.eva.commons.models.data.VariantStats;
+import uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.SamplesEncoding;
+import uk.ac.ebi.eva.pipeline.configuration.MongoConfiguration;
+import uk.ac.ebi.eva.pipeline.io.BsonDump;
+import uk.ac.ebi.eva.pipeline.parameters.MongoConnection;
+import uk.ac.ebi.eva.test.rules.PipelineTemporaryFolderRule;
+import uk.ac.ebi.eva.test.rules.TemporaryMongoRule;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Testing {@link VariantBsonDumpWriter}
+ */
+@RunWith(SpringRunner.class)
+@TestPropertySource({"classpath:test-mongo.properties"})
+@ContextConfiguration(classes = {MongoConnection.class, MongoMappingContext.class})
+public class VariantBsonDumpWriterTest {
+
+    private static final String DATABASE = "eva";
+
+    private static final String COLLECTION_VARIANTS_NAME = "variants";
+
+    @Autowired
+    private MongoConnection mongoConnection;
+
+    @Autowired
+    private MongoMappingContext mongoMappingContext;
+
+    @Rule
+    public TemporaryMongoRule mongoRule = new TemporaryMongoRule();
+
+    @Rule
+    public PipelineTemporaryFolderRule temporaryFolder = new PipelineTemporaryFolderRule();
+
+    @Test
+    public void dumpedVariantsShouldBeTheDocumentsWrittenInMongo() throws Exception {
+        Variant variant = buildVariant("12", 3, 4, "A", "T", "fileId");
+        variant.setIds(new HashSet<>(Arrays.asList("rs1", "rs2")));
+        List<Variant> variants = Arrays.asList(variant, buildVariant("12", 3, 4, "A", "T", "otherFileId"),
+                                               buildVariant("12", 5, 6, "C", "G", "fileId"));
+
+        MongoOperations mongoOperations = MongoConfiguration.getMongoOperations(
+                mongoRule.getRandomTemporaryDatabaseName(), mongoConnection, mongoMappingContext);
+        new VariantMongoWriter(COLLECTION_VARIANTS_NAME, mongoOperations, true, true).write(variants);
+
+        File directory = temporaryFolder.newFolder();
+        VariantBsonDumpWriter writer = new VariantBsonDumpWriter(directory, "partition", DATABASE, true,
+                                                                 COLLECTION_VARIANTS_NAME,
+                                                                 mongoOperations.getConverter(), true, true, true,
+                                                                 SamplesEncoding.ARRAY, null);
+        writer.open(new ExecutionContext());
+        writer.write(variants);
+        writer.update(new ExecutionContext());
+        writer.close();
+
+        DBCollection variantsCollection = mongoOperations.getCollection(COLLECTION_VARIANTS_NAME);
+        List<DBObject> dumpedVariants = readAll(new File(directory, "partition/eva/variants.bson.gz"));
+        assertEquals(2, dumpedVariants.size());
+        for (DBObject dumpedVariant : dumpedVariants) {
+            assertEquals(variantsCollection.findOne(dumpedVariant.get("_id")), dumpedVariant);
+        }
+    }
+
+    @Test
+    public void restartedWriterShouldDiscardTheChunksNotCommitted() throws Exception {
+        MongoOperations mongoOperations = MongoConfiguration.getMongoOperations(
+                mongoRule.getRandomTemporaryDatabaseName(), mongoConnection, mongoMappingContext);
+        File directory = temporaryFolder.newFolder();
+        ExecutionContext executionContext = new ExecutionContext();
+
+        VariantBsonDumpWriter writer = newWriter(directory, "first-execution", mongoOperations);
+        writer.open(executionContext);
+        writer.write(Collections.singletonList(buildVariant("1", 10, 10, "A", "T", "fileId")));
+        writer.update(executionContext);
+        writer.write(Collections.singletonList(buildVariant("1", 20, 20, "A", "T", "fileId")));
+        writer.close();
+
+        VariantBsonDumpWriter restartedWriter = newWriter(directory, "second-execution", mongoOperations);
+        restartedWriter.open(executionContext);
+        restartedWriter.write(Collections.singletonList(buildVariant("1", 30, 30, "A", "T", "fileId")));
+        restartedWriter.update(executionContext);
+        restartedWriter.close();
+
+        List<File> files = BsonDump.listFiles(directory, DATABASE);
+        assertEquals(Collections.singletonList(new File(directory, "first-execution/eva/variants.bson")), files);
+        List<Object> ids = new ArrayList<>();
+        for (DBObject dumpedVariant : readAll(files.get(0))) {
+            ids.add(dumpedVariant.get("_id"));
+        }
+        assertEquals(Arrays.asList("1_10_A_T", "1_30_A_T"), ids);
+    }
+
+    @Test
+    public void genotypesShouldBeDumpedIntoTheirOwnCollection() throws Exception {
+        Variant variant = buildVariant("12", 3, 4, "A", "T", "fileId");
+        VariantSourceEntry variantSourceEntry = variant.getSourceEntries().values().iterator().next();
+        variantSourceEntry.setFormat("GT");
+        for (String genotype : Arrays.asList("0|0", "0|1", "0|0")) {
+            variantSourceEntry.addSampleData(Collections.singletonMap("GT", genotype));
+        }
+
+        MongoOperations mongoOperations = MongoConfiguration.getMongoOperations(
+                mongoRule.getRandomTemporaryDatabaseName(), mongoConnection, mongoMappingContext);
+        File directory = temporaryFolder.newFolder();
+        VariantBsonDumpWriter writer = new VariantBsonDumpWriter(directory, "partition", DATABASE, false,
+                                                                 COLLECTION_VARIANTS_NAME,
+                                                                 mongoOperations.getConverter(), false, true, true,
+                                                                 SamplesEncoding.ARRAY, "genotypes");
+        writer.open(new ExecutionContext());
+        writer.write(Collections.singletonList(variant));
+        writer.close();
+
+        List<DBObject> genotypes = readAll(new File(directory, "partition/eva/genotypes.bson"));
+        assertEquals(1, genotypes.size());
+        assertEquals("12_3_A_T", genotypes.get(0).get("vid"));
+        assertEquals(Collections.singletonList(1), ((DBObject) genotypes.get(0).get("samp")).get("0|1"));
+    }
+
+    private VariantBsonDumpWriter newWriter(File directory, String partition, MongoOperations mongoOperations) {
+        return new VariantBsonDumpWriter(directory, partition, DATABASE, false, COLLECTION_VARIANTS_NAME,
+                                         mongoOperations.getConverter(), false, false, true, SamplesEncoding.ARRAY,
+                                         null);
+    }
+
+    private Variant buildVariant(String chromosome, int start, int end, String reference, String alternate,
+                                 String fileId) {
+        Variant variant = new Variant(chromosome, start, end, reference, alternate);
+        VariantSourceEntry variantSourceEntry = new VariantSourceEntry(fileId, "studyId");
+        variantSourceEntry.setCohortStats("cohortStats",
+                                          new VariantStats(reference, alternate, Variant.VariantType.SNV));
+        variant.addSourceEntry(variantSourceEntry);
+        return variant;
+    }
+
+    private List<DBObject> readAll(File file) throws Exception {
+        List<DBObject> documents = new ArrayList<>();
+        try (BsonDump.Reader reader = BsonDump.openReader(file)) {
+            DBObject document;
+            while ((document = reader.read()) != null) {
+                documents.add(document);
+            }
+        }
+        return documents;
+    }
+}
@@ -32,6 +32,7 @@ import org.springframework.test.context.junit4.SpringRunner;
 import uk.ac.ebi.eva.commons.models.data.Variant;
 import uk.ac.ebi.eva.commons.models.data.VariantSourceEntry;
 import uk.ac.ebi.eva.commons.models.data.VariantStats;
+import uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.SamplesEncoding;
 import uk.ac.ebi.eva.pipeline.configuration.MongoConfiguration;
 import uk.ac.ebi.eva.pipeline.parameters.MongoConnection;
 import uk.ac.ebi.eva.test.rules.TemporaryMongoRule;
@@ -251,6 +252,91 @@ public class VariantMongoWriterTest {
         assertNull(storedVariant.get("ids"));
     }
 
+    @Test
+    public void genotypesShouldBeInsertedIntoTheirOwnCollection() throws Exception {
+        Variant variant = buildVariant("12", 3, 4, "A", "T", "fileId", "studyId");
+        VariantSourceEntry variantSourceEntry = variant.getSourceEntries().values().iterator().next();
+        variantSourceEntry.setFormat("GT");
+        for (String genotype : Arrays.asList("0|0", "0|1", "0|0")) {
+            variantSourceEntry.addSampleData(Collections.singletonMap("GT", genotype));
+        }
+
+        String dbName = mongoRule.getRandomTemporaryDatabaseName();
+        MongoOperations mongoOperations = MongoConfiguration.getMongoOperations(dbName, mongoConnection,
+                                                                                mongoMappingContext);
+
+        VariantMongoWriter variantMongoWriter = new VariantMongoWriter(collectionName, mongoOperations, false, true,
+                                                                       true, SamplesEncoding.ARRAY, "genotypes",
+                                                                       null, null);
+        variantMongoWriter.write(Collections.singletonList(variant));
+        variantMongoWriter.write(Collections.singletonList(variant));
+
+        DBObject storedFile = (DBObject) ((BasicDBList) mongoOperations.getCollection(collectionName).findOne()
+                                                                       .get("files")).get(0);
+        assertNull(storedFile.get("samp"));
+
+        DBCollection genotypesCollection = mongoOperations.getCollection("genotypes");
+        assertEquals(1, genotypesCollection.count());
+        DBObject storedGenotypes = genotypesCollection.findOne();
+        assertEquals("12_3_A_T", storedGenotypes.get("vid"));
+        assertEquals("studyId", storedGenotypes.get("sid"));
+        assertEquals("fileId", storedGenotypes.get("fid"));
+        assertEquals("0|0", ((DBObject) storedGenotypes.get("samp")).get("def"));
+        assertEquals(Collections.singletonList(1), ((DBObject) storedGenotypes.get("samp")).get("0|1"));
+    }
+
+    @Test
+    public void identicalGenotypesOfTheSameVariantAreInsertedOnce() throws Exception {
+        Variant variant = buildGenotypedVariant("0|0", "0|1");
+        Variant sameVariant = buildGenotypedVariant("0|0", "0|1");
+
+        MongoOperations mongoOperations = MongoConfiguration.getMongoOperations(
+                mongoRule.getRandomTemporaryDatabaseName(), mongoConnection, mongoMappingContext);
+        VariantMongoWriter variantMongoWriter = new VariantMongoWriter(collectionName, mongoOperations, false, true,
+                                                                       true, SamplesEncoding.ARRAY, "genotypes",
+                                                                       null, null);
+        variantMongoWriter.write(Arrays.asList(variant, sameVariant));
+
+        assertEquals(1, mongoOperations.getCollection("genotypes").count());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void differentGenotypesOfTheSameVariantInAChunkShouldFail() throws Exception {
+        Variant variant = buildGenotypedVariant("0|0", "0|1");
+        Variant sameVariant = buildGenotypedVariant("1|1", "0|1");
+
+        MongoOperations mongoOperations = MongoConfiguration.getMongoOperations(
+                mongoRule.getRandomTemporaryDatabaseName(), mongoConnection, mongoMappingContext);
+        VariantMongoWriter variantMongoWriter = new VariantMongoWriter(collectionName, mongoOperations, false, true,
+                                                                       true, SamplesEncoding.ARRAY, "genotypes",
+                                                                       null, null);
+        variantMongoWriter.write(Arrays.asList(variant, sameVariant));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void differentGenotypesOfTheSameVariantInAnotherChunkShouldFail() throws Exception {
+        Variant variant = buildGenotypedVariant("0|0", "0|1");
+        Variant sameVariant = buildGenotypedVariant("1|1", "0|1");
+
+        MongoOperations mongoOperations = MongoConfiguration.getMongoOperations(
+                mongoRule.getRandomTemporaryDatabaseName(), mongoConnection, mongoMappingContext);
+        VariantMongoWriter variantMongoWriter = new VariantMongoWriter(collectionName, mongoOperations, false, true,
+                                                                       true, SamplesEncoding.ARRAY, "genotypes",
+                                                                       null, null);
+        variantMongoWriter.write(Collections.singletonList(variant));
+        variantMongoWriter.write(Collections.singletonList(sameVariant));
+    }
+
+    private Variant buildGenotypedVariant(String... genotypes) {
+        Variant variant = buildVariant("12", 3, 4, "A", "T", "fileId", "studyId");
+        VariantSourceEntry variantSourceEntry = variant.getSourceEntries().values().iterator().next();
+        variantSourceEntry.setFormat("GT");
+        for (String genotype : genotypes) {
+            variantSourceEntry.addSampleData(Collections.singletonMap("GT", genotype));
+        }
+        return variant;
+    }
+
     private Variant buildVariant(String chromosome, int start, int end, String reference, String alternate,
                                  String fileId, String studyId) {
         Variant variant = new Variant(chromosome, start, end, reference, alternate);
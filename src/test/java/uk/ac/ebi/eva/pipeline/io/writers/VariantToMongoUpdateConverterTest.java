@@ -0,0 +1,174 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io.writers;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.DBObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import uk.ac.ebi.eva.commons.models.data.Variant;
+import uk.ac.ebi.eva.commons.models.data.VariantSourceEntry;
+import uk.ac.ebi.eva.commons.models.data.VariantStats;
+import uk.ac.ebi.eva.commons.models.mongo.entity.subdocuments.SamplesEncoding;
+import uk.ac.ebi.eva.pipeline.configuration.MongoConfiguration;
+import uk.ac.ebi.eva.test.utils.NoDbRefResolver;
+import uk.ac.ebi.eva.utils.SampleIndexCodec;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Testing {@link VariantToMongoUpdateConverter}
+ */
+public class VariantToMongoUpdateConverterTest {
+
+    private MongoConverter mongoConverter;
+
+    @Before
+    public void setUp() {
+        mongoConverter = MongoConfiguration.getMappingMongoConverter(new NoDbRefResolver(),
+                                                                     new MongoMappingContext());
+    }
+
+    @Test
+    public void variantWithoutSourceEntriesShouldOnlyBeSetOnInsert() {
+        Variant variant = new Variant("1", 1, 2, "A", "T");
+
+        DBObject update = new VariantToMongoUpdateConverter(mongoConverter, true, true).convert(variant);
+
+        assertNull(update.get("$addToSet"));
+        DBObject setOnInsert = (DBObject) update.get("$setOnInsert");
+        assertEquals("1", setOnInsert.get("chr"));
+        assertEquals(1, setOnInsert.get("start"));
+        assertEquals(2, setOnInsert.get("end"));
+        assertEquals("A", setOnInsert.get("ref"));
+        assertEquals("T", setOnInsert.get("alt"));
+    }
+
+    @Test
+    public void fileShouldBeAddedToTheSet() {
+        Variant variant = buildVariant();
+
+        DBObject update = new VariantToMongoUpdateConverter(mongoConverter, false, true).convert(variant);
+
+        DBObject addToSet = (DBObject) update.get("$addToSet");
+        DBObject file = (DBObject) addToSet.get("files");
+        assertEquals("fileId", file.get("fid"));
+        assertEquals("studyId", file.get("sid"));
+        assertNull(addToSet.get("st"));
+    }
+
+    @Test
+    public void includeStatsTrueShouldAddTheStatistics() {
+        Variant variant = buildVariant();
+
+        DBObject update = new VariantToMongoUpdateConverter(mongoConverter, true, false).convert(variant);
+
+        DBObject addToSet = (DBObject) update.get("$addToSet");
+        BasicDBList statistics = (BasicDBList) ((DBObject) addToSet.get("st")).get("$each");
+        assertEquals(1, statistics.size());
+    }
+
+    @Test
+    public void idsShouldBeAddedToTheSet() {
+        Variant variant = buildVariant();
+        variant.setIds(new HashSet<>(Arrays.asList("a", "b")));
+
+        DBObject update = new VariantToMongoUpdateConverter(mongoConverter, false, false).convert(variant);
+
+        DBObject ids = (DBObject) ((DBObject) update.get("$addToSet")).get("ids");
+        assertNotNull(ids);
+        assertFalse(((Iterable<?>) ids.get("$each")).iterator().next().toString().isEmpty());
+    }
+
+    @Test
+    public void sourceLineShouldBeCompressedOnlyIfRequested() {
+        Variant variant = buildVariant();
+        String sourceLine = "12\t3\t.\tA\tT\t.\tPASS\t.";
+        variant.getSourceEntry("fileId", "studyId").addAttribute("src", sourceLine);
+
+        DBObject update = new VariantToMongoUpdateConverter(mongoConverter, false, false, false,
+                                                            SamplesEncoding.ARRAY).convert(variant);
+        DBObject file = (DBObject) ((DBObject) update.get("$addToSet")).get("files");
+        assertEquals(sourceLine, ((DBObject) file.get("attrs")).get("src"));
+
+        update = new VariantToMongoUpdateConverter(mongoConverter, false, false, true, SamplesEncoding.ARRAY).convert(variant);
+        file = (DBObject) ((DBObject) update.get("$addToSet")).get("files");
+        assertTrue(((DBObject) file.get("attrs")).get("src") instanceof byte[]);
+    }
+
+    @Test
+    public void samplesShouldBeEncodedAsRequested() {
+        Variant variant = buildVariant();
+        VariantSourceEntry sourceEntry = variant.getSourceEntry("fileId", "studyId");
+        sourceEntry.setFormat("GT");
+        for (String genotype : Arrays.asList("0|0", "0|1", "0|0", "1|1", "0|1", "0|0")) {
+            sourceEntry.addSampleData(Collections.singletonMap("GT", genotype));
+        }
+
+        DBObject update = new VariantToMongoUpdateConverter(mongoConverter, false, true, true,
+                                                            SamplesEncoding.ARRAY).convert(variant);
+        DBObject samples = (DBObject) ((DBObject) ((DBObject) update.get("$addToSet")).get("files")).get("samp");
+        assertEquals("0|0", samples.get("def"));
+        assertEquals(Arrays.asList(1, 4), samples.get("0|1"));
+
+        update = new VariantToMongoUpdateConverter(mongoConverter, false, true, true,
+                                                   SamplesEncoding.BINARY).convert(variant);
+        samples = (DBObject) ((DBObject) ((DBObject) update.get("$addToSet")).get("files")).get("samp");
+        assertEquals("0|0", samples.get("def"));
+        assertArrayEquals(new int[]{1, 4}, SampleIndexCodec.decode((byte[]) samples.get("0|1")));
+        assertArrayEquals(new int[]{3}, SampleIndexCodec.decodeSamples(samples).get("1|1"));
+    }
+
+    @Test
+    public void updatesOfTheSameVariantShouldBeMerged() {
+        VariantToMongoUpdateConverter converter = new VariantToMongoUpdateConverter(mongoConverter, true, false);
+        Variant variant = buildVariant();
+        variant.setIds(new HashSet<>(Collections.singletonList("a")));
+        Variant sameVariantInOtherFile = new Variant("12", 3, 4, "A", "T");
+        sameVariantInOtherFile.addSourceEntry(new VariantSourceEntry("otherFileId", "studyId"));
+        sameVariantInOtherFile.setIds(new HashSet<>(Collections.singletonList("b")));
+
+        DBObject update = converter.convert(variant);
+        VariantToMongoUpdateConverter.merge(update, converter.convert(sameVariantInOtherFile));
+
+        DBObject addToSet = (DBObject) update.get("$addToSet");
+        BasicDBList files = (BasicDBList) ((DBObject) addToSet.get("files")).get("$each");
+        assertEquals(2, files.size());
+        assertEquals("fileId", ((DBObject) files.get(0)).get("fid"));
+        assertEquals("otherFileId", ((DBObject) files.get(1)).get("fid"));
+        assertEquals(Arrays.asList("a", "b"), ((DBObject) addToSet.get("ids")).get("$each"));
+        assertEquals(1, ((BasicDBList) ((DBObject) addToSet.get("st")).get("$each")).size());
+    }
+
+    private Variant buildVariant() {
+        Variant variant = new Variant("12", 3, 4, "A", "T");
+        VariantSourceEntry variantSourceEntry = new VariantSourceEntry("fileId", "studyId");
+        variantSourceEntry.setCohortStats("cohortStats", new VariantStats("A", "T", Variant.VariantType.SNV));
+        variant.addSourceEntry(variantSourceEntry);
+        return variant;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io.writers;
+
+import org.junit.Test;
+import org.springframework.batch.item.ItemWriter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link WindingItemWriter}
+ * input: a chunk of items
+ * output: the whole chunk passed as a single list to the winded writer
+ */
+public class WindingItemWriterTest {
+
+    @Test
+    public void shouldPassTheWholeChunkAsOneList() throws Exception {
+        List<List<String>> written = new ArrayList<>();
+        ItemWriter<List<String>> windedWriter = items -> written.addAll(items);
+
+        new WindingItemWriter<>(windedWriter).write(Arrays.asList("a", "b", "c"));
+
+        assertEquals(1, written.size());
+        assertEquals(Arrays.asList("a", "b", "c"), written.get(0));
+    }
+
+    @Test
+    public void emptyChunkShouldNotReachTheWindedWriter() throws Exception {
+        List<List<String>> written = new ArrayList<>();
+        ItemWriter<List<String>> windedWriter = items -> written.addAll(items);
+
+        new WindingItemWriter<>(windedWriter).write(Collections.emptyList());
+
+        assertEquals(0, written.size());
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.io.writers;
+
+import org.junit.Test;
+import org.springframework.batch.item.ItemWriter;
+
+import uk.ac.ebi.eva.pipeline.io.WriteThrottle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link WriteThrottledItemWriter}
+ * input: chunks of items
+ * output: the same chunks, written no faster than the shared throttle allows
+ */
+public class WriteThrottledItemWriterTest {
+
+    @Test
+    public void chunksShouldWaitForTheSharedThrottle() throws Exception {
+        WriteThrottle throttle = new WriteThrottle(20, 1000, 1000, () -> 0);
+        List<String> written = new ArrayList<>();
+        ItemWriter<String> firstWriter = WriteThrottledItemWriter.throttle(written::addAll, throttle);
+        ItemWriter<String> secondWriter = WriteThrottledItemWriter.throttle(written::addAll, throttle);
+
+        long start = System.nanoTime();
+        firstWriter.write(Arrays.asList("a", "b", "c", "d", "e", "f", "g", "h", "i", "j"));
+        firstWriter.write(Arrays.asList("k", "l", "m", "n", "o", "p", "q", "r", "s", "t"));
+        secondWriter.write(Arrays.asList("u", "v", "w", "x", "y"));
+        long elapsedMillis = (System.nanoTime() - start) / 1000000;
+
+        assertEquals(25, written.size());
+        assertTrue("Writing took only " + elapsedMillis + "ms", elapsedMillis >= 240);
+    }
+
+    @Test
+    public void disabledThrottleShouldNotWrapTheWriter() throws Exception {
+        ItemWriter<String> writer = items -> {
+        };
+        assertSame(writer, WriteThrottledItemWriter.throttle(writer, new WriteThrottle(0, 1000, 1000, () -> 0)));
+    }
+
+    @Test
+    public void elementsOfCollectionsShouldCountAsDocuments() {
+        assertEquals(3, WriteThrottledItemWriter.countDocuments(Arrays.asList("a", "b", "c")));
+        assertEquals(3, WriteThrottledItemWriter.countDocuments(
+                Arrays.asList(Arrays.asList("a", "b"), Collections.singletonList("c"))));
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.jobs;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobRepository;
+
+import uk.ac.ebi.eva.pipeline.parameters.JobParametersNames;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link CheckpointingJobRepository}
+ * input: the updates of a running step
+ * output: the updates that reach the job repository
+ */
+public class CheckpointingJobRepositoryTest {
+
+    private static final String UPDATE = "update";
+
+    private static final String UPDATE_EXECUTION_CONTEXT = "updateExecutionContext";
+
+    private List<String> persistedUpdates;
+
+    private AtomicLong clock;
+
+    private CheckpointingJobRepository jobRepository;
+
+    @Before
+    public void setUp() throws Exception {
+        persistedUpdates = new ArrayList<>();
+        clock = new AtomicLong(0);
+        JobRepository delegate = (JobRepository) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class[]{JobRepository.class}, (proxy, method, args) -> {
+                    persistedUpdates.add(method.getName());
+                    return null;
+                });
+        jobRepository = new CheckpointingJobRepository(delegate, clock::get);
+    }
+
+    @Test
+    public void everyChunkShouldBePersistedWithoutInterval() {
+        StepExecution stepExecution = startStep(new JobParameters());
+
+        runChunk(stepExecution);
+        runChunk(stepExecution);
+
+        assertEquals(Arrays.asList(UPDATE, UPDATE_EXECUTION_CONTEXT, UPDATE, UPDATE_EXECUTION_CONTEXT, UPDATE),
+                     persistedUpdates);
+    }
+
+    @Test
+    public void chunksShouldBePersistedOncePerInterval() {
+        StepExecution stepExecution = startStep(parameters("10", null));
+
+        runChunk(stepExecution);
+        clock.addAndGet(9000);
+        runChunk(stepExecution);
+        assertEquals(Arrays.asList(UPDATE), persistedUpdates);
+
+        clock.addAndGet(1000);
+        runChunk(stepExecution);
+        runChunk(stepExecution);
+        assertEquals(Arrays.asList(UPDATE, UPDATE_EXECUTION_CONTEXT, UPDATE), persistedUpdates);
+    }
+
+    @Test
+    public void endOfStepShouldAlwaysBePersisted() {
+        StepExecution stepExecution = startStep(parameters("10", null));
+        runChunk(stepExecution);
+
+        stepExecution.setStatus(BatchStatus.COMPLETED);
+        runChunk(stepExecution);
+
+        assertEquals(Arrays.asList(UPDATE, UPDATE_EXECUTION_CONTEXT, UPDATE), persistedUpdates);
+    }
+
+    @Test
+    public void intervalShouldBeShorterThanThePartitionsLease() {
+        StepExecution stepExecution = startStep(parameters("3600", "60"));
+
+        clock.addAndGet(29000);
+        runChunk(stepExecution);
+        assertEquals(Arrays.asList(UPDATE), persistedUpdates);
+
+        clock.addAndGet(1000);
+        runChunk(stepExecution);
+        assertEquals(Arrays.asList(UPDATE, UPDATE_EXECUTION_CONTEXT, UPDATE), persistedUpdates);
+    }
+
+    private JobParameters parameters(String checkpointInterval, String leaseTimeout) {
+        return new JobParametersBuilder()
+                .addString(JobParametersNames.CONFIG_CHECKPOINT_INTERVAL, checkpointInterval)
+                .addString(JobParametersNames.CONFIG_PARTITIONS_LEASE_TIMEOUT, leaseTimeout)
+                .toJobParameters();
+    }
+
+    private StepExecution startStep(JobParameters jobParameters) {
+        StepExecution stepExecution = new StepExecution("step", new JobExecution(1L, jobParameters), 1L);
+        stepExecution.setStatus(BatchStatus.STARTED);
+        jobRepository.update(stepExecution);
+        return stepExecution;
+    }
+
+    private void runChunk(StepExecution stepExecution) {
+        jobRepository.updateExecutionContext(stepExecution);
+        jobRepository.update(stepExecution);
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.jobs;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link PipelineTaskExecutor}
+ * input: tasks submitted to named pools
+ * output: the tasks run, within the limits of their pools and the shared capacity
+ */
+public class PipelineTaskExecutorTest {
+
+    private static final String LIGHT_POOL = "light";
+
+    private static final String HEAVY_POOL = "heavy";
+
+    private static final int CAPACITY = 2;
+
+    private PipelineTaskExecutor pipelineTaskExecutor;
+
+    @Before
+    public void setUp() throws Exception {
+        pipelineTaskExecutor = new PipelineTaskExecutor(CAPACITY);
+        pipelineTaskExecutor.addPool(LIGHT_POOL, 4, 0);
+        pipelineTaskExecutor.addPool(HEAVY_POOL, 4, CAPACITY);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        pipelineTaskExecutor.destroy();
+    }
+
+    @Test
+    public void tasksShouldNotExceedTheThreadsOfTheirPool() throws Exception {
+        pipelineTaskExecutor.addPool("single", 1, 0);
+        AsyncTaskExecutor executor = pipelineTaskExecutor.getExecutor("single");
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<?> first = executor.submit(() -> await(release));
+        Future<?> second = executor.submit(() -> await(release));
+        waitUntil(() -> pipelineTaskExecutor.getActiveThreads().get("single") == 1);
+
+        assertEquals(1, (int) pipelineTaskExecutor.getQueueDepths().get("single"));
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(0, (int) pipelineTaskExecutor.getQueueDepths().get("single"));
+    }
+
+    @Test
+    public void heavyTasksShouldWaitForCapacity() throws Exception {
+        AsyncTaskExecutor executor = pipelineTaskExecutor.getExecutor(HEAVY_POOL);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger(0);
+
+        Future<?> first = executor.submit(() -> {
+            running.incrementAndGet();
+            await(release);
+        });
+        Future<?> second = executor.submit(() -> {
+            running.incrementAndGet();
+        });
+        waitUntil(() -> pipelineTaskExecutor.getWaitingForAdmission() == 1);
+
+        assertEquals(1, running.get());
+        assertEquals(0, pipelineTaskExecutor.getAvailableCapacity());
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(2, running.get());
+        assertEquals(CAPACITY, pipelineTaskExecutor.getAvailableCapacity());
+    }
+
+    @Test
+    public void lightTasksShouldNotTakeCapacity() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> heavy = pipelineTaskExecutor.getExecutor(HEAVY_POOL).submit(() -> await(release));
+        waitUntil(() -> pipelineTaskExecutor.getAvailableCapacity() == 0);
+
+        pipelineTaskExecutor.getExecutor(LIGHT_POOL).submit(() -> {
+        }).get(5, TimeUnit.SECONDS);
+
+        release.countDown();
+        heavy.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void tasksSubmittedByAnAdmittedTaskShouldUseItsCapacity() throws Exception {
+        AsyncTaskExecutor executor = pipelineTaskExecutor.getExecutor(HEAVY_POOL);
+
+        Future<Integer> parent = executor.submit(() -> executor.submit(() -> 42).get(5, TimeUnit.SECONDS));
+
+        assertEquals(42, (int) parent.get(5, TimeUnit.SECONDS));
+        assertEquals(CAPACITY, pipelineTaskExecutor.getAvailableCapacity());
+    }
+
+    @Test
+    public void concurrencyLimitShouldBlockTheSubmitter() throws Exception {
+        AsyncTaskExecutor executor = pipelineTaskExecutor.getExecutor(LIGHT_POOL, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> await(release));
+
+        Thread submitter = new Thread(() -> executor.submit(() -> {
+        }));
+        submitter.start();
+        submitter.join(200);
+        assertTrue(submitter.isAlive());
+
+        release.countDown();
+        submitter.join(5000);
+        assertFalse(submitter.isAlive());
+    }
+
+    @Test
+    public void admissionShouldBeCappedToTheCapacityAndReleasedOnClose() throws Exception {
+        try (PipelineTaskExecutor.Admission admission = pipelineTaskExecutor.admit(CAPACITY * 4)) {
+            assertEquals(0, pipelineTaskExecutor.getAvailableCapacity());
+            try (PipelineTaskExecutor.Admission nested = pipelineTaskExecutor.admit(1)) {
+                assertEquals(0, pipelineTaskExecutor.getAvailableCapacity());
+            }
+        }
+        assertEquals(CAPACITY, pipelineTaskExecutor.getAvailableCapacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownPoolShouldBeRejected() {
+        pipelineTaskExecutor.getExecutor("unknown");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(Condition condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.holds()) {
+            assertTrue("Timed out waiting for the executor", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private interface Condition {
+        boolean holds();
+    }
+}
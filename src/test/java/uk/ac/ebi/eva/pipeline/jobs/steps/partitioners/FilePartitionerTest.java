@@ -0,0 +1,48 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.jobs.steps.partitioners;
+
+import org.junit.Test;
+import org.springframework.batch.item.ExecutionContext;
+
+import uk.ac.ebi.eva.pipeline.parameters.ExecutionContextParametersNames;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class FilePartitionerTest {
+
+    @Test
+    public void shouldCreateOnePartitionPerFile() {
+        FilePartitioner partitioner = new FilePartitioner(Arrays.asList("/tmp/a.tsv.gz", "/tmp/b.tsv.gz"));
+
+        Map<String, ExecutionContext> partitions = partitioner.partition(1);
+
+        assertEquals(2, partitions.size());
+        assertEquals("/tmp/a.tsv.gz",
+                     partitions.get("partition0").getString(ExecutionContextParametersNames.PARTITION_FILE));
+        assertEquals("/tmp/b.tsv.gz",
+                     partitions.get("partition1").getString(ExecutionContextParametersNames.PARTITION_FILE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAcceptAnEmptyListOfFiles() {
+        new FilePartitioner(Collections.emptyList());
+    }
+}
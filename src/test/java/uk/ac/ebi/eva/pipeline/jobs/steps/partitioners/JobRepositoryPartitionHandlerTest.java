@@ -0,0 +1,252 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.jobs.steps.partitioners;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.launch.support.SimpleJobLauncher;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import uk.ac.ebi.eva.pipeline.parameters.JobParametersNames;
+import uk.ac.ebi.eva.test.rules.TemporaryJobRepositoryRule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link JobRepositoryPartitionHandler}
+ * input: a partitioned step, and the job parameters that choose between local and remote partitions
+ * output: every partition is executed once, locally or by the workers sharing the job repository
+ */
+public class JobRepositoryPartitionHandlerTest {
+
+    private static final String MANAGER_STEP = "manager-step";
+
+    private static final String PARTITION_STEP = "partition-step";
+
+    private static final int PARTITIONS = 8;
+
+    private static final long POLL_INTERVAL_MILLIS = 10;
+
+    private static final long WORKER_IDLE_TIMEOUT_MILLIS = 3000;
+
+    @Rule
+    public TemporaryJobRepositoryRule jobRepositoryRule = new TemporaryJobRepositoryRule();
+
+    private Map<String, AtomicInteger> executions;
+
+    private ExecutorService workers;
+
+    private Step partitionStep;
+
+    @Before
+    public void setUp() throws Exception {
+        executions = new ConcurrentHashMap<>();
+        workers = Executors.newCachedThreadPool();
+        partitionStep = new StepBuilderFactory(jobRepositoryRule.getJobRepository(),
+                                               jobRepositoryRule.getTransactionManager())
+                .get(PARTITION_STEP)
+                .tasklet((contribution, chunkContext) -> {
+                    String partition = chunkContext.getStepContext().getStepName();
+                    executions.computeIfAbsent(partition, key -> new AtomicInteger()).incrementAndGet();
+                    return RepeatStatus.FINISHED;
+                })
+                .build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        workers.shutdownNow();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void partitionsAreExecutedLocallyByDefault() throws Exception {
+        JobExecution jobExecution = launchJob(new JobParameters());
+
+        assertEquals(BatchStatus.COMPLETED, jobExecution.getStatus());
+        assertEveryPartitionExecutedOnce();
+    }
+
+    @Test
+    public void remotePartitionsAreExecutedOnceByWorkers() throws Exception {
+        List<Future<?>> runningWorkers = startWorkers(3);
+
+        JobExecution jobExecution = launchJob(remotePartitions("600"));
+
+        assertEquals(BatchStatus.COMPLETED, jobExecution.getStatus());
+        assertEveryPartitionExecutedOnce();
+        assertEquals(PARTITIONS, countPartitions(jobExecution, BatchStatus.COMPLETED));
+        waitFor(runningWorkers);
+    }
+
+    @Test
+    public void partitionOfDeadWorkerIsClaimedAgain() throws Exception {
+        List<String> abandonedPartitions = new CopyOnWriteArrayList<>();
+        Future<?> deadWorker = startDeadWorker(abandonedPartitions);
+        List<Future<?>> runningWorkers = startWorkers(2, deadWorker);
+
+        JobExecution jobExecution = launchJob(remotePartitions("1"));
+
+        assertEquals(BatchStatus.COMPLETED, jobExecution.getStatus());
+        assertEquals(1, abandonedPartitions.size());
+        assertEveryPartitionExecutedOnce();
+        assertEquals(PARTITIONS, countPartitions(jobExecution, BatchStatus.COMPLETED));
+        waitFor(runningWorkers);
+    }
+
+    private JobParameters remotePartitions(String leaseTimeoutSeconds) {
+        return new JobParametersBuilder()
+                .addString(JobParametersNames.CONFIG_PARTITIONS_REMOTE, "true")
+                .addString(JobParametersNames.CONFIG_PARTITIONS_LEASE_TIMEOUT, leaseTimeoutSeconds)
+                .toJobParameters();
+    }
+
+    private JobExecution launchJob(JobParameters jobParameters) throws Exception {
+        JobRepositoryPartitionHandler handler = new JobRepositoryPartitionHandler(
+                partitionStep, new SimpleAsyncTaskExecutor(), jobRepositoryRule.getJobExplorer(),
+                jobRepositoryRule.getJobRepository(), POLL_INTERVAL_MILLIS);
+
+        Step managerStep = new StepBuilderFactory(jobRepositoryRule.getJobRepository(),
+                                                  jobRepositoryRule.getTransactionManager())
+                .get(MANAGER_STEP)
+                .partitioner(PARTITION_STEP, partitioner())
+                .partitionHandler(handler)
+                .build();
+        Job job = new JobBuilderFactory(jobRepositoryRule.getJobRepository()).get("job").start(managerStep).build();
+
+        SimpleJobLauncher jobLauncher = new SimpleJobLauncher();
+        jobLauncher.setJobRepository(jobRepositoryRule.getJobRepository());
+        jobLauncher.afterPropertiesSet();
+        return jobLauncher.run(job, jobParameters);
+    }
+
+    private Partitioner partitioner() {
+        return gridSize -> {
+            Map<String, ExecutionContext> partitions = new HashMap<>();
+            for (int i = 0; i < PARTITIONS; i++) {
+                partitions.put("partition" + i, new ExecutionContext());
+            }
+            return partitions;
+        };
+    }
+
+    /**
+     * Claims the first partition available and stops without executing it or updating it anymore, like a worker whose
+     * process has been killed
+     */
+    private Future<?> startDeadWorker(List<String> abandonedPartitions) {
+        Step abandoningStep = new Step() {
+            @Override
+            public String getName() {
+                return PARTITION_STEP;
+            }
+
+            @Override
+            public boolean isAllowStartIfComplete() {
+                return false;
+            }
+
+            @Override
+            public int getStartLimit() {
+                return Integer.MAX_VALUE;
+            }
+
+            @Override
+            public void execute(StepExecution stepExecution) {
+                abandonedPartitions.add(stepExecution.getStepName());
+            }
+        };
+        PartitionWorker worker = new PartitionWorker(jobRepositoryRule.getJobExplorer(),
+                                                     jobRepositoryRule.getJobRepository(),
+                                                     jobRepositoryRule.getDataSource(),
+                                                     Collections.singletonList(abandoningStep));
+        return workers.submit(() -> {
+            while (!worker.executeNextPartition()) {
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            }
+            return null;
+        });
+    }
+
+    private List<Future<?>> startWorkers(int count) {
+        return startWorkers(count, null);
+    }
+
+    private List<Future<?>> startWorkers(int count, Future<?> previousWorker) {
+        List<Future<?>> runningWorkers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            PartitionWorker worker = new PartitionWorker(jobRepositoryRule.getJobExplorer(),
+                                                         jobRepositoryRule.getJobRepository(),
+                                                         jobRepositoryRule.getDataSource(),
+                                                         Collections.singletonList(partitionStep));
+            runningWorkers.add(workers.submit(() -> {
+                if (previousWorker != null) {
+                    previousWorker.get();
+                }
+                worker.run(WORKER_IDLE_TIMEOUT_MILLIS, POLL_INTERVAL_MILLIS);
+                return null;
+            }));
+        }
+        return runningWorkers;
+    }
+
+    private void waitFor(List<Future<?>> runningWorkers) throws Exception {
+        for (Future<?> worker : runningWorkers) {
+            worker.get();
+        }
+    }
+
+    private void assertEveryPartitionExecutedOnce() {
+        assertEquals(PARTITIONS, executions.size());
+        for (AtomicInteger count : executions.values()) {
+            assertEquals(1, count.get());
+        }
+    }
+
+    private long countPartitions(JobExecution jobExecution, BatchStatus status) {
+        return jobRepositoryRule.getJobExplorer().getJobExecution(jobExecution.getId()).getStepExecutions().stream()
+                                .filter(stepExecution -> stepExecution.getStepName().startsWith(PARTITION_STEP))
+                                .filter(stepExecution -> stepExecution.getStatus() == status)
+                                .count();
+    }
+}
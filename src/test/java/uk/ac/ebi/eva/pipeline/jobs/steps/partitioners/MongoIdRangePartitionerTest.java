@@ -0,0 +1,177 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.jobs.steps.partitioners;
+
+import com.mongodb.DBObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import uk.ac.ebi.eva.pipeline.configuration.MongoConfiguration;
+import uk.ac.ebi.eva.pipeline.io.readers.MongoDbCursorItemReader;
+import uk.ac.ebi.eva.pipeline.parameters.ExecutionContextParametersNames;
+import uk.ac.ebi.eva.pipeline.parameters.MongoConnection;
+import uk.ac.ebi.eva.test.rules.TemporaryMongoRule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link MongoIdRangePartitioner}
+ * input: a collection, a criteria and a number of partitions
+ * output: that number of id ranges that cover all the matching documents exactly once
+ */
+@RunWith(SpringRunner.class)
+@TestPropertySource({"classpath:test-mongo.properties"})
+@ContextConfiguration(classes = {MongoConnection.class, MongoMappingContext.class})
+public class MongoIdRangePartitionerTest {
+
+    private static final String COLLECTION_NAME = "variants";
+
+    private static final Criteria IN_STUDY = Criteria.where("sid").is("s1");
+
+    @Autowired
+    private MongoConnection mongoConnection;
+
+    @Autowired
+    private MongoMappingContext mongoMappingContext;
+
+    @Rule
+    public TemporaryMongoRule mongoRule = new TemporaryMongoRule();
+
+    @Test
+    public void partitionsShouldCoverAllDocumentsOnce() throws Exception {
+        List<String> documents = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            documents.add("{\"_id\": \"1_" + (100 + i) + "_A_T\", \"sid\": \"s1\"}");
+        }
+        documents.add("{\"_id\": \"1_500_A_T\", \"sid\": \"s2\"}");
+        MongoOperations mongoOperations = getMongoOperations(documents);
+
+        Map<String, ExecutionContext> partitions = new MongoIdRangePartitioner(mongoOperations, COLLECTION_NAME,
+                                                                               IN_STUDY, 4).partition(1);
+
+        assertEquals(4, partitions.size());
+        List<Integer> sizes = new ArrayList<>();
+        List<String> allIds = new ArrayList<>();
+        for (String partition : new TreeSet<>(partitions.keySet())) {
+            List<String> ids = readPartition(mongoOperations, partitions.get(partition));
+            sizes.add(ids.size());
+            allIds.addAll(ids);
+        }
+        assertEquals(Arrays.asList(2, 3, 2, 3), sizes);
+        assertEquals(10, allIds.size());
+        assertEquals(10, new TreeSet<>(allIds).size());
+    }
+
+    @Test
+    public void sampledPartitionsShouldCoverAllDocumentsOnce() throws Exception {
+        List<String> documents = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            documents.add("{\"_id\": \"1_" + (1000 + i) + "_A_T\", \"sid\": \"s1\"}");
+        }
+        MongoOperations mongoOperations = getMongoOperations(documents);
+
+        Map<String, ExecutionContext> partitions = new MongoIdRangePartitioner(mongoOperations, COLLECTION_NAME,
+                                                                               IN_STUDY, 4, 5).partition(1);
+
+        assertEquals(4, partitions.size());
+        List<String> allIds = new ArrayList<>();
+        for (ExecutionContext partition : partitions.values()) {
+            allIds.addAll(readPartition(mongoOperations, partition));
+        }
+        assertEquals(100, allIds.size());
+        assertEquals(100, new TreeSet<>(allIds).size());
+    }
+
+    @Test
+    public void fewerDocumentsThanPartitions() throws Exception {
+        MongoOperations mongoOperations = getMongoOperations(Collections.singletonList(
+                "{\"_id\": \"1_100_A_T\", \"sid\": \"s1\"}"));
+
+        checkAllDocumentsRead(mongoOperations, 4, 1);
+    }
+
+    @Test
+    public void noDocuments() throws Exception {
+        MongoOperations mongoOperations = getMongoOperations(Collections.singletonList(
+                "{\"_id\": \"1_100_A_T\", \"sid\": \"s2\"}"));
+
+        checkAllDocumentsRead(mongoOperations, 3, 0);
+    }
+
+    @Test
+    public void partitionNamesShouldNotDependOnTheDocuments() throws Exception {
+        MongoOperations mongoOperations = getMongoOperations(Collections.singletonList(
+                "{\"_id\": \"1_100_A_T\", \"sid\": \"s1\"}"));
+        MongoIdRangePartitioner partitioner = new MongoIdRangePartitioner(mongoOperations, COLLECTION_NAME, IN_STUDY,
+                                                                          3);
+
+        assertEquals(new TreeSet<>(partitioner.partition(1).keySet()),
+                     new TreeSet<>(partitioner.getPartitionNames(1)));
+    }
+
+    private void checkAllDocumentsRead(MongoOperations mongoOperations, int numberOfPartitions, int expectedDocuments)
+            throws Exception {
+        Map<String, ExecutionContext> partitions = new MongoIdRangePartitioner(mongoOperations, COLLECTION_NAME,
+                                                                               IN_STUDY, numberOfPartitions)
+                .partition(1);
+
+        assertEquals(numberOfPartitions, partitions.size());
+        int documents = 0;
+        for (ExecutionContext partition : partitions.values()) {
+            documents += readPartition(mongoOperations, partition).size();
+        }
+        assertEquals(expectedDocuments, documents);
+    }
+
+    private MongoOperations getMongoOperations(List<String> documents) {
+        String databaseName = mongoRule.createDBAndInsertDocuments(COLLECTION_NAME, documents);
+        return MongoConfiguration.getMongoOperations(databaseName, mongoConnection, mongoMappingContext);
+    }
+
+    private List<String> readPartition(MongoOperations mongoOperations, ExecutionContext partition) throws Exception {
+        MongoDbCursorItemReader reader = new MongoDbCursorItemReader();
+        reader.setTemplate(mongoOperations);
+        reader.setCollection(COLLECTION_NAME);
+        reader.setQuery(IN_STUDY.getCriteriaObject());
+        reader.setIdRange((String) partition.get(ExecutionContextParametersNames.PARTITION_MIN_ID),
+                          (String) partition.get(ExecutionContextParametersNames.PARTITION_MAX_ID));
+        reader.afterPropertiesSet();
+        reader.open(new ExecutionContext());
+        List<String> ids = new ArrayList<>();
+        DBObject document;
+        while ((document = reader.read()) != null) {
+            ids.add(document.get("_id").toString());
+        }
+        reader.close();
+        return ids;
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.jobs.steps.partitioners;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.support.ListItemReader;
+import org.springframework.batch.repeat.RepeatStatus;
+
+import uk.ac.ebi.eva.pipeline.parameters.JobParametersNames;
+import uk.ac.ebi.eva.test.rules.TemporaryJobRepositoryRule;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link PartitionWorker}
+ * input: partitions stored in the job repository by a running job execution
+ * output: the worker claims and executes the partitions of jobs with remote partitions, each of them only once
+ */
+public class PartitionWorkerTest {
+
+    private static final String PARTITION_STEP = "partition-step";
+
+    private static final String PARTITION = PARTITION_STEP + ":partition0";
+
+    /**
+     * A quarter of the shortest lease timeout, one second
+     */
+    private static final long LEASE_RENEWAL_MILLIS = 250;
+
+    @Rule
+    public TemporaryJobRepositoryRule jobRepositoryRule = new TemporaryJobRepositoryRule();
+
+    private AtomicInteger executions;
+
+    private PartitionWorker worker;
+
+    @Before
+    public void setUp() throws Exception {
+        executions = new AtomicInteger();
+        worker = newWorker((contribution, chunkContext) -> {
+            executions.incrementAndGet();
+            return RepeatStatus.FINISHED;
+        });
+    }
+
+    @Test
+    public void partitionOfRemoteJobIsExecuted() throws Exception {
+        StepExecution partition = storePartition(remotePartitions(), PARTITION);
+
+        assertTrue(worker.executeNextPartition());
+        assertEquals(1, executions.get());
+        assertEquals(BatchStatus.COMPLETED, getStatus(partition));
+
+        assertFalse(worker.executeNextPartition());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    public void partitionOfLocalJobIsIgnored() throws Exception {
+        StepExecution partition = storePartition(new JobParameters(), PARTITION);
+
+        assertFalse(worker.executeNextPartition());
+        assertEquals(0, executions.get());
+        assertEquals(BatchStatus.STARTING, getStatus(partition));
+    }
+
+    @Test
+    public void partitionOfUnknownStepIsIgnored() throws Exception {
+        StepExecution partition = storePartition(remotePartitions(), "another-step:partition0");
+
+        assertFalse(worker.executeNextPartition());
+        assertEquals(BatchStatus.STARTING, getStatus(partition));
+    }
+
+    @Test
+    public void partitionCanOnlyBeClaimedOnce() throws Exception {
+        StepExecution partition = storePartition(remotePartitions(), PARTITION);
+        StepExecution firstCopy = jobRepositoryRule.getJobExplorer().getStepExecution(partition.getJobExecutionId(),
+                                                                                      partition.getId());
+        StepExecution secondCopy = jobRepositoryRule.getJobExplorer().getStepExecution(partition.getJobExecutionId(),
+                                                                                       partition.getId());
+
+        assertTrue(worker.claim(firstCopy));
+        assertFalse(worker.claim(secondCopy));
+        assertFalse(worker.executeNextPartition());
+        assertEquals(BatchStatus.STARTED, getStatus(partition));
+    }
+
+    @Test
+    public void leaseIsRenewedWhileATaskletIsRunning() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PartitionWorker blockingWorker = newWorker((contribution, chunkContext) -> {
+            started.countDown();
+            release.await();
+            return RepeatStatus.FINISHED;
+        });
+        StepExecution partition = storePartition(shortLease(), PARTITION);
+
+        Thread workerThread = new Thread(blockingWorker::executeNextPartition);
+        workerThread.start();
+        started.await();
+        StepExecution claimed = getPartition(partition);
+        Thread.sleep(TimeUnit.SECONDS.toMillis(1));
+        StepExecution renewed = getPartition(partition);
+        release.countDown();
+        workerThread.join();
+
+        assertTrue(renewed.getLastUpdated().after(claimed.getLastUpdated()));
+        assertEquals(claimed.getVersion(), renewed.getVersion());
+        assertEquals(BatchStatus.COMPLETED, getStatus(partition));
+    }
+
+    @Test
+    public void leaseRenewalsDoNotConflictWithCommitsAndRollbacks() throws Exception {
+        AtomicBoolean failed = new AtomicBoolean(false);
+        Step chunkStep = new StepBuilderFactory(jobRepositoryRule.getJobRepository(),
+                                                jobRepositoryRule.getTransactionManager())
+                .get(PARTITION_STEP)
+                .<String, String>chunk(2)
+                .reader(new ListItemReader<>(Arrays.asList("1", "2", "3", "4", "5", "6")))
+                .writer(items -> {
+                    // slower than the lease renewals, so that some of them happen in the middle of a chunk
+                    Thread.sleep(LEASE_RENEWAL_MILLIS + 50);
+                    if (items.contains("3") && !failed.getAndSet(true)) {
+                        throw new IllegalStateException("Rolling back a chunk on purpose");
+                    }
+                })
+                .faultTolerant()
+                .skip(IllegalStateException.class)
+                .skipLimit(1)
+                .build();
+        PartitionWorker chunkWorker = newWorker(chunkStep);
+        StepExecution partition = storePartition(shortLease(), PARTITION);
+
+        assertTrue(chunkWorker.executeNextPartition());
+
+        StepExecution finishedPartition = getPartition(partition);
+        assertEquals(BatchStatus.COMPLETED, finishedPartition.getStatus());
+        assertTrue(finishedPartition.getRollbackCount() > 0);
+        assertEquals(6, finishedPartition.getWriteCount());
+    }
+
+    private PartitionWorker newWorker(Tasklet tasklet) {
+        return newWorker(new StepBuilderFactory(jobRepositoryRule.getJobRepository(),
+                                                jobRepositoryRule.getTransactionManager())
+                                 .get(PARTITION_STEP)
+                                 .tasklet(tasklet)
+                                 .build());
+    }
+
+    private PartitionWorker newWorker(Step partitionStep) {
+        return new PartitionWorker(jobRepositoryRule.getJobExplorer(), jobRepositoryRule.getJobRepository(),
+                                   jobRepositoryRule.getDataSource(), Collections.singletonList(partitionStep));
+    }
+
+    private JobParameters shortLease() {
+        return new JobParametersBuilder(remotePartitions())
+                .addString(JobParametersNames.CONFIG_PARTITIONS_LEASE_TIMEOUT, "1")
+                .toJobParameters();
+    }
+
+    private JobParameters remotePartitions() {
+        return new JobParametersBuilder().addString(JobParametersNames.CONFIG_PARTITIONS_REMOTE, "true")
+                                         .toJobParameters();
+    }
+
+    private StepExecution storePartition(JobParameters jobParameters, String partitionName) throws Exception {
+        JobExecution jobExecution = jobRepositoryRule.getJobRepository().createJobExecution("job", jobParameters);
+        StepExecution partition = jobExecution.createStepExecution(partitionName);
+        jobRepositoryRule.getJobRepository().add(partition);
+        return partition;
+    }
+
+    private StepExecution getPartition(StepExecution partition) {
+        return jobRepositoryRule.getJobExplorer().getStepExecution(partition.getJobExecutionId(), partition.getId());
+    }
+
+    private BatchStatus getStatus(StepExecution partition) {
+        return getPartition(partition).getStatus();
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.jobs.steps.partitioners;
+
+import org.junit.Test;
+import org.springframework.batch.item.ExecutionContext;
+
+import uk.ac.ebi.eva.pipeline.model.VcfManifest;
+import uk.ac.ebi.eva.pipeline.parameters.ExecutionContextParametersNames;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class VcfManifestPartitionerTest {
+
+    @Test
+    public void shouldCreateOnePartitionPerVcf() {
+        VcfManifest manifest = new VcfManifest(Arrays.asList(new VcfManifest.Entry("/tmp/a.vcf.gz", "1"),
+                                                             new VcfManifest.Entry("/tmp/b.vcf.gz", "2")));
+        VcfManifestPartitioner partitioner = new VcfManifestPartitioner(manifest);
+
+        Map<String, ExecutionContext> partitions = partitioner.partition(1);
+
+        assertEquals(2, partitions.size());
+        assertEquals("/tmp/a.vcf.gz",
+                     partitions.get("partition0").getString(ExecutionContextParametersNames.PARTITION_VCF));
+        assertEquals("1", partitions.get("partition0").getString(ExecutionContextParametersNames.PARTITION_VCF_ID));
+        assertEquals("/tmp/b.vcf.gz",
+                     partitions.get("partition1").getString(ExecutionContextParametersNames.PARTITION_VCF));
+        assertEquals("2", partitions.get("partition1").getString(ExecutionContextParametersNames.PARTITION_VCF_ID));
+    }
+}
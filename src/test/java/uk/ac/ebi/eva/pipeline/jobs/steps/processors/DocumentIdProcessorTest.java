@@ -0,0 +1,37 @@
+/*
+ * Copyright 2015-2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.jobs.steps.processors;
+
+import com.mongodb.BasicDBObject;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link DocumentIdProcessor}
+ * input: a mongo document
+ * output: the id of that document
+ */
+public class DocumentIdProcessorTest {
+
+    @Test
+    public void shouldReturnTheDocumentId() throws Exception {
+        BasicDBObject document = new BasicDBObject("_id", "1_100_A_T").append("sid", "s1");
+
+        assertEquals("1_100_A_T", new DocumentIdProcessor().process(document));
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.jobs.steps.processors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.ac.ebi.eva.pipeline.model.EnsemblVariant;
+import uk.ac.ebi.eva.pipeline.model.FeatureCoordinates;
+import uk.ac.ebi.eva.pipeline.model.FeatureIntervalIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IntergenicVariantProcessorTest {
+
+    private static final int DISTANCE = 5000;
+
+    private List<EnsemblVariant> variantsSentToDelegate;
+
+    private IntergenicVariantProcessor processor;
+
+    @Before
+    public void setUp() throws Exception {
+        variantsSentToDelegate = new ArrayList<>();
+        FeatureIntervalIndex index = new FeatureIntervalIndex(Collections.singletonList(
+                new FeatureCoordinates("g1", "GENE1", "gene", "20", 100000, 110000)));
+
+        processor = new IntergenicVariantProcessor(variants -> {
+            variantsSentToDelegate.addAll(variants);
+            return variants.stream().map(variant -> "vep line " + variant.getStart()).collect(Collectors.toList());
+        }, index, DISTANCE);
+    }
+
+    @Test
+    public void onlyVariantsNearFeaturesAreSentToTheDelegate() throws Exception {
+        EnsemblVariant intergenic = new EnsemblVariant("20", 60343, 60343, "G", "A");
+        EnsemblVariant upstream = new EnsemblVariant("20", 96000, 96000, "C", "T");
+        EnsemblVariant otherChromosome = new EnsemblVariant("21", 60343, 60343, "G", "A");
+
+        List<String> lines = processor.process(Arrays.asList(intergenic, upstream, otherChromosome));
+
+        assertEquals(Arrays.asList(upstream, otherChromosome), variantsSentToDelegate);
+        assertEquals(3, lines.size());
+        assertTrue(lines.contains("20_60343_G/A\t20:60343\tA\t-\t-\t-\tintergenic_variant\t-\t-\t-\t-\t-\t-"));
+    }
+
+    @Test
+    public void intergenicIndelsUseVepCoordinates() throws Exception {
+        List<String> lines = processor.process(Arrays.asList(new EnsemblVariant("20", 60523, 60523, "", "C"),
+                                                             new EnsemblVariant("20", 60530, 60530, "TA", "")));
+
+        assertEquals(Arrays.asList("20_60523_-/C\t20:60522-60523\tC\t-\t-\t-\tintergenic_variant\t-\t-\t-\t-\t-\t-",
+                                   "20_60530_TA/-\t20:60530-60531\t-\t-\t-\t-\tintergenic_variant\t-\t-\t-\t-\t-\t-"),
+                     lines);
+        assertTrue(variantsSentToDelegate.isEmpty());
+    }
+}
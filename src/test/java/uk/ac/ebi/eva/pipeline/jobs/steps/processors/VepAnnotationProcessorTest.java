@@ -22,6 +22,7 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.springframework.batch.item.ItemStreamException;
 
+import uk.ac.ebi.eva.pipeline.io.VepOutputSpool;
 import uk.ac.ebi.eva.pipeline.model.EnsemblVariant;
 import uk.ac.ebi.eva.pipeline.parameters.AnnotationParameters;
 import uk.ac.ebi.eva.test.rules.PipelineTemporaryFolderRule;
@@ -147,4 +148,20 @@ public class VepAnnotationProcessorTest {
         vepAnnotationProcessor.process(ensemblVariants);
     }
 
+    @Test
+    public void spooledOutputIsReplayedWithoutRunningVep() throws Exception {
+        List<EnsemblVariant> ensemblVariants = Collections.singletonList(VARIANT_WRAPPER);
+        int chunkSize = ensemblVariants.size();
+        VepOutputSpool vepOutputSpool = new VepOutputSpool(temporaryFolder.newFolder().getAbsolutePath(), "78", "1");
+
+        VepAnnotationProcessor vepAnnotationProcessor = new VepAnnotationProcessor(annotationParameters, chunkSize,
+                                                                                   TIMEOUT_IN_SECONDS, vepOutputSpool);
+        List<String> annotations = vepAnnotationProcessor.process(ensemblVariants);
+
+        annotationParameters.setVepPath(getResource("/mockvep_writeToFile_delayed.pl").getAbsolutePath());
+        VepAnnotationProcessor replayingProcessor = new VepAnnotationProcessor(annotationParameters, chunkSize, 1L,
+                                                                               vepOutputSpool);
+        assertEquals(annotations, replayingProcessor.process(ensemblVariants));
+    }
+
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.listeners;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import uk.ac.ebi.eva.pipeline.metrics.PipelineMetrics;
+import uk.ac.ebi.eva.pipeline.metrics.StepMetrics;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * {@link StepMetricsListener}
+ * input: the callbacks of a chunk oriented step
+ * output: the items and the time spent reading, processing and writing each chunk
+ */
+public class StepMetricsListenerTest {
+
+    private static final long MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private AtomicLong clock;
+
+    private PipelineMetrics metrics;
+
+    private StepMetricsListener listener;
+
+    private StepExecution stepExecution;
+
+    private ChunkContext chunkContext;
+
+    @Before
+    public void setUp() throws Exception {
+        clock = new AtomicLong(0);
+        metrics = new PipelineMetrics();
+        listener = new StepMetricsListener(metrics, clock::get);
+        stepExecution = MetaDataInstanceFactory.createStepExecution();
+        chunkContext = new ChunkContext(new StepContext(stepExecution));
+    }
+
+    @Test
+    public void chunkPhasesShouldBeTimed() {
+        listener.beforeStep(stepExecution);
+        listener.beforeChunk(chunkContext);
+        for (String item : Arrays.asList("a", "b")) {
+            listener.beforeRead();
+            clock.addAndGet(2 * MILLISECOND);
+            listener.afterRead(item);
+        }
+        for (String item : Arrays.asList("a", "b")) {
+            listener.beforeProcess(item);
+            clock.addAndGet(3 * MILLISECOND);
+            listener.afterProcess(item, item);
+        }
+        listener.beforeWrite(Arrays.asList("a", "b"));
+        clock.addAndGet(10 * MILLISECOND);
+        listener.afterWrite(Arrays.asList("a", "b"));
+        listener.afterChunk(chunkContext);
+        listener.afterStep(stepExecution);
+
+        StepMetrics stepMetrics = metrics.getStepMetrics(stepExecution);
+        assertEquals(4.0, stepMetrics.getHistogram(StepMetricsListener.CHUNK_READ + ".ms").getMean(), 0);
+        assertEquals(6.0, stepMetrics.getHistogram(StepMetricsListener.CHUNK_PROCESS + ".ms").getMean(), 0);
+        assertEquals(10.0, stepMetrics.getHistogram(StepMetricsListener.CHUNK_WRITE + ".ms").getMean(), 0);
+        assertEquals(20.0, stepMetrics.getHistogram(StepMetricsListener.CHUNK + ".ms").getMean(), 0);
+        assertEquals(2, stepMetrics.getCount(StepMetricsListener.ITEMS_READ));
+        assertEquals(2, stepMetrics.getCount(StepMetricsListener.ITEMS_WRITTEN));
+    }
+
+    @Test
+    public void emptyAndFailedChunksShouldNotBeRecorded() {
+        listener.beforeChunk(chunkContext);
+        listener.afterChunk(chunkContext);
+
+        listener.beforeChunk(chunkContext);
+        listener.beforeRead();
+        listener.afterRead("a");
+        listener.afterChunkError(chunkContext);
+        listener.afterChunk(chunkContext);
+
+        assertNull(metrics.getStepMetrics(stepExecution).getHistogram(StepMetricsListener.CHUNK + ".ms"));
+    }
+}
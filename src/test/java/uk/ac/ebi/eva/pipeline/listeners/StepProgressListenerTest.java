@@ -0,0 +1,84 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.listeners;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import uk.ac.ebi.eva.pipeline.parameters.ExecutionContextParametersNames;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * {@link StepProgressListener}
+ * input: the size of the input file and the bytes read from it, in the step execution context
+ * output: the percentage of the file read and the estimated time left
+ */
+public class StepProgressListenerTest {
+
+    private AtomicLong clock;
+
+    private StepProgressListener listener;
+
+    private StepExecution stepExecution;
+
+    @Before
+    public void setUp() throws Exception {
+        clock = new AtomicLong(0);
+        listener = new StepProgressListener(clock::get);
+        stepExecution = MetaDataInstanceFactory.createStepExecution();
+        stepExecution.setStartTime(new Date(0));
+    }
+
+    @Test
+    public void progressShouldBeUnknownWithoutInputFile() {
+        assertNull(listener.getProgress(stepExecution));
+
+        stepExecution.getExecutionContext().putLong(ExecutionContextParametersNames.INPUT_FILE_SIZE, 1000);
+        assertNull(listener.getProgress(stepExecution));
+    }
+
+    @Test
+    public void timeLeftShouldBeEstimatedFromTheBytesRead() {
+        stepExecution.getExecutionContext().putLong(ExecutionContextParametersNames.INPUT_FILE_SIZE, 1000);
+        stepExecution.getExecutionContext().putLong(ExecutionContextParametersNames.INPUT_BYTES_READ, 250);
+        clock.set(TimeUnit.MINUTES.toMillis(2));
+
+        assertEquals("25% complete, about 6m 00s left", listener.getProgress(stepExecution));
+    }
+
+    @Test
+    public void bytesReadByPreviousExecutionsShouldNotCountForTheTimeLeft() {
+        stepExecution.getExecutionContext().putLong(ExecutionContextParametersNames.INPUT_FILE_SIZE, 1000);
+        stepExecution.getExecutionContext().putLong(ExecutionContextParametersNames.INPUT_BYTES_READ_ON_OPEN, 500);
+        stepExecution.getExecutionContext().putLong(ExecutionContextParametersNames.INPUT_BYTES_READ, 500);
+        clock.set(TimeUnit.SECONDS.toMillis(10));
+
+        assertEquals("50% complete", listener.getProgress(stepExecution));
+
+        stepExecution.getExecutionContext().putLong(ExecutionContextParametersNames.INPUT_BYTES_READ, 600);
+        clock.set(TimeUnit.HOURS.toMillis(1));
+
+        assertEquals("60% complete, about 4h 00m left", listener.getProgress(stepExecution));
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.metrics;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link Histogram}
+ * input: recorded values
+ * output: their count, mean and approximated percentiles
+ */
+public class HistogramTest {
+
+    @Test
+    public void emptyHistogramShouldReportZeros() {
+        Histogram histogram = new Histogram(1);
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMean(), 0);
+        assertEquals(0, histogram.getPercentile(99), 0);
+        assertEquals(0.0, histogram.snapshot().get("min"));
+    }
+
+    @Test
+    public void smallValuesShouldBeExact() {
+        Histogram histogram = new Histogram(1);
+        for (int i = 0; i < 8; i++) {
+            histogram.record(i);
+        }
+        assertEquals(8, histogram.getCount());
+        assertEquals(3.5, histogram.getMean(), 0);
+        assertEquals(3, histogram.getPercentile(50), 0);
+        assertEquals(7, histogram.getPercentile(100), 0);
+    }
+
+    @Test
+    public void percentilesShouldBeWithinTheBucketError() {
+        Histogram histogram = new Histogram(1);
+        for (int i = 1; i <= 10000; i++) {
+            histogram.record(i);
+        }
+        assertEquals(5000, histogram.getPercentile(50), 5000 / 16.0);
+        assertEquals(9500, histogram.getPercentile(95), 9500 / 16.0);
+        assertEquals(9900, histogram.getPercentile(99), 9900 / 16.0);
+        assertEquals(10000, histogram.getPercentile(100), 0);
+    }
+
+    @Test
+    public void bucketsShouldCoverAllTheLongValues() {
+        for (long value : new long[]{0, 7, 8, 15, 16, 1000, 123456789, Long.MAX_VALUE}) {
+            int index = Histogram.bucketIndex(value);
+            assertTrue(Histogram.bucketLowerBound(index) <= value);
+            assertTrue(value < Histogram.bucketLowerBound(index + 1) || value == Long.MAX_VALUE);
+        }
+    }
+
+    @Test
+    public void snapshotShouldApplyTheScale() {
+        Histogram histogram = new Histogram(0.001);
+        histogram.record(2000);
+        histogram.record(4000);
+
+        Map<String, Object> snapshot = histogram.snapshot();
+        assertEquals(2L, snapshot.get("count"));
+        assertEquals(3.0, (double) snapshot.get("mean"), 1e-9);
+        assertEquals(2.0, (double) snapshot.get("min"), 1e-9);
+        assertEquals(4.0, (double) snapshot.get("max"), 1e-9);
+    }
+
+    @Test
+    public void negativeValuesShouldBeRecordedAsZero() {
+        Histogram histogram = new Histogram(1);
+        histogram.record(-5);
+        assertEquals(0, histogram.getPercentile(50), 0);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.metrics;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.util.Scanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link MetricsHttpServer}
+ * input: HTTP requests to the metrics endpoint
+ * output: the metrics as JSON, or an error status
+ */
+public class MetricsHttpServerTest {
+
+    private PipelineMetrics metrics;
+
+    private MetricsHttpServer server;
+
+    private int port;
+
+    @Before
+    public void setUp() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        metrics = new PipelineMetrics();
+        metrics.registerGauge("queue", () -> 42);
+        server = new MetricsHttpServer(metrics, port);
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.stop();
+    }
+
+    @Test
+    public void metricsShouldBeServedAsJson() throws Exception {
+        HttpURLConnection connection = open(MetricsHttpServer.PATH);
+        assertEquals(200, connection.getResponseCode());
+        assertTrue(connection.getContentType().startsWith("application/json"));
+        assertTrue(read(connection.getInputStream()).contains("\"queue\" : 42"));
+    }
+
+    @Test
+    public void unknownJobsShouldNotBeFound() throws Exception {
+        assertEquals(404, open(MetricsHttpServer.PATH + "?job=1").getResponseCode());
+        assertEquals(400, open(MetricsHttpServer.PATH + "?job=x").getResponseCode());
+    }
+
+    private HttpURLConnection open(String path) throws IOException {
+        URL url = new URL("http", InetAddress.getLoopbackAddress().getHostAddress(), port, path);
+        return (HttpURLConnection) url.openConnection();
+    }
+
+    private String read(InputStream inputStream) {
+        try (Scanner scanner = new Scanner(inputStream, "UTF-8").useDelimiter("\\A")) {
+            return scanner.hasNext() ? scanner.next() : "";
+        }
+    }
+}
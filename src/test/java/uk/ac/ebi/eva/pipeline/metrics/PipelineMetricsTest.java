@@ -0,0 +1,128 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.metrics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * {@link PipelineMetrics}
+ * input: metrics recorded by the steps of some jobs, and outside of any step
+ * output: the metrics aggregated by job and step, and their JSON
+ */
+public class PipelineMetricsTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private AtomicLong clock;
+
+    private PipelineMetrics metrics;
+
+    @Before
+    public void setUp() throws Exception {
+        clock = new AtomicLong(0);
+        metrics = new PipelineMetrics(clock::get);
+    }
+
+    @Test
+    public void partitionsShouldBeAggregatedWithTheirStep() {
+        JobExecution jobExecution = MetaDataInstanceFactory.createJobExecution("job", 1L, 10L);
+        StepExecution partition0 = jobExecution.createStepExecution("step:partition0");
+        StepExecution partition1 = jobExecution.createStepExecution("step:partition1");
+
+        assertSame(metrics.getStepMetrics(partition0), metrics.getStepMetrics(partition1));
+        assertSame(metrics.getStepMetrics(partition0),
+                   metrics.getStepMetrics(jobExecution.createStepExecution("step")));
+    }
+
+    @Test
+    public void countersShouldBeReportedWithTheirRate() throws Exception {
+        StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution();
+        metrics.startStep(stepExecution);
+        metrics.getStepMetrics(stepExecution).increment("items", 300);
+        clock.addAndGet(3 * SECOND);
+        metrics.endStep(stepExecution);
+        clock.addAndGet(3 * SECOND);
+
+        JsonNode step = readJob(stepExecution.getJobExecutionId()).get("steps").get(stepExecution.getStepName());
+        assertEquals(3.0, step.get("elapsedSeconds").asDouble(), 0);
+        assertEquals(300, step.get("counters").get("items").asLong());
+        assertEquals(100.0, step.get("counters").get("items.per-second").asDouble(), 0);
+    }
+
+    @Test
+    public void recordingsShouldGoToTheStepOfTheCurrentThread() throws Exception {
+        StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution();
+        StepSynchronizationManager.register(stepExecution);
+        try {
+            metrics.recordTime("write", TimeUnit.MILLISECONDS.toNanos(5));
+        } finally {
+            StepSynchronizationManager.close();
+        }
+        metrics.recordTime("write", TimeUnit.MILLISECONDS.toNanos(7));
+
+        assertEquals(1, metrics.getStepMetrics(stepExecution).getHistogram("write.ms").getCount());
+        JsonNode process = new ObjectMapper().readTree(metrics.getJson()).get("process");
+        assertEquals(7.0, process.get("histograms").get("write.ms").get("max").asDouble(), 0);
+    }
+
+    @Test
+    public void gaugesShouldBeSampledWhenReported() throws Exception {
+        AtomicLong queue = new AtomicLong(3);
+        metrics.registerGauge("queue", queue::get);
+        metrics.registerGauge("broken", () -> {
+            throw new IllegalStateException();
+        });
+        queue.set(5);
+
+        JsonNode gauges = new ObjectMapper().readTree(metrics.getJson()).get("gauges");
+        assertEquals(5, gauges.get("queue").asLong());
+        assertNull(gauges.get("broken"));
+    }
+
+    @Test
+    public void onlyTheLastFinishedJobsShouldBeKept() {
+        for (long id = 0; id <= PipelineMetrics.MAX_FINISHED_JOBS; id++) {
+            StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution(
+                    MetaDataInstanceFactory.createJobExecution("job", id, id), "step", id);
+            metrics.getStepMetrics(stepExecution).increment("items", 1);
+            metrics.finishJob(id);
+        }
+
+        assertNull(metrics.getJobSnapshot(0));
+        assertNotNull(metrics.getJobSnapshot(1));
+        assertNotNull(metrics.getJobSnapshot(PipelineMetrics.MAX_FINISHED_JOBS));
+        assertEquals("null", metrics.getJobJson(0));
+    }
+
+    private JsonNode readJob(long jobExecutionId) throws Exception {
+        return new ObjectMapper().readTree(metrics.getJobJson(jobExecutionId));
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.metrics.events;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link PipelineEvents}
+ * input: jobs that enable and disable the events, and events emitted during a flight recording
+ * output: whether the events are enabled, and the recorded events
+ */
+public class PipelineEventsTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @After
+    public void tearDown() throws Exception {
+        while (PipelineEvents.isEnabled()) {
+            PipelineEvents.disable();
+        }
+    }
+
+    @Test
+    public void eventsShouldBeEnabledWhileAnyJobAsksForThem() {
+        assertFalse(PipelineEvents.isEnabled());
+        PipelineEvents.enable();
+        PipelineEvents.enable();
+        PipelineEvents.disable();
+        assertTrue(PipelineEvents.isEnabled());
+        PipelineEvents.disable();
+        assertFalse(PipelineEvents.isEnabled());
+        PipelineEvents.disable();
+        assertFalse(PipelineEvents.isEnabled());
+    }
+
+    @Test
+    public void eventsShouldBeRecorded() throws Exception {
+        Path dump = temporaryFolder.getRoot().toPath().resolve("recording.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(MongoBulkEvent.class);
+            recording.enable(ChunkEvent.class);
+            recording.start();
+
+            new MongoBulkEvent("variants", 100).commit();
+            ChunkEvent chunkEvent = new ChunkEvent();
+            chunkEvent.setStep("load-variants-step");
+            chunkEvent.setItems(100, 99);
+            chunkEvent.commit();
+
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        assertEquals(2, events.size());
+        RecordedEvent bulk = events.stream()
+                                   .filter(event -> event.getEventType().getName().endsWith("MongoBulk"))
+                                   .findFirst().get();
+        assertEquals("variants", bulk.getString("collection"));
+        assertEquals(100, bulk.getInt("operations"));
+        RecordedEvent chunk = events.stream()
+                                    .filter(event -> event.getEventType().getName().endsWith("Chunk"))
+                                    .findFirst().get();
+        assertEquals("load-variants-step", chunk.getString("step"));
+        assertEquals(99, chunk.getLong("itemsWritten"));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FeatureIntervalIndexTest {
+
+    private FeatureIntervalIndex index;
+
+    @Before
+    public void setUp() throws Exception {
+        index = new FeatureIntervalIndex(Arrays.asList(
+                new FeatureCoordinates("g2", "GENE2", "gene", "1", 5000, 6000),
+                new FeatureCoordinates("g1", "GENE1", "gene", "1", 1000, 2000),
+                new FeatureCoordinates("t1", "GENE1-001", "transcript", "1", 1500, 2500),
+                new FeatureCoordinates("g3", "GENE3", "gene", "2", 100, 200)));
+    }
+
+    @Test
+    public void variantInsideFeatureIsNearIt() throws Exception {
+        assertTrue(index.isNearFeature("1", 2400, 2400, 0));
+        assertTrue(index.isNearFeature("1", 5000, 5000, 0));
+    }
+
+    @Test
+    public void variantBetweenFeaturesDependsOnDistance() throws Exception {
+        assertFalse(index.isNearFeature("1", 3500, 3500, 999));
+        assertTrue(index.isNearFeature("1", 3500, 3500, 1000));
+        assertTrue(index.isNearFeature("1", 4000, 4000, 1000));
+    }
+
+    @Test
+    public void variantOutsideAllFeatures() throws Exception {
+        assertFalse(index.isNearFeature("1", 10, 10, 500));
+        assertFalse(index.isNearFeature("1", 7000, 7000, 500));
+        assertTrue(index.isNearFeature("1", 6400, 6400, 500));
+    }
+
+    @Test
+    public void insertionCoordinatesAreAccepted() throws Exception {
+        assertTrue(index.isNearFeature("2", 201, 200, 0));
+    }
+
+    @Test
+    public void chromosomeWithoutFeatures() throws Exception {
+        assertTrue(index.hasFeatures("2"));
+        assertFalse(index.hasFeatures("3"));
+        assertFalse(index.isNearFeature("3", 100, 100, 1000));
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.model;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.junit.Test;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class RegionTest {
+
+    @Test
+    public void parseChromosome() throws Exception {
+        Region region = Region.parseRegion("20");
+        assertEquals("20", region.getChromosome());
+        assertNull(region.getStart());
+        assertNull(region.getEnd());
+        assertEquals("20", region.toString());
+    }
+
+    @Test
+    public void parseInterval() throws Exception {
+        Region region = Region.parseRegion("20:60000-70000");
+        assertEquals(new Region("20", 60000, 70000), region);
+        assertEquals("20:60000-70000", region.toString());
+    }
+
+    @Test
+    public void singlePositionIntervalIsValid() throws Exception {
+        assertEquals(new Region("X", 5, 5), Region.parseRegion("X:5-5"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyRegionIsRejected() throws Exception {
+        Region.parseRegion(" ");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void positionWithoutEndIsRejected() throws Exception {
+        Region.parseRegion("20:60000");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void endBeforeStartIsRejected() throws Exception {
+        Region.parseRegion("20:70000-60000");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroStartIsRejected() throws Exception {
+        Region.parseRegion("20:0-100");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooBigCoordinatesAreRejected() throws Exception {
+        Region.parseRegion("20:1-99999999999");
+    }
+
+    @Test
+    public void chromosomeCriteria() throws Exception {
+        DBObject expected = new BasicDBObject("chr", "20");
+        assertEquals(expected, Region.parseRegion("20").toCriteria().getCriteriaObject());
+    }
+
+    @Test
+    public void intervalCriteriaSelectsVariantsStartingInTheRegion() throws Exception {
+        DBObject expected = new BasicDBObject("chr", "20")
+                .append("start", new BasicDBObject("$gte", 60000).append("$lte", 70000));
+        assertEquals(expected, Region.parseRegion("20:60000-70000").toCriteria().getCriteriaObject());
+    }
+
+    @Test
+    public void restrictWithoutRegionKeepsTheCriteria() throws Exception {
+        Criteria criteria = Criteria.where("files.sid").is("s1");
+        assertSame(criteria, Region.restrict(criteria, null));
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.model;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import uk.ac.ebi.eva.test.rules.PipelineTemporaryFolderRule;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class VcfManifestTest {
+
+    @Rule
+    public PipelineTemporaryFolderRule temporaryFolder = new PipelineTemporaryFolderRule();
+
+    @Test
+    public void relativePathsAreResolvedAgainstTheManifestDirectory() throws IOException {
+        File manifestFile = temporaryFolder.newFile("manifest.tsv");
+        Files.write(manifestFile.toPath(), Arrays.asList("# vcf\tid", "", "a.vcf.gz\t1", "/data/b.vcf.gz\t2"));
+
+        List<VcfManifest.Entry> entries = VcfManifest.read(manifestFile.toPath()).getEntries();
+
+        assertEquals(2, entries.size());
+        assertEquals(new File(temporaryFolder.getRoot(), "a.vcf.gz").getAbsolutePath(), entries.get(0).getVcf());
+        assertEquals("1", entries.get(0).getVcfId());
+        assertEquals("/data/b.vcf.gz", entries.get(1).getVcf());
+        assertEquals("2", entries.get(1).getVcfId());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void linesMustHaveAPathAndAnId() throws IOException {
+        File manifestFile = temporaryFolder.newFile("manifest.tsv");
+        Files.write(manifestFile.toPath(), Collections.singletonList("a.vcf.gz 1"));
+
+        VcfManifest.read(manifestFile.toPath());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fileIdsMustBeUnique() {
+        new VcfManifest(Arrays.asList(new VcfManifest.Entry("a.vcf.gz", "1"), new VcfManifest.Entry("b.vcf.gz", "1")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void manifestMustNotBeEmpty() {
+        new VcfManifest(Collections.emptyList());
+    }
+}
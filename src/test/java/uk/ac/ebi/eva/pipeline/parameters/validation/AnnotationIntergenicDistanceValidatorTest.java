@@ -0,0 +1,66 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.parameters.validation;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.JobParametersInvalidException;
+
+import uk.ac.ebi.eva.pipeline.parameters.JobParametersNames;
+
+public class AnnotationIntergenicDistanceValidatorTest {
+    private AnnotationIntergenicDistanceValidator validator;
+
+    private JobParametersBuilder jobParametersBuilder;
+
+    @Before
+    public void setUp() throws Exception {
+        validator = new AnnotationIntergenicDistanceValidator();
+        jobParametersBuilder = new JobParametersBuilder();
+    }
+
+    @Test
+    public void distanceIsZero() throws JobParametersInvalidException {
+        jobParametersBuilder.addString(JobParametersNames.ANNOTATION_INTERGENIC_DISTANCE, "0");
+        validator.validate(jobParametersBuilder.toJobParameters());
+    }
+
+    @Test
+    public void distanceIsPositiveWithFeaturesCollection() throws JobParametersInvalidException {
+        jobParametersBuilder.addString(JobParametersNames.ANNOTATION_INTERGENIC_DISTANCE, "5000");
+        jobParametersBuilder.addString(JobParametersNames.DB_COLLECTIONS_FEATURES_NAME, "features");
+        validator.validate(jobParametersBuilder.toJobParameters());
+    }
+
+    @Test(expected = JobParametersInvalidException.class)
+    public void distanceIsPositiveWithoutFeaturesCollection() throws JobParametersInvalidException {
+        jobParametersBuilder.addString(JobParametersNames.ANNOTATION_INTERGENIC_DISTANCE, "5000");
+        validator.validate(jobParametersBuilder.toJobParameters());
+    }
+
+    @Test(expected = JobParametersInvalidException.class)
+    public void distanceIsNegative() throws JobParametersInvalidException {
+        jobParametersBuilder.addString(JobParametersNames.ANNOTATION_INTERGENIC_DISTANCE, "-1");
+        validator.validate(jobParametersBuilder.toJobParameters());
+    }
+
+    @Test(expected = JobParametersInvalidException.class)
+    public void distanceIsNotValid() throws JobParametersInvalidException {
+        jobParametersBuilder.addString(JobParametersNames.ANNOTATION_INTERGENIC_DISTANCE, "far");
+        validator.validate(jobParametersBuilder.toJobParameters());
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.parameters.validation;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.JobParametersInvalidException;
+
+import uk.ac.ebi.eva.pipeline.parameters.JobParametersNames;
+import uk.ac.ebi.eva.test.rules.PipelineTemporaryFolderRule;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+public class InputVcfManifestValidatorTest {
+
+    private InputVcfManifestValidator validator;
+
+    @Rule
+    public PipelineTemporaryFolderRule temporaryFolder = new PipelineTemporaryFolderRule();
+
+    @Before
+    public void setUp() throws Exception {
+        validator = new InputVcfManifestValidator();
+    }
+
+    @Test
+    public void inputVcfManifestIsValid() throws JobParametersInvalidException, IOException {
+        File manifest = temporaryFolder.newFile("manifest.tsv");
+        Files.write(manifest.toPath(), Arrays.asList("# vcf\tid", "a.vcf.gz\t1", "b.vcf.gz\t2"));
+
+        JobParametersBuilder jobParametersBuilder = new JobParametersBuilder();
+        jobParametersBuilder.addString(JobParametersNames.INPUT_VCF_MANIFEST, manifest.getCanonicalPath());
+        validator.validate(jobParametersBuilder.toJobParameters());
+    }
+
+    @Test(expected = JobParametersInvalidException.class)
+    public void inputVcfManifestNotExist() throws JobParametersInvalidException {
+        JobParametersBuilder jobParametersBuilder = new JobParametersBuilder();
+        jobParametersBuilder.addString(JobParametersNames.INPUT_VCF_MANIFEST, "file://path/to/manifest.tsv");
+        validator.validate(jobParametersBuilder.toJobParameters());
+    }
+
+    @Test(expected = JobParametersInvalidException.class)
+    public void inputVcfManifestIsEmpty() throws JobParametersInvalidException, IOException {
+        JobParametersBuilder jobParametersBuilder = new JobParametersBuilder();
+        jobParametersBuilder.addString(JobParametersNames.INPUT_VCF_MANIFEST,
+                                       temporaryFolder.newFile("empty.tsv").getCanonicalPath());
+        validator.validate(jobParametersBuilder.toJobParameters());
+    }
+
+    @Test(expected = JobParametersInvalidException.class)
+    public void inputVcfManifestWithoutFileIds() throws JobParametersInvalidException, IOException {
+        File manifest = temporaryFolder.newFile("manifest.tsv");
+        Files.write(manifest.toPath(), Arrays.asList("a.vcf.gz", "b.vcf.gz"));
+
+        JobParametersBuilder jobParametersBuilder = new JobParametersBuilder();
+        jobParametersBuilder.addString(JobParametersNames.INPUT_VCF_MANIFEST, manifest.getCanonicalPath());
+        validator.validate(jobParametersBuilder.toJobParameters());
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2015-2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.parameters.validation.job;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.batch.core.JobParameter;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersInvalidException;
+
+import uk.ac.ebi.eva.pipeline.parameters.JobParametersNames;
+import uk.ac.ebi.eva.test.rules.PipelineTemporaryFolderRule;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+public class ImportBsonDumpJobParametersValidatorTest {
+
+    @Rule
+    public PipelineTemporaryFolderRule temporaryFolder = new PipelineTemporaryFolderRule();
+
+    private ImportBsonDumpJobParametersValidator validator;
+
+    private Map<String, JobParameter> requiredParameters;
+
+    @Before
+    public void setUp() throws Exception {
+        validator = new ImportBsonDumpJobParametersValidator();
+
+        requiredParameters = new TreeMap<>();
+        requiredParameters.put(JobParametersNames.DB_NAME, new JobParameter("importBsonDumpTestDb"));
+        requiredParameters.put(JobParametersNames.DB_COLLECTIONS_VARIANTS_NAME, new JobParameter("variants"));
+        requiredParameters.put(JobParametersNames.DB_COLLECTIONS_FILES_NAME, new JobParameter("files"));
+        requiredParameters.put(JobParametersNames.OUTPUT_DIR_BSON,
+                               new JobParameter(temporaryFolder.getRoot().getCanonicalPath()));
+    }
+
+    @Test
+    public void allRequiredJobParametersAreValid() throws JobParametersInvalidException {
+        validator.validate(new JobParameters(requiredParameters));
+    }
+
+    @Test(expected = JobParametersInvalidException.class)
+    public void outputDirBsonIsRequired() throws JobParametersInvalidException {
+        requiredParameters.remove(JobParametersNames.OUTPUT_DIR_BSON);
+        validator.validate(new JobParameters(requiredParameters));
+    }
+
+    @Test(expected = JobParametersInvalidException.class)
+    public void outputDirBsonMustExist() throws JobParametersInvalidException {
+        requiredParameters.put(JobParametersNames.OUTPUT_DIR_BSON, new JobParameter("/path/to/nowhere"));
+        validator.validate(new JobParameters(requiredParameters));
+    }
+}
@@ -57,6 +57,7 @@ public class CalculateStatisticsStepParametersValidatorTest {
 
         optionalParameters = new TreeMap<>();
         optionalParameters.put(JobParametersNames.STATISTICS_OVERWRITE, new JobParameter("true"));
+        optionalParameters.put(JobParametersNames.INPUT_REGION, new JobParameter("20:60000-70000"));
     }
 
     @Test
@@ -95,4 +96,16 @@ public class CalculateStatisticsStepParametersValidatorTest {
         requiredParameters.remove(JobParametersNames.INPUT_VCF_ID);
         validator.validate(new JobParameters(requiredParameters));
     }
+
+    @Test(expected = JobParametersInvalidException.class)
+    public void samplesStoredAsBinaryAreNotSupported() throws JobParametersInvalidException, IOException {
+        requiredParameters.put(JobParametersNames.DB_VARIANTS_SAMPLES_ENCODING, new JobParameter("BINARY"));
+        validator.validate(new JobParameters(requiredParameters));
+    }
+
+    @Test(expected = JobParametersInvalidException.class)
+    public void samplesStoredInGenotypesCollectionAreNotSupported() throws JobParametersInvalidException, IOException {
+        requiredParameters.put(JobParametersNames.DB_COLLECTIONS_GENOTYPES_NAME, new JobParameter("genotypes"));
+        validator.validate(new JobParameters(requiredParameters));
+    }
 }
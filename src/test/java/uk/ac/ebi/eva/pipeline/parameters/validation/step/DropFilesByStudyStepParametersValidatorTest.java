@@ -57,6 +57,7 @@ public class DropFilesByStudyStepParametersValidatorTest {
 
         optionalParameters = new TreeMap<>();
         optionalParameters.put(JobParametersNames.CONFIG_RESTARTABILITY_ALLOW, new JobParameter("true"));
+        optionalParameters.put(JobParametersNames.INPUT_REGION, new JobParameter("20:60000-70000"));
     }
 
     @Test
@@ -72,6 +72,7 @@ public class GenerateVepAnnotationStepParametersValidatorTest {
 
         optionalParameters = new TreeMap<>();
         optionalParameters.put(JobParametersNames.CONFIG_CHUNK_SIZE, new JobParameter("100"));
+        optionalParameters.put(JobParametersNames.INPUT_REGION, new JobParameter("20:60000-70000"));
     }
 
     @Test
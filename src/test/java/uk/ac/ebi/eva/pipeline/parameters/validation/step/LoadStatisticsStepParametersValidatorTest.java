@@ -60,6 +60,7 @@ public class LoadStatisticsStepParametersValidatorTest {
 
         optionalParameters = new TreeMap<>();
         optionalParameters.put(JobParametersNames.STATISTICS_OVERWRITE, new JobParameter("true"));
+        optionalParameters.put(JobParametersNames.INPUT_REGION, new JobParameter("20:60000-70000"));
     }
 
     @Test
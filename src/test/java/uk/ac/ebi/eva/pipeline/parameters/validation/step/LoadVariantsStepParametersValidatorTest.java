@@ -64,6 +64,11 @@ public class LoadVariantsStepParametersValidatorTest {
         optionalParameters = new TreeMap<>();
         optionalParameters.put(JobParametersNames.CONFIG_CHUNK_SIZE, new JobParameter("100"));
         optionalParameters.put(JobParametersNames.CONFIG_RESTARTABILITY_ALLOW, new JobParameter("true"));
+        optionalParameters.put(JobParametersNames.INPUT_VCF_SOURCE_LINE, new JobParameter("COLUMNS"));
+        optionalParameters.put(JobParametersNames.INPUT_VCF_INFO_INCLUDE, new JobParameter("AC,AF"));
+        optionalParameters.put(JobParametersNames.INPUT_VCF_SORT, new JobParameter("true"));
+        optionalParameters.put(JobParametersNames.DB_COLLECTIONS_GENOTYPES_NAME, new JobParameter("genotypes"));
+        optionalParameters.put(JobParametersNames.DB_VARIANTS_SAMPLES_ENCODING, new JobParameter("BINARY"));
     }
 
     @Test
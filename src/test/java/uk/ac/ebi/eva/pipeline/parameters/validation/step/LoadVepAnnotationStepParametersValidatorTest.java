@@ -0,0 +1,123 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.parameters.validation.step;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.batch.core.JobParameter;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersInvalidException;
+
+import uk.ac.ebi.eva.pipeline.configuration.jobs.steps.LoadVepAnnotationStepConfiguration;
+import uk.ac.ebi.eva.pipeline.parameters.JobParametersNames;
+import uk.ac.ebi.eva.test.rules.PipelineTemporaryFolderRule;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Tests that the arguments necessary to run a {@link LoadVepAnnotationStepConfiguration} are
+ * correctly validated
+ */
+public class LoadVepAnnotationStepParametersValidatorTest {
+
+    private LoadVepAnnotationStepParametersValidator validator;
+
+    private Map<String, JobParameter> requiredParameters;
+
+    private Map<String, JobParameter> optionalParameters;
+
+    @Rule
+    public PipelineTemporaryFolderRule temporaryFolderRule = new PipelineTemporaryFolderRule();
+
+    @Before
+    public void setUp() throws IOException {
+        validator = new LoadVepAnnotationStepParametersValidator();
+
+        requiredParameters = new TreeMap<>();
+        requiredParameters.put(JobParametersNames.DB_NAME, new JobParameter("eva_testing"));
+        requiredParameters.put(JobParametersNames.DB_COLLECTIONS_VARIANTS_NAME, new JobParameter("variants"));
+        requiredParameters.put(JobParametersNames.DB_COLLECTIONS_ANNOTATIONS_NAME, new JobParameter("annotations"));
+        requiredParameters.put(JobParametersNames.APP_VEP_CACHE_VERSION, new JobParameter("100_A"));
+        requiredParameters.put(JobParametersNames.APP_VEP_VERSION, new JobParameter("80"));
+        requiredParameters.put(JobParametersNames.INPUT_ANNOTATION,
+                               new JobParameter(temporaryFolderRule.newFile().getCanonicalPath() + ","
+                                                        + temporaryFolderRule.newFile().getCanonicalPath()));
+
+        optionalParameters = new TreeMap<>();
+        optionalParameters.put(JobParametersNames.CONFIG_CHUNK_SIZE, new JobParameter("100"));
+        optionalParameters.put(JobParametersNames.CONFIG_PARALLELISM, new JobParameter("2"));
+        optionalParameters.put(JobParametersNames.CONFIG_PARTITIONS_REMOTE, new JobParameter("true"));
+        optionalParameters.put(JobParametersNames.CONFIG_PARTITIONS_LEASE_TIMEOUT, new JobParameter("600"));
+    }
+
+    @Test
+    public void allJobParametersAreValid() throws JobParametersInvalidException {
+        validator.validate(new JobParameters(requiredParameters));
+    }
+
+    @Test
+    public void allJobParametersIncludingOptionalAreValid() throws JobParametersInvalidException {
+        Map<String, JobParameter> parameters = new TreeMap<>();
+        parameters.putAll(requiredParameters);
+        parameters.putAll(optionalParameters);
+        validator.validate(new JobParameters(parameters));
+    }
+
+    @Test(expected = JobParametersInvalidException.class)
+    public void dbNameIsRequired() throws JobParametersInvalidException {
+        requiredParameters.remove(JobParametersNames.DB_NAME);
+        validator.validate(new JobParameters(requiredParameters));
+    }
+
+    @Test(expected = JobParametersInvalidException.class)
+    public void dbCollectionsVariantsNameIsRequired() throws JobParametersInvalidException {
+        requiredParameters.remove(JobParametersNames.DB_COLLECTIONS_VARIANTS_NAME);
+        validator.validate(new JobParameters(requiredParameters));
+    }
+
+    @Test(expected = JobParametersInvalidException.class)
+    public void dbCollectionsAnnotationsNameIsRequired() throws JobParametersInvalidException {
+        requiredParameters.remove(JobParametersNames.DB_COLLECTIONS_ANNOTATIONS_NAME);
+        validator.validate(new JobParameters(requiredParameters));
+    }
+
+    @Test(expected = JobParametersInvalidException.class)
+    public void appVepCacheVersionIsRequired() throws JobParametersInvalidException {
+        requiredParameters.remove(JobParametersNames.APP_VEP_CACHE_VERSION);
+        validator.validate(new JobParameters(requiredParameters));
+    }
+
+    @Test(expected = JobParametersInvalidException.class)
+    public void appVepVersionIsRequired() throws JobParametersInvalidException {
+        requiredParameters.remove(JobParametersNames.APP_VEP_VERSION);
+        validator.validate(new JobParameters(requiredParameters));
+    }
+
+    @Test(expected = JobParametersInvalidException.class)
+    public void inputAnnotationIsRequired() throws JobParametersInvalidException {
+        requiredParameters.remove(JobParametersNames.INPUT_ANNOTATION);
+        validator.validate(new JobParameters(requiredParameters));
+    }
+
+    @Test(expected = JobParametersInvalidException.class)
+    public void parallelismMustBePositive() throws JobParametersInvalidException {
+        requiredParameters.put(JobParametersNames.CONFIG_PARALLELISM, new JobParameter("0"));
+        validator.validate(new JobParameters(requiredParameters));
+    }
+}
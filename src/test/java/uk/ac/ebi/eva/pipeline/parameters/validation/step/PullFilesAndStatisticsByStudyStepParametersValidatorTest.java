@@ -57,6 +57,13 @@ public class PullFilesAndStatisticsByStudyStepParametersValidatorTest {
 
         optionalParameters = new TreeMap<>();
         optionalParameters.put(JobParametersNames.CONFIG_RESTARTABILITY_ALLOW, new JobParameter("true"));
+        optionalParameters.put(JobParametersNames.CONFIG_CHUNK_SIZE, new JobParameter("100"));
+        optionalParameters.put(JobParametersNames.CONFIG_PARALLELISM, new JobParameter("4"));
+        optionalParameters.put(JobParametersNames.CONFIG_WRITE_RATE_LIMIT, new JobParameter("1000"));
+        optionalParameters.put(JobParametersNames.INPUT_REGION, new JobParameter("20:60000-70000"));
+        optionalParameters.put(JobParametersNames.DB_COLLECTIONS_GENOTYPES_NAME, new JobParameter("genotypes"));
+        optionalParameters.put(JobParametersNames.CONFIG_PARTITIONS_REMOTE, new JobParameter("true"));
+        optionalParameters.put(JobParametersNames.CONFIG_PARTITIONS_LEASE_TIMEOUT, new JobParameter("600"));
     }
 
     @Test
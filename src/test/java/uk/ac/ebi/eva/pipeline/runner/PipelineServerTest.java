@@ -0,0 +1,256 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.pipeline.runner;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.launch.support.SimpleJobLauncher;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+
+import uk.ac.ebi.eva.pipeline.parameters.NewJobIncrementer;
+import uk.ac.ebi.eva.test.rules.PipelineTemporaryFolderRule;
+import uk.ac.ebi.eva.test.rules.TemporaryJobRepositoryRule;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static uk.ac.ebi.eva.pipeline.runner.EvaPipelineJobLauncherCommandLineRunner.SPRING_BATCH_JOB_NAME_PROPERTY;
+
+/**
+ * {@link PipelineServer}
+ * input: properties files with the job name and parameters, written in the submission directory
+ * output: the jobs are run, at most as many at the same time as the server parallelism, and the files are moved to
+ * the directory of completed or failed submissions
+ */
+public class PipelineServerTest {
+
+    private static final String SUCCESSFUL_JOB = "successful-job";
+
+    private static final String FAILING_JOB = "failing-job";
+
+    private static final String BLOCKING_JOB = "blocking-job";
+
+    private static final String FAILING_ONCE_JOB = "failing-once-job";
+
+    @Rule
+    public PipelineTemporaryFolderRule temporaryFolder = new PipelineTemporaryFolderRule();
+
+    @Rule
+    public TemporaryJobRepositoryRule jobRepositoryRule = new TemporaryJobRepositoryRule();
+
+    private Path directory;
+
+    private Map<String, String> receivedParameters;
+
+    private CountDownLatch blockingJobRelease;
+
+    private AtomicBoolean failedOnce;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = temporaryFolder.getRoot().toPath();
+        receivedParameters = new ConcurrentHashMap<>();
+        blockingJobRelease = new CountDownLatch(1);
+        failedOnce = new AtomicBoolean(false);
+    }
+
+    @Test
+    public void submittedJobIsRunAndMovedToCompleted() throws Exception {
+        submit("a.properties", SUCCESSFUL_JOB, "input.study.id=s1");
+        PipelineServer server = newServer(1);
+
+        assertEquals(1, server.submitPendingJobs());
+        server.shutdown();
+
+        assertTrue(Files.exists(directory.resolve(PipelineServer.COMPLETED_DIRECTORY).resolve("a.properties")));
+        assertFalse(Files.exists(directory.resolve("a.properties")));
+        assertEquals("s1", receivedParameters.get("input.study.id"));
+        assertFalse(receivedParameters.containsKey(SPRING_BATCH_JOB_NAME_PROPERTY));
+    }
+
+    @Test
+    public void failedJobIsMovedToFailed() throws Exception {
+        submit("a.properties", FAILING_JOB, "input.study.id=s1");
+        PipelineServer server = newServer(1);
+
+        assertEquals(1, server.submitPendingJobs());
+        server.shutdown();
+
+        assertTrue(Files.exists(directory.resolve(PipelineServer.FAILED_DIRECTORY).resolve("a.properties")));
+    }
+
+    @Test
+    public void unknownJobIsMovedToFailed() throws Exception {
+        submit("a.properties", "unknown-job", "input.study.id=s1");
+        PipelineServer server = newServer(1);
+
+        assertEquals(1, server.submitPendingJobs());
+        server.shutdown();
+
+        assertTrue(Files.exists(directory.resolve(PipelineServer.FAILED_DIRECTORY).resolve("a.properties")));
+    }
+
+    @Test
+    public void filesWithoutPropertiesExtensionAreIgnored() throws Exception {
+        submit("a.properties.tmp", SUCCESSFUL_JOB, "input.study.id=s1");
+        PipelineServer server = newServer(1);
+
+        assertEquals(0, server.submitPendingJobs());
+        server.shutdown();
+
+        assertTrue(Files.exists(directory.resolve("a.properties.tmp")));
+    }
+
+    @Test
+    public void submissionsWaitWhileAllJobsAreRunning() throws Exception {
+        submit("a.properties", BLOCKING_JOB, "input.study.id=s1");
+        submit("b.properties", SUCCESSFUL_JOB, "input.study.id=s2");
+        PipelineServer server = newServer(1);
+
+        assertEquals(1, server.submitPendingJobs());
+        assertEquals(0, server.submitPendingJobs());
+        assertTrue(Files.exists(directory.resolve(PipelineServer.RUNNING_DIRECTORY).resolve("a.properties")));
+        assertTrue(Files.exists(directory.resolve("b.properties")));
+
+        blockingJobRelease.countDown();
+        Path completedBlockingJob = directory.resolve(PipelineServer.COMPLETED_DIRECTORY).resolve("a.properties");
+        while (!Files.exists(completedBlockingJob)) {
+            Thread.sleep(10);
+        }
+        while (server.submitPendingJobs() == 0) {
+            Thread.sleep(10);
+        }
+        server.shutdown();
+
+        assertTrue(Files.exists(directory.resolve(PipelineServer.COMPLETED_DIRECTORY).resolve("b.properties")));
+    }
+
+    @Test
+    public void completedJobSubmittedAgainIsRunAsANewInstance() throws Exception {
+        submit("a.properties", SUCCESSFUL_JOB, "input.study.id=s1");
+        PipelineServer server = newServer(1);
+        assertEquals(1, server.submitPendingJobs());
+        server.shutdown();
+
+        submit("a.properties", SUCCESSFUL_JOB, "input.study.id=s1");
+        server = newServer(1);
+        assertEquals(1, server.submitPendingJobs());
+        server.shutdown();
+
+        assertTrue(Files.exists(directory.resolve(PipelineServer.COMPLETED_DIRECTORY).resolve("a.properties")));
+        assertEquals(2, jobRepositoryRule.getJobExplorer().getJobInstances(SUCCESSFUL_JOB, 0, 10).size());
+        assertEquals("2", receivedParameters.get("run.id"));
+    }
+
+    @Test
+    public void failedJobSubmittedAgainIsRestarted() throws Exception {
+        submit("a.properties", FAILING_ONCE_JOB, "input.study.id=s1");
+        PipelineServer server = newServer(1);
+        assertEquals(1, server.submitPendingJobs());
+        server.shutdown();
+        assertTrue(Files.exists(directory.resolve(PipelineServer.FAILED_DIRECTORY).resolve("a.properties")));
+
+        submit("a.properties", FAILING_ONCE_JOB, "input.study.id=s1");
+        server = newServer(1);
+        assertEquals(1, server.submitPendingJobs());
+        server.shutdown();
+
+        assertTrue(Files.exists(directory.resolve(PipelineServer.COMPLETED_DIRECTORY).resolve("a.properties")));
+        assertEquals(1, jobRepositoryRule.getJobExplorer().getJobInstances(FAILING_ONCE_JOB, 0, 10).size());
+    }
+
+    @Test
+    public void submissionIsKeptIfTheServerIsShuttingDown() throws Exception {
+        submit("a.properties", SUCCESSFUL_JOB, "input.study.id=s1");
+        PipelineServer server = newServer(1);
+        server.shutdown();
+
+        try {
+            server.submitPendingJobs();
+            fail("A server that is shutting down should not accept submissions");
+        } catch (RejectedExecutionException e) {
+            // expected, the submission is taken again by the next server
+        }
+        assertTrue(Files.exists(directory.resolve("a.properties")));
+
+        server = newServer(1);
+        assertEquals(1, server.submitPendingJobs());
+        server.shutdown();
+        assertTrue(Files.exists(directory.resolve(PipelineServer.COMPLETED_DIRECTORY).resolve("a.properties")));
+    }
+
+    private void submit(String fileName, String jobName, String parameter) throws IOException {
+        String content = SPRING_BATCH_JOB_NAME_PROPERTY + "=" + jobName + "\n" + parameter + "\n";
+        Files.write(directory.resolve(fileName), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private PipelineServer newServer(int parallelism) throws Exception {
+        SimpleJobLauncher jobLauncher = new SimpleJobLauncher();
+        jobLauncher.setJobRepository(jobRepositoryRule.getJobRepository());
+        jobLauncher.afterPropertiesSet();
+
+        Job successfulJob = newJob(SUCCESSFUL_JOB, (contribution, chunkContext) -> {
+            chunkContext.getStepContext().getJobParameters()
+                        .forEach((key, value) -> receivedParameters.put(key, value.toString()));
+            return RepeatStatus.FINISHED;
+        });
+        Job failingJob = newJob(FAILING_JOB, (contribution, chunkContext) -> {
+            throw new IllegalStateException("Failing on purpose");
+        });
+        Job blockingJob = newJob(BLOCKING_JOB, (contribution, chunkContext) -> {
+            blockingJobRelease.await();
+            return RepeatStatus.FINISHED;
+        });
+        Job failingOnceJob = newJob(FAILING_ONCE_JOB, (contribution, chunkContext) -> {
+            if (!failedOnce.getAndSet(true)) {
+                throw new IllegalStateException("Failing on purpose the first time");
+            }
+            return RepeatStatus.FINISHED;
+        });
+
+        EvaPipelineJobLauncherCommandLineRunner runner = new EvaPipelineJobLauncherCommandLineRunner(
+                jobLauncher, jobRepositoryRule.getJobExplorer(), jobRepositoryRule.getJobRepository());
+        runner.setJobs(Arrays.asList(successfulJob, failingJob, blockingJob, failingOnceJob));
+        return new PipelineServer(directory, parallelism, runner);
+    }
+
+    private Job newJob(String name, Tasklet tasklet) {
+        StepBuilderFactory stepBuilderFactory = new StepBuilderFactory(jobRepositoryRule.getJobRepository(),
+                                                                       jobRepositoryRule.getTransactionManager());
+        return new JobBuilderFactory(jobRepositoryRule.getJobRepository())
+                .get(name)
+                .incrementer(new NewJobIncrementer())
+                .start(stepBuilderFactory.get(name + "-step").tasklet(tasklet).build())
+                .build();
+    }
+}
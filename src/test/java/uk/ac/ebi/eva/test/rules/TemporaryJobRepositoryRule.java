@@ -0,0 +1,87 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.test.rules;
+
+import org.junit.rules.ExternalResource;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.explore.support.JobExplorerFactoryBean;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.JobRepositoryFactoryBean;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+import java.util.UUID;
+
+/**
+ * Creates a job repository in a new in-memory database that can be shared by several threads, like the job
+ * repository of a production deployment is shared by several processes.
+ */
+public class TemporaryJobRepositoryRule extends ExternalResource {
+
+    private EmbeddedDatabase dataSource;
+
+    private PlatformTransactionManager transactionManager;
+
+    private JobRepository jobRepository;
+
+    private JobExplorer jobExplorer;
+
+    @Override
+    protected void before() throws Throwable {
+        dataSource = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.HSQL)
+                                                  .setName(UUID.randomUUID().toString())
+                                                  .addScript("classpath:org/springframework/batch/core/schema-hsqldb.sql")
+                                                  .build();
+        transactionManager = new DataSourceTransactionManager(dataSource);
+
+        JobRepositoryFactoryBean repositoryFactory = new JobRepositoryFactoryBean();
+        repositoryFactory.setDataSource(dataSource);
+        repositoryFactory.setTransactionManager(transactionManager);
+        repositoryFactory.afterPropertiesSet();
+        jobRepository = repositoryFactory.getObject();
+
+        JobExplorerFactoryBean explorerFactory = new JobExplorerFactoryBean();
+        explorerFactory.setDataSource(dataSource);
+        explorerFactory.afterPropertiesSet();
+        jobExplorer = explorerFactory.getObject();
+    }
+
+    @Override
+    protected void after() {
+        dataSource.shutdown();
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public PlatformTransactionManager getTransactionManager() {
+        return transactionManager;
+    }
+
+    public JobRepository getJobRepository() {
+        return jobRepository;
+    }
+
+    public JobExplorer getJobExplorer() {
+        return jobExplorer;
+    }
+}
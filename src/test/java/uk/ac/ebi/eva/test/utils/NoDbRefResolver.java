@@ -0,0 +1,48 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.test.utils;
+
+import com.mongodb.DBObject;
+import com.mongodb.DBRef;
+import org.springframework.data.mongodb.core.convert.DbRefProxyHandler;
+import org.springframework.data.mongodb.core.convert.DbRefResolver;
+import org.springframework.data.mongodb.core.convert.DbRefResolverCallback;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+
+/**
+ * {@link DbRefResolver} for converters that are used without a database. The pipeline documents have no DBRefs, so
+ * none of its methods should ever be called.
+ */
+public class NoDbRefResolver implements DbRefResolver {
+
+    @Override
+    public Object resolveDbRef(MongoPersistentProperty property, DBRef dbref, DbRefResolverCallback callback,
+                               DbRefProxyHandler proxyHandler) {
+        throw new UnsupportedOperationException("DBRefs can't be resolved without a database");
+    }
+
+    @Override
+    public DBRef createDbRef(org.springframework.data.mongodb.core.mapping.DBRef annotation,
+                             MongoPersistentEntity<?> entity, Object id) {
+        throw new UnsupportedOperationException("DBRefs can't be created without a database");
+    }
+
+    @Override
+    public DBObject fetch(DBRef dbRef) {
+        throw new UnsupportedOperationException("DBRefs can't be fetched without a database");
+    }
+}
@@ -35,6 +35,11 @@ public class EvaJobParameterBuilder extends JobParametersBuilder {
         return this;
     }
 
+    public EvaJobParameterBuilder inputRegion(String inputRegion) {
+        addParameter(JobParametersNames.INPUT_REGION, new JobParameter(inputRegion));
+        return this;
+    }
+
     public EvaJobParameterBuilder inputStudyType(String inputStudyType) {
         addParameter(JobParametersNames.INPUT_STUDY_TYPE, new JobParameter(inputStudyType));
         return this;
@@ -55,11 +60,21 @@ public class EvaJobParameterBuilder extends JobParametersBuilder {
         return this;
     }
 
+    public EvaJobParameterBuilder inputVcfManifest(String inputVcfManifest) {
+        addParameter(JobParametersNames.INPUT_VCF_MANIFEST, new JobParameter(inputVcfManifest));
+        return this;
+    }
+
     public EvaJobParameterBuilder inputVcfAggregation(String inputVcfAggregation) {
         addParameter(JobParametersNames.INPUT_VCF_AGGREGATION, new JobParameter(inputVcfAggregation));
         return this;
     }
 
+    public EvaJobParameterBuilder inputVcfSort(String inputVcfSort) {
+        addParameter(JobParametersNames.INPUT_VCF_SORT, new JobParameter(inputVcfSort));
+        return this;
+    }
+
     public EvaJobParameterBuilder timestamp() {
         addParameter("timestamp", new JobParameter(new Timestamp(new Date().getTime())));
         return this;
@@ -69,6 +84,11 @@ public class EvaJobParameterBuilder extends JobParametersBuilder {
         addParameter(JobParametersNames.DB_NAME, new JobParameter(databaseName));
         return this;
     }
+    public EvaJobParameterBuilder collectionGenotypesName(String collectionGenotypesName) {
+        addParameter(JobParametersNames.DB_COLLECTIONS_GENOTYPES_NAME, new JobParameter(collectionGenotypesName));
+        return this;
+    }
+
     public EvaJobParameterBuilder collectionVariantsName(String collectionVariantsName) {
         addParameter(JobParametersNames.DB_COLLECTIONS_VARIANTS_NAME, new JobParameter(collectionVariantsName));
         return this;
@@ -136,6 +156,11 @@ public class EvaJobParameterBuilder extends JobParametersBuilder {
         return this;
     }
 
+    public EvaJobParameterBuilder outputDir(String outputDir) {
+        addParameter(JobParametersNames.OUTPUT_DIR, new JobParameter(outputDir));
+        return this;
+    }
+
     public EvaJobParameterBuilder outputDirAnnotation(String outputDirAnnotation) {
         addParameter(JobParametersNames.OUTPUT_DIR_ANNOTATION, new JobParameter(outputDirAnnotation));
         return this;
@@ -146,6 +171,11 @@ public class EvaJobParameterBuilder extends JobParametersBuilder {
         return this;
     }
 
+    public EvaJobParameterBuilder outputDirBson(String outputDirBson) {
+        addParameter(JobParametersNames.OUTPUT_DIR_BSON, new JobParameter(outputDirBson));
+        return this;
+    }
+
     public EvaJobParameterBuilder annotationSkip(boolean annotationSkip) {
         addParameter(JobParametersNames.ANNOTATION_SKIP, new JobParameter(Boolean.toString(annotationSkip)));
         return this;
@@ -165,4 +195,19 @@ public class EvaJobParameterBuilder extends JobParametersBuilder {
         addParameter(JobParametersNames.INPUT_GTF, new JobParameter(inputGtf));
         return this;
     }
+
+    public EvaJobParameterBuilder inputAnnotation(String inputAnnotation) {
+        addParameter(JobParametersNames.INPUT_ANNOTATION, new JobParameter(inputAnnotation));
+        return this;
+    }
+
+    public EvaJobParameterBuilder parallelism(String parallelism) {
+        addParameter(JobParametersNames.CONFIG_PARALLELISM, new JobParameter(parallelism));
+        return this;
+    }
+
+    public EvaJobParameterBuilder writeRateLimit(String writeRateLimit) {
+        addParameter(JobParametersNames.CONFIG_WRITE_RATE_LIMIT, new JobParameter(writeRateLimit));
+        return this;
+    }
 }
@@ -1,10 +1,17 @@
 package uk.ac.ebi.eva.utils;
 
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
 import org.junit.Test;
 import org.opencb.commons.utils.CryptoUtils;
 import uk.ac.ebi.eva.commons.models.mongo.entity.VariantDocument;
 
+import java.util.Arrays;
+import java.util.Date;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class MongoDBHelperTest {
 
@@ -38,4 +45,62 @@ public class MongoDBHelperTest {
                 alt
         ));
     }
+
+    @Test
+    public void replicationLagIsMeasuredToTheSlowestSecondary() {
+        BasicDBList members = new BasicDBList();
+        members.add(member("PRIMARY", 10000));
+        members.add(member("SECONDARY", 9000));
+        members.add(member("SECONDARY", 4000));
+        members.add(member("ARBITER", 0));
+
+        assertEquals(6000, MongoDBHelper.getReplicationLagMillis(new BasicDBObject("members", members)));
+    }
+
+    @Test
+    public void replicationLagIsZeroWithoutSecondaries() {
+        BasicDBList members = new BasicDBList();
+        members.add(member("PRIMARY", 10000));
+
+        assertEquals(0, MongoDBHelper.getReplicationLagMillis(new BasicDBObject("members", members)));
+        assertEquals(0, MongoDBHelper.getReplicationLagMillis(new BasicDBObject("ok", 0)));
+    }
+
+    @Test
+    public void upsertedDocumentHasTheQueryAndTheUpdatedFields() {
+        DBObject query = new BasicDBObject("_id", "1_1000_A_C").append("chr", "1");
+        DBObject update = new BasicDBObject("$addToSet", new BasicDBObject("files", new BasicDBObject("fid", "f1"))
+                .append("ids", new BasicDBObject("$each", Arrays.asList("rs1", "rs2", "rs1"))))
+                .append("$setOnInsert", new BasicDBObject("chr", "1").append("start", 1000));
+
+        DBObject document = MongoDBHelper.buildUpsertedDocument(query, update);
+
+        BasicDBList files = new BasicDBList();
+        files.add(new BasicDBObject("fid", "f1"));
+        BasicDBList ids = new BasicDBList();
+        ids.addAll(Arrays.asList("rs1", "rs2"));
+        assertEquals(new BasicDBObject("_id", "1_1000_A_C").append("chr", "1").append("files", files)
+                             .append("ids", ids).append("start", 1000), document);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void upsertedDocumentCantBeBuiltWithOtherOperators() {
+        MongoDBHelper.buildUpsertedDocument(new BasicDBObject("_id", "id"),
+                                            new BasicDBObject("$inc", new BasicDBObject("count", 1)));
+    }
+
+    @Test
+    public void addToSetUpdateHasTheArraysOfTheDocument() {
+        BasicDBList ids = new BasicDBList();
+        ids.add("rs1");
+        DBObject document = new BasicDBObject("_id", "1_1000_A_C").append("chr", "1").append("ids", ids);
+
+        assertEquals(new BasicDBObject("$addToSet", new BasicDBObject("ids", new BasicDBObject("$each", ids))),
+                     MongoDBHelper.buildAddToSetUpdate(document));
+        assertNull(MongoDBHelper.buildAddToSetUpdate(new BasicDBObject("_id", "1_1000_A_C")));
+    }
+
+    private BasicDBObject member(String state, long optime) {
+        return new BasicDBObject("stateStr", state).append("optimeDate", new Date(optime));
+    }
 }
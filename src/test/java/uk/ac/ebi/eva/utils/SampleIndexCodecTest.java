@@ -0,0 +1,104 @@
+/*
+ * Copyright 2017 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.utils;
+
+import com.mongodb.BasicDBObject;
+import org.bson.BasicBSONEncoder;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SampleIndexCodecTest {
+
+    @Test
+    public void sparseSamplesAreDeltaEncoded() {
+        int[] indices = {41, 311, 342, 358, 881, 898, 903, 70000};
+        byte[] encoded = SampleIndexCodec.encode(indices);
+
+        assertEquals(SampleIndexCodec.FORMAT_VERSION, encoded[0]);
+        assertEquals(SampleIndexCodec.DELTA_VARINT, encoded[1]);
+        assertArrayEquals(indices, SampleIndexCodec.decode(encoded));
+    }
+
+    @Test
+    public void denseSamplesAreStoredAsBitmap() {
+        List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < 2000; i += 3) {
+            indices.add(i);
+        }
+        byte[] encoded = SampleIndexCodec.encode(indices);
+
+        assertEquals(SampleIndexCodec.BITMAP, encoded[1]);
+        assertEquals(2 + 1999 / 8 + 1, encoded.length);
+        int[] decoded = SampleIndexCodec.decode(encoded);
+        assertEquals(indices.size(), decoded.length);
+        for (int i = 0; i < decoded.length; i++) {
+            assertEquals(indices.get(i).intValue(), decoded[i]);
+        }
+    }
+
+    @Test
+    public void emptySetOfSamples() {
+        assertArrayEquals(new int[0], SampleIndexCodec.decode(SampleIndexCodec.encode(new int[0])));
+    }
+
+    @Test
+    public void encodedSamplesAreSmallerThanArrays() {
+        List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < 2504; i += 7) {
+            indices.add(i);
+        }
+        BasicBSONEncoder encoder = new BasicBSONEncoder();
+        int arraySize = encoder.encode(new BasicDBObject("0|1", indices)).length;
+        int binarySize = encoder.encode(new BasicDBObject("0|1", SampleIndexCodec.encode(indices))).length;
+
+        assertTrue(binarySize * 5 < arraySize);
+    }
+
+    @Test
+    public void samplesAreDecodedWhateverTheirEncoding() {
+        BasicDBObject samples = new BasicDBObject("def", "0|0")
+                .append("0|1", Arrays.asList(1, 5))
+                .append("1|1", SampleIndexCodec.encode(Collections.singletonList(3)));
+
+        Map<String, int[]> decoded = SampleIndexCodec.decodeSamples(samples);
+
+        assertFalse(decoded.containsKey("def"));
+        assertArrayEquals(new int[]{1, 5}, decoded.get("0|1"));
+        assertArrayEquals(new int[]{3}, decoded.get("1|1"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsortedSamplesAreRejected() {
+        SampleIndexCodec.encode(new int[]{5, 3});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsupportedFormatVersionIsRejected() {
+        byte[] encoded = SampleIndexCodec.encode(new int[]{1, 2});
+        encoded[0] = SampleIndexCodec.FORMAT_VERSION + 1;
+        SampleIndexCodec.decode(encoded);
+    }
+}